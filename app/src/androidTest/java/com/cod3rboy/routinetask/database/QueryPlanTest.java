@@ -0,0 +1,88 @@
+package com.cod3rboy.routinetask.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+/**
+ * Instrumented test which verifies that frequently executed queries are served by table indexes
+ * instead of full table scans.
+ */
+@RunWith(AndroidJUnit4.class)
+public class QueryPlanTest {
+    private SQLiteDatabase db;
+
+    @Before
+    public void createDatabase() {
+        // In-memory database with the same schema as application database
+        db = SQLiteDatabase.create(null);
+        db.execSQL(DBContract.TasksTable.getCreationSql());
+        db.execSQL(DBContract.RemindersTable.getCreationSql());
+        db.execSQL(DBContract.RoutineEntryTable.getCreationSql());
+        db.execSQL(DBContract.RoutineStatsTable.getCreationSql());
+        db.execSQL(DBContract.PomodoroStatsTable.getCreationSql());
+        for (String sql : DBContract.TasksTable.getIndexCreationSql()) db.execSQL(sql);
+        for (String sql : DBContract.RoutineEntryTable.getIndexCreationSql()) db.execSQL(sql);
+    }
+
+    @After
+    public void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    public void todayTasks_useIndexes() {
+        String plan = explain(QueryCatalog.TODAY_TASKS, new String[]{"18262", "1"});
+        assertTrue(plan, plan.contains("COVERING INDEX " + DBContract.RoutineEntryTable.INDEX_NAME_TASK_DATE));
+        assertTrue(plan, plan.matches("(?s).*SEARCH (TABLE )?" + DBContract.RemindersTable.TABLE_NAME + " USING .*INDEX.*"));
+    }
+
+    @Test
+    public void tasksCompletedOnDate_useDateIndex() {
+        String plan = explain(QueryCatalog.TASKS_COMPLETED_ON_DATE, new String[]{"18262"});
+        assertTrue(plan, plan.contains("COVERING INDEX " + DBContract.RoutineEntryTable.INDEX_NAME_DATE_TASK));
+    }
+
+    @Test
+    public void tasksInRange_usePrimaryKey() {
+        String plan = explain(QueryCatalog.NO_REPEAT_TASKS_IN_RANGE, new String[]{"18262", "1", "50"});
+        assertTrue(plan, plan.matches("(?s).*SEARCH (TABLE )?" + DBContract.TasksTable.TABLE_NAME + " USING INTEGER PRIMARY KEY.*"));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void noRepeatTaskIds_useRepeatMaskIndex() {
+        String plan = explain(QueryCatalog.NO_REPEAT_TASK_IDS, null);
+        assertTrue(plan, plan.contains("COVERING INDEX " + DBContract.TasksTable.INDEX_NAME_REPEAT_MASK));
+        assertFalse(plan, plan.contains("TEMP B-TREE"));
+    }
+
+    @Test
+    public void taskEntryOnDate_usesTaskIndex() {
+        String sql = "SELECT 1 FROM " + DBContract.RoutineEntryTable.TABLE_NAME
+                + " WHERE " + DBContract.RoutineEntryTable.COL_NAME_TASK_ID + " = ? AND "
+                + DBContract.RoutineEntryTable.COL_NAME_DATE + " = ?";
+        String plan = explain(sql, new String[]{"1", "18262"});
+        assertTrue(plan, plan.contains("COVERING INDEX " + DBContract.RoutineEntryTable.INDEX_NAME_TASK_DATE));
+    }
+
+    /**
+     * Returns details of all rows of query plan of given query joined with new lines.
+     */
+    private String explain(String sql, String[] args) {
+        StringBuilder plan = new StringBuilder();
+        Cursor c = db.rawQuery("EXPLAIN QUERY PLAN " + sql, args);
+        int detail = c.getColumnIndex("detail");
+        while (c.moveToNext()) plan.append(c.getString(detail)).append('\n');
+        c.close();
+        return plan.toString();
+    }
+}
@@ -12,8 +12,6 @@ import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.cod3rboy.routinetask.logging.Logger;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
-import java.util.ArrayList;
-
 /**
  * This class defines the callback methods used in the action mode
  * which is started on the TaskListFragment.
@@ -151,19 +149,9 @@ public class ActionbarModeCallback implements ActionMode.Callback {
                         .setPositiveButton(R.string.del_sel_dialog_action_delete, new DialogInterface.OnClickListener() {
                             @Override
                             public void onClick(DialogInterface dialog, int which) {
-                                if (selectedItemCount == 1) {
-                                    int taskPosition = adapter.getSelectedPositions().get(0);
-                                    TaskModel taskToDelete = adapter.getTaskAtPosition(taskPosition);
-                                    taskToDelete.delete(true);
-                                } else {
-                                    // Bulk delete all selected adapter items
-                                    ArrayList<Integer> selectedPositions = adapter.getSelectedPositions();
-                                    ArrayList<TaskModel> tasksToDelete = new ArrayList<>();
-                                    for (int position : selectedPositions) {
-                                        tasksToDelete.add(adapter.getTaskAtPosition(position));
-                                    }
-                                    TaskModel.deleteAsync(tasksToDelete);
-                                }
+                                // Bulk delete all selected adapter items by their ids
+                                long[] taskIds = adapter.getSelectedIds();
+                                if (taskIds.length > 0) TaskModel.deleteAsync(taskIds);
                                 // Dismiss the action mode
                                 finishActionMode();
                                 dialog.dismiss();
@@ -193,11 +181,8 @@ public class ActionbarModeCallback implements ActionMode.Callback {
                             @Override
                             public void onClick(DialogInterface dialog, int which) {
                                 // Make duplicate of all selected tasks
-                                ArrayList<Integer> selectedPositions = adapter.getSelectedPositions();
-                                ArrayList<TaskModel> tasksToInsert = new ArrayList<>();
-                                for (int position : selectedPositions)
-                                    tasksToInsert.add(new TaskModel(adapter.getTaskAtPosition(position)));
-                                TaskModel.insertAsync(tasksToInsert, true);
+                                long[] taskIds = adapter.getSelectedIds();
+                                if (taskIds.length > 0) TaskModel.duplicateAsync(taskIds);
                                 // Dismiss the action mode
                                 finishActionMode();
                                 dialog.dismiss();
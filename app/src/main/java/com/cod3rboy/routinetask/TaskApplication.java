@@ -4,16 +4,12 @@ import android.app.Application;
 import android.content.Context;
 
 import com.cod3rboy.crashbottomsheet.CrashBottomSheet;
-import com.cod3rboy.routinetask.database.DBContract;
-import com.cod3rboy.routinetask.database.models.TaskModel;
-import com.cod3rboy.routinetask.logging.Logger;
-import com.cod3rboy.routinetask.utilities.AlarmScheduler;
+import com.cod3rboy.routinetask.database.AlarmReconciler;
+import com.cod3rboy.routinetask.logging.FlightRecorder;
+import com.cod3rboy.routinetask.utilities.Processes;
 
 import org.greenrobot.eventbus.EventBus;
 
-import java.util.ArrayList;
-import java.util.Locale;
-
 import needle.Needle;
 
 /**
@@ -44,32 +40,20 @@ public class TaskApplication extends Application {
     @Override
     public void onCreate() {
         super.onCreate();
-        Needle.onBackgroundThread().execute(this::refreshAlarmsInBackground);
+        // Started before anything else in every process, including the process of reminders. It only
+        // maps a small file, so it is not deferred to a background thread where early records
+        // would be dropped.
+        FlightRecorder.start(this);
+        // Reminder process must not reconcile as it would replace due reminders before they fire
+        if (Processes.isMainProcess(this))
+            Needle.onBackgroundThread().execute(this::refreshAlarmsInBackground);
     }
 
     /**
-     * Here set the task alarms in background thread
+     * Here reconcile the task alarms in background thread. Only alarms whose schedule is changed
+     * since last reconciliation are armed again.
      */
     public void refreshAlarmsInBackground() {
-        StringBuilder query = new StringBuilder();
-        query.append("SELECT * FROM ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(" INNER JOIN ")
-                .append(DBContract.RemindersTable.TABLE_NAME)
-                .append(" ON ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(".")
-                .append(DBContract.TasksTable._ID)
-                .append("=")
-                .append(DBContract.RemindersTable.TABLE_NAME)
-                .append(".")
-                .append(DBContract.RemindersTable.COL_NAME_TASK_ID)
-                .append(";");
-        ArrayList<TaskModel> allTasks = TaskModel.query(query.toString(), null, true);
-        for (TaskModel task : allTasks) {
-            if (task.getReminder() != null)
-                AlarmScheduler.setTaskAlarm(task, task.getStatus() == TaskModel.TaskStatus.COMPLETED);
-        }
-        Logger.d(LOG_TAG, String.format(Locale.getDefault(),"All %d tasks alarms are refreshed",allTasks.size()));
+        AlarmReconciler.reconcile();
     }
 }
@@ -23,6 +23,7 @@ import com.cod3rboy.routinetask.database.DBContract;
 import com.cod3rboy.routinetask.database.models.ReminderModel;
 import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.cod3rboy.routinetask.utilities.Time;
+import com.cod3rboy.routinetask.utilities.WeekdayMask;
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
@@ -221,10 +222,10 @@ public class TaskForm {
                     @Override
                     public void onTimeSet(TimePicker view, int hourOfDay, int minute) {
                         if (reminder == null) {// When reminder created for first time
-                            reminder = new ReminderModel(new Time(hourOfDay, minute), 0);
+                            reminder = new ReminderModel(Time.of(hourOfDay, minute), 0);
                             toggleReminderView(true);
                         } else { // When reminder is changed/modified
-                            reminder.setStartTime(new Time(hourOfDay, minute));
+                            reminder.setStartTime(Time.of(hourOfDay, minute));
                         }
                         setFormattedStartTime(reminder);
                         durationView.setText(Utilities.formatDuration(context, reminder.getDurationInMinutes()));
@@ -375,12 +376,8 @@ public class TaskForm {
         // Set description
         descriptionView.setText(task.getDescription());
         // Set Repeat Days
-        boolean repeatedTask = false;
-        boolean repeatTaskDaily = true;
-        for (int i = Calendar.SUNDAY; i <= Calendar.SATURDAY; i++) {
-            repeatedTask |= task.isRepeatForDay(i);
-            repeatTaskDaily &= task.isRepeatForDay(i);
-        }
+        boolean repeatedTask = task.getRepeatMask() != WeekdayMask.NONE;
+        boolean repeatTaskDaily = task.getRepeatMask() == WeekdayMask.ALL;
         resetRepeatChips();
         if (repeatedTask) {
             // Task is a repeated task
@@ -1,19 +1,28 @@
 package com.cod3rboy.routinetask;
 
 import android.content.Context;
+import android.text.TextUtils;
 
 import androidx.annotation.LayoutRes;
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.AdapterListUpdateCallback;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import com.cod3rboy.routinetask.background.PagedTaskList;
+import com.cod3rboy.routinetask.background.TaskListDelta;
+import com.cod3rboy.routinetask.database.models.ReminderModel;
 import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.cod3rboy.routinetask.logging.Logger;
 
 import java.util.ArrayList;
+import java.util.List;
+
+import needle.Needle;
 
 /**
  * This is a Adapter associated with the RecyclerView in the RecyclerViewFragment.
@@ -23,16 +32,23 @@ import java.util.ArrayList;
  */
 public class TaskListAdapter extends RecyclerView.Adapter<TaskViewHolder> {
     private static final String LOG_TAG = TaskListAdapter.class.getSimpleName();
+    private static final String TASK_TYPE_DIFF = "task_list_diff";
+    // Payload of a change which changes only selection of item
+    private static final String PAYLOAD_SELECTION = "payload_selection";
 
     // Tasks List holding data for the list items in RecyclerView
-    private ArrayList<TaskModel> tasksData;
+    private List<TaskModel> tasksData;
 
     private Context context;
     private ArrayList<ItemClickListener> mClickListeners;
     private ArrayList<SelectionModeListener> mSelectionModeListeners;
     private int itemLayoutId;
-    private ArrayList<Integer> selectedPositions;
+    private TaskSelection selection;
     private boolean selectionModeActive;
+    // Data whose diff with current data is being calculated. It is set only while a diff is pending.
+    private List<TaskModel> pendingTasksData;
+    // Incremented for every data change so that a diff of superseded data is discarded
+    private int dataVersion;
 
     /**
      * Callback Interface that click listeners must register
@@ -54,14 +70,18 @@ public class TaskListAdapter extends RecyclerView.Adapter<TaskViewHolder> {
      * @param context   context object
      * @param tasksData list holding tasks for the list items in RecyclerView
      */
-    public TaskListAdapter(Context context, @LayoutRes int itemLayoutId, ArrayList<TaskModel> tasksData) {
+    public TaskListAdapter(Context context, @LayoutRes int itemLayoutId, List<TaskModel> tasksData) {
         this.context = context;
         this.itemLayoutId = itemLayoutId;
         this.tasksData = tasksData;
         this.mClickListeners = new ArrayList<>();
         this.mSelectionModeListeners = new ArrayList<>();
-        this.selectedPositions = new ArrayList<>();
+        this.selection = new TaskSelection();
         this.selectionModeActive = false;
+        this.pendingTasksData = null;
+        this.dataVersion = 0;
+        // Item ids are task ids so item views are kept for same tasks across data changes
+        setHasStableIds(true);
     }
 
     public void setItemLayoutResourceId(@LayoutRes int itemLayoutId) {
@@ -111,12 +131,15 @@ public class TaskListAdapter extends RecyclerView.Adapter<TaskViewHolder> {
         // Register listener with Checkbox
         viewHolder.setCheckboxListener((view, isChecked) -> {
             int position = viewHolder.getAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) return;
             TaskModel taskAtPosition = tasksData.get(position);
+            // Task of a placeholder item is not loaded yet
+            if (taskAtPosition == null) return;
             if (isChecked) {
-                Logger.d(LOG_TAG, String.format("Routine task with id %d is marked as completed", taskAtPosition.getId()));
+                Logger.d(LOG_TAG, "Routine task with id %d is marked as completed", taskAtPosition.getId());
                 TaskModel.markAsComplete(taskAtPosition);
             } else {
-                Logger.d(LOG_TAG, String.format("Routine task with id %d is marked as not completed", taskAtPosition.getId()));
+                Logger.d(LOG_TAG, "Routine task with id %d is marked as not completed", taskAtPosition.getId());
                 TaskModel.markAsPending(taskAtPosition);
             }
         });
@@ -127,17 +150,18 @@ public class TaskListAdapter extends RecyclerView.Adapter<TaskViewHolder> {
             if (position == RecyclerView.NO_POSITION) return;
             boolean wasSelectionModeActive = selectionModeActive;
             if (selectionModeActive) {
-                Integer clickedPosition = position;
-                if (selectedPositions.contains(clickedPosition)) {
-                    selectedPositions.remove(clickedPosition);
-                    Logger.d(LOG_TAG, String.format("Deselecting long clicked item at position %d ", clickedPosition));
-                    selectionModeActive = !selectedPositions.isEmpty();
-                    if (!selectionModeActive) notifySelectionModeListeners(false);
+                if (!selection.toggle(getItemId(position))) {
+                    Logger.d(LOG_TAG, "Deselecting long clicked item at position %d ", position);
+                    selectionModeActive = !selection.isEmpty();
+                    if (!selectionModeActive) {
+                        // Checkboxes are shown again on all items
+                        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+                        notifySelectionModeListeners(false);
+                    }
                 } else {
-                    selectedPositions.add(clickedPosition);
-                    Logger.d(LOG_TAG, String.format("Selecting long clicked item at position %d ", clickedPosition));
+                    Logger.d(LOG_TAG, "Selecting long clicked item at position %d ", position);
                 }
-                notifyItemChanged(position);
+                notifyItemChanged(position, PAYLOAD_SELECTION);
             }
             // Notify Click listeners that list item view is clicked
             notifyClickListeners(viewHolder, v, position, wasSelectionModeActive);
@@ -148,10 +172,10 @@ public class TaskListAdapter extends RecyclerView.Adapter<TaskViewHolder> {
             if (position == RecyclerView.NO_POSITION) return false;
             if (!selectionModeActive) {
                 selectionModeActive = true;
-                Integer longClickedPosition = position;
-                Logger.d(LOG_TAG, String.format("Selecting long clicked item at position %d ", longClickedPosition));
-                selectedPositions.add(longClickedPosition);
-                notifyItemChanged(position);
+                Logger.d(LOG_TAG, "Selecting long clicked item at position %d ", position);
+                selection.select(getItemId(position));
+                // Checkboxes are hidden on all items
+                notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
                 // Notify Selection Mode listeners that list item view is long clicked
                 notifySelectionModeListeners(true);
                 return true;
@@ -169,12 +193,50 @@ public class TaskListAdapter extends RecyclerView.Adapter<TaskViewHolder> {
      */
     @Override
     public void onBindViewHolder(@NonNull TaskViewHolder taskViewHolder, int position) {
+        if (tasksData instanceof PagedTaskList) ((PagedTaskList) tasksData).loadAround(position);
         TaskModel taskAtPosition = tasksData.get(position);
-        taskViewHolder.bindData(context, taskAtPosition, selectedPositions.contains(position));
+        if (taskAtPosition == null) {
+            // Page of task is being loaded, item is bound again once page is loaded
+            taskViewHolder.bindPlaceholder(context, isSelected(position));
+            return;
+        }
+        taskViewHolder.bindData(context, taskAtPosition, isSelected(position));
         if (selectionModeActive) taskViewHolder.hideCheckbox();
         else taskViewHolder.showCheckbox();
     }
 
+    /**
+     * This method is called to bind the data with a list item view when only a part of item is changed.
+     * Items changed with known payloads are bound partially and other items are bound in full.
+     *
+     * @param taskViewHolder TaskViewHolder associated with list item view
+     * @param position       position of list item view
+     * @param payloads       payloads of changes of item
+     */
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder taskViewHolder, int position, @NonNull List<Object> payloads) {
+        TaskModel taskAtPosition = tasksData.get(position);
+        if (payloads.isEmpty() || taskAtPosition == null) {
+            onBindViewHolder(taskViewHolder, position);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (!TaskListDelta.PAYLOAD_STATUS.equals(payload) && !PAYLOAD_SELECTION.equals(payload)) {
+                onBindViewHolder(taskViewHolder, position);
+                return;
+            }
+        }
+        for (Object payload : payloads) {
+            if (TaskListDelta.PAYLOAD_STATUS.equals(payload)) {
+                taskViewHolder.bindStatus(context, taskAtPosition);
+            } else {
+                taskViewHolder.bindSelection(context, taskAtPosition, isSelected(position));
+                if (selectionModeActive) taskViewHolder.hideCheckbox();
+                else taskViewHolder.showCheckbox();
+            }
+        }
+    }
+
     /**
      * This method is called to know about total no of data items so that item view for each data item can be requested from adapter.
      *
@@ -185,60 +247,228 @@ public class TaskListAdapter extends RecyclerView.Adapter<TaskViewHolder> {
         return tasksData.size();
     }
 
+    /**
+     * @param position position of item
+     * @return id of task at given position which is known even if task is not loaded yet
+     */
+    @Override
+    public long getItemId(int position) {
+        if (tasksData instanceof PagedTaskList) return ((PagedTaskList) tasksData).getId(position);
+        return tasksData.get(position).getId();
+    }
+
 
+    /**
+     * @param position position of task
+     * @return task at given position or null if task is not loaded yet
+     */
     public TaskModel getTaskAtPosition(int position) {
         return tasksData.get(position);
     }
 
-    public ArrayList<Integer> getSelectedPositions() {
-        return new ArrayList<>(selectedPositions);
+    /**
+     * @param position position of item
+     * @return whether task at given position is selected
+     */
+    public boolean isSelected(int position) {
+        return selection.isSelected(getItemId(position));
+    }
+
+    /**
+     * @return ids of selected tasks in ascending order. Ids are known even for tasks which are not loaded yet.
+     */
+    public long[] getSelectedIds() {
+        return selection.toArray();
     }
 
     public int getSelectedItemCount() {
-        return selectedPositions.size();
+        return selection.size();
     }
 
     /**
-     * This method is used to set data for list items with new data.
+     * This method is used to set data for list items with new data. Given list is not modified by adapter.
+     * When it is a {@link PagedTaskList}, items are refreshed as its pages are loaded.
+     * Difference between current and new data is calculated in background and only changed items
+     * are refreshed once it is available.
      *
      * @param tasksData new task data to use
      */
-    public void setTasksData(ArrayList<TaskModel> tasksData) {
-        this.tasksData.clear();
-        this.tasksData.addAll(tasksData);
-        this.selectedPositions.clear();
-        this.selectionModeActive = false;
-        notifyDataSetChanged();
+    public void setTasksData(List<TaskModel> tasksData) {
+        int version = ++dataVersion;
+        if (selectionModeActive) {
+            selection.clear();
+            selectionModeActive = false;
+            notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+        }
+        List<TaskModel> oldTasksData = this.tasksData;
+        if (oldTasksData.isEmpty() || tasksData.isEmpty()) {
+            // Nothing to match so all items are inserted or removed at once
+            pendingTasksData = null;
+            replaceTasksData(tasksData);
+            notifyDataSetChanged();
+            return;
+        }
+        pendingTasksData = tasksData;
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_DIFF).serially().execute(() -> {
+            DiffUtil.DiffResult result = DiffUtil.calculateDiff(new TasksDiffCallback(oldTasksData, tasksData));
+            Needle.onMainThread().execute(() -> {
+                // Data is changed again while diff was calculated
+                if (version != dataVersion) return;
+                pendingTasksData = null;
+                replaceTasksData(tasksData);
+                result.dispatchUpdatesTo(TaskListAdapter.this);
+            });
+        });
+    }
+
+    /**
+     * This method is used to set data for list items with data patched from current data. Only the
+     * items affected by given changes are refreshed unless items are selected.
+     * Given list must not be the current list changed in place, as it is compared with current
+     * list when changes cannot be applied directly.
+     *
+     * @param tasksData new task data to use
+     * @param delta     changes which transform current data into new data
+     */
+    public void applyDelta(List<TaskModel> tasksData, TaskListDelta delta) {
+        if (selectionModeActive || pendingTasksData != null) {
+            // Selected tasks may be removed by changes and changes are relative to data which is
+            // not displayed yet so difference is calculated again
+            setTasksData(tasksData);
+            return;
+        }
+        dataVersion++;
+        replaceTasksData(tasksData);
+        delta.dispatchUpdatesTo(new AdapterListUpdateCallback(this));
     }
 
     public void clearTasksData() {
-        this.tasksData.clear();
-        this.selectedPositions.clear();
+        dataVersion++;
+        pendingTasksData = null;
+        int itemCount = getItemCount();
+        replaceTasksData(new ArrayList<>());
+        this.selection.clear();
         this.selectionModeActive = false;
-        notifyDataSetChanged();
+        notifyItemRangeRemoved(0, itemCount);
+    }
+
+    private void replaceTasksData(List<TaskModel> tasksData) {
+        if (tasksData == this.tasksData) return;
+        detachPagedList();
+        this.tasksData = tasksData;
+        if (tasksData instanceof PagedTaskList)
+            ((PagedTaskList) tasksData).setPageLoadListener(this::notifyItemRangeChanged);
+    }
+
+    private void detachPagedList() {
+        // Stop refreshing items for pages of list which is no longer displayed
+        if (tasksData instanceof PagedTaskList)
+            ((PagedTaskList) tasksData).setPageLoadListener(null);
     }
 
     public void selectAllItems() {
-        selectedPositions.clear();
+        selection.clear();
+        selectRange(0, getItemCount() - 1);
+    }
+
+    /**
+     * Selects items between given positions both inclusive along with already selected items.
+     *
+     * @param fromPosition first position of range
+     * @param toPosition   last position of range
+     */
+    public void selectRange(int fromPosition, int toPosition) {
         selectionModeActive = true;
-        for (int i = 0; i < getItemCount(); i++) selectedPositions.add(i);
-        notifyDataSetChanged();
+        for (int i = fromPosition; i <= toPosition; i++) selection.select(getItemId(i));
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
     }
 
-    public void selectPositions(ArrayList<Integer> positions) {
-        selectedPositions.clear();
+    /**
+     * Selects tasks with given ids. Tasks which are not in list do not affect the displayed items.
+     *
+     * @param taskIds ids of tasks to select
+     */
+    public void selectIds(long[] taskIds) {
+        selection.clear();
         selectionModeActive = true;
-        selectedPositions.addAll(positions);
-        notifyDataSetChanged();
+        for (long taskId : taskIds) selection.select(taskId);
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
     }
 
     public void clearSelection() {
-        selectedPositions.clear();
+        selection.clear();
         selectionModeActive = false;
-        notifyDataSetChanged();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
     }
 
     public boolean isSelectionModeActive() {
         return selectionModeActive;
     }
-}
\ No newline at end of file
+
+    /**
+     * Calculates difference between two task lists by task ids. Tasks of a paged list whose page
+     * is not loaded are treated as unchanged as they are bound once their page is loaded.
+     * It is used on a background thread, so it reads only the lists given to it.
+     */
+    private static class TasksDiffCallback extends DiffUtil.Callback {
+        private final List<TaskModel> oldTasks;
+        private final List<TaskModel> newTasks;
+
+        TasksDiffCallback(List<TaskModel> oldTasks, List<TaskModel> newTasks) {
+            this.oldTasks = oldTasks;
+            this.newTasks = newTasks;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldTasks.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newTasks.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldItemPosition, int newItemPosition) {
+            return getId(oldTasks, oldItemPosition) == getId(newTasks, newItemPosition);
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldItemPosition, int newItemPosition) {
+            TaskModel oldTask = oldTasks.get(oldItemPosition);
+            TaskModel newTask = newTasks.get(newItemPosition);
+            if (oldTask == null || newTask == null) return true;
+            return isStatusSame(oldTask, newTask) && isContentSame(oldTask, newTask);
+        }
+
+        @Override
+        public Object getChangePayload(int oldItemPosition, int newItemPosition) {
+            TaskModel oldTask = oldTasks.get(oldItemPosition);
+            TaskModel newTask = newTasks.get(newItemPosition);
+            if (oldTask != null && newTask != null && isContentSame(oldTask, newTask))
+                return TaskListDelta.PAYLOAD_STATUS;
+            return null;
+        }
+
+        private static long getId(List<TaskModel> tasks, int position) {
+            if (tasks instanceof PagedTaskList) return ((PagedTaskList) tasks).getId(position);
+            return tasks.get(position).getId();
+        }
+
+        private static boolean isStatusSame(TaskModel oldTask, TaskModel newTask) {
+            return oldTask.getStatus() == newTask.getStatus();
+        }
+
+        // Whether everything displayed in item except status is same
+        private static boolean isContentSame(TaskModel oldTask, TaskModel newTask) {
+            ReminderModel oldReminder = oldTask.getReminder();
+            ReminderModel newReminder = newTask.getReminder();
+            return oldTask.getColor() == newTask.getColor()
+                    && oldTask.getRepeatMask() == newTask.getRepeatMask()
+                    && TextUtils.equals(oldTask.getTitle(), newTask.getTitle())
+                    && TextUtils.equals(oldTask.getDescription(), newTask.getDescription())
+                    && (oldReminder == null ? newReminder == null : oldReminder.equals(newReminder));
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.cod3rboy.routinetask;
+
+import java.util.BitSet;
+
+/**
+ * Set of selected tasks keyed by task id. Selection is kept as a bitset indexed by task id, so
+ * selecting, deselecting and checking a task takes constant time without boxing, and selection
+ * stays with the same tasks when their positions in list change.
+ * Task ids are row ids which start from 1 and grow by one, so bitset stays as small as the
+ * largest id of the selected tasks.
+ */
+public class TaskSelection {
+    private final BitSet selectedIds;
+    private int count;
+
+    public TaskSelection() {
+        selectedIds = new BitSet();
+        count = 0;
+    }
+
+    /**
+     * @param taskId id of task
+     * @return whether task is selected
+     */
+    public boolean isSelected(long taskId) {
+        return taskId >= 0 && taskId <= Integer.MAX_VALUE && selectedIds.get((int) taskId);
+    }
+
+    public void select(long taskId) {
+        int index = toIndex(taskId);
+        if (selectedIds.get(index)) return;
+        selectedIds.set(index);
+        count++;
+    }
+
+    public void deselect(long taskId) {
+        if (!isSelected(taskId)) return;
+        selectedIds.clear((int) taskId);
+        count--;
+    }
+
+    /**
+     * Selects task if it is not selected otherwise deselects it.
+     *
+     * @param taskId id of task
+     * @return whether task is selected after toggle
+     */
+    public boolean toggle(long taskId) {
+        if (isSelected(taskId)) {
+            deselect(taskId);
+            return false;
+        }
+        select(taskId);
+        return true;
+    }
+
+    public void clear() {
+        selectedIds.clear();
+        count = 0;
+    }
+
+    /**
+     * @return number of selected tasks
+     */
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * @return ids of selected tasks in ascending order
+     */
+    public long[] toArray() {
+        long[] ids = new long[count];
+        int i = 0;
+        for (int id = selectedIds.nextSetBit(0); id >= 0; id = selectedIds.nextSetBit(id + 1)) ids[i++] = id;
+        return ids;
+    }
+
+    private static int toIndex(long taskId) {
+        if (taskId < 0 || taskId > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Task id " + taskId + " cannot be selected");
+        return (int) taskId;
+    }
+}
@@ -10,6 +10,7 @@ import android.widget.CheckBox;
 import android.widget.CompoundButton;
 import android.widget.TextView;
 
+import com.cod3rboy.routinetask.database.DBContract;
 import com.cod3rboy.routinetask.database.models.ReminderModel;
 import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.google.android.flexbox.FlexboxLayout;
@@ -44,6 +45,8 @@ public class TaskViewHolder extends RecyclerView.ViewHolder {
 
     private View mFirstChild;
     private CompoundButton.OnCheckedChangeListener checkboxListener;
+    // Whether checkbox is being set from task status so that listener is not notified
+    private boolean bindingStatus;
 
     /**
      * Constructor to create instance of TaskViewHolder.
@@ -75,6 +78,7 @@ public class TaskViewHolder extends RecyclerView.ViewHolder {
         if (checkBox != null) {
             // Setup Checkbox listener
             checkBox.setOnCheckedChangeListener((view, isChecked) -> {
+                if (bindingStatus) return;
                 int position = getAdapterPosition();
                 if (position == RecyclerView.NO_POSITION) return;
                 // This callback is always executed after view binding process which means
@@ -179,22 +183,66 @@ public class TaskViewHolder extends RecyclerView.ViewHolder {
             noRepeatTag.setVisibility(TextView.GONE);
         }
 
-        if (checkBox != null) {
-            checkBox.setChecked(task.getStatus() == TaskModel.TaskStatus.COMPLETED);
-            Object tag = checkBox.getTag();
-            if (checkBox.isChecked()) {
-                titleTextView.setPaintFlags(titleTextView.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
-                if (tag != null) checkBox.setText(context.getString(R.string.task_completed));
-            } else {
-                titleTextView.setPaintFlags(titleTextView.getPaintFlags() & ~Paint.STRIKE_THRU_TEXT_FLAG);
-                if (tag != null) checkBox.setText(context.getString(R.string.task_not_completed));
-            }
-        }
+        bindStatus(context, task);
 
         // Highlight task if selected
         setSelected(context, isSelected, task.getColor());
     }
 
+    /**
+     * Helper method to bind only the completion status of task. It is used for partial binds when
+     * only status of task is changed.
+     *
+     * @param task task to bind with view
+     */
+    void bindStatus(Context context, TaskModel task) {
+        if (checkBox == null) return;
+        // Rebinding a recycled item is not a change made by user
+        bindingStatus = true;
+        checkBox.setChecked(task.getStatus() == TaskModel.TaskStatus.COMPLETED);
+        bindingStatus = false;
+        Object tag = checkBox.getTag();
+        if (checkBox.isChecked()) {
+            titleTextView.setPaintFlags(titleTextView.getPaintFlags() | Paint.STRIKE_THRU_TEXT_FLAG);
+            if (tag != null) checkBox.setText(context.getString(R.string.task_completed));
+        } else {
+            titleTextView.setPaintFlags(titleTextView.getPaintFlags() & ~Paint.STRIKE_THRU_TEXT_FLAG);
+            if (tag != null) checkBox.setText(context.getString(R.string.task_not_completed));
+        }
+    }
+
+    /**
+     * Helper method to bind only the selection highlight of item. It is used for partial binds
+     * when only selection of items is changed.
+     *
+     * @param task       task bound with view or null if item is a placeholder
+     * @param isSelected whether item is selected
+     */
+    void bindSelection(Context context, TaskModel task, boolean isSelected) {
+        setSelected(context, isSelected, task != null ? task.getColor() : DBContract.BG_COLORS[0]);
+    }
+
+    /**
+     * Helper method to bind an empty item in place of a task which is not loaded yet.
+     */
+    void bindPlaceholder(Context context, boolean isSelected) {
+        titleTextView.setText("");
+        descTextView.setText("");
+        timeTextView.setText("");
+        durationTextView.setVisibility(TextView.GONE);
+        durationTextView.setText("");
+        noRepeatTag.setVisibility(TextView.GONE);
+        sunTag.setVisibility(TextView.GONE);
+        monTag.setVisibility(TextView.GONE);
+        tueTag.setVisibility(TextView.GONE);
+        wedTag.setVisibility(TextView.GONE);
+        thuTag.setVisibility(TextView.GONE);
+        friTag.setVisibility(TextView.GONE);
+        satTag.setVisibility(TextView.GONE);
+        hideCheckbox();
+        setSelected(context, isSelected, DBContract.BG_COLORS[0]);
+    }
+
     public void hideCheckbox() {
         if (checkBox == null) return;
         checkBox.setVisibility(View.INVISIBLE);
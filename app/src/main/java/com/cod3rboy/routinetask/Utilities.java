@@ -16,17 +16,17 @@ import android.util.Log;
 import android.view.View;
 
 import com.andrognito.flashbar.Flashbar;
-import com.cod3rboy.routinetask.database.DBContract;
 import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.cod3rboy.routinetask.logging.Logger;
 import com.cod3rboy.routinetask.receivers.TaskBroadcastReceiver;
+import com.cod3rboy.routinetask.utilities.DateFormats;
+import com.cod3rboy.routinetask.utilities.EpochDay;
 
 import com.mikhaellopez.ratebottomsheet.AskRateBottomSheet;
 import com.mikhaellopez.ratebottomsheet.RateBottomSheet;
 import com.mikhaellopez.ratebottomsheet.RateBottomSheetManager;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
@@ -66,9 +66,8 @@ public class Utilities {
      */
     public static String formatToDbDate(String dateText, String inputFormat) {
         try {
-            Date date = new SimpleDateFormat(inputFormat).parse(dateText);
-            SimpleDateFormat outputFormat = new SimpleDateFormat(iso8601DateTimeFormat);
-            return outputFormat.format(date);
+            Date date = DateFormats.parse(dateText, inputFormat);
+            return DateFormats.format(date, iso8601DateTimeFormat);
         } catch (ParseException ex) {
             Log.e(Utilities.class.getName(), ex.getMessage());
             return dateText;
@@ -85,8 +84,8 @@ public class Utilities {
      */
     public static String formatDbDate(String dbDateText, String outputFormat) {
         try {
-            Date date = new SimpleDateFormat(iso8601DateTimeFormat).parse(dbDateText);
-            return new SimpleDateFormat(outputFormat).format(date);
+            Date date = DateFormats.parse(dbDateText, iso8601DateTimeFormat);
+            return DateFormats.format(date, outputFormat);
         } catch (ParseException ex) {
             Log.e(Utilities.class.getName(), ex.getMessage());
             return dbDateText;
@@ -110,14 +109,10 @@ public class Utilities {
      * @return 12-Hour formatted time string
      */
     public static String getFormattedTime(String time) {
-        // Create input and output formats for time
-        SimpleDateFormat inputFormat = new SimpleDateFormat("HH:mm");
-        SimpleDateFormat outputFormat = new SimpleDateFormat("hh:mm aa");
         try {
             // Parse input date using input format and then format resulted date to output format string
-            Date date = inputFormat.parse(time);
-            String formattedTime = outputFormat.format(date);
-            return formattedTime;
+            Date date = DateFormats.parse(time, "HH:mm");
+            return DateFormats.format(date, "hh:mm aa");
         } catch (Exception ex) {
             // Error while formatting
             Log.e(Utilities.class.getName(), ex.getMessage());
@@ -135,7 +130,7 @@ public class Utilities {
     public static int getHour(String date, String format) {
         try {
             Calendar cal = Calendar.getInstance();
-            cal.setTime(new SimpleDateFormat(format).parse(date));
+            cal.setTime(DateFormats.parse(date, format));
             return cal.get(Calendar.HOUR_OF_DAY);
 
         } catch (ParseException ex) {
@@ -154,7 +149,7 @@ public class Utilities {
     public static int getMinute(String date, String format) {
         try {
             Calendar cal = Calendar.getInstance();
-            cal.setTime(new SimpleDateFormat(format).parse(date));
+            cal.setTime(DateFormats.parse(date, format));
             return cal.get(Calendar.MINUTE);
 
         } catch (ParseException ex) {
@@ -251,46 +246,10 @@ public class Utilities {
     }
 
     /**
-     * Get Today Weekday database field
-     */
-    public static String getTodayWeekColumn() {
-        int day = Calendar.getInstance().get(Calendar.DAY_OF_WEEK);
-        return getWeekColumnName(day);
-    }
-
-    /**
-     * Returns table column name for the given week day number.
-     *
-     * @param weekDay day of week number (1-Sunday, 2-Monday, ..., 7-Saturday)
-     * @return table column name for weekDay or empty string if weekDay is invalid
-     */
-    public static String getWeekColumnName(int weekDay) {
-        switch (weekDay) {
-            case Calendar.SUNDAY:
-                return DBContract.TasksTable.COL_NAME_SUNDAY;
-            case Calendar.MONDAY:
-                return DBContract.TasksTable.COL_NAME_MONDAY;
-            case Calendar.TUESDAY:
-                return DBContract.TasksTable.COL_NAME_TUESDAY;
-            case Calendar.WEDNESDAY:
-                return DBContract.TasksTable.COL_NAME_WEDNESDAY;
-            case Calendar.THURSDAY:
-                return DBContract.TasksTable.COL_NAME_THURSDAY;
-            case Calendar.FRIDAY:
-                return DBContract.TasksTable.COL_NAME_FRIDAY;
-            case Calendar.SATURDAY:
-                return DBContract.TasksTable.COL_NAME_SATURDAY;
-        }
-        return "";
-    }
-
-    /**
-     * Get Today's Formatted Date
+     * Get Today's Formatted Date. It is formatted once a day.
      */
     public static String getTodayDate() {
-        Date date = Calendar.getInstance().getTime();
-        SimpleDateFormat sdf = new SimpleDateFormat("EEE, dd MMMM");
-        return sdf.format(date);
+        return DateFormats.today();
     }
 
     /**
@@ -356,8 +315,7 @@ public class Utilities {
         Calendar cal = Calendar.getInstance();
         cal.set(Calendar.HOUR_OF_DAY, rand.nextInt(24));
         cal.set(Calendar.MINUTE, rand.nextInt(60));
-        Date d = cal.getTime();
-        return formatDbDate(new SimpleDateFormat(iso8601DateTimeFormat).format(d), iso8601DateTimeFormat);
+        return DateFormats.format(cal.getTime(), iso8601DateTimeFormat);
     }
 
     /**
@@ -371,74 +329,20 @@ public class Utilities {
     }
 
     /**
-     * This method is used to generate string for today date in yyyy-MM-dd format.
-     *
-     * @return today date string
+     * @param epochDay date in epoch days
+     * @return short name of week day of date
      */
-    public static String getTodayDateString() {
-        Date today = Calendar.getInstance().getTime();
-        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        return df.format(today);
-    }
-
-    public static Date getDateObject(String date) {
-        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        try {
-            return df.parse(date);
-        } catch (java.text.ParseException e) {
-            Logger.e(LOG_TAG, e.getMessage());
-        }
-        return null;
-    }
-
-    public static String formatDateObject(Date date) {
-        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-        return df.format(date);
-    }
-
-    public static String getWeekDay(String dateString, String inputFormat) {
-        Calendar cal = Calendar.getInstance();
-        SimpleDateFormat df = new SimpleDateFormat(inputFormat, Locale.getDefault());
-        try {
-            Date date = df.parse(dateString);
-            cal.setTime(date);
-            int weekDay = cal.get(Calendar.DAY_OF_WEEK);
-            switch (weekDay) {
-                case Calendar.SUNDAY:
-                    return "Sun";
-                case Calendar.MONDAY:
-                    return "Mon";
-                case Calendar.TUESDAY:
-                    return "Tue";
-                case Calendar.WEDNESDAY:
-                    return "Wed";
-                case Calendar.THURSDAY:
-                    return "Thu";
-                case Calendar.FRIDAY:
-                    return "Fri";
-                case Calendar.SATURDAY:
-                    return "Sat";
-            }
-        } catch (java.text.ParseException e) {
-            Logger.e(LOG_TAG, e.getMessage());
-        }
-        return "N/A";
+    public static String getWeekDay(int epochDay) {
+        return getWeekDayName(EpochDay.getDayOfWeek(epochDay));
     }
 
-    public static String getNiceHumanWeekDay(String dateString, String inputFormat) {
-        Calendar cal = Calendar.getInstance();
-        SimpleDateFormat df = new SimpleDateFormat(inputFormat, Locale.getDefault());
-        try {
-            Date date = df.parse(dateString);
-            cal.setTime(date);
-            Calendar today = Calendar.getInstance();
-            boolean isToday = today.get(Calendar.YEAR) == cal.get(Calendar.YEAR) && today.get(Calendar.DAY_OF_YEAR) == cal.get(Calendar.DAY_OF_YEAR);
-            if (isToday) return "Today";
-            else return getWeekDayName(cal.get(Calendar.DAY_OF_WEEK));
-        } catch (java.text.ParseException e) {
-            Logger.e(LOG_TAG, e.getMessage());
-        }
-        return "N/A";
+    /**
+     * @param epochDay date in epoch days
+     * @return "Today" if date is today otherwise short name of week day of date
+     */
+    public static String getNiceHumanWeekDay(int epochDay) {
+        if (epochDay == EpochDay.today()) return "Today";
+        return getWeekDayName(EpochDay.getDayOfWeek(epochDay));
     }
 
     public static String getWeekDayName(int weekDayNumber) {
@@ -463,9 +367,8 @@ public class Utilities {
 
     public static int getWeekDayNumber(String dateString, String inputFormat) {
         Calendar cal = Calendar.getInstance();
-        SimpleDateFormat df = new SimpleDateFormat(inputFormat, Locale.getDefault());
         try {
-            Date date = df.parse(dateString);
+            Date date = DateFormats.parse(dateString, inputFormat);
             cal.setTime(date);
             return cal.get(Calendar.DAY_OF_WEEK);
         } catch (java.text.ParseException e) {
@@ -475,44 +378,25 @@ public class Utilities {
     }
 
 
-    public static String getFormattedChartDate(String date, String inputFormat) {
-        SimpleDateFormat inputSdf = new SimpleDateFormat(inputFormat, Locale.getDefault());
-        SimpleDateFormat outputSdf = new SimpleDateFormat("EEE, dd MMMM yyyy", Locale.getDefault());
-        try {
-            Date d = inputSdf.parse(date);
-            Calendar today = Calendar.getInstance();
-            Calendar input = Calendar.getInstance();
-            input.setTime(d);
-            boolean isToday = today.get(Calendar.YEAR) == input.get(Calendar.YEAR) && today.get(Calendar.DAY_OF_YEAR) == input.get(Calendar.DAY_OF_YEAR);
-            today.add(Calendar.DAY_OF_YEAR, -1);
-            boolean isYesterday = today.get(Calendar.YEAR) == input.get(Calendar.YEAR) && today.get(Calendar.DAY_OF_YEAR) == input.get(Calendar.DAY_OF_YEAR);
-            if (isToday) return "Today";
-            else if (isYesterday) return "Yesterday";
-            else return outputSdf.format(d);
-        } catch (java.text.ParseException e) {
-            Logger.e(LOG_TAG, e.getMessage());
-        }
-        return "N/A";
+    /**
+     * @param epochDay date in epoch days
+     * @return "Today" or "Yesterday" if date is today or yesterday otherwise date in EEE, dd MMMM yyyy format
+     */
+    public static String getFormattedChartDate(int epochDay) {
+        return niceHumanDateFormat(epochDay, "EEE, dd MMMM yyyy");
     }
 
-    public static String niceHumanDateFormat(String date, String inputFormat, String outputFormat) {
-        SimpleDateFormat inputSdf = new SimpleDateFormat(inputFormat, Locale.getDefault());
-        SimpleDateFormat outputSdf = new SimpleDateFormat(outputFormat, Locale.getDefault());
-        try {
-            Date d = inputSdf.parse(date);
-            Calendar today = Calendar.getInstance();
-            Calendar input = Calendar.getInstance();
-            input.setTime(d);
-            boolean isToday = today.get(Calendar.YEAR) == input.get(Calendar.YEAR) && today.get(Calendar.DAY_OF_YEAR) == input.get(Calendar.DAY_OF_YEAR);
-            today.add(Calendar.DAY_OF_YEAR, -1);
-            boolean isYesterday = today.get(Calendar.YEAR) == input.get(Calendar.YEAR) && today.get(Calendar.DAY_OF_YEAR) == input.get(Calendar.DAY_OF_YEAR);
-            if (isToday) return "Today";
-            else if (isYesterday) return "Yesterday";
-            else return outputSdf.format(d);
-        } catch (java.text.ParseException e) {
-            Logger.e(LOG_TAG, e.getMessage());
-        }
-        return "N/A";
+    /**
+     * @param epochDay     date in epoch days
+     * @param outputFormat format of returned date
+     * @return "Today" or "Yesterday" if date is today or yesterday otherwise date in given format
+     */
+    public static String niceHumanDateFormat(int epochDay, String outputFormat) {
+        int today = EpochDay.today();
+        if (epochDay == today) return "Today";
+        else if (epochDay == today - 1) return "Yesterday";
+        // Chart labels are formatted on every draw so formatted dates are cached
+        return DateFormats.formatEpochDay(epochDay, outputFormat);
     }
 
     private static final int SECS_IN_HOUR = 60 * 60;
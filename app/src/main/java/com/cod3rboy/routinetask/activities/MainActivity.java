@@ -25,6 +25,7 @@ import android.view.View;
 
 import com.cod3rboy.routinetask.BuildConfig;
 import com.cod3rboy.routinetask.R;
+import com.cod3rboy.routinetask.database.TaskStatusQueue;
 import com.cod3rboy.routinetask.fragments.AboutFragment;
 import com.cod3rboy.routinetask.fragments.PomodoroFragment;
 import com.cod3rboy.routinetask.fragments.PomodoroStatsFragment;
@@ -376,6 +377,13 @@ public class MainActivity extends AppCompatActivity
                 .commit();
     }
 
+    @Override
+    protected void onStop() {
+        super.onStop();
+        // Write pending task status changes before app goes in background
+        TaskStatusQueue.getInstance().flush();
+    }
+
     @Override
     protected void onSaveInstanceState(@NonNull Bundle outState) {
         super.onSaveInstanceState(outState);
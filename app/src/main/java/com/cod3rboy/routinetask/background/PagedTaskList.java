@@ -0,0 +1,212 @@
+package com.cod3rboy.routinetask.background;
+
+import android.util.LruCache;
+import android.util.SparseBooleanArray;
+
+import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.logging.Logger;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Map;
+
+import needle.Needle;
+
+/**
+ * Read only list of tasks which keeps only a few pages of task models in memory. List holds ids of
+ * all tasks in list order (newest first) and task models are loaded page by page with a key range
+ * query on ids of page, so loading any page costs the same regardless of its position in list.
+ * Pages are loaded in background ahead of the position being displayed and least recently used
+ * pages are evicted once cache is full. Position of a task whose page is not loaded yet holds
+ * null until page is loaded.
+ * All methods except {@link #loadPage(int)} and {@link #putPage(int, TaskModel[])} must be invoked on Main Thread.
+ */
+public class PagedTaskList extends AbstractList<TaskModel> {
+    private static final String LOG_TAG = PagedTaskList.class.getSimpleName();
+    private static final String TASK_TYPE_LOAD_PAGE = "task_page_load";
+
+    /**
+     * Number of tasks in a page.
+     */
+    public static final int PAGE_SIZE = 50;
+    /**
+     * Number of positions ahead and behind displayed position whose pages are loaded in advance.
+     */
+    public static final int PREFETCH_DISTANCE = 20;
+    /**
+     * Maximum number of pages kept in memory.
+     */
+    public static final int MAX_CACHED_PAGES = 6;
+
+    /**
+     * Loads tasks of a key range. It is invoked on a background thread.
+     */
+    public interface RangeLoader {
+        ArrayList<TaskModel> loadRange(long newestId, long oldestId);
+    }
+
+    /**
+     * Callback Interface to receive notification when tasks of a page are available.
+     */
+    public interface PageLoadListener {
+        void onPageLoaded(int positionStart, int itemCount);
+    }
+
+    private final long[] ids;
+    private final RangeLoader rangeLoader;
+    private final LruCache<Integer, TaskModel[]> pages;
+    private final SparseBooleanArray loadingPages;
+    private PageLoadListener pageLoadListener;
+
+    /**
+     * Constructor
+     *
+     * @param ids         ids of all tasks in list order
+     * @param rangeLoader loader to load tasks of a page
+     */
+    public PagedTaskList(long[] ids, RangeLoader rangeLoader) {
+        this.ids = ids;
+        this.rangeLoader = rangeLoader;
+        this.pages = new LruCache<>(MAX_CACHED_PAGES);
+        this.loadingPages = new SparseBooleanArray();
+    }
+
+    public void setPageLoadListener(PageLoadListener listener) {
+        this.pageLoadListener = listener;
+    }
+
+    /**
+     * @param position position of task
+     * @return task at given position or null if its page is not loaded
+     */
+    @Override
+    public TaskModel get(int position) {
+        if (position < 0 || position >= ids.length)
+            throw new IndexOutOfBoundsException("Position " + position + " of list with size " + ids.length);
+        TaskModel[] page = pages.get(position / PAGE_SIZE);
+        return page == null ? null : page[position % PAGE_SIZE];
+    }
+
+    @Override
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * @param position position of task
+     * @return id of task at given position, which is known even when its page is not loaded
+     */
+    public long getId(int position) {
+        return ids[position];
+    }
+
+    /**
+     * @param taskId id of task
+     * @return position of task with given id or -1 if task is not in list
+     */
+    public int positionOf(long taskId) {
+        // Ids are in descending order
+        int low = 0;
+        int high = ids.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] > taskId) low = mid + 1;
+            else if (ids[mid] < taskId) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a copy of list with the same ids and the loaded pages. Changed tasks are replaced in a
+     * copy so that a list which is displayed or compared in background is never changed in place.
+     * Pages being loaded for this list are not put in copy and are loaded again when displayed.
+     *
+     * @return copy of list without page load listener
+     */
+    public PagedTaskList copy() {
+        PagedTaskList copy = new PagedTaskList(ids, rangeLoader);
+        // Snapshot is ordered from least to most recently used page, so copy keeps the same order
+        for (Map.Entry<Integer, TaskModel[]> page : pages.snapshot().entrySet())
+            copy.pages.put(page.getKey(), page.getValue().clone());
+        return copy;
+    }
+
+    /**
+     * Replaces model of a task in list with a changed model of same task. If page of task is not
+     * loaded, nothing is replaced as changed task is loaded along with its page. It must be invoked
+     * only on a list which is not displayed yet, see {@link #copy()}.
+     *
+     * @param task changed task
+     * @return position of task or -1 if task is not in list
+     */
+    public int replace(TaskModel task) {
+        int position = positionOf(task.getId());
+        if (position < 0) return -1;
+        TaskModel[] page = pages.get(position / PAGE_SIZE);
+        if (page != null) page[position % PAGE_SIZE] = task;
+        return position;
+    }
+
+    /**
+     * Loads pages around given position in background if they are not loaded. It should be
+     * invoked with position being displayed so that pages are loaded before they are scrolled into view.
+     *
+     * @param position displayed position
+     */
+    public void loadAround(int position) {
+        int lastPage = (ids.length - 1) / PAGE_SIZE;
+        int firstPage = Math.max(0, (position - PREFETCH_DISTANCE) / PAGE_SIZE);
+        int endPage = Math.min(lastPage, (position + PREFETCH_DISTANCE) / PAGE_SIZE);
+        // Page of displayed position is loaded first
+        requestPage(position / PAGE_SIZE);
+        for (int page = firstPage; page <= endPage; page++) requestPage(page);
+    }
+
+    private void requestPage(int page) {
+        if (page < 0 || page * PAGE_SIZE >= ids.length) return;
+        if (pages.get(page) != null || loadingPages.get(page)) return;
+        loadingPages.put(page, true);
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_LOAD_PAGE).serially().execute(() -> {
+            TaskModel[] tasks = loadPage(page);
+            Needle.onMainThread().execute(() -> {
+                loadingPages.delete(page);
+                pages.put(page, tasks);
+                if (pageLoadListener != null)
+                    pageLoadListener.onPageLoaded(page * PAGE_SIZE, tasks.length);
+            });
+        });
+    }
+
+    /**
+     * Synchronously loads tasks of a page. It must not be invoked on Main Thread.
+     *
+     * @param page index of page
+     * @return tasks of page in list order. Task which no longer exists is null.
+     */
+    public TaskModel[] loadPage(int page) {
+        int start = page * PAGE_SIZE;
+        int end = Math.min(ids.length, start + PAGE_SIZE);
+        TaskModel[] tasks = new TaskModel[end - start];
+        ArrayList<TaskModel> result = rangeLoader.loadRange(ids[start], ids[end - 1]);
+        // Both ids and result are in descending order of id so they are matched in a single pass
+        int r = 0;
+        for (int i = 0; i < tasks.length && r < result.size(); i++) {
+            while (r < result.size() && result.get(r).getId() > ids[start + i]) r++;
+            if (r < result.size() && result.get(r).getId() == ids[start + i]) tasks[i] = result.get(r++);
+        }
+        Logger.d(LOG_TAG, "Loaded page %d with %d tasks", page, result.size());
+        return tasks;
+    }
+
+    /**
+     * Stores a page loaded with {@link #loadPage(int)} in cache. It is used to load first page
+     * along with the list so that list is displayed without waiting for a page load.
+     *
+     * @param page  index of page
+     * @param tasks tasks of page
+     */
+    void putPage(int page, TaskModel[] tasks) {
+        pages.put(page, tasks);
+    }
+}
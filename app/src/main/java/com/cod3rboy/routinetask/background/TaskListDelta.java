@@ -0,0 +1,87 @@
+package com.cod3rboy.routinetask.background;
+
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import java.util.ArrayList;
+
+/**
+ * Ordered set of changes which transform a task list delivered earlier into the list delivered along
+ * with it. Each change refers to positions of the list as it is after all the previous changes are
+ * applied, so changes are dispatched to a RecyclerView adapter in the same order to update only the
+ * affected items.
+ */
+public class TaskListDelta {
+    /**
+     * Payload of a change which changes only completion status of task.
+     */
+    public static final String PAYLOAD_STATUS = "payload_status";
+
+    private static final int TYPE_INSERT = 0;
+    private static final int TYPE_REMOVE = 1;
+    private static final int TYPE_CHANGE = 2;
+    private static final int TYPE_MOVE = 3;
+
+    private static class Change {
+        final int type;
+        final int position;
+        final int toPosition;
+        final Object payload;
+
+        Change(int type, int position, int toPosition, Object payload) {
+            this.type = type;
+            this.position = position;
+            this.toPosition = toPosition;
+            this.payload = payload;
+        }
+    }
+
+    private final ArrayList<Change> changes = new ArrayList<>();
+
+    void insert(int position) {
+        changes.add(new Change(TYPE_INSERT, position, position, null));
+    }
+
+    void remove(int position) {
+        changes.add(new Change(TYPE_REMOVE, position, position, null));
+    }
+
+    void change(int position, Object payload) {
+        changes.add(new Change(TYPE_CHANGE, position, position, payload));
+    }
+
+    void move(int fromPosition, int toPosition) {
+        changes.add(new Change(TYPE_MOVE, fromPosition, toPosition, null));
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public int size() {
+        return changes.size();
+    }
+
+    /**
+     * Dispatches changes in order to given callback.
+     *
+     * @param callback callback to receive changes e.g. AdapterListUpdateCallback of an adapter
+     */
+    public void dispatchUpdatesTo(ListUpdateCallback callback) {
+        for (Change change : changes) {
+            switch (change.type) {
+                case TYPE_INSERT:
+                    callback.onInserted(change.position, 1);
+                    break;
+                case TYPE_REMOVE:
+                    callback.onRemoved(change.position, 1);
+                    break;
+                case TYPE_CHANGE:
+                    callback.onChanged(change.position, 1, change.payload);
+                    break;
+                case TYPE_MOVE:
+                    callback.onMoved(change.position, change.toPosition);
+                    break;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.cod3rboy.routinetask.background;
 
 import android.content.Context;
 import android.media.MediaPlayer;
+import android.os.SystemClock;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -9,25 +10,41 @@ import androidx.loader.content.AsyncTaskLoader;
 
 import com.cod3rboy.routinetask.R;
 import com.cod3rboy.routinetask.Utilities;
-import com.cod3rboy.routinetask.database.DBContract;
+import com.cod3rboy.routinetask.database.QueryCatalog;
+import com.cod3rboy.routinetask.database.TaskRepository;
 import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.events.RandomStatsGenerated;
+import com.cod3rboy.routinetask.events.StatisticsReset;
 import com.cod3rboy.routinetask.events.TaskCreated;
 import com.cod3rboy.routinetask.events.TaskDeleted;
 import com.cod3rboy.routinetask.events.TaskStatusChanged;
 import com.cod3rboy.routinetask.events.TaskUpdated;
+import com.cod3rboy.routinetask.events.TasksStatusChanged;
 import com.cod3rboy.routinetask.events.TasksCreated;
 import com.cod3rboy.routinetask.events.TasksDeleted;
+import com.cod3rboy.routinetask.logging.FlightRecorder;
 import com.cod3rboy.routinetask.logging.Logger;
+import com.cod3rboy.routinetask.utilities.EpochDay;
+import com.cod3rboy.routinetask.utilities.WeekdayMask;
 
 import org.greenrobot.eventbus.EventBus;
 import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
-import java.util.Calendar;
-
-public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
+/**
+ * Loader which loads tasks of a tab of TaskListFragment and reloads them when tasks change.
+ * Repeating and non repeating tasks are loaded as a {@link PagedTaskList} so that only ids of tasks
+ * and the first page are loaded upfront. Non repeating tasks ordered with completed tasks last are
+ * loaded entirely as that order is not the order of ids.
+ * Task events are applied to loaded data in place and only the changes are delivered along with the
+ * patched data (see {@link #getDelta()}), so a task change does not reload the whole list. Data is
+ * loaded again on a new day, on statistics reset and when tasks join or leave a paged list.
+ */
+public class TasksLoader extends AsyncTaskLoader<List<TaskModel>> {
     private static final String LOG_TAG = TasksLoader.class.getSimpleName();
 
     public enum TasksType {
@@ -35,12 +52,20 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
     }
 
     private TasksType tasksTypeToLoad;
-    private ArrayList<TaskModel> mData;
+    private List<TaskModel> mData;
+    // Changes of data being delivered with respect to data delivered previously
+    private TaskListDelta mDelta;
+    // Day and order of loaded data which are needed to patch data in place
+    private volatile int mLoadedDay;
+    private volatile boolean mCompletedLast;
+    private boolean mLoading;
 
     public TasksLoader(@NonNull Context context, TasksType tasksTypeToLoad) {
         super(context);
         this.tasksTypeToLoad = tasksTypeToLoad;
         this.mData = null;
+        this.mDelta = null;
+        this.mLoading = false;
     }
 
     @Override
@@ -48,7 +73,7 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
         Logger.d(LOG_TAG, "onStartLoading()");
         // Monitoring data for changes
         registerTasksListener();
-        if (takeContentChanged() || mData == null) {
+        if (takeContentChanged() || mData == null || isStale()) {
             forceLoad();
             return;
         }
@@ -56,9 +81,18 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
     }
 
     @Override
-    public ArrayList<TaskModel> loadInBackground() {
+    protected void onForceLoad() {
+        mLoading = true;
+        super.onForceLoad();
+    }
+
+    @Override
+    public List<TaskModel> loadInBackground() {
         Logger.d(LOG_TAG, "loadInBackground()- Executing task");
-        ArrayList<TaskModel> tasksData = new ArrayList<>();
+        long loadStart = SystemClock.elapsedRealtime();
+        mLoadedDay = EpochDay.today();
+        mCompletedLast = Utilities.canSortCompletedTasks(getContext());
+        List<TaskModel> tasksData = new ArrayList<>();
         switch (tasksTypeToLoad) {
             case TODAY_TASKS:
                 tasksData = loadTodayTasks();
@@ -70,129 +104,55 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
                 tasksData = loadNoRepeatTasks();
                 break;
         }
-        Logger.d(LOG_TAG, "Tasks Data Size - " + tasksData.size());
+        Logger.d(LOG_TAG, "Tasks Data Size - %d", tasksData.size());
+        FlightRecorder.event(FlightRecorder.EVENT_TASKS_LOADED, tasksData.size(),
+                SystemClock.elapsedRealtime() - loadStart);
         return tasksData;
     }
 
     private ArrayList<TaskModel> loadTodayTasks() {
         Logger.d(LOG_TAG, "Loading today tasks");
-        StringBuilder query = new StringBuilder();
-        query.append("SELECT temp2.*, ")
-                .append("ifnull(")
-                .append(DBContract.RemindersTable.COL_NAME_START_TIME)
-                .append(", \"99:99\") AS start_time FROM (SELECT ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(".*, ifnull(temp.completed, 0) AS completed FROM ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(" LEFT OUTER JOIN (SELECT ")
-                .append(DBContract.RoutineEntryTable.TABLE_NAME)
-                .append(".")
-                .append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
-                .append(", count(")
-                .append(DBContract.RoutineEntryTable.TABLE_NAME)
-                .append(".")
-                .append(DBContract.RoutineEntryTable.COL_NAME_DATE)
-                .append(") AS completed FROM ")
-                .append(DBContract.RoutineEntryTable.TABLE_NAME)
-                .append(" WHERE ")
-                .append(DBContract.RoutineEntryTable.COL_NAME_DATE)
-                .append("=\"")
-                .append(Utilities.getTodayDateString())
-                .append("\" GROUP BY ")
-                .append(DBContract.RoutineEntryTable.TABLE_NAME)
-                .append(".")
-                .append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
-                .append(") AS temp ON ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(".")
-                .append(DBContract.TasksTable._ID)
-                .append("=")
-                .append("temp.")
-                .append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
-                .append(" WHERE ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(".")
-                .append(Utilities.getTodayWeekColumn())
-                .append("=")
-                .append(DBContract.TasksTable.COL_VALUE_TRUE)
-                .append(") AS temp2 LEFT OUTER JOIN ")
-                .append(DBContract.RemindersTable.TABLE_NAME)
-                .append(" ON temp2.")
-                .append(DBContract.TasksTable._ID)
-                .append("=")
-                .append(DBContract.RemindersTable.TABLE_NAME)
-                .append(".")
-                .append(DBContract.RemindersTable.COL_NAME_TASK_ID)
-                .append(" ORDER BY ")
-                .append(Utilities.canSortCompletedTasks(getContext()) ? "temp2.completed ASC, " : "")
-                .append("start_time ASC, lower(temp2.")
-                .append(DBContract.TasksTable.COL_NAME_TITLE)
-                .append(") ASC;");
-        return TaskModel.query(query.toString(), null, true);
-    }
-
-    private ArrayList<TaskModel> loadRepeatingTasks() {
+        return TaskRepository.getInstance().getTodayTasks(mCompletedLast);
+    }
+
+    private List<TaskModel> loadRepeatingTasks() {
         Logger.d(LOG_TAG, "Loading repeating tasks");
-        StringBuilder query = new StringBuilder();
-        query.append("SELECT * FROM ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(" WHERE ");
-        for (int i = Calendar.SUNDAY; i <= Calendar.SATURDAY; i++) {
-            query.append("(")
-                    .append(Utilities.getWeekColumnName(i))
-                    .append(" = ")
-                    .append(DBContract.TasksTable.COL_VALUE_TRUE)
-                    .append(")");
-            if (i != Calendar.SATURDAY) query.append(" OR ");
-        }
-        query.append(" ORDER BY ")
-                .append(DBContract.TasksTable._ID)
-                .append(" DESC;");
-        return TaskModel.query(query.toString(), null, true);
+        return loadPagedTasks(QueryCatalog.loadRepeatingTaskIds(), QueryCatalog::loadRepeatingTasksInRange);
     }
 
-    private ArrayList<TaskModel> loadNoRepeatTasks() {
+    private List<TaskModel> loadNoRepeatTasks() {
         Logger.d(LOG_TAG, "Loading no repeat tasks");
-        StringBuilder query = new StringBuilder();
-        query.append("SELECT ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(".*, ifnull(temp.completed,0) AS completed FROM ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(" LEFT OUTER JOIN (SELECT ")
-                .append(DBContract.RoutineEntryTable.TABLE_NAME).append(".").append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
-                .append(", count(").append(DBContract.RoutineEntryTable.TABLE_NAME).append(".").append(DBContract.RoutineEntryTable.COL_NAME_DATE)
-                .append(") AS completed FROM ")
-                .append(DBContract.RoutineEntryTable.TABLE_NAME)
-                .append(" WHERE ")
-                .append(DBContract.RoutineEntryTable.TABLE_NAME).append(".").append(DBContract.RoutineEntryTable.COL_NAME_DATE)
-                .append("=\"").append(Utilities.getTodayDateString()).append("\"")
-                .append(" GROUP BY ")
-                .append(DBContract.RoutineEntryTable.TABLE_NAME).append(".").append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
-                .append(") AS temp ON ")
-                .append(DBContract.TasksTable.TABLE_NAME).append(".").append(DBContract.TasksTable._ID)
-                .append("=")
-                .append("temp").append(".").append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
-                .append(" WHERE ");
-        for (int i = Calendar.SUNDAY; i <= Calendar.SATURDAY; i++) {
-            query.append(Utilities.getWeekColumnName(i))
-                    .append(" = ")
-                    .append(DBContract.TasksTable.COL_VALUE_FALSE);
-            if (i != Calendar.SATURDAY) query.append(" AND ");
-        }
-        query.append(" ORDER BY ")
-                .append(Utilities.canSortCompletedTasks(getContext()) ? " completed ASC, " : "")
-                .append(DBContract.TasksTable._ID)
-                .append(" DESC;");
-        return TaskModel.query(query.toString(), null, true);
+        if (mCompletedLast)
+            return QueryCatalog.loadNoRepeatTasks(true);
+        return loadPagedTasks(QueryCatalog.loadNoRepeatTaskIds(), QueryCatalog::loadNoRepeatTasksInRange);
+    }
+
+    private PagedTaskList loadPagedTasks(long[] ids, PagedTaskList.RangeLoader rangeLoader) {
+        PagedTaskList tasks = new PagedTaskList(ids, rangeLoader);
+        // First page is loaded along with ids so that list is displayed in full
+        if (ids.length > 0) tasks.putPage(0, tasks.loadPage(0));
+        return tasks;
     }
 
     @Override
-    public void deliverResult(@Nullable ArrayList<TaskModel> data) {
+    public void deliverResult(@Nullable List<TaskModel> data) {
         Logger.d(LOG_TAG, "deliverResult() called");
         mData = data;
+        mLoading = false;
         super.deliverResult(data);
     }
 
+    /**
+     * Returns changes of data being delivered with respect to data delivered previously. It is
+     * available only inside onLoadFinished() of a delivery which patched previous data in place.
+     *
+     * @return changes of delivered data or null if data is loaded entirely
+     */
+    @Nullable
+    public TaskListDelta getDelta() {
+        return mDelta;
+    }
+
     @Override
     protected void onStopLoading() {
         cancelLoad();
@@ -204,10 +164,8 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
         // Stop monitoring data for changes
         unregisterTasksListener();
         // Clear data
-        if (mData != null) {
-            mData.clear();
-            mData = null;
-        }
+        mData = null;
+        mLoading = false;
     }
 
     private void registerTasksListener() {
@@ -228,8 +186,9 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onTaskCreated(TaskCreated event) {
         Logger.d(LOG_TAG, "onTaskCreated() called");
-        // Data Changed
-        onContentChanged();
+        ArrayList<TaskModel> created = new ArrayList<>(1);
+        created.add(event.getModel());
+        applyCreated(created);
     }
 
     /**
@@ -239,8 +198,7 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
      */
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onTasksCreated(TasksCreated event) {
-        // Data Changed
-        onContentChanged();
+        applyCreated(event.getModels());
     }
 
     /**
@@ -250,8 +208,9 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
      */
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onTaskDeleted(TaskDeleted event) {
-        // Data Changed
-        onContentChanged();
+        ArrayList<TaskModel> deleted = new ArrayList<>(1);
+        deleted.add(event.getModel());
+        applyDeleted(deleted);
     }
 
     /**
@@ -261,8 +220,7 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
      */
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onTasksDeleted(TasksDeleted event) {
-        // Data Changed
-        onContentChanged();
+        applyDeleted(event.getModels());
     }
 
     /**
@@ -272,8 +230,23 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
      */
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onTaskUpdated(TaskUpdated event) {
-        // Data Changed
-        onContentChanged();
+        if (!canPatch()) {
+            onContentChanged();
+            return;
+        }
+        TaskModel task = TaskModel.snapshot(event.getModel());
+        // Status is not changed by task update so status of loaded task is kept
+        TaskModel oldTask = findTask(task.getId());
+        TaskModel.TaskStatus status = oldTask != null && oldTask.getStatus() != TaskModel.TaskStatus.UNKNOWN
+                ? oldTask.getStatus() : TaskRepository.getInstance().peekStatus(task.getId());
+        if (status == null) {
+            if (isMember(task) || oldTask != null) onContentChanged();
+            return;
+        }
+        task.setStatus(status);
+        ArrayList<TaskModel> updated = new ArrayList<>(1);
+        updated.add(task);
+        applyUpdated(updated, null);
     }
 
     /**
@@ -283,18 +256,248 @@ public class TasksLoader extends AsyncTaskLoader<ArrayList<TaskModel>> {
      */
     @Subscribe(threadMode = ThreadMode.MAIN)
     public void onTaskStatusChanged(TaskStatusChanged event) {
-        if (Utilities.canPlayTaskCompleteSound(getContext()) && event.isCompleted()) {
-            // Play sound
-            MediaPlayer player = MediaPlayer.create(getContext(), R.raw.sound_task_complete);
-            player.start();
-            player.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
-                @Override
-                public void onCompletion(MediaPlayer mp) {
-                    mp.release();
-                }
-            });
+        if (event.isCompleted()) playTaskCompleteSound();
+        if (!canPatch()) {
+            onContentChanged();
+            return;
         }
-        // Data Changed
+        ArrayList<TaskModel> changed = new ArrayList<>(1);
+        addStatusChange(changed, event.getModel(), event.isCompleted());
+        applyUpdated(changed, TaskListDelta.PAYLOAD_STATUS);
+    }
+
+    /**
+     * EventBus subscriber method which will be invoked when status of queued tasks is changed.
+     *
+     * @param event TasksStatusChanged event object
+     */
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onTasksStatusChanged(TasksStatusChanged event) {
+        if (event.hasCompletedModels()) playTaskCompleteSound();
+        if (!canPatch()) {
+            onContentChanged();
+            return;
+        }
+        ArrayList<TaskModel> changed = new ArrayList<>();
+        for (TaskModel task : event.getCompletedModels()) addStatusChange(changed, task, true);
+        for (TaskModel task : event.getPendingModels()) addStatusChange(changed, task, false);
+        applyUpdated(changed, TaskListDelta.PAYLOAD_STATUS);
+    }
+
+    /**
+     * EventBus subscriber method which will be invoked when task statistics are reset.
+     *
+     * @param event StatisticsReset event object
+     */
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onStatisticsReset(StatisticsReset event) {
+        // Completion status of tasks is reset without task events
         onContentChanged();
     }
-}
\ No newline at end of file
+
+    /**
+     * EventBus subscriber method which will be invoked when random task statistics are generated.
+     *
+     * @param event RandomStatsGenerated event object
+     */
+    @Subscribe(threadMode = ThreadMode.MAIN)
+    public void onRandomStatsGenerated(RandomStatsGenerated event) {
+        // Completion status of tasks is rewritten without task events
+        onContentChanged();
+    }
+
+    /**
+     * Whether loaded data can be patched with task events instead of being loaded again. Data is
+     * loaded again while loader is stopped, while a load is in progress, and when day or order of
+     * loaded data is changed.
+     */
+    private boolean canPatch() {
+        return isStarted() && !mLoading && mData != null && !isStale();
+    }
+
+    private boolean isStale() {
+        return mLoadedDay != EpochDay.today() || mCompletedLast != Utilities.canSortCompletedTasks(getContext());
+    }
+
+    private void addStatusChange(ArrayList<TaskModel> changed, TaskModel task, boolean completed) {
+        TaskModel oldTask = findTask(task.getId());
+        // Status change does not change membership so only loaded tasks are affected
+        if (oldTask == null) {
+            if (mData instanceof PagedTaskList && ((PagedTaskList) mData).positionOf(task.getId()) >= 0) {
+                // Task is in a page which is not loaded and is loaded along with its page
+                return;
+            }
+            if (isMember(task)) onContentChanged();
+            return;
+        }
+        TaskModel newTask = TaskModel.snapshot(oldTask);
+        newTask.setStatus(completed ? TaskModel.TaskStatus.COMPLETED : TaskModel.TaskStatus.INCOMPLETE);
+        changed.add(newTask);
+    }
+
+    private void applyCreated(ArrayList<TaskModel> created) {
+        if (!canPatch()) {
+            onContentChanged();
+            return;
+        }
+        ArrayList<TaskModel> tasks = new ArrayList<>(created.size());
+        for (TaskModel task : created) {
+            if (!isMember(task)) continue;
+            TaskModel newTask = TaskModel.snapshot(task);
+            newTask.setStatus(TaskModel.TaskStatus.INCOMPLETE);
+            tasks.add(newTask);
+        }
+        applyUpdated(tasks, null);
+    }
+
+    private void applyDeleted(ArrayList<TaskModel> deleted) {
+        if (!canPatch()) {
+            onContentChanged();
+            return;
+        }
+        if (mData instanceof PagedTaskList) {
+            for (TaskModel task : deleted) {
+                if (((PagedTaskList) mData).positionOf(task.getId()) >= 0) {
+                    // Ids of paged list are fixed so list is loaded again
+                    onContentChanged();
+                    return;
+                }
+            }
+            return;
+        }
+        ArrayList<TaskModel> tasks = new ArrayList<>(mData);
+        TaskListDelta delta = new TaskListDelta();
+        for (TaskModel task : deleted) {
+            int position = indexOf(tasks, task.getId());
+            if (position < 0) continue;
+            tasks.remove(position);
+            delta.remove(position);
+        }
+        deliverDelta(tasks, delta);
+    }
+
+    /**
+     * Patches loaded data with inserted or changed tasks. Each task is removed from data if it
+     * no longer belongs to data and otherwise placed at its position in order of data.
+     *
+     * @param changed tasks along with relation and status
+     * @param payload payload of changes of tasks which stay in data or null if whole task is changed
+     */
+    private void applyUpdated(ArrayList<TaskModel> changed, Object payload) {
+        if (changed.isEmpty() || !canPatch()) return;
+        if (mData instanceof PagedTaskList) {
+            applyPagedUpdated((PagedTaskList) mData, changed, payload);
+            return;
+        }
+        Comparator<TaskModel> order = getOrder();
+        ArrayList<TaskModel> tasks = new ArrayList<>(mData);
+        TaskListDelta delta = new TaskListDelta();
+        for (TaskModel task : changed) {
+            int oldPosition = indexOf(tasks, task.getId());
+            if (oldPosition >= 0) tasks.remove(oldPosition);
+            if (!isMember(task)) {
+                if (oldPosition >= 0) delta.remove(oldPosition);
+                continue;
+            }
+            int newPosition = tasks.size();
+            for (int i = 0; i < tasks.size(); i++) {
+                if (order.compare(tasks.get(i), task) > 0) {
+                    newPosition = i;
+                    break;
+                }
+            }
+            tasks.add(newPosition, task);
+            if (oldPosition < 0) {
+                delta.insert(newPosition);
+            } else {
+                if (oldPosition != newPosition) delta.move(oldPosition, newPosition);
+                delta.change(newPosition, payload);
+            }
+        }
+        deliverDelta(tasks, delta);
+    }
+
+    private void applyPagedUpdated(PagedTaskList loadedTasks, ArrayList<TaskModel> changed, Object payload) {
+        // Delivered list may be displayed or compared in background, so changes are made in a copy
+        PagedTaskList tasks = loadedTasks.copy();
+        TaskListDelta delta = new TaskListDelta();
+        for (TaskModel task : changed) {
+            int position = tasks.positionOf(task.getId());
+            if ((position >= 0) != isMember(task)) {
+                // Ids of paged list are fixed so list is loaded again when tasks join or leave it
+                onContentChanged();
+                return;
+            }
+            // Paged lists are ordered by id so changed task keeps its position
+            if (position >= 0) {
+                tasks.replace(task);
+                delta.change(position, payload);
+            }
+        }
+        deliverDelta(tasks, delta);
+    }
+
+    private void deliverDelta(List<TaskModel> tasks, TaskListDelta delta) {
+        if (delta.isEmpty()) return;
+        Logger.d(LOG_TAG, "Delivering %d changes in place of reload", delta.size());
+        mDelta = delta;
+        deliverResult(tasks);
+        mDelta = null;
+    }
+
+    private TaskModel findTask(long taskId) {
+        if (mData == null) return null;
+        if (mData instanceof PagedTaskList) {
+            PagedTaskList tasks = (PagedTaskList) mData;
+            int position = tasks.positionOf(taskId);
+            return position < 0 ? null : tasks.get(position);
+        }
+        int position = indexOf(mData, taskId);
+        return position < 0 ? null : mData.get(position);
+    }
+
+    private static int indexOf(List<TaskModel> tasks, long taskId) {
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).getId() == taskId) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * @param task task model
+     * @return whether task belongs to tasks loaded by this loader
+     */
+    private boolean isMember(TaskModel task) {
+        switch (tasksTypeToLoad) {
+            case TODAY_TASKS:
+                return task.isRepeatForDay(EpochDay.getDayOfWeek(mLoadedDay));
+            case REPEATING_TASKS:
+                return task.getRepeatMask() != WeekdayMask.NONE;
+            default:
+                return task.getRepeatMask() == WeekdayMask.NONE;
+        }
+    }
+
+    private Comparator<TaskModel> getOrder() {
+        switch (tasksTypeToLoad) {
+            case TODAY_TASKS:
+                return mCompletedLast ? QueryCatalog.TODAY_ORDER_COMPLETED_LAST : QueryCatalog.TODAY_ORDER;
+            case NO_REPEAT_TASKS:
+                return mCompletedLast ? QueryCatalog.NEWEST_FIRST_ORDER_COMPLETED_LAST : QueryCatalog.NEWEST_FIRST_ORDER;
+            default:
+                return QueryCatalog.NEWEST_FIRST_ORDER;
+        }
+    }
+
+    private void playTaskCompleteSound() {
+        if (!Utilities.canPlayTaskCompleteSound(getContext())) return;
+        MediaPlayer player = MediaPlayer.create(getContext(), R.raw.sound_task_complete);
+        player.start();
+        player.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
+            @Override
+            public void onCompletion(MediaPlayer mp) {
+                mp.release();
+            }
+        });
+    }
+}
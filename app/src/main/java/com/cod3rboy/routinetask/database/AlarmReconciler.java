@@ -0,0 +1,102 @@
+package com.cod3rboy.routinetask.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.util.LongSparseArray;
+
+import com.cod3rboy.routinetask.database.models.ReminderModel;
+import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.logging.Logger;
+import com.cod3rboy.routinetask.utilities.AlarmScheduler;
+
+import java.util.ArrayList;
+import java.util.TimeZone;
+
+/**
+ * Reconciles {@link ReminderQueue} with the reminders of tasks. Next occurrence of a reminder is
+ * written to queue only if its computed trigger time or fingerprint differs from the recorded one,
+ * and reminders which no longer exist are removed from queue. Then the single system alarm is armed
+ * for head of queue, which also restores it when it is lost (device reboot, force stop).
+ * So reconciliation on an ordinary application start does not write anything to database and
+ * registers only one alarm.
+ */
+public final class AlarmReconciler {
+    private static final String LOG_TAG = AlarmReconciler.class.getSimpleName();
+
+    private static final String SQL_LOAD_SCHEDULE = "SELECT "
+            + DBContract.AlarmScheduleTable.COL_NAME_REMINDER_ID + ", "
+            + DBContract.AlarmScheduleTable.COL_NAME_TRIGGER_TIME + ", "
+            + DBContract.AlarmScheduleTable.COL_NAME_FINGERPRINT
+            + " FROM " + DBContract.AlarmScheduleTable.TABLE_NAME + ";";
+
+    private AlarmReconciler() {
+    }
+
+    /**
+     * Recorded occurrence of a reminder.
+     */
+    private static class ScheduledAlarm {
+        final long triggerTime;
+        final long fingerprint;
+
+        ScheduledAlarm(long triggerTime, long fingerprint) {
+            this.triggerTime = triggerTime;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    /**
+     * Updates occurrences of reminders which are changed since last reconciliation and arms system
+     * alarm for the earliest one. It must not be executed on Main Thread.
+     */
+    public static void reconcile() {
+        LongSparseArray<ScheduledAlarm> schedule = loadSchedule();
+        ArrayList<TaskModel> tasks = TaskRepository.getInstance().getTasksWithReminder();
+        ArrayList<ContentValues> changedRows = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        long toleranceMillis = AlarmScheduler.getToleranceMillis();
+        TimeZone zone = TimeZone.getDefault();
+        for (TaskModel task : tasks) {
+            ReminderModel reminder = task.getReminder();
+            if (reminder == null) continue;
+            boolean completed = task.getStatus() == TaskModel.TaskStatus.COMPLETED;
+            long triggerTime = AlarmScheduler.getAlarmTriggerTime(task, completed, now, zone);
+            ScheduledAlarm scheduled = schedule.get(reminder.getId());
+            schedule.remove(reminder.getId());
+            // Reminder due within tolerance window may have been fired early, in which case its
+            // recorded occurrence is the one after tolerance window. An occurrence which is due or
+            // was missed is left for TaskBroadcastReceiver to fire, so that it is not replaced with
+            // the next one before the receiver loads due reminders.
+            if (scheduled != null && scheduled.fingerprint == ReminderQueue.fingerprint(task)
+                    && (scheduled.triggerTime == triggerTime
+                    || (scheduled.triggerTime != -1 && scheduled.triggerTime <= now + toleranceMillis)
+                    || scheduled.triggerTime
+                    == AlarmScheduler.getAlarmTriggerTime(task, completed, now + toleranceMillis, zone))) {
+                // Occurrence is recorded as it should be
+                continue;
+            }
+            changedRows.add(ReminderQueue.makeRow(task, triggerTime));
+        }
+        // Remaining recorded occurrences belong to reminders which no longer exist
+        long[] removedReminderIds = new long[schedule.size()];
+        for (int i = 0; i < schedule.size(); i++) removedReminderIds[i] = schedule.keyAt(i);
+        if (!changedRows.isEmpty() || removedReminderIds.length > 0)
+            ReminderQueue.write(changedRows, removedReminderIds);
+        AlarmScheduler.armNextAlarm();
+        Logger.d(LOG_TAG, "Reconciled %d reminders, %d changed and %d removed",
+                tasks.size(), changedRows.size(), removedReminderIds.length);
+    }
+
+    private static LongSparseArray<ScheduledAlarm> loadSchedule() {
+        LongSparseArray<ScheduledAlarm> schedule = new LongSparseArray<>();
+        Cursor cursor = DBQueryExecutor.query(SQL_LOAD_SCHEDULE, null);
+        if (cursor == null) return schedule;
+        try {
+            while (cursor.moveToNext())
+                schedule.put(cursor.getLong(0), new ScheduledAlarm(cursor.getLong(1), cursor.getLong(2)));
+        } finally {
+            cursor.close();
+        }
+        return schedule;
+    }
+}
@@ -44,13 +44,7 @@ public final class DBContract {
         public static final String COL_NAME_TITLE = "title";
         public static final String COL_NAME_DESC = "description";
         public static final String COL_NAME_COLOR = "color";
-        public static final String COL_NAME_SUNDAY = "sun";
-        public static final String COL_NAME_MONDAY = "mon";
-        public static final String COL_NAME_TUESDAY = "tue";
-        public static final String COL_NAME_WEDNESDAY = "wed";
-        public static final String COL_NAME_THURSDAY = "thr";
-        public static final String COL_NAME_FRIDAY = "fri";
-        public static final String COL_NAME_SATURDAY = "sat";
+        public static final String COL_NAME_REPEAT_MASK = "repeat_mask"; // days of week as WeekdayMask
 
         public static final int COL_LENGTH_DESC = 128;
         public static final int COL_LENGTH_TITLE = 32;
@@ -60,13 +54,10 @@ public final class DBContract {
         static final String COL_TYPE_TITLE = "TEXT NOT NULL DEFAULT \"\"";
         static final String COL_TYPE_DESC = "TEXT NOT NULL DEFAULT \"\"";
         static final String COL_TYPE_COLOR = "INTEGER NOT NULL DEFAULT " + DBContract.BG_COLORS[0];
-        static final String COL_TYPE_SUNDAY = "int(1) NOT NULL DEFAULT 0";
-        static final String COL_TYPE_MONDAY = "int(1) NOT NULL DEFAULT 0";
-        static final String COL_TYPE_TUESDAY = "int(1) NOT NULL DEFAULT 0";
-        static final String COL_TYPE_WEDNESDAY = "int(1) NOT NULL DEFAULT 0";
-        static final String COL_TYPE_THURSDAY = "int(1) NOT NULL DEFAULT 0";
-        static final String COL_TYPE_FRIDAY = "int(1) NOT NULL DEFAULT 0";
-        static final String COL_TYPE_SATURDAY = "int(1) NOT NULL DEFAULT 0";
+        static final String COL_TYPE_REPEAT_MASK = "INTEGER NOT NULL DEFAULT 0";
+
+        // Name of the table indexes
+        public static final String INDEX_NAME_REPEAT_MASK = "idx_tasks_repeat_mask";
 
         /**
          * Helper method which creates and return a SQL statement to create schema for table.
@@ -74,23 +65,42 @@ public final class DBContract {
          * @return SQL query string to create table with schema in this class
          */
         static String getCreationSql() {
-            String query = "CREATE TABLE %s (%s %s, %s %s, %s %s, %s %s, %s %s, %s %s, %s %s, %s %s,%s %s, %s %s, %s %s);";
+            return getCreationSql(TABLE_NAME);
+        }
+
+        /**
+         * Helper method which creates and return a SQL statement to create schema for table with
+         * given name. It is used to rebuild the table during migrations.
+         *
+         * @param tableName name of the table to create
+         * @return SQL query string to create table with schema in this class
+         */
+        static String getCreationSql(String tableName) {
+            String query = "CREATE TABLE %s (%s %s, %s %s, %s %s, %s %s, %s %s);";
             query = String.format(query,
-                    TABLE_NAME,
+                    tableName,
                     _ID, COL_TYPE_ID,
                     COL_NAME_TITLE, COL_TYPE_TITLE,
                     COL_NAME_DESC, COL_TYPE_DESC,
                     COL_NAME_COLOR, COL_TYPE_COLOR,
-                    COL_NAME_SUNDAY, COL_TYPE_SUNDAY,
-                    COL_NAME_MONDAY, COL_TYPE_MONDAY,
-                    COL_NAME_TUESDAY, COL_TYPE_TUESDAY,
-                    COL_NAME_WEDNESDAY, COL_TYPE_WEDNESDAY,
-                    COL_NAME_THURSDAY, COL_TYPE_THURSDAY,
-                    COL_NAME_FRIDAY, COL_TYPE_FRIDAY,
-                    COL_NAME_SATURDAY, COL_TYPE_SATURDAY);
+                    COL_NAME_REPEAT_MASK, COL_TYPE_REPEAT_MASK);
             Logger.d(LOG_TAG, TasksTable.class.getSimpleName() + " Creation Query : " + query);
             return query;
         }
+
+        /**
+         * Helper method which creates and return SQL statements to create indexes on table.
+         * Index on repeat mask serves the lookups of repeating (mask greater than zero) and
+         * non repeating (mask equal to zero) tasks.
+         *
+         * @return array of SQL query strings to create indexes of table
+         */
+        static String[] getIndexCreationSql() {
+            String query = String.format("CREATE INDEX IF NOT EXISTS %s ON %s(%s);",
+                    INDEX_NAME_REPEAT_MASK, TABLE_NAME, COL_NAME_REPEAT_MASK);
+            Logger.d(LOG_TAG, TasksTable.class.getSimpleName() + " Index Creation Query : " + query);
+            return new String[]{query};
+        }
     }
 
     /**
@@ -116,6 +126,8 @@ public final class DBContract {
 
         /**
          * Helper method which creates and return a SQL statement to create schema for table.
+         * Task id column has a UNIQUE constraint so SQLite maintains an index on it which serves the
+         * lookups and joins of reminders by task id.
          *
          * @return SQL query string to create table with schema in this class
          */
@@ -145,12 +157,16 @@ public final class DBContract {
 
         // Name of the table columns
         public static final String COL_NAME_TASK_ID = "task_id";
-        public static final String COL_NAME_DATE = "date";
+        public static final String COL_NAME_DATE = "date"; // in epoch days
 
         // Type of the table columns
         static final String COL_TYPE_ID = "INTEGER PRIMARY KEY AUTOINCREMENT";
         static final String COL_TYPE_TASK_ID = "INTEGER NOT NULL";
-        static final String COL_TYPE_DATE = "TEXT NOT NULL";
+        static final String COL_TYPE_DATE = "INTEGER NOT NULL";
+
+        // Name of the table indexes
+        public static final String INDEX_NAME_DATE_TASK = "idx_routine_entry_date_task";
+        public static final String INDEX_NAME_TASK_DATE = "idx_routine_entry_task_date";
 
         /**
          * Helper method which creates and return a SQL statement to create schema for table.
@@ -169,6 +185,25 @@ public final class DBContract {
             Logger.d(LOG_TAG, RoutineEntryTable.class.getSimpleName() + " Creation Query : " + query);
             return query;
         }
+
+        /**
+         * Helper method which creates and return SQL statements to create indexes on table.
+         * Index on (date, task_id) serves lookups of entries for a date (tasks completed on a date) and
+         * index on (task_id, date) serves lookups of entries for a task (task completion status).
+         * Both indexes cover these lookups so table rows are never read.
+         *
+         * @return array of SQL query strings to create indexes of table
+         */
+        static String[] getIndexCreationSql() {
+            String query = "CREATE INDEX IF NOT EXISTS %s ON %s(%s, %s);";
+            String[] queries = new String[]{
+                    String.format(query, INDEX_NAME_DATE_TASK, TABLE_NAME, COL_NAME_DATE, COL_NAME_TASK_ID),
+                    String.format(query, INDEX_NAME_TASK_DATE, TABLE_NAME, COL_NAME_TASK_ID, COL_NAME_DATE)
+            };
+            for (String q : queries)
+                Logger.d(LOG_TAG, RoutineEntryTable.class.getSimpleName() + " Index Creation Query : " + q);
+            return queries;
+        }
     }
 
     /**
@@ -180,12 +215,12 @@ public final class DBContract {
         static final String TABLE_NAME = "routine_stats";
 
         // Name of the table columns
-        public static final String COL_NAME_DATE = "date";
+        public static final String COL_NAME_DATE = "date"; // in epoch days
         public static final String COL_NAME_COUNT = "count";
 
         // Type of the table columns
         static final String COL_TYPE_ID = "INTEGER PRIMARY KEY AUTOINCREMENT";
-        static final String COL_TYPE_DATE = "TEXT NOT NULL";
+        static final String COL_TYPE_DATE = "INTEGER NOT NULL";
         static final String COL_TYPE_COUNT = "INTEGER NOT NULL";
 
         /**
@@ -216,12 +251,12 @@ public final class DBContract {
 
         // Name of the table columns
         public static final String COL_NAME_SECONDS = "seconds";
-        public static final String COL_NAME_DATE = "date";
+        public static final String COL_NAME_DATE = "date"; // in epoch days
 
         // Type of the table columns
         static final String COL_TYPE_ID = "INTEGER PRIMARY KEY AUTOINCREMENT";
         static final String COL_TYPE_SECONDS = "INTEGER NOT NULL";
-        static final String COL_TYPE_DATE = "TEXT NOT NULL";
+        static final String COL_TYPE_DATE = "INTEGER NOT NULL";
 
         /**
          * Helper method which creates and return a SQL statement to create schema for table.
@@ -240,4 +275,65 @@ public final class DBContract {
             return query;
         }
     }
+
+    /**
+     * Static class AlarmScheduleTable defining schema of table in database to store the next
+     * trigger time of every reminder along with a fingerprint of the task data it was computed from.
+     * Ordered by trigger time it is the queue of upcoming reminders whose head is armed with AlarmManager.
+     * It implements BaseColumns interface to automatically include _ID and _COUNT columns.
+     */
+    public static final class AlarmScheduleTable implements BaseColumns {
+        // Name of the table
+        public static final String TABLE_NAME = "alarm_schedule";
+
+        // Name of the table columns
+        public static final String COL_NAME_REMINDER_ID = "reminder_id";
+        public static final String COL_NAME_TASK_ID = "task_id";
+        public static final String COL_NAME_TRIGGER_TIME = "trigger_time"; // in milliseconds, -1 if reminder is not due anymore
+        public static final String COL_NAME_FINGERPRINT = "fingerprint";
+
+        // Name of the table indexes
+        static final String INDEX_NAME_TRIGGER_TIME = "idx_alarm_schedule_trigger_time";
+
+        // Type of the table columns
+        static final String COL_TYPE_ID = "INTEGER PRIMARY KEY AUTOINCREMENT";
+        static final String COL_TYPE_REMINDER_ID = "INTEGER NOT NULL";
+        static final String COL_TYPE_TASK_ID = "INTEGER NOT NULL";
+        static final String COL_TYPE_TRIGGER_TIME = "INTEGER NOT NULL";
+        static final String COL_TYPE_FINGERPRINT = "INTEGER NOT NULL";
+
+        /**
+         * Helper method which creates and return a SQL statement to create schema for table.
+         * Rows are not deleted with their reminders by a foreign key because system alarm has to be
+         * re-armed whenever a row is deleted.
+         *
+         * @return SQL query string to create table with schema in this class
+         */
+        static String getCreationSql() {
+            String query = "CREATE TABLE %s (%s %s, %s %s, %s %s, %s %s, %s %s, UNIQUE(%s));";
+            query = String.format(query,
+                    TABLE_NAME,
+                    _ID, COL_TYPE_ID,
+                    COL_NAME_REMINDER_ID, COL_TYPE_REMINDER_ID,
+                    COL_NAME_TASK_ID, COL_TYPE_TASK_ID,
+                    COL_NAME_TRIGGER_TIME, COL_TYPE_TRIGGER_TIME,
+                    COL_NAME_FINGERPRINT, COL_TYPE_FINGERPRINT,
+                    COL_NAME_REMINDER_ID);
+            Logger.d(LOG_TAG, AlarmScheduleTable.class.getSimpleName() + " Creation Query : " + query);
+            return query;
+        }
+
+        /**
+         * Helper method which creates and return SQL statements to create indexes on table.
+         * Index on trigger time serves the lookups of earliest and due reminders.
+         *
+         * @return array of SQL query strings to create indexes of table
+         */
+        static String[] getIndexCreationSql() {
+            String query = String.format("CREATE INDEX IF NOT EXISTS %s ON %s(%s);",
+                    INDEX_NAME_TRIGGER_TIME, TABLE_NAME, COL_NAME_TRIGGER_TIME);
+            Logger.d(LOG_TAG, AlarmScheduleTable.class.getSimpleName() + " Index Creation Query : " + query);
+            return new String[]{query};
+        }
+    }
 }
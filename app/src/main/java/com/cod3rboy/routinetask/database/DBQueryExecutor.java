@@ -2,14 +2,16 @@ package com.cod3rboy.routinetask.database;
 
 import android.content.ContentValues;
 import android.database.Cursor;
+import android.database.SQLException;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
 import android.os.Looper;
 
 import com.cod3rboy.routinetask.TaskApplication;
 import com.cod3rboy.routinetask.logging.Logger;
 
-import java.util.ArrayList;
-import java.util.Locale;
+import java.util.Arrays;
+import java.util.Set;
 
 import needle.Needle;
 
@@ -25,7 +27,14 @@ public final class DBQueryExecutor {
     private static final String TASK_TYPE_UPDATE = "task_type_update";
     private static final String TASK_TYPE_DELETE = "task_type_delete";
     private static final String TASK_TYPE_QUERY = "task_type_query";
+    // Number of queries which may run concurrently on separate reader connections
+    private static final int QUERY_THREAD_POOL_SIZE = 3;
     private static final String ERROR_SYNC_ON_MAIN_THREAD = "Synchronous database query should not be executed in main thread of application.";
+    /**
+     * Number of rows written in a single transaction by bulk insert and delete operations when no
+     * chunk size is specified by the caller.
+     */
+    public static final int DEFAULT_BATCH_CHUNK_SIZE = 500;
 
     public interface OnInsertCallback {
         void recordInserted(long rowId);
@@ -67,12 +76,16 @@ public final class DBQueryExecutor {
         Needle.onBackgroundThread().withTaskType(TASK_TYPE_INSERT).serially().execute(() -> {
             DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
             long newRowId;
-            synchronized (dbHelper) {
+            DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+            writeLock.lock();
+            try {
                 SQLiteDatabase db = dbHelper.getWritableDatabase();
                 newRowId = db.insert(tableName, nullColumnHack, cv);
+            } finally {
+                writeLock.unlock();
             }
             if (newRowId > 0) {
-                Logger.d(LOG_TAG, String.format(Locale.getDefault(), "New record is inserted in %s with id %d", tableName, newRowId));
+                Logger.d(LOG_TAG, "New record is inserted in %s with id %d", tableName, newRowId);
                 if (callback != null) callback.recordInserted(newRowId);
             }
         });
@@ -93,12 +106,16 @@ public final class DBQueryExecutor {
             throw new RuntimeException(ERROR_SYNC_ON_MAIN_THREAD);
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
         long newRowId;
-        synchronized (dbHelper) {
+        DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+        writeLock.lock();
+        try {
             SQLiteDatabase db = dbHelper.getWritableDatabase();
             newRowId = db.insert(tableName, nullColumnHack, cv);
+        } finally {
+            writeLock.unlock();
         }
         if (newRowId > 0) {
-            Logger.d(LOG_TAG, String.format(Locale.getDefault(), "New record is inserted in %s with id %d", tableName, newRowId));
+            Logger.d(LOG_TAG, "New record is inserted in %s with id %d", tableName, newRowId);
             return newRowId;
         }
         return -1;
@@ -106,6 +123,7 @@ public final class DBQueryExecutor {
 
     /**
      * This Method executes insert query asynchronously to insert new records in bulk in database.
+     * Records are inserted in transactions of {@link #DEFAULT_BATCH_CHUNK_SIZE} rows.
      *
      * @param tableName      name of the table in which task will be inserted
      * @param nullColumnHack SQLite null column hack
@@ -113,32 +131,38 @@ public final class DBQueryExecutor {
      * @param callback       callback to execute after bulk insert is complete
      */
     public static void insertAsync(final String tableName, final String nullColumnHack, final ContentValues[] contentValues, OnBulkInsertCallback callback) {
+        insertAsync(tableName, nullColumnHack, contentValues, DEFAULT_BATCH_CHUNK_SIZE, callback);
+    }
+
+    /**
+     * This Method executes insert query asynchronously to insert new records in bulk in database.
+     *
+     * @param tableName      name of the table in which task will be inserted
+     * @param nullColumnHack SQLite null column hack
+     * @param contentValues  an array of ContentValues containing column-value pairs to be inserted in database
+     * @param chunkSize      maximum number of rows inserted in a single transaction
+     * @param callback       callback to execute after bulk insert is complete
+     */
+    public static void insertAsync(final String tableName, final String nullColumnHack, final ContentValues[] contentValues, final int chunkSize, OnBulkInsertCallback callback) {
         Needle.onBackgroundThread().withTaskType(TASK_TYPE_INSERT).serially().execute(() -> {
             DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-            ArrayList<Long> rowIds = new ArrayList<>();
-            synchronized (dbHelper) {
+            long[] newRowIds;
+            DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+            writeLock.lock();
+            try {
                 SQLiteDatabase db = dbHelper.getWritableDatabase();
-                for (ContentValues cv : contentValues) {
-                    long newRowId = db.insert(tableName, nullColumnHack, cv);
-                    if (newRowId > 0) {
-                        Logger.d(LOG_TAG, String.format(Locale.getDefault(), "New record is inserted in %s with id %d", tableName, newRowId));
-                        rowIds.add(newRowId);
-                    } else {
-                        rowIds.add((long) -1);
-                    }
-                }
-            }
-            if (callback != null) {
-                long[] newRowIds = new long[rowIds.size()];
-                for (int i = 0; i < newRowIds.length; i++) newRowIds[i] = rowIds.get(i);
-                callback.recordsInserted(newRowIds);
+                newRowIds = insertInBatches(db, tableName, nullColumnHack, contentValues, chunkSize);
+            } finally {
+                writeLock.unlock();
             }
+            if (callback != null) callback.recordsInserted(newRowIds);
         });
     }
 
     /**
      * This Method executes insert query synchronously to insert new records in bulk in database. It
-     * should always be executed in a background thread.
+     * should always be executed in a background thread. Records are inserted in transactions of
+     * {@link #DEFAULT_BATCH_CHUNK_SIZE} rows.
      *
      * @param tableName      name of the table in which task will be inserted
      * @param nullColumnHack SQLite null column hack
@@ -146,26 +170,32 @@ public final class DBQueryExecutor {
      * @return array of rowIds of records inserted into database. IDs for failed insertions are set to -1 in array.
      */
     public static long[] insert(final String tableName, final String nullColumnHack, final ContentValues[] contentValues) {
+        return insert(tableName, nullColumnHack, contentValues, DEFAULT_BATCH_CHUNK_SIZE);
+    }
+
+    /**
+     * This Method executes insert query synchronously to insert new records in bulk in database. It
+     * should always be executed in a background thread.
+     *
+     * @param tableName      name of the table in which task will be inserted
+     * @param nullColumnHack SQLite null column hack
+     * @param contentValues  an array of ContentValues containing column-value pairs to be inserted in database
+     * @param chunkSize      maximum number of rows inserted in a single transaction
+     * @return array of rowIds of records inserted into database. IDs for failed insertions are set to -1 in array.
+     */
+    public static long[] insert(final String tableName, final String nullColumnHack, final ContentValues[] contentValues, final int chunkSize) {
         // Verify that invoking thread is not Main Thread
         if (Looper.myLooper() == Looper.getMainLooper())
             throw new RuntimeException(ERROR_SYNC_ON_MAIN_THREAD);
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-        ArrayList<Long> rowIds = new ArrayList<>();
-        synchronized (dbHelper) {
+        DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+        writeLock.lock();
+        try {
             SQLiteDatabase db = dbHelper.getWritableDatabase();
-            for (ContentValues cv : contentValues) {
-                long newRowId = db.insert(tableName, nullColumnHack, cv);
-                if (newRowId > 0) {
-                    Logger.d(LOG_TAG, String.format(Locale.getDefault(), "New record is inserted in %s with id %d", tableName, newRowId));
-                    rowIds.add(newRowId);
-                } else {
-                    rowIds.add((long) -1);
-                }
-            }
+            return insertInBatches(db, tableName, nullColumnHack, contentValues, chunkSize);
+        } finally {
+            writeLock.unlock();
         }
-        long[] newRowIds = new long[rowIds.size()];
-        for (int i = 0; i < newRowIds.length; i++) newRowIds[i] = rowIds.get(i);
-        return newRowIds;
     }
 
     /**
@@ -179,12 +209,16 @@ public final class DBQueryExecutor {
         Needle.onBackgroundThread().withTaskType(TASK_TYPE_DELETE).serially().execute(() -> {
             DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
             int rowsAffected;
-            synchronized (dbHelper) {
+            DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+            writeLock.lock();
+            try {
                 SQLiteDatabase db = dbHelper.getWritableDatabase();
                 rowsAffected = db.delete(tableName, String.format("%s = ?", DBContract.TasksTable._ID), new String[]{String.valueOf(id)});
+            } finally {
+                writeLock.unlock();
             }
             if (rowsAffected > 0) {
-                Logger.d(LOG_TAG, String.format(Locale.getDefault(), "Record with id %d is deleted from %s", id, tableName));
+                Logger.d(LOG_TAG, "Record with id %d is deleted from %s", id, tableName);
                 if (callback != null) callback.recordDeleted(id);
             }
         });
@@ -204,12 +238,16 @@ public final class DBQueryExecutor {
             throw new RuntimeException(ERROR_SYNC_ON_MAIN_THREAD);
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
         int rowsAffected;
-        synchronized (dbHelper) {
+        DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+        writeLock.lock();
+        try {
             SQLiteDatabase db = dbHelper.getWritableDatabase();
             rowsAffected = db.delete(tableName, String.format("%s = ?", DBContract.TasksTable._ID), new String[]{String.valueOf(id)});
+        } finally {
+            writeLock.unlock();
         }
         if (rowsAffected > 0) {
-            Logger.d(LOG_TAG, String.format(Locale.getDefault(), "Record with id %d is deleted from %s", id, tableName));
+            Logger.d(LOG_TAG, "Record with id %d is deleted from %s", id, tableName);
             return true;
         }
         return false;
@@ -217,57 +255,76 @@ public final class DBQueryExecutor {
 
     /**
      * This Method executes delete query synchronously to delete existing records in bulk from database.
-     * It should always be executed in a background thread.
+     * It should always be executed in a background thread. Records are deleted in transactions of
+     * {@link #DEFAULT_BATCH_CHUNK_SIZE} rows.
      *
      * @param tableName name of the table from which task will be deleted
      * @param ids       array of IDs of the records to be deleted
      * @return true if all tasks were deleted and false if tasks deletion failed fully or partially.
      */
     public static boolean delete(final String tableName, final long[] ids) {
+        return delete(tableName, ids, DEFAULT_BATCH_CHUNK_SIZE);
+    }
+
+    /**
+     * This Method executes delete query synchronously to delete existing records in bulk from database.
+     * It should always be executed in a background thread.
+     *
+     * @param tableName name of the table from which task will be deleted
+     * @param ids       array of IDs of the records to be deleted
+     * @param chunkSize maximum number of rows deleted in a single transaction
+     * @return true if all tasks were deleted and false if tasks deletion failed fully or partially.
+     */
+    public static boolean delete(final String tableName, final long[] ids, final int chunkSize) {
         // Verify that invoking thread is not Main Thread
         if (Looper.myLooper() == Looper.getMainLooper())
             throw new RuntimeException(ERROR_SYNC_ON_MAIN_THREAD);
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-        ArrayList<Long> deletedIds = new ArrayList<>();
-        synchronized (dbHelper) {
+        long[] deletedIds;
+        DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+        writeLock.lock();
+        try {
             SQLiteDatabase db = dbHelper.getWritableDatabase();
-            for (long id : ids) {
-                int rowsAffected = db.delete(tableName, String.format("%s = ?", DBContract.TasksTable._ID), new String[]{String.valueOf(id)});
-                if (rowsAffected > 0) {
-                    Logger.d(LOG_TAG, String.format(Locale.getDefault(), "Record with id %d is deleted from %s", id, tableName));
-                    deletedIds.add(id);
-                }
-            }
+            deletedIds = deleteInBatches(db, tableName, ids, chunkSize);
+        } finally {
+            writeLock.unlock();
         }
-        return ids.length == deletedIds.size();
+        return ids.length == deletedIds.length;
     }
 
     /**
      * This Method executes delete query asynchronously to delete existing records in bulk from database.
+     * Records are deleted in transactions of {@link #DEFAULT_BATCH_CHUNK_SIZE} rows.
      *
      * @param tableName name of the table from which task will be deleted
      * @param ids       array of IDs of the records to be deleted
      * @param callback  callback to executes after records are deleted
      */
     public static void deleteAsync(final String tableName, final long[] ids, OnBulkDeleteCallback callback) {
+        deleteAsync(tableName, ids, DEFAULT_BATCH_CHUNK_SIZE, callback);
+    }
+
+    /**
+     * This Method executes delete query asynchronously to delete existing records in bulk from database.
+     *
+     * @param tableName name of the table from which task will be deleted
+     * @param ids       array of IDs of the records to be deleted
+     * @param chunkSize maximum number of rows deleted in a single transaction
+     * @param callback  callback to executes after records are deleted
+     */
+    public static void deleteAsync(final String tableName, final long[] ids, final int chunkSize, OnBulkDeleteCallback callback) {
         Needle.onBackgroundThread().withTaskType(TASK_TYPE_DELETE).serially().execute(() -> {
             DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-            ArrayList<Long> deletedIds = new ArrayList<>();
-            synchronized (dbHelper) {
+            long[] deletedIds;
+            DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+            writeLock.lock();
+            try {
                 SQLiteDatabase db = dbHelper.getWritableDatabase();
-                for (long id : ids) {
-                    int rowsAffected = db.delete(tableName, String.format("%s = ?", DBContract.TasksTable._ID), new String[]{String.valueOf(id)});
-                    if (rowsAffected > 0) {
-                        Logger.d(LOG_TAG, String.format(Locale.getDefault(), "Record with id %d is deleted from %s", id, tableName));
-                        deletedIds.add(id);
-                    }
-                }
-            }
-            if (!deletedIds.isEmpty() && callback != null) {
-                long[] idsDeleted = new long[deletedIds.size()];
-                for (int i = 0; i < idsDeleted.length; i++) idsDeleted[i] = deletedIds.get(i);
-                callback.recordsDeleted(idsDeleted);
+                deletedIds = deleteInBatches(db, tableName, ids, chunkSize);
+            } finally {
+                writeLock.unlock();
             }
+            if (deletedIds.length > 0 && callback != null) callback.recordsDeleted(deletedIds);
         });
     }
 
@@ -286,12 +343,16 @@ public final class DBQueryExecutor {
             throw new RuntimeException(ERROR_SYNC_ON_MAIN_THREAD);
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
         int rowsAffected;
-        synchronized (dbHelper) {
+        DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+        writeLock.lock();
+        try {
             SQLiteDatabase db = dbHelper.getWritableDatabase();
             rowsAffected = db.update(tableName, cv, String.format("%s = ?", DBContract.TasksTable._ID), new String[]{String.valueOf(id)});
+        } finally {
+            writeLock.unlock();
         }
         if (rowsAffected > 0) {
-            Logger.d(LOG_TAG, String.format(Locale.getDefault(), "Record with id %d in %s is updated", id, tableName));
+            Logger.d(LOG_TAG, "Record with id %d in %s is updated", id, tableName);
             return true;
         }
         return false;
@@ -309,12 +370,16 @@ public final class DBQueryExecutor {
         Needle.onBackgroundThread().withTaskType(TASK_TYPE_UPDATE).serially().execute(() -> {
             DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
             int rowsAffected;
-            synchronized (dbHelper) {
+            DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+            writeLock.lock();
+            try {
                 SQLiteDatabase db = dbHelper.getWritableDatabase();
                 rowsAffected = db.update(tableName, cv, String.format("%s = ?", DBContract.TasksTable._ID), new String[]{String.valueOf(id)});
+            } finally {
+                writeLock.unlock();
             }
             if (rowsAffected > 0) {
-                Logger.d(LOG_TAG, String.format(Locale.getDefault(), "Record with id %d in %s is updated", id, tableName));
+                Logger.d(LOG_TAG, "Record with id %d in %s is updated", id, tableName);
                 if (callback != null) callback.recordUpdated(id);
             }
         });
@@ -330,13 +395,11 @@ public final class DBQueryExecutor {
      * @param callback      Callback to execute after query is completed and to pass on results
      */
     public static void queryAsync(String sql, String[] selectionArgs, OnQueryCallback callback) {
-        Needle.onBackgroundThread().withTaskType(TASK_TYPE_QUERY).serially().execute(() -> {
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_QUERY).withThreadPoolSize(QUERY_THREAD_POOL_SIZE).execute(() -> {
             DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-            Cursor result;
-            synchronized (dbHelper) {
-                SQLiteDatabase db = dbHelper.getReadableDatabase();
-                result = db.rawQuery(sql, selectionArgs);
-            }
+            // Readers do not take the write lock as database runs in write-ahead logging mode
+            SQLiteDatabase db = dbHelper.getReadableDatabase();
+            Cursor result = db.rawQuery(sql, selectionArgs);
             if (callback != null) callback.queryCompleted(result);
             if (!result.isClosed()) result.close();
         });
@@ -355,11 +418,131 @@ public final class DBQueryExecutor {
         if (Looper.myLooper() == Looper.getMainLooper())
             throw new RuntimeException(ERROR_SYNC_ON_MAIN_THREAD);
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-        Cursor result;
-        synchronized (dbHelper) {
-            SQLiteDatabase db = dbHelper.getReadableDatabase();
-            result = db.rawQuery(sql, selectionArgs);
+        // Readers do not take the write lock as database runs in write-ahead logging mode
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        return db.rawQuery(sql, selectionArgs);
+    }
+
+    /**
+     * Inserts given rows using a single compiled INSERT statement which is re-bound for each row.
+     * Rows are committed in transactions of at most chunkSize rows so a bulk insert costs one
+     * journal commit per chunk instead of one per row. A row which fails to insert does not
+     * abort the chunk, its id is reported as -1 instead.
+     *
+     * @return array of rowIds in the order of given rows. IDs for failed insertions are set to -1.
+     */
+    private static long[] insertInBatches(SQLiteDatabase db, String tableName, String nullColumnHack, ContentValues[] contentValues, int chunkSize) {
+        long[] newRowIds = new long[contentValues.length];
+        if (contentValues.length == 0) return newRowIds;
+        if (chunkSize < 1) chunkSize = contentValues.length;
+        SQLiteStatement statement = null;
+        String[] columns = null;
+        try {
+            for (int start = 0; start < contentValues.length; start += chunkSize) {
+                int end = Math.min(start + chunkSize, contentValues.length);
+                db.beginTransaction();
+                try {
+                    for (int i = start; i < end; i++) {
+                        ContentValues cv = contentValues[i];
+                        if (cv == null || cv.size() == 0) {
+                            // Let SQLiteDatabase apply null column hack for empty rows
+                            newRowIds[i] = db.insert(tableName, nullColumnHack, cv);
+                            continue;
+                        }
+                        if (columns == null || !hasSameColumns(cv, columns)) {
+                            // All rows of a bulk insert normally share columns so this happens once
+                            if (statement != null) statement.close();
+                            columns = cv.keySet().toArray(new String[0]);
+                            statement = db.compileStatement(buildInsertSql(tableName, columns));
+                        }
+                        statement.clearBindings();
+                        for (int c = 0; c < columns.length; c++)
+                            bindValue(statement, c + 1, cv.get(columns[c]));
+                        try {
+                            newRowIds[i] = statement.executeInsert();
+                        } catch (SQLException e) {
+                            Logger.e(LOG_TAG, "Failed to insert record in " + tableName, e);
+                            newRowIds[i] = -1;
+                        }
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        } finally {
+            if (statement != null) statement.close();
+        }
+        int insertedCount = 0;
+        for (long rowId : newRowIds) if (rowId > 0) insertedCount++;
+        Logger.d(LOG_TAG, "%d of %d records are inserted in %s", insertedCount, newRowIds.length, tableName);
+        return newRowIds;
+    }
+
+    /**
+     * Deletes records with given ids using a single compiled DELETE statement which is re-bound for
+     * each id. Deletes are committed in transactions of at most chunkSize rows.
+     *
+     * @return array of ids of the records actually deleted in the order they were given.
+     */
+    private static long[] deleteInBatches(SQLiteDatabase db, String tableName, long[] ids, int chunkSize) {
+        long[] deletedIds = new long[ids.length];
+        int deletedCount = 0;
+        if (ids.length == 0) return deletedIds;
+        if (chunkSize < 1) chunkSize = ids.length;
+        SQLiteStatement statement = db.compileStatement(String.format("DELETE FROM %s WHERE %s = ?", tableName, DBContract.TasksTable._ID));
+        try {
+            for (int start = 0; start < ids.length; start += chunkSize) {
+                int end = Math.min(start + chunkSize, ids.length);
+                db.beginTransaction();
+                try {
+                    for (int i = start; i < end; i++) {
+                        statement.bindLong(1, ids[i]);
+                        if (statement.executeUpdateDelete() > 0) deletedIds[deletedCount++] = ids[i];
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+        } finally {
+            statement.close();
+        }
+        Logger.d(LOG_TAG, "%d of %d records are deleted from %s", deletedCount, ids.length, tableName);
+        return deletedCount == ids.length ? deletedIds : Arrays.copyOf(deletedIds, deletedCount);
+    }
+
+    private static boolean hasSameColumns(ContentValues cv, String[] columns) {
+        if (cv.size() != columns.length) return false;
+        Set<String> keys = cv.keySet();
+        for (String column : columns) if (!keys.contains(column)) return false;
+        return true;
+    }
+
+    private static String buildInsertSql(String tableName, String[] columns) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName).append(" (");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) sql.append(',');
+            sql.append(columns[i]);
+        }
+        sql.append(") VALUES (");
+        for (int i = 0; i < columns.length; i++) sql.append(i > 0 ? ",?" : "?");
+        return sql.append(')').toString();
+    }
+
+    private static void bindValue(SQLiteStatement statement, int index, Object value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            statement.bindLong(index, ((Number) value).longValue());
+        } else if (value instanceof Boolean) {
+            statement.bindLong(index, (Boolean) value ? 1 : 0);
+        } else if (value instanceof Double || value instanceof Float) {
+            statement.bindDouble(index, ((Number) value).doubleValue());
+        } else if (value instanceof byte[]) {
+            statement.bindBlob(index, (byte[]) value);
+        } else {
+            statement.bindString(index, value.toString());
         }
-        return result;
     }
-}
\ No newline at end of file
+}
@@ -11,12 +11,19 @@ import com.cod3rboy.routinetask.utilities.Time;
 /**
  * SQLiteOpenHelper class to create/upgrade SQLite database.
  * Only Single instance of this class exists throughout the application.
+ * Database is opened in write-ahead logging mode so that multiple reader connections can query
+ * database concurrently with a single writer. Writers must be serialized using the lock returned
+ * by {@link #getWriteLock()}.
  */
 public class DatabaseHelper extends SQLiteOpenHelper {
     // Database version code
-    private final static int DATABASE_VERSION = 3;
+    private final static int DATABASE_VERSION = 8;
     // Singleton instance of the database helper class
     private static DatabaseHelper singleton = null;
+    // Lock serializing all database writers
+    private final DatabaseWriteLock writeLock = new DatabaseWriteLock();
+    // Repeat day columns of tasks table used up to database version 5
+    private static final String[] LEGACY_DAY_COLUMNS = new String[]{"sun", "mon", "tue", "wed", "thr", "fri", "sat"};
 
     /**
      * Private constructor to create instance of DatabaseHelper class
@@ -26,6 +33,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
     private DatabaseHelper(Context context) {
         // Chain constructor call up the hierarchy
         super(context, DBContract.DATABASE_NAME, null, DATABASE_VERSION);
+        // Let readers use their own connections while a write is in progress
+        setWriteAheadLoggingEnabled(true);
     }
 
     /**
@@ -42,6 +51,16 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         return singleton;
     }
 
+    /**
+     * Returns the lock which must be held while writing to database. Readers do not need to
+     * acquire any lock.
+     *
+     * @return database write lock
+     */
+    public DatabaseWriteLock getWriteLock() {
+        return writeLock;
+    }
+
     /**
      * This method gets called only if database does not exists on the device.
      * It is called only once when using either getReadableDatabase or getWritableDatabase on SQLiteDatabase
@@ -57,6 +76,21 @@ public class DatabaseHelper extends SQLiteOpenHelper {
         db.execSQL(DBContract.RoutineEntryTable.getCreationSql());
         db.execSQL(DBContract.RoutineStatsTable.getCreationSql());
         db.execSQL(DBContract.PomodoroStatsTable.getCreationSql());
+        db.execSQL(DBContract.AlarmScheduleTable.getCreationSql());
+        createIndexes(db);
+    }
+
+    /**
+     * This method gets called every time database connection is being configured before database
+     * is created, upgraded or opened. Here we size the prepared statement cache of connections so
+     * that the queries of query catalog stay compiled.
+     *
+     * @param db SQLiteDatabase object
+     */
+    @Override
+    public void onConfigure(SQLiteDatabase db) {
+        super.onConfigure(db);
+        db.setMaxSqlCacheSize(QueryCatalog.STATEMENT_CACHE_SIZE);
     }
 
     /**
@@ -82,7 +116,123 @@ public class DatabaseHelper extends SQLiteOpenHelper {
      */
     @Override
     public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
-        // Do something to migrate to new database
+        // Apply migrations one version at a time
+        if (oldVersion < 3) migrateToVersion3(db, oldVersion);
+        if (oldVersion < 5) migrateToVersion5(db);
+        if (oldVersion < 6) migrateToVersion6(db);
+        if (oldVersion < 7) migrateToVersion7(db);
+        // Version 8 only adds index on trigger time of alarm schedule table
+        // Create indexes which do not exist in database of old version or were dropped with rebuilt tables
+        createIndexes(db);
+    }
+
+    /**
+     * Creates indexes used by the frequently executed queries.
+     *
+     * @param db SQLiteDatabase object
+     */
+    private void createIndexes(SQLiteDatabase db) {
+        for (String sql : DBContract.TasksTable.getIndexCreationSql()) db.execSQL(sql);
+        for (String sql : DBContract.RoutineEntryTable.getIndexCreationSql()) db.execSQL(sql);
+        for (String sql : DBContract.AlarmScheduleTable.getIndexCreationSql()) db.execSQL(sql);
+    }
+
+    /**
+     * Migrates database of version 6 to version 7. Alarm schedule table is created empty so all
+     * reminders are scheduled by the first alarm reconciliation.
+     *
+     * @param db SQLiteDatabase object
+     */
+    private void migrateToVersion7(SQLiteDatabase db) {
+        db.execSQL(DBContract.AlarmScheduleTable.getCreationSql());
+    }
+
+    /**
+     * Migrates database of version 5 to version 6. Seven repeat day columns of tasks table are
+     * replaced by a single repeat mask column. Table is rebuilt under a new name and renamed back so
+     * that foreign keys of reminders and routine entries keep referencing it. Foreign keys are not
+     * enforced until database is opened so dropping old table does not cascade.
+     *
+     * @param db SQLiteDatabase object
+     */
+    private void migrateToVersion6(SQLiteDatabase db) {
+        String newTable = DBContract.TasksTable.TABLE_NAME + "_new";
+        StringBuilder mask = new StringBuilder();
+        for (int i = 0; i < LEGACY_DAY_COLUMNS.length; i++) {
+            if (i > 0) mask.append(" | ");
+            // Bit of a day is the calendar day of week number minus one
+            mask.append("((").append(LEGACY_DAY_COLUMNS[i]).append(" != 0) << ").append(i).append(")");
+        }
+        String columns = DBContract.TasksTable._ID + ", " + DBContract.TasksTable.COL_NAME_TITLE + ", "
+                + DBContract.TasksTable.COL_NAME_DESC + ", " + DBContract.TasksTable.COL_NAME_COLOR;
+        db.execSQL(DBContract.TasksTable.getCreationSql(newTable));
+        db.execSQL("INSERT INTO " + newTable + " (" + columns + ", " + DBContract.TasksTable.COL_NAME_REPEAT_MASK + ") SELECT "
+                + columns + ", " + mask + " FROM " + DBContract.TasksTable.TABLE_NAME + ";");
+        db.execSQL("DROP TABLE " + DBContract.TasksTable.TABLE_NAME + ";");
+        db.execSQL("ALTER TABLE " + newTable + " RENAME TO " + DBContract.TasksTable.TABLE_NAME + ";");
+    }
+
+    /**
+     * Returns SQL statement creating tasks table with schema of database version 3 to 5.
+     */
+    private String getLegacyTasksCreationSql() {
+        StringBuilder query = new StringBuilder("CREATE TABLE ").append(DBContract.TasksTable.TABLE_NAME).append(" (")
+                .append(DBContract.TasksTable._ID).append(" INTEGER PRIMARY KEY AUTOINCREMENT, ")
+                .append(DBContract.TasksTable.COL_NAME_TITLE).append(" TEXT NOT NULL DEFAULT \"\", ")
+                .append(DBContract.TasksTable.COL_NAME_DESC).append(" TEXT NOT NULL DEFAULT \"\", ")
+                .append(DBContract.TasksTable.COL_NAME_COLOR).append(" INTEGER NOT NULL DEFAULT ").append(DBContract.BG_COLORS[0]);
+        for (String column : LEGACY_DAY_COLUMNS) query.append(", ").append(column).append(" int(1) NOT NULL DEFAULT 0");
+        return query.append(");").toString();
+    }
+
+    /**
+     * Migrates database of version 4 to version 5. Dates of statistics tables are converted from
+     * text in yyyy-MM-dd format to epoch days. SQLite cannot change type of a column so each table
+     * is rebuilt and its rows are copied with converted dates.
+     *
+     * @param db SQLiteDatabase object
+     */
+    private void migrateToVersion5(SQLiteDatabase db) {
+        rebuildWithEpochDays(db, DBContract.RoutineEntryTable.TABLE_NAME, DBContract.RoutineEntryTable.getCreationSql(),
+                DBContract.RoutineEntryTable.COL_NAME_DATE, DBContract.RoutineEntryTable._ID,
+                DBContract.RoutineEntryTable.COL_NAME_TASK_ID);
+        rebuildWithEpochDays(db, DBContract.RoutineStatsTable.TABLE_NAME, DBContract.RoutineStatsTable.getCreationSql(),
+                DBContract.RoutineStatsTable.COL_NAME_DATE, DBContract.RoutineStatsTable._ID,
+                DBContract.RoutineStatsTable.COL_NAME_COUNT);
+        rebuildWithEpochDays(db, DBContract.PomodoroStatsTable.TABLE_NAME, DBContract.PomodoroStatsTable.getCreationSql(),
+                DBContract.PomodoroStatsTable.COL_NAME_DATE, DBContract.PomodoroStatsTable._ID,
+                DBContract.PomodoroStatsTable.COL_NAME_SECONDS);
+    }
+
+    /**
+     * Rebuilds a table with its current schema converting text dates of a column into epoch days.
+     *
+     * @param db          SQLiteDatabase object
+     * @param table       name of the table
+     * @param creationSql SQL statement creating table with current schema
+     * @param dateColumn  name of the date column
+     * @param columns     names of other columns to copy
+     */
+    private void rebuildWithEpochDays(SQLiteDatabase db, String table, String creationSql, String dateColumn, String... columns) {
+        String oldTable = table + "_old";
+        StringBuilder columnList = new StringBuilder();
+        for (String column : columns) columnList.append(column).append(", ");
+        db.execSQL("ALTER TABLE " + table + " RENAME TO " + oldTable + ";");
+        db.execSQL(creationSql);
+        // Julian day of 1970-01-01 is 2440587.5
+        db.execSQL("INSERT INTO " + table + " (" + columnList + dateColumn + ") SELECT " + columnList
+                + "CAST(julianday(" + dateColumn + ") - 2440587.5 AS INTEGER) FROM " + oldTable
+                + " WHERE julianday(" + dateColumn + ") IS NOT NULL;");
+        db.execSQL("DROP TABLE " + oldTable + ";");
+    }
+
+    /**
+     * Migrates database of version 1 or 2 to version 3.
+     *
+     * @param db         SQLiteDatabase object
+     * @param oldVersion database version of existing database
+     */
+    private void migrateToVersion3(SQLiteDatabase db, int oldVersion) {
         // Create Statistics Tables for databases with version code 1
         // Change structure of Time Table table with preserving existing data
         String oldTasksTableName = "timetable";
@@ -111,20 +261,8 @@ public class DatabaseHelper extends SQLiteOpenHelper {
                         // Version 2 database uses colors with translucent opacity but version 3 uses opaque colors
                         0xFF000000 | c.getInt(c.getColumnIndex(DBContract.TasksTable.COL_NAME_COLOR)));
             }
-            tasksValues[i].put(DBContract.TasksTable.COL_NAME_SUNDAY,
-                    c.getInt(c.getColumnIndex(DBContract.TasksTable.COL_NAME_SUNDAY)));
-            tasksValues[i].put(DBContract.TasksTable.COL_NAME_MONDAY,
-                    c.getInt(c.getColumnIndex(DBContract.TasksTable.COL_NAME_MONDAY)));
-            tasksValues[i].put(DBContract.TasksTable.COL_NAME_TUESDAY,
-                    c.getInt(c.getColumnIndex(DBContract.TasksTable.COL_NAME_TUESDAY)));
-            tasksValues[i].put(DBContract.TasksTable.COL_NAME_WEDNESDAY,
-                    c.getInt(c.getColumnIndex(DBContract.TasksTable.COL_NAME_WEDNESDAY)));
-            tasksValues[i].put(DBContract.TasksTable.COL_NAME_THURSDAY,
-                    c.getInt(c.getColumnIndex(DBContract.TasksTable.COL_NAME_THURSDAY)));
-            tasksValues[i].put(DBContract.TasksTable.COL_NAME_FRIDAY,
-                    c.getInt(c.getColumnIndex(DBContract.TasksTable.COL_NAME_FRIDAY)));
-            tasksValues[i].put(DBContract.TasksTable.COL_NAME_SATURDAY,
-                    c.getInt(c.getColumnIndex(DBContract.TasksTable.COL_NAME_SATURDAY)));
+            for (String column : LEGACY_DAY_COLUMNS)
+                tasksValues[i].put(column, c.getInt(c.getColumnIndex(column)));
             i++;
         }
         c.close();
@@ -153,7 +291,7 @@ public class DatabaseHelper extends SQLiteOpenHelper {
             db.execSQL("DROP TABLE IF EXISTS " + DBContract.RoutineEntryTable.TABLE_NAME + ";");
         }
         db.execSQL("DROP TABLE IF EXISTS " + oldTasksTableName + ";");
-        db.execSQL(DBContract.TasksTable.getCreationSql());
+        db.execSQL(getLegacyTasksCreationSql());
 
         for (ContentValues cv : tasksValues)
             db.insert(DBContract.TasksTable.TABLE_NAME, null, cv);
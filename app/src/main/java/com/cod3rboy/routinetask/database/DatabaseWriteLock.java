@@ -0,0 +1,118 @@
+package com.cod3rboy.routinetask.database;
+
+import android.os.SystemClock;
+
+import com.cod3rboy.routinetask.logging.FlightRecorder;
+import com.cod3rboy.routinetask.logging.Logger;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Lock which serializes all writers of the application database. Database runs in write-ahead
+ * logging mode so readers never take this lock and keep reading from their own connections
+ * while a write is in progress. Lock also keeps track of the time writers spend waiting for it
+ * so that contention on the database can be observed.
+ * Usage:
+ * <pre>
+ *     writeLock.lock();
+ *     try {
+ *         // write to database
+ *     } finally {
+ *         writeLock.unlock();
+ *     }
+ * </pre>
+ */
+public final class DatabaseWriteLock {
+    private static final String LOG_TAG = DatabaseWriteLock.class.getSimpleName();
+    // Waits longer than this threshold are reported in logs
+    private static final long SLOW_WAIT_THRESHOLD_MILLIS = 50;
+
+    private final ReentrantLock lock = new ReentrantLock(true);
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong contendedCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    DatabaseWriteLock() {
+    }
+
+    /**
+     * Acquires the write lock waiting if another writer currently holds it.
+     */
+    public void lock() {
+        if (lock.tryLock()) {
+            acquireCount.incrementAndGet();
+            return;
+        }
+        long waitStart = SystemClock.elapsedRealtimeNanos();
+        lock.lock();
+        long waited = SystemClock.elapsedRealtimeNanos() - waitStart;
+        acquireCount.incrementAndGet();
+        contendedCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waited);
+        long max;
+        do {
+            max = maxWaitNanos.get();
+        } while (waited > max && !maxWaitNanos.compareAndSet(max, waited));
+        if (TimeUnit.NANOSECONDS.toMillis(waited) >= SLOW_WAIT_THRESHOLD_MILLIS) {
+            FlightRecorder.event(FlightRecorder.EVENT_WRITE_LOCK_WAITED,
+                    TimeUnit.NANOSECONDS.toMillis(waited), Thread.currentThread().getId());
+            Logger.w(LOG_TAG, "Waited %d ms for database write lock in thread %s",
+                    TimeUnit.NANOSECONDS.toMillis(waited), Thread.currentThread().getName());
+        }
+    }
+
+    /**
+     * Releases the write lock. Must be called by the thread holding the lock.
+     */
+    public void unlock() {
+        lock.unlock();
+    }
+
+    /**
+     * @return number of times write lock was acquired
+     */
+    public long getAcquireCount() {
+        return acquireCount.get();
+    }
+
+    /**
+     * @return number of times a writer had to wait because lock was held by another writer
+     */
+    public long getContendedCount() {
+        return contendedCount.get();
+    }
+
+    /**
+     * @return total time in milliseconds writers spent waiting for the lock
+     */
+    public long getTotalWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+    }
+
+    /**
+     * @return longest time in milliseconds a single writer waited for the lock
+     */
+    public long getMaxWaitMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get());
+    }
+
+    /**
+     * Resets collected lock wait time statistics.
+     */
+    public void resetStats() {
+        acquireCount.set(0);
+        contendedCount.set(0);
+        totalWaitNanos.set(0);
+        maxWaitNanos.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.getDefault(), "DatabaseWriteLock{acquired=%d, contended=%d, totalWait=%dms, maxWait=%dms}",
+                getAcquireCount(), getContendedCount(), getTotalWaitMillis(), getMaxWaitMillis());
+    }
+}
@@ -4,18 +4,16 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.util.SparseIntArray;
 
 import com.cod3rboy.routinetask.Utilities;
 import com.cod3rboy.routinetask.events.RandomStatsGenerated;
 import com.cod3rboy.routinetask.events.StatisticsReset;
 import com.cod3rboy.routinetask.logging.Logger;
+import com.cod3rboy.routinetask.utilities.EpochDay;
 
 import org.greenrobot.eventbus.EventBus;
 
-import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Objects;
-
 /**
  * PomodoroStatsManager class provides functionality related to collection and retrieval of
  * Pomodoro Statistics Info.
@@ -44,43 +42,17 @@ public class PomodoroStatsManager {
             public void run() {
                 // Convert milliseconds to seconds
                 int seconds = (int) Math.floor(millis / 1000f);
-                String todayDate = Utilities.getTodayDateString();
+                int today = EpochDay.today();
                 // Get reference to database
                 DatabaseHelper dbHelper = DatabaseHelper.getInstance(mContext);
-                synchronized (dbHelper){
+                DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+                writeLock.lock();
+                try {
                     SQLiteDatabase db = dbHelper.getWritableDatabase();
-                    // Query any existing record
-                    Cursor c = db.query(DBContract.PomodoroStatsTable.TABLE_NAME,
-                            new String[]{DBContract.PomodoroStatsTable._ID, DBContract.PomodoroStatsTable.COL_NAME_SECONDS},
-                            String.format("%s = ?", DBContract.PomodoroStatsTable.COL_NAME_DATE),
-                            new String[]{todayDate},
-                            null,
-                            null,
-                            null);
-                    int count = c.getCount();
-                    if(count == 0){ // Insert the first pomodoro time record
-                        c.close();
-                        ContentValues cv = new ContentValues();
-                        cv.put(DBContract.PomodoroStatsTable.COL_NAME_SECONDS, seconds);
-                        cv.put(DBContract.PomodoroStatsTable.COL_NAME_DATE, todayDate);
-                        long id = db.insert(DBContract.PomodoroStatsTable.TABLE_NAME,null, cv);
-                        if(id > 0){
-                            Logger.d(LOG_TAG, String.format("Added %d pomodoro seconds to pomodoro statistics.", seconds));
-                        }
-                    }else{ // Update existing pomodoro time record
-                        c.moveToFirst();
-                        long id = c.getInt(0);
-                        int lastSeconds = c.getInt(1);
-                        c.close();
-                        ContentValues cv = new ContentValues();
-                        cv.put(DBContract.PomodoroStatsTable.COL_NAME_SECONDS, lastSeconds + seconds);
-                        int rowsAffected = db.update(DBContract.PomodoroStatsTable.TABLE_NAME, cv,
-                                String.format("%s = ?", DBContract.PomodoroStatsTable._ID),
-                                new String[]{String.valueOf(id)});
-                        if(rowsAffected > 0){
-                            Logger.d(LOG_TAG, String.format("Added %d pomodoro seconds to pomodoro statistics.", seconds));
-                        }
-                    }
+                    long total = StatsCounter.POMODORO_STATS.add(db, today, seconds);
+                    Logger.d(LOG_TAG, "Added %d pomodoro seconds to pomodoro statistics, total today %d.", seconds, total);
+                } finally {
+                    writeLock.unlock();
                 }
             }
         }).start();
@@ -90,28 +62,28 @@ public class PomodoroStatsManager {
     public void generateRandomPomodoroStats(final String startDate,final int rangeMin,final int rangeMax){
         new Thread(()->{
             final int SKIP_DAYS_LIMIT = 3;
-            Calendar start = Calendar.getInstance();
-            Calendar end = Calendar.getInstance();
-            start.setTime(Objects.requireNonNull(Utilities.getDateObject(startDate)));
-            end.setTime(Objects.requireNonNull(Utilities.getDateObject(Utilities.getTodayDateString())));
+            int start = EpochDay.parse(startDate);
+            int end = EpochDay.today();
             int value = -1;
-            String date = null;
             DatabaseHelper dbHelper = DatabaseHelper.getInstance(mContext);
-            synchronized (dbHelper){
+            DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+            writeLock.lock();
+            try {
                 SQLiteDatabase db = dbHelper.getWritableDatabase();
-                while(start.compareTo(end) <= 0){
-                    date = Utilities.formatDateObject(start.getTime());
+                while(start <= end){
                     value = rangeMin + ((int)(Math.random() * (rangeMax-rangeMin) + 1));
                     ContentValues cv = new ContentValues();
-                    cv.put(DBContract.PomodoroStatsTable.COL_NAME_DATE, date);
+                    cv.put(DBContract.PomodoroStatsTable.COL_NAME_DATE, start);
                     cv.put(DBContract.PomodoroStatsTable.COL_NAME_SECONDS, value);
                     db.insert(DBContract.PomodoroStatsTable.TABLE_NAME,null, cv);
                     if(Utilities.getRandomBoolean()){
-                        start.add(Calendar.DAY_OF_MONTH, (int)(Math.random() * SKIP_DAYS_LIMIT + 1));
+                        start += (int)(Math.random() * SKIP_DAYS_LIMIT + 1);
                     }else{
-                        start.add(Calendar.DAY_OF_MONTH, 1);
+                        start++;
                     }
                 }
+            } finally {
+                writeLock.unlock();
             }
             EventBus.getDefault().post(new RandomStatsGenerated());
         }).start();
@@ -119,27 +91,26 @@ public class PomodoroStatsManager {
 
     /**
      * Database Operations are performed so call this on separate thread.
-     * @return HashMap containing stats data of pomodoro. Keys are dates and values are seconds.
+     * @return SparseIntArray containing stats data of pomodoro ordered by date. Keys are dates in epoch days
+     * and values are seconds.
      */
-    public HashMap<String,Integer> getPomodoroStats(){
-        HashMap<String, Integer> statsData = new HashMap<>();
+    public SparseIntArray getPomodoroStats(){
+        SparseIntArray statsData = new SparseIntArray();
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(mContext);
-        synchronized (dbHelper){
-            SQLiteDatabase db = dbHelper.getWritableDatabase();
-            Cursor c = db.query(DBContract.PomodoroStatsTable.TABLE_NAME,
-                    new String[]{DBContract.PomodoroStatsTable.COL_NAME_DATE,DBContract.PomodoroStatsTable.COL_NAME_SECONDS},
-                    null,
-                    null,
-                    null,
-                    null,
-                    DBContract.PomodoroStatsTable._ID + " DESC ");
-            while(c.moveToNext()){
-                String date = c.getString(0);
-                int seconds = c.getInt(1);
-                statsData.put(date, seconds);;
-            }
-            c.close();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor c = db.query(DBContract.PomodoroStatsTable.TABLE_NAME,
+                new String[]{DBContract.PomodoroStatsTable.COL_NAME_DATE,DBContract.PomodoroStatsTable.COL_NAME_SECONDS},
+                null,
+                null,
+                null,
+                null,
+                DBContract.PomodoroStatsTable.COL_NAME_DATE + " ASC ");
+        while(c.moveToNext()){
+            int date = c.getInt(0);
+            int seconds = c.getInt(1);
+            statsData.append(date, seconds);
         }
+        c.close();
         return statsData;
     }
 
@@ -148,11 +119,15 @@ public class PomodoroStatsManager {
             @Override
             public void run() {
                 DatabaseHelper dbHelper = DatabaseHelper.getInstance(mContext);
-                synchronized (dbHelper){
+                DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+                writeLock.lock();
+                try {
                     SQLiteDatabase db = dbHelper.getWritableDatabase();
                     int rowsAffected = db.delete(DBContract.PomodoroStatsTable.TABLE_NAME, "1", null);
                     if(rowsAffected > 0)
                         Logger.d(LOG_TAG, "Deleted all records from Pomodoro Stats table");
+                } finally {
+                    writeLock.unlock();
                 }
                 if(EventBus.getDefault().hasSubscriberForEvent(StatisticsReset.class))
                     EventBus.getDefault().post(new StatisticsReset());
@@ -0,0 +1,315 @@
+package com.cod3rboy.routinetask.database;
+
+import android.database.Cursor;
+
+import com.cod3rboy.routinetask.database.models.ReminderModel;
+import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.utilities.EpochDay;
+import com.cod3rboy.routinetask.utilities.WeekdayMask;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * Catalog of the frequently executed queries of the application. Each query is defined only once
+ * as a constant SQL string and all variable values (today date, day of week, ids) are passed as
+ * bind arguments. Since SQL text of a query never changes, every database connection compiles it
+ * only once and afterwards reuses the prepared statement from its statement cache.
+ * All load methods execute queries synchronously so they must not be invoked on Main Thread.
+ */
+public final class QueryCatalog {
+    /**
+     * Size of the prepared statement cache of each database connection. It must be large enough
+     * to hold all queries of this catalog along with other statements executed by application.
+     */
+    static final int STATEMENT_CACHE_SIZE = 50;
+
+    private static final String TASKS_ID = DBContract.TasksTable.TABLE_NAME + "." + DBContract.TasksTable._ID;
+
+    private static final String TASKS_REPEAT_MASK = DBContract.TasksTable.TABLE_NAME + "." + DBContract.TasksTable.COL_NAME_REPEAT_MASK;
+
+    // Selects tasks which repeat on day of week whose weekday mask is given in bind argument
+    private static final String SELECTION_REPEAT_ON_DAY = "(" + TASKS_REPEAT_MASK + " & ?) != 0";
+    // Selects tasks which repeat on any day of week
+    private static final String SELECTION_REPEATING = TASKS_REPEAT_MASK + " > 0";
+    // Selects tasks which do not repeat
+    private static final String SELECTION_NO_REPEAT = TASKS_REPEAT_MASK + " = 0";
+
+    // Selects tasks whose ids lie in the key range given in bind arguments
+    private static final String SELECTION_ID_RANGE = TASKS_ID + " BETWEEN ? AND ?";
+
+    private static final String ORDER_TODAY = "ifnull(" + TaskModel.COL_ALIAS_REMINDER_START_TIME + ", \"99:99\") ASC, lower("
+            + DBContract.TasksTable.TABLE_NAME + "." + DBContract.TasksTable.COL_NAME_TITLE + ") ASC";
+    private static final String ORDER_COMPLETED_LAST = TaskModel.COL_ALIAS_COMPLETED + " ASC, ";
+    private static final String ORDER_NEWEST_FIRST = TASKS_ID + " DESC";
+
+    /**
+     * Order of today tasks query for ordering task models in memory.
+     */
+    public static final Comparator<TaskModel> TODAY_ORDER = (a, b) -> {
+        int result = Integer.compare(getStartMinutes(a), getStartMinutes(b));
+        if (result != 0) return result;
+        return a.getTitle().toLowerCase(Locale.ROOT).compareTo(b.getTitle().toLowerCase(Locale.ROOT));
+    };
+    /**
+     * Order of today tasks query with completed tasks last for ordering task models in memory.
+     */
+    public static final Comparator<TaskModel> TODAY_ORDER_COMPLETED_LAST = (a, b) -> {
+        int result = Boolean.compare(isCompleted(a), isCompleted(b));
+        if (result != 0) return result;
+        return TODAY_ORDER.compare(a, b);
+    };
+    /**
+     * Order of newest first queries for ordering task models in memory.
+     */
+    public static final Comparator<TaskModel> NEWEST_FIRST_ORDER = (a, b) -> Long.compare(b.getId(), a.getId());
+    /**
+     * Order of newest first queries with completed tasks last for ordering task models in memory.
+     */
+    public static final Comparator<TaskModel> NEWEST_FIRST_ORDER_COMPLETED_LAST = (a, b) -> {
+        int result = Boolean.compare(isCompleted(a), isCompleted(b));
+        if (result != 0) return result;
+        return NEWEST_FIRST_ORDER.compare(a, b);
+    };
+
+    /**
+     * Tasks to do today along with relation. Arguments: today date, weekday mask of today.
+     */
+    public static final String TODAY_TASKS = TaskModel.buildRelationQuery(SELECTION_REPEAT_ON_DAY, ORDER_TODAY);
+    /**
+     * Tasks to do today along with relation where completed tasks are ordered last.
+     * Arguments: today date, weekday mask of today.
+     */
+    public static final String TODAY_TASKS_COMPLETED_LAST = TaskModel.buildRelationQuery(SELECTION_REPEAT_ON_DAY,
+            ORDER_COMPLETED_LAST + ORDER_TODAY);
+    /**
+     * Repeating tasks along with relation, newest first. Arguments: today date.
+     */
+    public static final String REPEATING_TASKS = TaskModel.buildRelationQuery(SELECTION_REPEATING, ORDER_NEWEST_FIRST);
+    /**
+     * Non repeating tasks along with relation, newest first. Arguments: today date.
+     */
+    public static final String NO_REPEAT_TASKS = TaskModel.buildRelationQuery(SELECTION_NO_REPEAT, ORDER_NEWEST_FIRST);
+    /**
+     * Non repeating tasks along with relation where completed tasks are ordered last.
+     * Arguments: today date.
+     */
+    public static final String NO_REPEAT_TASKS_COMPLETED_LAST = TaskModel.buildRelationQuery(SELECTION_NO_REPEAT,
+            ORDER_COMPLETED_LAST + ORDER_NEWEST_FIRST);
+    /**
+     * Ids of repeating tasks, newest first. No arguments.
+     */
+    public static final String REPEATING_TASK_IDS = buildIdsQuery(SELECTION_REPEATING);
+    /**
+     * Ids of non repeating tasks, newest first. No arguments.
+     */
+    public static final String NO_REPEAT_TASK_IDS = buildIdsQuery(SELECTION_NO_REPEAT);
+    /**
+     * Repeating tasks along with relation whose ids lie in a key range, newest first.
+     * Arguments: today date, oldest id, newest id.
+     */
+    public static final String REPEATING_TASKS_IN_RANGE = TaskModel.buildRelationQuery(
+            SELECTION_REPEATING + " AND " + SELECTION_ID_RANGE, ORDER_NEWEST_FIRST);
+    /**
+     * Non repeating tasks along with relation whose ids lie in a key range, newest first.
+     * Arguments: today date, oldest id, newest id.
+     */
+    public static final String NO_REPEAT_TASKS_IN_RANGE = TaskModel.buildRelationQuery(
+            SELECTION_NO_REPEAT + " AND " + SELECTION_ID_RANGE, ORDER_NEWEST_FIRST);
+    /**
+     * All tasks along with relation, newest first. Arguments: today date.
+     */
+    public static final String ALL_TASKS = TaskModel.buildRelationQuery(null, ORDER_NEWEST_FIRST);
+    /**
+     * All tasks having a reminder along with relation. Arguments: today date.
+     */
+    public static final String TASKS_WITH_REMINDER = TaskModel.buildRelationQuery(
+            DBContract.RemindersTable.TABLE_NAME + "." + DBContract.RemindersTable._ID + " IS NOT NULL", null);
+    /**
+     * Single task along with relation. Arguments: today date, task id.
+     */
+    public static final String TASK_WITH_RELATION_BY_ID = TaskModel.buildRelationQuery(TASKS_ID + " = ?", null);
+    /**
+     * Single task without relation. Arguments: task id.
+     */
+    public static final String TASK_BY_ID = "SELECT * FROM " + DBContract.TasksTable.TABLE_NAME
+            + " WHERE " + DBContract.TasksTable._ID + " = ?;";
+    /**
+     * Tasks completed on a date without relation. Arguments: date.
+     */
+    public static final String TASKS_COMPLETED_ON_DATE = "SELECT " + DBContract.TasksTable.TABLE_NAME + ".* FROM "
+            + DBContract.TasksTable.TABLE_NAME + " INNER JOIN " + DBContract.RoutineEntryTable.TABLE_NAME
+            + " ON " + TASKS_ID + " = " + DBContract.RoutineEntryTable.TABLE_NAME + "." + DBContract.RoutineEntryTable.COL_NAME_TASK_ID
+            + " WHERE " + DBContract.RoutineEntryTable.TABLE_NAME + "." + DBContract.RoutineEntryTable.COL_NAME_DATE + " = ?"
+            + " ORDER BY " + TASKS_ID + " ASC;";
+
+    /**
+     * Records completion entry of a task on a date unless one already exists.
+     * Arguments: task id, date, task id, date.
+     */
+    public static final String INSERT_ROUTINE_ENTRY_IF_ABSENT = "INSERT INTO " + DBContract.RoutineEntryTable.TABLE_NAME
+            + " (" + DBContract.RoutineEntryTable.COL_NAME_TASK_ID + ", " + DBContract.RoutineEntryTable.COL_NAME_DATE + ")"
+            + " SELECT ?, ? WHERE NOT EXISTS (SELECT 1 FROM " + DBContract.RoutineEntryTable.TABLE_NAME
+            + " WHERE " + DBContract.RoutineEntryTable.COL_NAME_TASK_ID + " = ? AND "
+            + DBContract.RoutineEntryTable.COL_NAME_DATE + " = ?);";
+    /**
+     * Removes completion entry of a task on a date. Arguments: task id, date.
+     */
+    public static final String DELETE_ROUTINE_ENTRY = "DELETE FROM " + DBContract.RoutineEntryTable.TABLE_NAME
+            + " WHERE " + DBContract.RoutineEntryTable.COL_NAME_TASK_ID + " = ? AND "
+            + DBContract.RoutineEntryTable.COL_NAME_DATE + " = ?;";
+
+    // Do not allow instance creation
+    private QueryCatalog() {
+    }
+
+    /**
+     * Loads tasks to do today along with their relation.
+     *
+     * @param completedLast whether completed tasks should be ordered after pending tasks
+     * @return list of today tasks
+     */
+    public static ArrayList<TaskModel> loadTodayTasks(boolean completedLast) {
+        int today = EpochDay.today();
+        String[] args = new String[]{
+                String.valueOf(today),
+                String.valueOf(WeekdayMask.of(EpochDay.getDayOfWeek(today)))
+        };
+        return TaskModel.query(completedLast ? TODAY_TASKS_COMPLETED_LAST : TODAY_TASKS, args, true);
+    }
+
+    /**
+     * Loads all repeating tasks along with their relation.
+     *
+     * @return list of repeating tasks, newest first
+     */
+    public static ArrayList<TaskModel> loadRepeatingTasks() {
+        return TaskModel.query(REPEATING_TASKS, new String[]{String.valueOf(EpochDay.today())}, true);
+    }
+
+    /**
+     * Loads all non repeating tasks along with their relation.
+     *
+     * @param completedLast whether completed tasks should be ordered after pending tasks
+     * @return list of non repeating tasks, newest first
+     */
+    public static ArrayList<TaskModel> loadNoRepeatTasks(boolean completedLast) {
+        return TaskModel.query(completedLast ? NO_REPEAT_TASKS_COMPLETED_LAST : NO_REPEAT_TASKS,
+                new String[]{String.valueOf(EpochDay.today())}, true);
+    }
+
+    /**
+     * Loads ids of all repeating tasks. No relation is joined and no model is created
+     * so loading ids is much cheaper than loading the tasks.
+     *
+     * @return array of ids of repeating tasks, newest first
+     */
+    public static long[] loadRepeatingTaskIds() {
+        return loadIds(REPEATING_TASK_IDS);
+    }
+
+    /**
+     * Loads ids of all non repeating tasks.
+     *
+     * @return array of ids of non repeating tasks, newest first
+     */
+    public static long[] loadNoRepeatTaskIds() {
+        return loadIds(NO_REPEAT_TASK_IDS);
+    }
+
+    /**
+     * Loads repeating tasks along with their relation whose ids lie in given key range. Since ids
+     * are the keys of list order, a page of the list is loaded with a range seek on the primary
+     * key instead of skipping the rows of previous pages.
+     *
+     * @param newestId largest id of the range (inclusive)
+     * @param oldestId smallest id of the range (inclusive)
+     * @return list of repeating tasks in range, newest first
+     */
+    public static ArrayList<TaskModel> loadRepeatingTasksInRange(long newestId, long oldestId) {
+        return TaskModel.query(REPEATING_TASKS_IN_RANGE, new String[]{
+                String.valueOf(EpochDay.today()), String.valueOf(oldestId), String.valueOf(newestId)
+        }, true);
+    }
+
+    /**
+     * Loads non repeating tasks along with their relation whose ids lie in given key range.
+     *
+     * @param newestId largest id of the range (inclusive)
+     * @param oldestId smallest id of the range (inclusive)
+     * @return list of non repeating tasks in range, newest first
+     */
+    public static ArrayList<TaskModel> loadNoRepeatTasksInRange(long newestId, long oldestId) {
+        return TaskModel.query(NO_REPEAT_TASKS_IN_RANGE, new String[]{
+                String.valueOf(EpochDay.today()), String.valueOf(oldestId), String.valueOf(newestId)
+        }, true);
+    }
+
+    /**
+     * Loads all tasks along with their relation.
+     *
+     * @param date date in epoch days for which completion status of repeating tasks is loaded
+     * @return list of all tasks, newest first
+     */
+    public static ArrayList<TaskModel> loadAllTasks(int date) {
+        return TaskModel.query(ALL_TASKS, new String[]{String.valueOf(date)}, true);
+    }
+
+    /**
+     * Loads all tasks which have a reminder along with their relation.
+     *
+     * @return list of tasks having reminder
+     */
+    public static ArrayList<TaskModel> loadTasksWithReminder() {
+        return TaskModel.query(TASKS_WITH_REMINDER, new String[]{String.valueOf(EpochDay.today())}, true);
+    }
+
+    /**
+     * Loads a single task.
+     *
+     * @param taskId       id of task to load
+     * @param loadRelation whether to load other data related to task
+     * @return task model or null if task does not exist
+     */
+    public static TaskModel loadTask(long taskId, boolean loadRelation) {
+        ArrayList<TaskModel> result = loadRelation
+                ? TaskModel.query(TASK_WITH_RELATION_BY_ID, new String[]{String.valueOf(EpochDay.today()), String.valueOf(taskId)}, true)
+                : TaskModel.query(TASK_BY_ID, new String[]{String.valueOf(taskId)}, false);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Loads tasks completed on a date.
+     *
+     * @param date date in epoch days
+     * @return list of tasks completed on date ordered by id
+     */
+    public static ArrayList<TaskModel> loadTasksCompletedOnDate(int date) {
+        return TaskModel.query(TASKS_COMPLETED_ON_DATE, new String[]{String.valueOf(date)}, false);
+    }
+
+    private static boolean isCompleted(TaskModel task) {
+        return task.getStatus() == TaskModel.TaskStatus.COMPLETED;
+    }
+
+    // Tasks without reminder are ordered last like the null start time in queries
+    private static int getStartMinutes(TaskModel task) {
+        ReminderModel reminder = task.getReminder();
+        if (reminder == null) return Integer.MAX_VALUE;
+        return reminder.getStartTime().getMinuteOfDay();
+    }
+
+    private static String buildIdsQuery(String selection) {
+        return "SELECT " + TASKS_ID + " FROM " + DBContract.TasksTable.TABLE_NAME
+                + " WHERE " + selection + " ORDER BY " + ORDER_NEWEST_FIRST + ";";
+    }
+
+    private static long[] loadIds(String sql) {
+        Cursor c = DBQueryExecutor.query(sql, null);
+        long[] ids = new long[c.getCount()];
+        for (int i = 0; c.moveToNext(); i++) ids[i] = c.getLong(0);
+        c.close();
+        return ids;
+    }
+}
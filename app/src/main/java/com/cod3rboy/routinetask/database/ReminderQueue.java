@@ -0,0 +1,196 @@
+package com.cod3rboy.routinetask.database;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import com.cod3rboy.routinetask.TaskApplication;
+import com.cod3rboy.routinetask.database.models.ReminderModel;
+import com.cod3rboy.routinetask.database.models.TaskModel;
+
+import java.util.ArrayList;
+
+/**
+ * Priority queue of next occurrences of reminders ordered by their trigger time. Queue is kept in
+ * {@link DBContract.AlarmScheduleTable} with an index on trigger time, so that it is shared by the
+ * application process and the remote process in which reminders are fired, and it survives
+ * process death. Only head of queue is armed with AlarmManager.
+ * All methods must not be invoked on Main Thread.
+ */
+public final class ReminderQueue {
+    private static final String SQL_PEEK_TRIGGER_TIME = "SELECT MIN("
+            + DBContract.AlarmScheduleTable.COL_NAME_TRIGGER_TIME + ") FROM "
+            + DBContract.AlarmScheduleTable.TABLE_NAME + " WHERE "
+            + DBContract.AlarmScheduleTable.COL_NAME_TRIGGER_TIME + " != -1;";
+
+    private static final String SQL_LOAD_DUE = "SELECT "
+            + DBContract.AlarmScheduleTable.COL_NAME_REMINDER_ID + ", "
+            + DBContract.AlarmScheduleTable.COL_NAME_TASK_ID + ", "
+            + DBContract.AlarmScheduleTable.COL_NAME_TRIGGER_TIME
+            + " FROM " + DBContract.AlarmScheduleTable.TABLE_NAME + " WHERE "
+            + DBContract.AlarmScheduleTable.COL_NAME_TRIGGER_TIME + " != -1 AND "
+            + DBContract.AlarmScheduleTable.COL_NAME_TRIGGER_TIME + " <= ? ORDER BY "
+            + DBContract.AlarmScheduleTable.COL_NAME_TRIGGER_TIME + " ASC;";
+
+    private ReminderQueue() {
+    }
+
+    /**
+     * Occurrence of a reminder in queue.
+     */
+    public static final class Entry {
+        private final long reminderId;
+        private final long taskId;
+        private final long triggerTime;
+
+        Entry(long reminderId, long taskId, long triggerTime) {
+            this.reminderId = reminderId;
+            this.taskId = taskId;
+            this.triggerTime = triggerTime;
+        }
+
+        public long getReminderId() {
+            return reminderId;
+        }
+
+        public long getTaskId() {
+            return taskId;
+        }
+
+        public long getTriggerTime() {
+            return triggerTime;
+        }
+    }
+
+    /**
+     * Puts next occurrence of reminder of a task in queue replacing its previous occurrence.
+     *
+     * @param task        task along with reminder
+     * @param triggerTime trigger time of next occurrence or -1 if reminder is not due anymore
+     */
+    public static void offer(TaskModel task, long triggerTime) {
+        ArrayList<ContentValues> rows = new ArrayList<>(1);
+        rows.add(makeRow(task, triggerTime));
+        write(rows, new long[0]);
+    }
+
+    /**
+     * Puts next occurrences of reminders of several tasks in queue in a single transaction.
+     *
+     * @param tasks        tasks along with reminders
+     * @param triggerTimes trigger time of next occurrence of reminder of each task or -1 if
+     *                     reminder is not due anymore
+     */
+    public static void offerAll(ArrayList<TaskModel> tasks, long[] triggerTimes) {
+        ArrayList<ContentValues> rows = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) rows.add(makeRow(tasks.get(i), triggerTimes[i]));
+        write(rows, new long[0]);
+    }
+
+    /**
+     * Removes a reminder from queue.
+     *
+     * @param reminderId id of reminder
+     */
+    public static void remove(long reminderId) {
+        write(new ArrayList<>(0), new long[]{reminderId});
+    }
+
+    /**
+     * Removes several reminders from queue in a single transaction.
+     *
+     * @param reminderIds ids of reminders
+     */
+    public static void removeAll(long[] reminderIds) {
+        write(new ArrayList<>(0), reminderIds);
+    }
+
+    /**
+     * @return trigger time of earliest occurrence in queue or -1 if no reminder is due
+     */
+    public static long peekTriggerTime() {
+        Cursor cursor = DBQueryExecutor.query(SQL_PEEK_TRIGGER_TIME, null);
+        if (cursor == null) return -1;
+        try {
+            // MIN() of no rows is null
+            if (!cursor.moveToFirst() || cursor.isNull(0)) return -1;
+            return cursor.getLong(0);
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Loads occurrences which are due at given time. Occurrences stay in queue until they are
+     * replaced with next occurrences of their reminders.
+     *
+     * @param time time in milliseconds
+     * @return due occurrences in order of their trigger time
+     */
+    public static ArrayList<Entry> loadDue(long time) {
+        ArrayList<Entry> entries = new ArrayList<>();
+        Cursor cursor = DBQueryExecutor.query(SQL_LOAD_DUE, new String[]{String.valueOf(time)});
+        if (cursor == null) return entries;
+        try {
+            while (cursor.moveToNext())
+                entries.add(new Entry(cursor.getLong(0), cursor.getLong(1), cursor.getLong(2)));
+        } finally {
+            cursor.close();
+        }
+        return entries;
+    }
+
+    /**
+     * Fingerprint of task data which affects trigger time of its reminder.
+     *
+     * @param task task along with reminder
+     * @return fingerprint of task
+     */
+    static long fingerprint(TaskModel task) {
+        ReminderModel reminder = task.getReminder();
+        long hash = task.getId();
+        hash = 31 * hash + task.getRepeatMask();
+        hash = 31 * hash + reminder.getStartTime().getMinuteOfDay();
+        hash = 31 * hash + reminder.getDurationInMinutes();
+        hash = 31 * hash + reminder.getLastModified();
+        return hash;
+    }
+
+    static ContentValues makeRow(TaskModel task, long triggerTime) {
+        ContentValues row = new ContentValues();
+        row.put(DBContract.AlarmScheduleTable.COL_NAME_REMINDER_ID, task.getReminder().getId());
+        row.put(DBContract.AlarmScheduleTable.COL_NAME_TASK_ID, task.getId());
+        row.put(DBContract.AlarmScheduleTable.COL_NAME_TRIGGER_TIME, triggerTime);
+        row.put(DBContract.AlarmScheduleTable.COL_NAME_FINGERPRINT, fingerprint(task));
+        return row;
+    }
+
+    /**
+     * Replaces and removes rows of queue in a single transaction.
+     *
+     * @param rows               rows to insert or replace
+     * @param removedReminderIds ids of reminders whose rows are deleted
+     */
+    static void write(ArrayList<ContentValues> rows, long[] removedReminderIds) {
+        DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
+        DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+        writeLock.lock();
+        try {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                for (ContentValues row : rows)
+                    db.insertWithOnConflict(DBContract.AlarmScheduleTable.TABLE_NAME, null, row, SQLiteDatabase.CONFLICT_REPLACE);
+                for (long reminderId : removedReminderIds)
+                    db.delete(DBContract.AlarmScheduleTable.TABLE_NAME,
+                            DBContract.AlarmScheduleTable.COL_NAME_REMINDER_ID + " = ?",
+                            new String[]{String.valueOf(reminderId)});
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
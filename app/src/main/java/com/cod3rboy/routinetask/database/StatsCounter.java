@@ -0,0 +1,145 @@
+package com.cod3rboy.routinetask.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteStatement;
+
+import java.io.Closeable;
+
+/**
+ * StatsCounter provides an atomic counter stored per date in a statistics table. Counter value is
+ * changed with a single statement which adds the delta to the stored value (value = value + delta)
+ * creating the row when it does not exist, so concurrent writers can never lose an update.
+ * Row of a date is deleted when its value drops to zero or below.
+ * Upsert syntax (ON CONFLICT DO UPDATE) is not supported by SQLite versions shipped with older
+ * android releases, hence INSERT OR REPLACE is used which keeps the id of the existing row.
+ */
+public final class StatsCounter {
+    /**
+     * Counter of tasks completed per date.
+     */
+    public static final StatsCounter ROUTINE_STATS = new StatsCounter(DBContract.RoutineStatsTable.TABLE_NAME,
+            DBContract.RoutineStatsTable._ID, DBContract.RoutineStatsTable.COL_NAME_DATE,
+            DBContract.RoutineStatsTable.COL_NAME_COUNT);
+    /**
+     * Counter of pomodoro seconds per date.
+     */
+    public static final StatsCounter POMODORO_STATS = new StatsCounter(DBContract.PomodoroStatsTable.TABLE_NAME,
+            DBContract.PomodoroStatsTable._ID, DBContract.PomodoroStatsTable.COL_NAME_DATE,
+            DBContract.PomodoroStatsTable.COL_NAME_SECONDS);
+
+    // Arguments: date, date, date, delta
+    private final String sqlAdd;
+    // Arguments: date
+    private final String sqlDeleteIfEmpty;
+    // Arguments: date
+    private final String sqlSelectValue;
+
+    private StatsCounter(String table, String idColumn, String dateColumn, String valueColumn) {
+        sqlAdd = String.format("INSERT OR REPLACE INTO %1$s (%2$s, %3$s, %4$s) VALUES ("
+                        + "(SELECT %2$s FROM %1$s WHERE %3$s = ?), ?, "
+                        + "ifnull((SELECT %4$s FROM %1$s WHERE %3$s = ?), 0) + ?);",
+                table, idColumn, dateColumn, valueColumn);
+        sqlDeleteIfEmpty = String.format("DELETE FROM %s WHERE %s = ? AND %s <= 0;", table, dateColumn, valueColumn);
+        sqlSelectValue = String.format("SELECT %s FROM %s WHERE %s = ?;", valueColumn, table, dateColumn);
+    }
+
+    /**
+     * Compiles the statements of this counter for a batch of changes on a connection. Statements
+     * are compiled when first used and reused until returned object is closed, so a batch of
+     * changes does not compile them again for every change.
+     *
+     * @param db writable database
+     * @return statements which must be closed after the batch
+     */
+    public Statements compileStatements(SQLiteDatabase db) {
+        return new Statements(db);
+    }
+
+    /**
+     * Atomically adds delta to the counter value of given date. Caller must hold the database write
+     * lock. Method runs in the transaction of the caller if one is in progress. Use
+     * {@link #compileStatements(SQLiteDatabase)} to change counter more than once.
+     *
+     * @param db    writable database
+     * @param date  date of counter in epoch days
+     * @param delta value to add to counter, may be negative
+     * @return new value of counter, 0 if counter row was deleted
+     */
+    public long add(SQLiteDatabase db, int date, long delta) {
+        try (Statements statements = compileStatements(db)) {
+            return statements.add(date, delta);
+        }
+    }
+
+    /**
+     * Returns the counter value of given date.
+     *
+     * @param db   database
+     * @param date date of counter in epoch days
+     * @return value of counter, 0 if counter does not exist for date
+     */
+    public long get(SQLiteDatabase db, int date) {
+        try (Statements statements = compileStatements(db)) {
+            return statements.get(date);
+        }
+    }
+
+    /**
+     * Compiled statements of a counter bound to a connection. It is not thread safe and must be
+     * used only while the database write lock is held.
+     */
+    public final class Statements implements Closeable {
+        private final SQLiteDatabase db;
+        private SQLiteStatement add = null;
+        private SQLiteStatement deleteIfEmpty = null;
+        private SQLiteStatement selectValue = null;
+
+        private Statements(SQLiteDatabase db) {
+            this.db = db;
+        }
+
+        /**
+         * @see StatsCounter#add(SQLiteDatabase, int, long)
+         */
+        public long add(int date, long delta) {
+            if (add == null) add = db.compileStatement(sqlAdd);
+            if (deleteIfEmpty == null) deleteIfEmpty = db.compileStatement(sqlDeleteIfEmpty);
+            db.beginTransaction();
+            try {
+                add.bindLong(1, date);
+                add.bindLong(2, date);
+                add.bindLong(3, date);
+                add.bindLong(4, delta);
+                add.executeInsert();
+                deleteIfEmpty.bindLong(1, date);
+                long value = deleteIfEmpty.executeUpdateDelete() > 0 ? 0 : get(date);
+                db.setTransactionSuccessful();
+                return value;
+            } finally {
+                db.endTransaction();
+            }
+        }
+
+        /**
+         * @see StatsCounter#get(SQLiteDatabase, int)
+         */
+        public long get(int date) {
+            if (selectValue == null) selectValue = db.compileStatement(sqlSelectValue);
+            selectValue.bindLong(1, date);
+            try {
+                return selectValue.simpleQueryForLong();
+            } catch (SQLiteDoneException e) {
+                // No row exists for date
+                return 0;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (add != null) add.close();
+            if (deleteIfEmpty != null) deleteIfEmpty.close();
+            if (selectValue != null) selectValue.close();
+        }
+    }
+}
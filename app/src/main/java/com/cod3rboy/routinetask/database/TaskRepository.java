@@ -0,0 +1,314 @@
+package com.cod3rboy.routinetask.database;
+
+import android.util.LongSparseArray;
+
+import com.cod3rboy.routinetask.database.models.ReminderModel;
+import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.logging.Logger;
+import com.cod3rboy.routinetask.utilities.EpochDay;
+import com.cod3rboy.routinetask.utilities.WeekdayMask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+
+/**
+ * Process wide in-memory copy of all tasks along with their reminders and completion status of today.
+ * Tasks are loaded from database with a single query on first read and afterwards every insert,
+ * update and delete of {@link TaskModel} and {@link ReminderModel} and every status change is
+ * written through to the repository after it is written to database. So frequently read data
+ * (today tasks, tasks with reminder, single task) is served from memory without any query.
+ * Besides tasks by id, repository keeps indexes of tasks by day of week and of tasks completed today.
+ * Repository reloads itself on first read of a new day because completion status of repeating tasks
+ * is per day, and when {@link #invalidate()} is invoked after changes which are not written through.
+ * Models handed out by repository are copies so callers are free to modify them.
+ * Read methods may load tasks from database so they must not be invoked on Main Thread, except
+ * {@link #peekStatus(long)} which reads an immutable copy of today status published after every
+ * change and never waits for a load.
+ */
+public class TaskRepository {
+    private static final String LOG_TAG = TaskRepository.class.getSimpleName();
+    private static final int DAYS_IN_WEEK = 7;
+
+    private static TaskRepository singleton = null;
+
+    public static synchronized TaskRepository getInstance() {
+        if (singleton == null) {
+            singleton = new TaskRepository();
+        }
+        return singleton;
+    }
+
+    private final LongSparseArray<TaskModel> tasksById;
+    // Tasks repeating on each day of week. Index is Calendar day of week minus Calendar.SUNDAY.
+    private final ArrayList<LongSparseArray<TaskModel>> tasksByWeekday;
+    private final LongSparseArray<TaskModel> completedTasks;
+    private boolean loaded;
+    // Day of which completion status of tasks is loaded in epoch days
+    private int loadedDay;
+    // Today status of tasks which is read without lock
+    private volatile StatusIndex statusIndex = StatusIndex.EMPTY;
+
+    private TaskRepository() {
+        tasksById = new LongSparseArray<>();
+        tasksByWeekday = new ArrayList<>(DAYS_IN_WEEK);
+        for (int i = 0; i < DAYS_IN_WEEK; i++) tasksByWeekday.add(new LongSparseArray<>());
+        completedTasks = new LongSparseArray<>();
+        loaded = false;
+    }
+
+    /**
+     * @param taskId id of task
+     * @return copy of task along with relation or null if task does not exist
+     */
+    public synchronized TaskModel getTask(long taskId) {
+        ensureLoaded();
+        TaskModel task = tasksById.get(taskId);
+        return task == null ? null : TaskModel.snapshot(task);
+    }
+
+    /**
+     * @param taskIds ids of tasks
+     * @return copies of tasks along with relation in order of given ids. Tasks which do not exist are skipped.
+     */
+    public synchronized ArrayList<TaskModel> getTasks(long[] taskIds) {
+        ensureLoaded();
+        ArrayList<TaskModel> result = new ArrayList<>(taskIds.length);
+        for (long taskId : taskIds) {
+            TaskModel task = tasksById.get(taskId);
+            if (task != null) result.add(TaskModel.snapshot(task));
+        }
+        return result;
+    }
+
+    /**
+     * @param completedLast whether completed tasks should be ordered after pending tasks
+     * @return copies of tasks to do today along with relation
+     */
+    public synchronized ArrayList<TaskModel> getTodayTasks(boolean completedLast) {
+        ensureLoaded();
+        LongSparseArray<TaskModel> todayTasks = tasksByWeekday.get(EpochDay.getDayOfWeek(loadedDay) - Calendar.SUNDAY);
+        ArrayList<TaskModel> result = new ArrayList<>(todayTasks.size());
+        for (int i = 0; i < todayTasks.size(); i++) result.add(TaskModel.snapshot(todayTasks.valueAt(i)));
+        Collections.sort(result, completedLast ? QueryCatalog.TODAY_ORDER_COMPLETED_LAST : QueryCatalog.TODAY_ORDER);
+        return result;
+    }
+
+    /**
+     * @return copies of all tasks which have a reminder along with relation
+     */
+    public synchronized ArrayList<TaskModel> getTasksWithReminder() {
+        ensureLoaded();
+        ArrayList<TaskModel> result = new ArrayList<>();
+        for (int i = 0; i < tasksById.size(); i++) {
+            TaskModel task = tasksById.valueAt(i);
+            if (task.getReminder() != null) result.add(TaskModel.snapshot(task));
+        }
+        return result;
+    }
+
+    /**
+     * Returns today status of task if it is available in memory. Unlike other read methods, it never
+     * loads tasks from database.
+     *
+     * @param taskId id of task
+     * @return status of task or null if status is not available in memory
+     */
+    public TaskModel.TaskStatus peekStatus(long taskId) {
+        StatusIndex index = statusIndex;
+        if (index.day != EpochDay.today()) return null;
+        if (Arrays.binarySearch(index.taskIds, taskId) < 0) return null;
+        return Arrays.binarySearch(index.completedTaskIds, taskId) >= 0
+                ? TaskModel.TaskStatus.COMPLETED : TaskModel.TaskStatus.INCOMPLETE;
+    }
+
+    /**
+     * Writes through an inserted or updated task along with its reminder.
+     *
+     * @param task task which is written to database
+     */
+    public synchronized void put(TaskModel task) {
+        putTask(task);
+        publishStatus();
+    }
+
+    /**
+     * Writes through inserted or updated tasks.
+     *
+     * @param tasks tasks which are written to database
+     */
+    public synchronized void putAll(ArrayList<TaskModel> tasks) {
+        for (TaskModel task : tasks) putTask(task);
+        publishStatus();
+    }
+
+    private void putTask(TaskModel task) {
+        if (!loaded || task.getId() <= 0) return;
+        TaskModel oldTask = tasksById.get(task.getId());
+        boolean wasRepeating = oldTask != null && oldTask.getRepeatMask() != WeekdayMask.NONE;
+        boolean isRepeating = task.getRepeatMask() != WeekdayMask.NONE;
+        if (oldTask != null && wasRepeating != isRepeating) {
+            // Completion of repeating task is per day and of non repeating task is for all days
+            // so status must be read again
+            invalidate();
+            return;
+        }
+        TaskModel newTask = TaskModel.snapshot(task);
+        // Status is not changed by task writes
+        newTask.setStatus(oldTask != null && isCompleted(oldTask)
+                ? TaskModel.TaskStatus.COMPLETED : TaskModel.TaskStatus.INCOMPLETE);
+        if (oldTask != null) unindex(oldTask);
+        index(newTask);
+    }
+
+    /**
+     * Writes through a deleted task.
+     *
+     * @param taskId id of task which is deleted from database
+     */
+    public synchronized void remove(long taskId) {
+        removeTask(taskId);
+        publishStatus();
+    }
+
+    /**
+     * Writes through deleted tasks.
+     *
+     * @param taskIds ids of tasks which are deleted from database
+     */
+    public synchronized void removeAll(long[] taskIds) {
+        for (long taskId : taskIds) removeTask(taskId);
+        publishStatus();
+    }
+
+    private void removeTask(long taskId) {
+        if (!loaded) return;
+        TaskModel task = tasksById.get(taskId);
+        if (task != null) unindex(task);
+    }
+
+    /**
+     * Writes through an inserted or updated reminder.
+     *
+     * @param reminder reminder which is written to database
+     */
+    public synchronized void putReminder(ReminderModel reminder) {
+        if (!loaded) return;
+        TaskModel task = tasksById.get(reminder.getTaskId());
+        if (task != null) task.setReminder(ReminderModel.snapshot(reminder));
+    }
+
+    /**
+     * Writes through a deleted reminder.
+     *
+     * @param reminder reminder which is deleted from database
+     */
+    public synchronized void removeReminder(ReminderModel reminder) {
+        if (!loaded) return;
+        TaskModel task = tasksById.get(reminder.getTaskId());
+        if (task != null && task.getReminder() != null && task.getReminder().getId() == reminder.getId())
+            task.setReminder(null);
+    }
+
+    /**
+     * Writes through a change of completion status of task.
+     *
+     * @param taskId    id of task
+     * @param date      date of completion in epoch days
+     * @param completed whether task is completed or not
+     */
+    public synchronized void setCompleted(long taskId, int date, boolean completed) {
+        if (!loaded) return;
+        if (date != loadedDay) {
+            // Only completion status of loaded day is kept in memory
+            invalidate();
+            return;
+        }
+        TaskModel task = tasksById.get(taskId);
+        if (task == null) return;
+        task.setStatus(completed ? TaskModel.TaskStatus.COMPLETED : TaskModel.TaskStatus.INCOMPLETE);
+        if (completed) completedTasks.put(taskId, task);
+        else completedTasks.remove(taskId);
+        publishStatus();
+    }
+
+    /**
+     * Discards tasks in memory so that they are loaded again on next read. It must be invoked after
+     * changes to tasks or their completion status which are not written through.
+     */
+    public synchronized void invalidate() {
+        if (!loaded) return;
+        Logger.d(LOG_TAG, "Task repository is invalidated");
+        clear();
+    }
+
+    private void ensureLoaded() {
+        int today = EpochDay.today();
+        if (loaded && loadedDay == today) return;
+        clear();
+        ArrayList<TaskModel> tasks = QueryCatalog.loadAllTasks(today);
+        for (TaskModel task : tasks) index(task);
+        loadedDay = today;
+        loaded = true;
+        publishStatus();
+        Logger.d(LOG_TAG, "Loaded %d tasks, %d completed on day %d",
+                tasksById.size(), completedTasks.size(), today);
+    }
+
+    private void clear() {
+        tasksById.clear();
+        for (LongSparseArray<TaskModel> tasks : tasksByWeekday) tasks.clear();
+        completedTasks.clear();
+        loaded = false;
+        statusIndex = StatusIndex.EMPTY;
+    }
+
+    private void publishStatus() {
+        if (!loaded) {
+            statusIndex = StatusIndex.EMPTY;
+            return;
+        }
+        // Keys of LongSparseArray are in ascending order
+        long[] taskIds = new long[tasksById.size()];
+        for (int i = 0; i < taskIds.length; i++) taskIds[i] = tasksById.keyAt(i);
+        long[] completedTaskIds = new long[completedTasks.size()];
+        for (int i = 0; i < completedTaskIds.length; i++) completedTaskIds[i] = completedTasks.keyAt(i);
+        statusIndex = new StatusIndex(loadedDay, taskIds, completedTaskIds);
+    }
+
+    private void index(TaskModel task) {
+        tasksById.put(task.getId(), task);
+        for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++) {
+            if (task.isRepeatForDay(day)) tasksByWeekday.get(day - Calendar.SUNDAY).put(task.getId(), task);
+        }
+        if (isCompleted(task)) completedTasks.put(task.getId(), task);
+    }
+
+    private void unindex(TaskModel task) {
+        tasksById.remove(task.getId());
+        for (LongSparseArray<TaskModel> tasks : tasksByWeekday) tasks.remove(task.getId());
+        completedTasks.remove(task.getId());
+    }
+
+    private static boolean isCompleted(TaskModel task) {
+        return task.getStatus() == TaskModel.TaskStatus.COMPLETED;
+    }
+
+    /**
+     * Immutable ids of tasks and of tasks completed on a day, in ascending order.
+     */
+    private static final class StatusIndex {
+        static final StatusIndex EMPTY = new StatusIndex(-1, new long[0], new long[0]);
+
+        final int day;
+        final long[] taskIds;
+        final long[] completedTaskIds;
+
+        StatusIndex(int day, long[] taskIds, long[] completedTaskIds) {
+            this.day = day;
+            this.taskIds = taskIds;
+            this.completedTaskIds = completedTaskIds;
+        }
+    }
+}
@@ -4,6 +4,8 @@ import android.content.ContentValues;
 import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+import android.util.SparseIntArray;
 
 import com.cod3rboy.routinetask.TaskApplication;
 import com.cod3rboy.routinetask.Utilities;
@@ -14,13 +16,12 @@ import com.cod3rboy.routinetask.events.TaskStatusChanged;
 import com.cod3rboy.routinetask.logging.Logger;
 import com.cod3rboy.routinetask.receivers.TodayTaskWidgetProvider;
 import com.cod3rboy.routinetask.utilities.AlarmScheduler;
+import com.cod3rboy.routinetask.utilities.EpochDay;
 
 import org.greenrobot.eventbus.EventBus;
 
+import java.io.Closeable;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.HashMap;
-import java.util.Objects;
 import java.util.HashSet;
 
 import needle.Needle;
@@ -59,71 +60,34 @@ public class TaskStatsManager {
      * @param listener callback to execute when task is completed successfully
      */
     public void setTaskDone(TaskModel task, SuccessListener listener) {
-        Needle.onBackgroundThread().withTaskType(TASK_TYPE_STATS_TASK).execute(() -> {
-            if (task == null) return;
-            // Here we have to set the task entry into statistics
-            DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-            synchronized (dbHelper) {
-                SQLiteDatabase db = dbHelper.getWritableDatabase();
-                String todayDate = Utilities.getTodayDateString();
-                // Query whether any entry of given task for today already exists.
-                Cursor c = db.query(DBContract.RoutineEntryTable.TABLE_NAME,
-                        new String[]{DBContract.RoutineEntryTable.COL_NAME_TASK_ID},
-                        String.format("%s = ? AND %s = ?", DBContract.RoutineEntryTable.COL_NAME_TASK_ID, DBContract.RoutineEntryTable.COL_NAME_DATE),
-                        new String[]{String.valueOf(task.getId()), todayDate}, null, null, null);
-                int total = c.getCount();
-                c.close();
-                if (total <= 0) {
-                    // Only proceed if entry does not exists.
-                    ContentValues cv = new ContentValues();
-                    cv.put(DBContract.RoutineEntryTable.COL_NAME_TASK_ID, task.getId());
-                    cv.put(DBContract.RoutineEntryTable.COL_NAME_DATE, todayDate);
-                    long id = db.insert(DBContract.RoutineEntryTable.TABLE_NAME, null, cv);
-                    if (id > 0) {
-                        Logger.d(LOG_TAG, String.format("Created Routine task entry with id %d for task id %d and date %s", id, task.getId(), todayDate));
-                        if (listener != null) listener.onSuccess();
-                    }
-                    // Query whether count record of today already exists
-                    c = db.query(DBContract.RoutineStatsTable.TABLE_NAME,
-                            new String[]{DBContract.RoutineStatsTable._ID, DBContract.RoutineStatsTable.COL_NAME_COUNT},
-                            String.format("%s = ?", DBContract.RoutineStatsTable.COL_NAME_DATE), new String[]{todayDate},
-                            null, null, null);
-                    total = c.getCount();
-                    ContentValues cv2 = new ContentValues();
-                    if (total <= 0) {
-                        // Make first entry
-                        cv2.put(DBContract.RoutineStatsTable.COL_NAME_DATE, todayDate);
-                        cv2.put(DBContract.RoutineStatsTable.COL_NAME_COUNT, 1);
-                        long id2 = db.insert(DBContract.RoutineStatsTable.TABLE_NAME, null, cv2);
-                        if (id2 > 0) {
-                            Logger.d(LOG_TAG, String.format("Created Routine task stats count record for task id %d with count value %d ", task.getId(), 1));
-                        }
-                    } else {
-                        // Update Existing entry
-                        c.moveToFirst();
-                        int count = c.getInt(1) + 1;
-                        cv2.put(DBContract.RoutineStatsTable.COL_NAME_COUNT, count);
-                        int rowsAffected = db.update(DBContract.RoutineStatsTable.TABLE_NAME, cv2,
-                                String.format("%s = ?", DBContract.RoutineStatsTable.COL_NAME_DATE),
-                                new String[]{todayDate});
-                        if (rowsAffected > 0) {
-                            Logger.d(LOG_TAG, String.format("Updated Routine task stats count record for task id %d with count value %d ", task.getId(), count));
-                        }
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_STATS_TASK).execute(() -> markTaskDone(task, listener));
+    }
 
-                    }
-                    c.close();
-                    AlarmScheduler.cancelTaskAlarm(task);
-                    AlarmScheduler.setTaskAlarm(task, true);
-                    // Notify Task Status Changed
-                    EventBus.getDefault().post(new TaskStatusChanged(task, true));
-                } else {
-                    Logger.d(LOG_TAG, String.format("Routine task entry already exists for task id %d and date %s", task.getId(), todayDate));
-                }
+    /**
+     * This method is used to mark the task with given id that it has completed today. Current data
+     * of task is read from {@link TaskRepository}.
+     * It uses separate thread for operation.
+     *
+     * @param taskId   id of task to mark complete
+     * @param listener callback to execute when task is completed successfully
+     */
+    public void setTaskDone(long taskId, SuccessListener listener) {
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_STATS_TASK).execute(() ->
+                markTaskDone(TaskRepository.getInstance().getTask(taskId), listener));
+    }
 
-                // Refresh any Widgets
-                TodayTaskWidgetProvider.refreshWidgets();
-            }
-        });
+    private void markTaskDone(TaskModel task, SuccessListener listener) {
+        if (task == null) return;
+        // Here we have to set the task entry into statistics
+        if (writeTaskStatus(task.getId(), EpochDay.today(), true)) {
+            if (listener != null) listener.onSuccess();
+            // Move reminder to its occurrence after today
+            AlarmScheduler.setTaskAlarm(task, true);
+            // Notify Task Status Changed
+            EventBus.getDefault().post(new TaskStatusChanged(task, true));
+        }
+        // Refresh any Widgets
+        TodayTaskWidgetProvider.refreshWidgets();
     }
 
     /**
@@ -135,81 +99,136 @@ public class TaskStatsManager {
      * @param listener callback to execute when task is set in completed
      */
     public void setTaskUndone(TaskModel task, SuccessListener listener) {
-        Needle.onBackgroundThread().withTaskType(TASK_TYPE_STATS_TASK).execute(() -> {
-            if (task == null) return;
-            // Here we have to unset the task entry from statistics (for undo operation)
-            DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-            synchronized (dbHelper) {
-                SQLiteDatabase db = dbHelper.getWritableDatabase();
-                String todayDate = Utilities.getTodayDateString();
-                // Query the existing record entry of given task id for today
-                Cursor c = db.query(DBContract.RoutineEntryTable.TABLE_NAME,
-                        new String[]{DBContract.RoutineEntryTable.COL_NAME_TASK_ID},
-                        String.format("%s = ? AND %s = ?", DBContract.RoutineEntryTable.COL_NAME_TASK_ID, DBContract.RoutineEntryTable.COL_NAME_DATE),
-                        new String[]{String.valueOf(task.getId()), todayDate}, null, null, null);
-                int total = c.getCount();
-                c.close();
-                if (total > 0) {
-                    // Only proceed if entry exists.
-                    int rowsAffected = db.delete(DBContract.RoutineEntryTable.TABLE_NAME,
-                            String.format("%s = ? AND %s = ?", DBContract.RoutineEntryTable.COL_NAME_TASK_ID, DBContract.RoutineEntryTable.COL_NAME_DATE),
-                            new String[]{String.valueOf(task.getId()), todayDate});
-                    if (rowsAffected > 0) {
-                        Logger.d(LOG_TAG, String.format("Deleted Routine task entry for task id %d and date %s", task.getId(), todayDate));
-                        if (listener != null) listener.onSuccess();
-                    }
-                    // Query whether count record of today already exists
-                    c = db.query(DBContract.RoutineStatsTable.TABLE_NAME,
-                            new String[]{DBContract.RoutineStatsTable._ID, DBContract.RoutineStatsTable.COL_NAME_COUNT},
-                            String.format("%s = ?", DBContract.RoutineStatsTable.COL_NAME_DATE), new String[]{todayDate},
-                            null, null, null);
-                    total = c.getCount();
-                    if (total > 0) {
-                        c.moveToFirst();
-                        int count = c.getInt(1) - 1;
-                        if (count <= 0) {
-                            // Delete entry when count becomes zero
-                            int deletedRows = db.delete(DBContract.RoutineStatsTable.TABLE_NAME,
-                                    String.format("%s = ?", DBContract.RoutineStatsTable.COL_NAME_DATE),
-                                    new String[]{todayDate});
-                            if (deletedRows > 0) {
-                                Logger.d(LOG_TAG, String.format("Deleted Routine task stats count record for date %s with count value %d ", todayDate, 0));
-                            }
-                        } else {
-                            ContentValues cv2 = new ContentValues();
-                            cv2.put(DBContract.RoutineStatsTable.COL_NAME_COUNT, count);
-                            int updatedRows = db.update(DBContract.RoutineStatsTable.TABLE_NAME, cv2,
-                                    String.format("%s = ?", DBContract.RoutineStatsTable.COL_NAME_DATE),
-                                    new String[]{todayDate});
-                            if (updatedRows > 0) {
-                                Logger.d(LOG_TAG, String.format("Updated Routine task stats count record for date %s with count value %d ", todayDate, count));
-                            }
-                        }
-                    }
-                    c.close();
-                    // Now update completed task alarm to next appropriate weekday
-                    AlarmScheduler.setTaskAlarm(task, false);
-                    // Notify Task Status Changed
-                    EventBus.getDefault().post(new TaskStatusChanged(task, false));
-                } else {
-                    Logger.d(LOG_TAG, String.format("Routine task entry does not exist for task id %d and date %s", task.getId(), todayDate));
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_STATS_TASK).execute(() -> markTaskUndone(task, listener));
+    }
+
+    /**
+     * This method is used to unmark the task with given id that it has completed today. Current
+     * data of task is read from {@link TaskRepository}.
+     * It uses separate thread for operation.
+     *
+     * @param taskId   id of task to unmark
+     * @param listener callback to execute when task is set in completed
+     */
+    public void setTaskUndone(long taskId, SuccessListener listener) {
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_STATS_TASK).execute(() ->
+                markTaskUndone(TaskRepository.getInstance().getTask(taskId), listener));
+    }
+
+    private void markTaskUndone(TaskModel task, SuccessListener listener) {
+        if (task == null) return;
+        // Here we have to unset the task entry from statistics (for undo operation)
+        if (writeTaskStatus(task.getId(), EpochDay.today(), false)) {
+            if (listener != null) listener.onSuccess();
+            // Now update completed task alarm to next appropriate weekday
+            AlarmScheduler.setTaskAlarm(task, false);
+            // Notify Task Status Changed
+            EventBus.getDefault().post(new TaskStatusChanged(task, false));
+        }
+        // Refresh any Widgets
+        TodayTaskWidgetProvider.refreshWidgets();
+    }
+
+    /**
+     * Records or removes the routine entry of a task for a date and updates the completed tasks
+     * count of that date in a single transaction.
+     *
+     * @param taskId id of the task
+     * @param date   date of completion in epoch days
+     * @param done   true to mark task completed and false to unmark it
+     * @return true if task status was changed and false if task already had the given status
+     */
+    private boolean writeTaskStatus(long taskId, int date, boolean done) {
+        DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
+        DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+        writeLock.lock();
+        try {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            db.beginTransaction();
+            boolean changed;
+            try {
+                try (StatusWriter writer = new StatusWriter(db)) {
+                    changed = writer.write(taskId, date, done);
                 }
-                // Refresh any Widgets
-                TodayTaskWidgetProvider.refreshWidgets();
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
             }
-        });
+            if (changed) TaskRepository.getInstance().setCompleted(taskId, date, done);
+            return changed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Records or removes routine entries of tasks and updates completed tasks counts. Statements
+     * are compiled once and reused for all status changes written with the same writer. Caller must
+     * hold the database write lock while using it and should run it inside a transaction.
+     */
+    static final class StatusWriter implements Closeable {
+        private final SQLiteDatabase db;
+        private final StatsCounter.Statements counter;
+        private SQLiteStatement insertEntry = null;
+        private SQLiteStatement deleteEntry = null;
+
+        StatusWriter(SQLiteDatabase db) {
+            this.db = db;
+            counter = StatsCounter.ROUTINE_STATS.compileStatements(db);
+        }
+
+        /**
+         * Records or removes the routine entry of a task for a date and updates the completed
+         * tasks count of that date.
+         *
+         * @param taskId id of the task
+         * @param date   date of completion in epoch days
+         * @param done   true to mark task completed and false to unmark it
+         * @return true if task status was changed and false if task already had the given status
+         */
+        boolean write(long taskId, int date, boolean done) {
+            boolean changed;
+            if (done) {
+                if (insertEntry == null)
+                    insertEntry = db.compileStatement(QueryCatalog.INSERT_ROUTINE_ENTRY_IF_ABSENT);
+                insertEntry.bindLong(1, taskId);
+                insertEntry.bindLong(2, date);
+                insertEntry.bindLong(3, taskId);
+                insertEntry.bindLong(4, date);
+                changed = insertEntry.executeInsert() > 0;
+            } else {
+                if (deleteEntry == null)
+                    deleteEntry = db.compileStatement(QueryCatalog.DELETE_ROUTINE_ENTRY);
+                deleteEntry.bindLong(1, taskId);
+                deleteEntry.bindLong(2, date);
+                changed = deleteEntry.executeUpdateDelete() > 0;
+            }
+            if (!changed) {
+                Logger.d(LOG_TAG, "Routine task entry for task id %d and date %d is already %s",
+                        taskId, date, done ? "recorded" : "removed");
+                return false;
+            }
+            long count = counter.add(date, done ? 1 : -1);
+            Logger.d(LOG_TAG, "Routine task entry for task id %d and date %d is %s, completed tasks count is %d",
+                    taskId, date, done ? "recorded" : "removed", count);
+            return true;
+        }
+
+        @Override
+        public void close() {
+            if (insertEntry != null) insertEntry.close();
+            if (deleteEntry != null) deleteEntry.close();
+            counter.close();
+        }
     }
 
 
     public void generateRandomTaskStats(final String startDate, final int rangeMin, final int rangeMax) {
         Needle.onBackgroundThread().withTaskType(TASK_TYPE_STATS_TASK).execute(() -> {
             final int SKIP_DAYS_LIMIT = 3;
-            Calendar start = Calendar.getInstance();
-            Calendar end = Calendar.getInstance();
-            start.setTime(Objects.requireNonNull(Utilities.getDateObject(startDate)));
-            end.setTime(Objects.requireNonNull(Utilities.getDateObject(Utilities.getTodayDateString())));
+            int start = EpochDay.parse(startDate);
+            int end = EpochDay.today();
             int value = -1;
-            String date = null;
             // Generate random tasks
             TaskModel[] randomTasks = new TaskModel[rangeMax];
             for (int i = 0; i < randomTasks.length; i++) {
@@ -220,40 +239,45 @@ public class TaskStatsManager {
             HashSet<TaskModel> randomTaskChoices = new HashSet<>();
 
             DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-            synchronized (dbHelper) {
+            DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+            writeLock.lock();
+            try {
                 SQLiteDatabase db = dbHelper.getWritableDatabase();
-                while (start.compareTo(end) <= 0) {
-                    date = Utilities.formatDateObject(start.getTime());
+                while (start <= end) {
                     value = rangeMin + ((int) (Math.random() * (rangeMax - rangeMin) + 1));
                     // Fill Routine Stats Table
                     ContentValues cv = new ContentValues();
-                    cv.put(DBContract.RoutineStatsTable.COL_NAME_DATE, date);
+                    cv.put(DBContract.RoutineStatsTable.COL_NAME_DATE, start);
                     cv.put(DBContract.RoutineStatsTable.COL_NAME_COUNT, value);
                     db.insert(DBContract.RoutineStatsTable.TABLE_NAME, null, cv);
 
                     while (randomTaskChoices.size() < value) {
                         int randIndex = (int) (Math.random() * randomTasks.length);
                         TaskModel randomTask = randomTasks[randIndex];
-                        randomTask.setRepeatForDay(start.get(Calendar.DAY_OF_WEEK));
+                        randomTask.setRepeatForDay(EpochDay.getDayOfWeek(start));
                         randomTaskChoices.add(randomTask);
                     }
                     // Make entries in Routine Task entry table
                     for (TaskModel randomTaskChoice : randomTaskChoices) {
                         ContentValues cv2 = new ContentValues();
                         cv2.put(DBContract.RoutineEntryTable.COL_NAME_TASK_ID, randomTaskChoice.getId());
-                        cv2.put(DBContract.RoutineEntryTable.COL_NAME_DATE, date);
+                        cv2.put(DBContract.RoutineEntryTable.COL_NAME_DATE, start);
                         db.insert(DBContract.RoutineEntryTable.TABLE_NAME, null, cv2);
                     }
 
                     if (Utilities.getRandomBoolean()) {
-                        start.add(Calendar.DAY_OF_MONTH, (int) (Math.random() * SKIP_DAYS_LIMIT + 1));
+                        start += (int) (Math.random() * SKIP_DAYS_LIMIT + 1);
                     } else {
-                        start.add(Calendar.DAY_OF_MONTH, 1);
+                        start++;
                     }
                 }
+            } finally {
+                writeLock.unlock();
             }
             // Update chosen tasks
             for (TaskModel chosenTask : randomTaskChoices) chosenTask.save(false);
+            // Routine entries are not written through
+            TaskRepository.getInstance().invalidate();
 
             // Notify Event Subscribers
             EventBus.getDefault().post(new RandomStatsGenerated());
@@ -264,28 +288,26 @@ public class TaskStatsManager {
     /**
      * Database Operations are performed so call this on separate thread.
      *
-     * @return HashMap containing stats data of tasks count. Keys are dates and values are count.
+     * @return SparseIntArray containing stats data of tasks count ordered by date. Keys are dates in
+     * epoch days and values are count.
      */
-    public HashMap<String, Integer> getTasksCountStats(Context context) {
-        HashMap<String, Integer> countData = new HashMap<>();
+    public SparseIntArray getTasksCountStats(Context context) {
+        SparseIntArray countData = new SparseIntArray();
         DatabaseHelper dbHelper = DatabaseHelper.getInstance(context);
-        synchronized (dbHelper) {
-            SQLiteDatabase db = dbHelper.getWritableDatabase();
-            Cursor c = db.query(DBContract.RoutineStatsTable.TABLE_NAME,
-                    new String[]{DBContract.RoutineStatsTable.COL_NAME_DATE, DBContract.RoutineStatsTable.COL_NAME_COUNT},
-                    null,
-                    null,
-                    null,
-                    null,
-                    DBContract.RoutineStatsTable._ID + " DESC ");
-            while (c.moveToNext()) {
-                String date = c.getString(0);
-                int count = c.getInt(1);
-                countData.put(date, count);
-                ;
-            }
-            c.close();
+        SQLiteDatabase db = dbHelper.getReadableDatabase();
+        Cursor c = db.query(DBContract.RoutineStatsTable.TABLE_NAME,
+                new String[]{DBContract.RoutineStatsTable.COL_NAME_DATE, DBContract.RoutineStatsTable.COL_NAME_COUNT},
+                null,
+                null,
+                null,
+                null,
+                DBContract.RoutineStatsTable.COL_NAME_DATE + " ASC ");
+        while (c.moveToNext()) {
+            int date = c.getInt(0);
+            int count = c.getInt(1);
+            countData.append(date, count);
         }
+        c.close();
         return countData;
     }
 
@@ -293,21 +315,11 @@ public class TaskStatsManager {
     /**
      * Database Operations are performed so call this on separate thread.
      *
-     * @param date date for which all tasks completed on this date to be retrieved
+     * @param date date in epoch days for which all tasks completed on this date to be retrieved
      * @return ArrayList of all time table models generated from retrieved tasks
      */
-    public ArrayList<TaskModel> getCompletedTasksOnDate(String date) {
-        StringBuilder query = new StringBuilder();
-        query.append("SELECT " + DBContract.TasksTable.TABLE_NAME + ".* FROM ");
-        query.append(DBContract.TasksTable.TABLE_NAME);
-        query.append(" INNER JOIN (SELECT " + DBContract.RoutineEntryTable.COL_NAME_TASK_ID);
-        query.append(" FROM " + DBContract.RoutineEntryTable.TABLE_NAME);
-        query.append(" WHERE " + DBContract.RoutineEntryTable.COL_NAME_DATE);
-        query.append("='" + date + "') as temp ON ");
-        query.append(DBContract.TasksTable.TABLE_NAME + "." + DBContract.TasksTable._ID + "=");
-        query.append("temp." + DBContract.RoutineEntryTable.COL_NAME_TASK_ID);
-        query.append(" ORDER BY " + DBContract.TasksTable._ID + " ASC;");
-        return TaskModel.query(query.toString(), null, false);
+    public ArrayList<TaskModel> getCompletedTasksOnDate(int date) {
+        return QueryCatalog.loadTasksCompletedOnDate(date);
     }
 
 
@@ -316,7 +328,9 @@ public class TaskStatsManager {
             @Override
             public void run() {
                 DatabaseHelper dbHelper = DatabaseHelper.getInstance(context);
-                synchronized (dbHelper) {
+                DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+                writeLock.lock();
+                try {
                     SQLiteDatabase db = dbHelper.getWritableDatabase();
                     int rowsAffected = db.delete(DBContract.RoutineEntryTable.TABLE_NAME, "1", null);
                     if (rowsAffected > 0)
@@ -324,7 +338,11 @@ public class TaskStatsManager {
                     rowsAffected = db.delete(DBContract.RoutineStatsTable.TABLE_NAME, "1", null);
                     if (rowsAffected > 0)
                         Logger.d(LOG_TAG, "Deleted all records from Routine stats table");
+                } finally {
+                    writeLock.unlock();
                 }
+                // All tasks are no longer completed
+                TaskRepository.getInstance().invalidate();
                 if (EventBus.getDefault().hasSubscriberForEvent(StatisticsReset.class))
                     EventBus.getDefault().post(new StatisticsReset());
             }
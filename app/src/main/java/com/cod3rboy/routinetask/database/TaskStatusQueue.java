@@ -0,0 +1,202 @@
+package com.cod3rboy.routinetask.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.os.Handler;
+import android.os.Looper;
+
+import com.cod3rboy.routinetask.TaskApplication;
+import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.events.TasksStatusChanged;
+import com.cod3rboy.routinetask.logging.Logger;
+import com.cod3rboy.routinetask.receivers.TodayTaskWidgetProvider;
+import com.cod3rboy.routinetask.utilities.AlarmScheduler;
+import com.cod3rboy.routinetask.utilities.EpochDay;
+
+import org.greenrobot.eventbus.EventBus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+import needle.Needle;
+
+/**
+ * TaskStatusQueue is a write-behind queue for today completion status of tasks. Status changes are
+ * kept in memory for a short window and then written to database together in a single transaction.
+ * Repeated changes of the same task within the window are coalesced so that only the latest one is
+ * written and a change which reverts the task to its status before the window (done followed by
+ * undone or vice versa) is dropped entirely. Status of a task before the window is the target of
+ * its change which is flushed but not written yet, if any, so that a change made while an earlier
+ * one is being written is compared with the status task will have. After a flush, alarms of changed tasks are rescheduled,
+ * one {@link TasksStatusChanged} event with copies of changed tasks is posted and widgets are
+ * refreshed once.
+ */
+public final class TaskStatusQueue {
+    private static final String LOG_TAG = TaskStatusQueue.class.getSimpleName();
+    private static final String TASK_TYPE_FLUSH = "task_status_flush";
+    /**
+     * Time in milliseconds for which status changes are collected before writing them.
+     */
+    public static final long FLUSH_WINDOW_MILLIS = 300;
+
+    private static TaskStatusQueue singleton = null;
+
+    public static synchronized TaskStatusQueue getInstance() {
+        if (singleton == null) {
+            singleton = new TaskStatusQueue();
+        }
+        return singleton;
+    }
+
+    /**
+     * Status change of a task waiting to be written.
+     */
+    private static class PendingStatus {
+        // Copy of task owned by queue, tasks of adapters must not be changed in background
+        final TaskModel task;
+        // Status of task before first change in window
+        final boolean initiallyDone;
+        boolean done;
+
+        PendingStatus(TaskModel task, boolean initiallyDone, boolean done) {
+            this.task = task;
+            this.initiallyDone = initiallyDone;
+            this.done = done;
+        }
+    }
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable flushRunnable = this::flush;
+    // Pending changes keyed by task id in order of first change
+    private LinkedHashMap<Long, PendingStatus> pending = new LinkedHashMap<>();
+    // Flushed changes keyed by task id which are not written yet
+    private final HashMap<Long, PendingStatus> writing = new HashMap<>();
+    private boolean flushScheduled = false;
+
+    private TaskStatusQueue() {
+    }
+
+    /**
+     * Queues today completion status change of a task. Change is written after the flush window.
+     * A change to the status task already has is ignored. It must be called on main thread and
+     * given task is not changed, updated copies of it are posted after the change is written.
+     *
+     * @param task task whose status is changed
+     * @param done true to mark task completed and false to mark it not completed
+     */
+    public void enqueue(TaskModel task, boolean done) {
+        if (task == null) return;
+        synchronized (this) {
+            PendingStatus status = pending.get(task.getId());
+            if (status == null) {
+                status = new PendingStatus(TaskModel.snapshot(task), isDone(task), done);
+                // Task already has this status so nothing has to be written
+                if (status.initiallyDone == done) return;
+                pending.put(task.getId(), status);
+            } else if (status.initiallyDone == done) {
+                // Change reverts the earlier one so nothing has to be written
+                pending.remove(task.getId());
+                Logger.d(LOG_TAG, "Status changes of task id %d cancelled each other", task.getId());
+            } else {
+                status.done = done;
+            }
+            if (pending.isEmpty()) {
+                handler.removeCallbacks(flushRunnable);
+                flushScheduled = false;
+            } else if (!flushScheduled) {
+                handler.postDelayed(flushRunnable, FLUSH_WINDOW_MILLIS);
+                flushScheduled = true;
+            }
+        }
+    }
+
+    /**
+     * Writes all queued status changes immediately.
+     */
+    public void flush() {
+        final ArrayList<PendingStatus> changes;
+        synchronized (this) {
+            handler.removeCallbacks(flushRunnable);
+            flushScheduled = false;
+            if (pending.isEmpty()) return;
+            changes = new ArrayList<>(pending.values());
+            pending = new LinkedHashMap<>();
+            for (PendingStatus change : changes) writing.put(change.task.getId(), change);
+        }
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_FLUSH).serially().execute(() -> {
+            try {
+                write(changes);
+            } finally {
+                // Forget changes after subscribers of status event have received it on main thread
+                handler.post(() -> written(changes));
+            }
+        });
+    }
+
+    /**
+     * @return whether task is completed after the change of it which is being written, otherwise
+     * after the last written change
+     */
+    private boolean isDone(TaskModel task) {
+        PendingStatus change = writing.get(task.getId());
+        if (change != null) return change.done;
+        TaskModel.TaskStatus status = TaskRepository.getInstance().peekStatus(task.getId());
+        if (status == null) status = task.getStatus();
+        return status == TaskModel.TaskStatus.COMPLETED;
+    }
+
+    private synchronized void written(ArrayList<PendingStatus> changes) {
+        for (PendingStatus change : changes) {
+            // A later change of the same task may be written after this one
+            if (writing.get(change.task.getId()) == change) writing.remove(change.task.getId());
+        }
+    }
+
+    private void write(ArrayList<PendingStatus> changes) {
+        int today = EpochDay.today();
+        ArrayList<TaskModel> completed = new ArrayList<>();
+        ArrayList<TaskModel> notCompleted = new ArrayList<>();
+        DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
+        DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+        writeLock.lock();
+        try {
+            SQLiteDatabase db = dbHelper.getWritableDatabase();
+            db.beginTransaction();
+            try {
+                try (TaskStatsManager.StatusWriter writer = new TaskStatsManager.StatusWriter(db)) {
+                    for (PendingStatus change : changes) {
+                        if (writer.write(change.task.getId(), today, change.done)) {
+                            if (change.done) completed.add(change.task);
+                            else notCompleted.add(change.task);
+                        }
+                    }
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        Logger.d(LOG_TAG, "Flushed %d status changes, %d tasks completed and %d tasks not completed",
+                changes.size(), completed.size(), notCompleted.size());
+        if (completed.isEmpty() && notCompleted.isEmpty()) return;
+        TaskRepository repository = TaskRepository.getInstance();
+        for (TaskModel task : completed) {
+            repository.setCompleted(task.getId(), today, true);
+            task.setStatus(TaskModel.TaskStatus.COMPLETED);
+            // Move reminder to its occurrence after today
+            AlarmScheduler.setTaskAlarm(task, true);
+        }
+        for (TaskModel task : notCompleted) {
+            repository.setCompleted(task.getId(), today, false);
+            task.setStatus(TaskModel.TaskStatus.INCOMPLETE);
+            // Update completed task alarm to next appropriate weekday
+            AlarmScheduler.setTaskAlarm(task, false);
+        }
+        // Notify Tasks Status Changed
+        EventBus.getDefault().post(new TasksStatusChanged(completed, notCompleted));
+        // Refresh any Widgets
+        TodayTaskWidgetProvider.refreshWidgets();
+    }
+}
@@ -1,6 +1,7 @@
 package com.cod3rboy.routinetask.database.models;
 
 import android.content.ContentValues;
+import android.database.CharArrayBuffer;
 import android.database.Cursor;
 import android.os.Parcel;
 import android.os.Parcelable;
@@ -9,6 +10,7 @@ import androidx.annotation.Nullable;
 
 import com.cod3rboy.routinetask.database.DBContract;
 import com.cod3rboy.routinetask.database.DBQueryExecutor;
+import com.cod3rboy.routinetask.database.TaskRepository;
 import com.cod3rboy.routinetask.events.ReminderCreated;
 import com.cod3rboy.routinetask.events.ReminderDeleted;
 import com.cod3rboy.routinetask.events.ReminderEvent;
@@ -34,6 +36,14 @@ public class ReminderModel implements Parcelable {
         ATTACHED, DETACHED
     }
 
+    // Buffer of each thread into which start time is copied from cursor without creating a String
+    private static final ThreadLocal<CharArrayBuffer> sStartTimeBuffer = new ThreadLocal<CharArrayBuffer>() {
+        @Override
+        protected CharArrayBuffer initialValue() {
+            return new CharArrayBuffer(Time.TIME_FORMAT_24_HOUR.length());
+        }
+    };
+
     private long id;
     private long taskId;
     private Time startTime;
@@ -119,6 +129,7 @@ public class ReminderModel implements Parcelable {
                 reminder.makeContentValues(),
                 reminderId -> {
                     reminder.id = reminderId;
+                    TaskRepository.getInstance().putReminder(reminder);
                     // Notify Subscribers
                     postEvent(new ReminderCreated(reminder), ReminderCreated.class);
                 }
@@ -142,6 +153,7 @@ public class ReminderModel implements Parcelable {
         );
         if (rowId > 0) {
             reminder.id = rowId;
+            TaskRepository.getInstance().putReminder(reminder);
             return true;
         }
         return false;
@@ -161,6 +173,7 @@ public class ReminderModel implements Parcelable {
                 reminder.getId(),
                 reminder.makeContentValues(),
                 reminderId -> {
+                    TaskRepository.getInstance().putReminder(reminder);
                     // Notify Subscribers
                     postEvent(new ReminderUpdated(reminder), ReminderUpdated.class);
                 }
@@ -182,6 +195,7 @@ public class ReminderModel implements Parcelable {
                 reminder.getId(),
                 reminder.makeContentValues()
         );
+        if (updated) TaskRepository.getInstance().putReminder(reminder);
         return updated;
     }
 
@@ -195,6 +209,7 @@ public class ReminderModel implements Parcelable {
                 DBContract.RemindersTable.TABLE_NAME,
                 reminder.getId(),
                 reminderId -> {
+                    TaskRepository.getInstance().removeReminder(reminder);
                     // Notify Subscribers
                     postEvent(new ReminderDeleted(reminder), ReminderDeleted.class);
                 }
@@ -213,6 +228,7 @@ public class ReminderModel implements Parcelable {
                 DBContract.RemindersTable.TABLE_NAME,
                 reminder.getId()
         );
+        if (deleted) TaskRepository.getInstance().removeReminder(reminder);
         return deleted;
     }
 
@@ -225,7 +241,7 @@ public class ReminderModel implements Parcelable {
     private static ReminderModel makeFromCursor(Cursor dataCursor) {
         ReminderModel model = new ReminderModel(
                 dataCursor.getLong(dataCursor.getColumnIndex(DBContract.RemindersTable.COL_NAME_TASK_ID)),
-                Time.from24TimeFormat(dataCursor.getString(dataCursor.getColumnIndex(DBContract.RemindersTable.COL_NAME_START_TIME))),
+                readStartTime(dataCursor, dataCursor.getColumnIndex(DBContract.RemindersTable.COL_NAME_START_TIME)),
                 dataCursor.getLong(dataCursor.getColumnIndex(DBContract.RemindersTable.COL_NAME_DURATION))
         );
         model.id = dataCursor.getLong(dataCursor.getColumnIndex(DBContract.RemindersTable._ID));
@@ -233,6 +249,37 @@ public class ReminderModel implements Parcelable {
         return model;
     }
 
+    /**
+     * This method is used to make a ReminderModel from a cursor holding reminder data in columns at
+     * given indices e.g. reminder columns of a task relation query.
+     *
+     * @param dataCursor         cursor holding reminder data which must already be in correct position
+     * @param taskId             id of the task to which reminder belongs
+     * @param idIndex            index of reminder id column
+     * @param startTimeIndex     index of reminder start time column
+     * @param durationIndex      index of reminder duration column
+     * @param lastModifiedIndex  index of reminder last modified column
+     * @return reminder model
+     */
+    static ReminderModel makeFromCursor(Cursor dataCursor, long taskId, int idIndex, int startTimeIndex,
+                                        int durationIndex, int lastModifiedIndex) {
+        ReminderModel model = new ReminderModel(
+                taskId,
+                readStartTime(dataCursor, startTimeIndex),
+                dataCursor.getLong(durationIndex)
+        );
+        model.id = dataCursor.getLong(idIndex);
+        model.lastModified = dataCursor.getLong(lastModifiedIndex);
+        return model;
+    }
+
+    // Time instances are canonical so reading start time does not create objects
+    private static Time readStartTime(Cursor dataCursor, int startTimeIndex) {
+        CharArrayBuffer buffer = sStartTimeBuffer.get();
+        dataCursor.copyStringToBuffer(startTimeIndex, buffer);
+        return Time.from24TimeFormat(buffer.data, 0, buffer.sizeCopied);
+    }
+
     /**
      * This method posts events to the subscribers through EventBus.
      *
@@ -260,11 +307,23 @@ public class ReminderModel implements Parcelable {
     public ReminderModel(ReminderModel reminder) {
         this.id = -1;
         this.setTaskId(-1);
-        this.setStartTime(new Time(reminder.getStartTime().getHours(), reminder.getStartTime().getMinutes()));
+        this.setStartTime(reminder.getStartTime());
         this.setDurationInMinutes(reminder.getDurationInMinutes());
         this.lastModified = System.currentTimeMillis();
     }
 
+    /**
+     * Creates a reminder with given state. It is used by {@link TaskCodec} to restore decoded reminders.
+     */
+    static ReminderModel restore(long id, long taskId, Time startTime, long durationInMinutes,
+                                 long lastModified, boolean attached) {
+        ReminderModel reminder = new ReminderModel(taskId, startTime, durationInMinutes);
+        reminder.id = id;
+        reminder.lastModified = lastModified;
+        reminder.attachment = attached ? ReminderState.ATTACHED : ReminderState.DETACHED;
+        return reminder;
+    }
+
     protected ReminderModel(Parcel in) {
         id = in.readLong();
         this.setTaskId(in.readLong());
@@ -417,8 +476,22 @@ public class ReminderModel implements Parcelable {
         if (!(obj instanceof ReminderModel)) return false;
         ReminderModel reminder = (ReminderModel) obj;
         return reminder.getDurationInMinutes() == this.getDurationInMinutes()
-                && reminder.getStartTime().getMinutes() == this.getStartTime().getMinutes()
-                && reminder.getStartTime().getHours() == this.getStartTime().getHours();
+                && reminder.getStartTime() == this.getStartTime();
+    }
+
+    /**
+     * Creates an exact copy of existing {@link ReminderModel} object including its id and task id.
+     *
+     * @param reminder {@link ReminderModel} object to copy
+     * @return copy of reminder object or null if reminder is null
+     */
+    public static ReminderModel snapshot(@Nullable ReminderModel reminder) {
+        if (reminder == null) return null;
+        ReminderModel copy = new ReminderModel(reminder.taskId, reminder.startTime, reminder.durationInMinutes);
+        copy.id = reminder.id;
+        copy.lastModified = reminder.lastModified;
+        copy.attachment = reminder.attachment;
+        return copy;
     }
 
     /**
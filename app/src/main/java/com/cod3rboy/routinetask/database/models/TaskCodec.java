@@ -0,0 +1,304 @@
+package com.cod3rboy.routinetask.database.models;
+
+import com.cod3rboy.routinetask.utilities.Time;
+import com.cod3rboy.routinetask.utilities.WeekdayMask;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact versioned binary encoding of {@link TaskModel} along with its {@link ReminderModel}.
+ * Unlike a marshalled Parcel, encoding does not depend on platform version, so it can be put in
+ * intents, written to disk snapshots and backups, and encoded and decoded off device.
+ * Encoded data starts with a format version byte followed by a single task or by a varint count
+ * of tasks and the tasks. Layout of a task in version 1 is
+ * <pre>
+ * varint  id + 1
+ * byte    flags (bits 0-1 status, 2 has reminder, 3 reminder attached, 4 reminder task id differs
+ *         from task id, 5 color is not interned)
+ * byte    weekday mask
+ * varint  index of color in palette, or 4 bytes of color if it is not interned
+ * string  title
+ * string  description
+ * reminder if task has reminder:
+ *   varint  id + 1
+ *   varint  task id + 1 (only if it differs from task id)
+ *   varint  minute of day of start time
+ *   varint  duration in minutes
+ *   varint  last modified time in milliseconds
+ * </pre>
+ * Varints are unsigned LEB128 and strings are varint byte length + 1 (0 for null) followed by
+ * UTF-8 bytes. Colors offered by application are interned as their index in a palette which is
+ * frozen with the format version.
+ * Decoding reads fields directly from a {@link ByteBuffer}, and strings are decoded straight from
+ * backing array of a heap buffer without copying.
+ */
+public final class TaskCodec {
+    /**
+     * Current format version which is written by encoder.
+     */
+    public static final int VERSION = 1;
+
+    // Palette of interned colors of format version 1. It must not change with application colors.
+    private static final int[] PALETTE_V1 = {
+            0xFF202124, 0xFF5B2B2A, 0xFF604A1D, 0xFF635C1F, 0xFF355823, 0xFF19504B,
+            0xFF2F555D, 0xFF1F3B5E, 0xFF42295D, 0xFF5A2345, 0xFF442F1B, 0xFF3C3F43,
+    };
+
+    private static final int STATUS_MASK = 0x03;
+    private static final int FLAG_HAS_REMINDER = 1 << 2;
+    private static final int FLAG_REMINDER_ATTACHED = 1 << 3;
+    private static final int FLAG_REMINDER_TASK_ID = 1 << 4;
+    private static final int FLAG_RAW_COLOR = 1 << 5;
+
+    private static final int STATUS_UNKNOWN = 0;
+    private static final int STATUS_INCOMPLETE = 1;
+    private static final int STATUS_COMPLETED = 2;
+
+    // Do not allow instance creation
+    private TaskCodec() {
+    }
+
+    /**
+     * @param task task to encode
+     * @return encoded task
+     */
+    public static byte[] encode(TaskModel task) {
+        Encoder encoder = new Encoder(64);
+        encoder.writeByte(VERSION);
+        encoder.writeTask(task);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * @param tasks tasks to encode
+     * @return encoded tasks in given order
+     */
+    public static byte[] encodeAll(List<TaskModel> tasks) {
+        Encoder encoder = new Encoder(16 + 48 * tasks.size());
+        encoder.writeByte(VERSION);
+        encoder.writeVarint(tasks.size());
+        for (TaskModel task : tasks) encoder.writeTask(task);
+        return encoder.toByteArray();
+    }
+
+    /**
+     * @param data task encoded with {@link #encode(TaskModel)}
+     * @return decoded task
+     * @throws IllegalArgumentException if data is not a valid encoded task
+     */
+    public static TaskModel decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    /**
+     * Decodes a task from position of buffer and advances position past the task.
+     *
+     * @param buffer buffer containing task encoded with {@link #encode(TaskModel)}
+     * @return decoded task
+     * @throws IllegalArgumentException if buffer does not contain a valid encoded task
+     */
+    public static TaskModel decode(ByteBuffer buffer) {
+        try {
+            checkVersion(buffer);
+            return readTask(buffer);
+        } catch (RuntimeException ex) {
+            throw invalidData(ex);
+        }
+    }
+
+    /**
+     * Decodes tasks from position of buffer and advances position past the tasks.
+     *
+     * @param buffer buffer containing tasks encoded with {@link #encodeAll(List)}
+     * @return decoded tasks in encoded order
+     * @throws IllegalArgumentException if buffer does not contain valid encoded tasks
+     */
+    public static ArrayList<TaskModel> decodeAll(ByteBuffer buffer) {
+        try {
+            checkVersion(buffer);
+            int count = (int) readVarint(buffer);
+            // Every task takes several bytes so count cannot exceed remaining bytes
+            if (count < 0 || count > buffer.remaining())
+                throw new IllegalArgumentException("Invalid task count " + count);
+            ArrayList<TaskModel> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) tasks.add(readTask(buffer));
+            return tasks;
+        } catch (RuntimeException ex) {
+            throw invalidData(ex);
+        }
+    }
+
+    private static void checkVersion(ByteBuffer buffer) {
+        int version = buffer.get() & 0xFF;
+        if (version != VERSION)
+            throw new IllegalArgumentException("Unsupported task format version " + version);
+    }
+
+    private static IllegalArgumentException invalidData(RuntimeException ex) {
+        if (ex instanceof IllegalArgumentException) return (IllegalArgumentException) ex;
+        return new IllegalArgumentException("Invalid encoded task data", ex);
+    }
+
+    private static TaskModel readTask(ByteBuffer buffer) {
+        long id = readVarint(buffer) - 1;
+        int flags = buffer.get() & 0xFF;
+        int repeatMask = buffer.get() & WeekdayMask.ALL;
+        int color;
+        if ((flags & FLAG_RAW_COLOR) != 0) {
+            color = (buffer.get() & 0xFF) << 24 | (buffer.get() & 0xFF) << 16
+                    | (buffer.get() & 0xFF) << 8 | (buffer.get() & 0xFF);
+        } else {
+            int index = (int) readVarint(buffer);
+            if (index < 0 || index >= PALETTE_V1.length)
+                throw new IllegalArgumentException("Invalid color index " + index);
+            color = PALETTE_V1[index];
+        }
+        String title = readString(buffer);
+        String description = readString(buffer);
+        ReminderModel reminder = null;
+        if ((flags & FLAG_HAS_REMINDER) != 0) {
+            long reminderId = readVarint(buffer) - 1;
+            long taskId = (flags & FLAG_REMINDER_TASK_ID) != 0 ? readVarint(buffer) - 1 : id;
+            long minuteOfDay = readVarint(buffer);
+            if (minuteOfDay >= Time.MINUTES_IN_DAY)
+                throw new IllegalArgumentException("Invalid reminder start minute " + minuteOfDay);
+            long duration = readVarint(buffer);
+            long lastModified = readVarint(buffer);
+            reminder = ReminderModel.restore(reminderId, taskId, Time.ofMinuteOfDay((int) minuteOfDay),
+                    duration, lastModified, (flags & FLAG_REMINDER_ATTACHED) != 0);
+        }
+        return TaskModel.restore(id, title, description, color, repeatMask, toStatus(flags & STATUS_MASK), reminder);
+    }
+
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        long encodedLength = readVarint(buffer);
+        if (encodedLength == 0) return null;
+        long length = encodedLength - 1;
+        if (length > buffer.remaining())
+            throw new IllegalArgumentException("String length " + length + " exceeds remaining data");
+        String text;
+        if (buffer.hasArray()) {
+            text = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), (int) length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + (int) length);
+        } else {
+            byte[] bytes = new byte[(int) length];
+            buffer.get(bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return text;
+    }
+
+    private static int toStatusCode(TaskModel.TaskStatus status) {
+        if (status == TaskModel.TaskStatus.COMPLETED) return STATUS_COMPLETED;
+        if (status == TaskModel.TaskStatus.INCOMPLETE) return STATUS_INCOMPLETE;
+        return STATUS_UNKNOWN;
+    }
+
+    private static TaskModel.TaskStatus toStatus(int code) {
+        if (code == STATUS_COMPLETED) return TaskModel.TaskStatus.COMPLETED;
+        if (code == STATUS_INCOMPLETE) return TaskModel.TaskStatus.INCOMPLETE;
+        if (code == STATUS_UNKNOWN) return TaskModel.TaskStatus.UNKNOWN;
+        throw new IllegalArgumentException("Invalid task status " + code);
+    }
+
+    private static int paletteIndex(int color) {
+        for (int i = 0; i < PALETTE_V1.length; i++) if (PALETTE_V1[i] == color) return i;
+        return -1;
+    }
+
+    /**
+     * Growable byte array to which tasks are encoded.
+     */
+    private static final class Encoder {
+        private byte[] bytes;
+        private int size;
+
+        Encoder(int capacity) {
+            bytes = new byte[capacity];
+            size = 0;
+        }
+
+        void writeTask(TaskModel task) {
+            ReminderModel reminder = task.getReminder();
+            int colorIndex = paletteIndex(task.getColor());
+            int flags = toStatusCode(task.getStatus());
+            if (colorIndex < 0) flags |= FLAG_RAW_COLOR;
+            if (reminder != null) {
+                flags |= FLAG_HAS_REMINDER;
+                if (reminder.isAttached()) flags |= FLAG_REMINDER_ATTACHED;
+                if (reminder.getTaskId() != task.getId()) flags |= FLAG_REMINDER_TASK_ID;
+            }
+            writeVarint(task.getId() + 1);
+            writeByte(flags);
+            writeByte(task.getRepeatMask() & WeekdayMask.ALL);
+            if (colorIndex < 0) writeInt(task.getColor());
+            else writeVarint(colorIndex);
+            writeString(task.getTitle());
+            writeString(task.getDescription());
+            if (reminder != null) {
+                writeVarint(reminder.getId() + 1);
+                if ((flags & FLAG_REMINDER_TASK_ID) != 0) writeVarint(reminder.getTaskId() + 1);
+                writeVarint(reminder.getStartTime().getMinuteOfDay());
+                writeVarint(reminder.getDurationInMinutes());
+                writeVarint(reminder.getLastModified());
+            }
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensureCapacity(4);
+            bytes[size++] = (byte) (value >>> 24);
+            bytes[size++] = (byte) (value >>> 16);
+            bytes[size++] = (byte) (value >>> 8);
+            bytes[size++] = (byte) value;
+        }
+
+        void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        void writeString(String text) {
+            if (text == null) {
+                writeVarint(0);
+                return;
+            }
+            byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+            writeVarint(utf8.length + 1L);
+            ensureCapacity(utf8.length);
+            System.arraycopy(utf8, 0, bytes, size, utf8.length);
+            size += utf8.length;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length)
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, size);
+        }
+    }
+}
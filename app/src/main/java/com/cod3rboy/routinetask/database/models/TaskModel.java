@@ -8,7 +8,9 @@ import android.os.Parcelable;
 import com.cod3rboy.routinetask.Utilities;
 import com.cod3rboy.routinetask.database.DBContract;
 import com.cod3rboy.routinetask.database.DBQueryExecutor;
-import com.cod3rboy.routinetask.database.TaskStatsManager;
+import com.cod3rboy.routinetask.database.QueryCatalog;
+import com.cod3rboy.routinetask.database.TaskRepository;
+import com.cod3rboy.routinetask.database.TaskStatusQueue;
 import com.cod3rboy.routinetask.events.TaskCreated;
 import com.cod3rboy.routinetask.events.TaskDeleted;
 import com.cod3rboy.routinetask.events.TaskEvent;
@@ -19,19 +21,23 @@ import com.cod3rboy.routinetask.events.TasksDeleted;
 import com.cod3rboy.routinetask.logging.Logger;
 import com.cod3rboy.routinetask.receivers.TodayTaskWidgetProvider;
 import com.cod3rboy.routinetask.utilities.AlarmScheduler;
+import com.cod3rboy.routinetask.utilities.EpochDay;
+import com.cod3rboy.routinetask.utilities.WeekdayMask;
 
 import org.greenrobot.eventbus.EventBus;
 
 import java.util.ArrayList;
 import java.util.Calendar;
 
+import needle.Needle;
+
 /**
  * This model class represents a task. It stores task data and provides methods to perform CRUD
  * operations.
- * This Class also implements Parcelable so it can be passed around between processes (eg. passed in intents
- * for alarms to get task info to create notifications.)
+ * This Class also implements Parcelable so it can be passed around in intents within application.
  * Note that putting Parcelable in PendingIntents does not work and is not reliable in Nougat and later android versions
- * so this class defines two methods to convert parcelable to byte array and read parcelable from byte array.
+ * so intents which leave application process carry id of task, which is read back through
+ * {@link TaskRepository}.
  */
 public class TaskModel implements Parcelable {
     /**
@@ -44,18 +50,25 @@ public class TaskModel implements Parcelable {
         COMPLETED, INCOMPLETE, UNKNOWN
     }
 
+    /**
+     * Column alias of today completion flag of task in relation queries.
+     */
+    public static final String COL_ALIAS_COMPLETED = "completed";
+    /**
+     * Column aliases of task reminder columns in relation queries.
+     */
+    public static final String COL_ALIAS_REMINDER_ID = "reminder_id";
+    public static final String COL_ALIAS_REMINDER_START_TIME = "reminder_start_time";
+    public static final String COL_ALIAS_REMINDER_DURATION = "reminder_duration";
+    public static final String COL_ALIAS_REMINDER_LAST_MODIFIED = "reminder_last_modified";
+
     private static final String LOG_TAG = TaskModel.class.getSimpleName();
+    private static final String TASK_TYPE_FETCH = "task_type_fetch";
     private long id;
     private String title;
     private String description;
     private int color;
-    private boolean repeatSunday;
-    private boolean repeatMonday;
-    private boolean repeatTuesday;
-    private boolean repeatWednesday;
-    private boolean repeatThursday;
-    private boolean repeatFriday;
-    private boolean repeatSaturday;
+    private int repeatMask;
     private TaskStatus status;
     private ReminderModel reminder;
 
@@ -69,21 +82,62 @@ public class TaskModel implements Parcelable {
         randomTask.title = Utilities.getRandomAlphaString(10, DBContract.TasksTable.COL_LENGTH_TITLE);
         randomTask.description = Utilities.getRandomAlphaString(40, DBContract.TasksTable.COL_LENGTH_DESC);
         randomTask.color = DBContract.BG_COLORS[(int) (Math.random() * DBContract.BG_COLORS.length)];
-        randomTask.repeatSunday = Utilities.getRandomBoolean();
-        randomTask.repeatMonday = Utilities.getRandomBoolean();
-        randomTask.repeatTuesday = Utilities.getRandomBoolean();
-        randomTask.repeatWednesday = Utilities.getRandomBoolean();
-        randomTask.repeatThursday = Utilities.getRandomBoolean();
-        randomTask.repeatFriday = Utilities.getRandomBoolean();
-        randomTask.repeatSaturday = Utilities.getRandomBoolean();
+        randomTask.repeatMask = (int) (Math.random() * (WeekdayMask.ALL + 1));
         randomTask.status = TaskStatus.INCOMPLETE;
         if (Math.random() > 0.5) randomTask.reminder = ReminderModel.makeRandomReminder(-1);
         return randomTask;
     }
 
+    /**
+     * This method builds a relation query which selects task columns together with the columns of
+     * task reminder and the today completion flag of task so that tasks along with their related
+     * data can be loaded from a single cursor. Reminder columns are aliased with COL_ALIAS_REMINDER_*
+     * and completion flag is aliased with COL_ALIAS_COMPLETED. Columns of tasks table must be
+     * qualified with table name in selection and order by clauses.
+     * First argument of the query is today date followed by arguments of the selection clause.
+     * Queries executed frequently are built once and kept in {@link QueryCatalog}.
+     *
+     * @param selection selection clause without WHERE keyword or null to select all tasks
+     * @param orderBy   order by clause without ORDER BY keywords or null for no ordering
+     * @return SQL command string
+     */
+    public static String buildRelationQuery(String selection, String orderBy) {
+        final String tasks = DBContract.TasksTable.TABLE_NAME;
+        final String reminders = DBContract.RemindersTable.TABLE_NAME;
+        final String entries = DBContract.RoutineEntryTable.TABLE_NAME;
+        StringBuilder query = new StringBuilder();
+        query.append("SELECT ").append(tasks).append(".*, ")
+                .append(reminders).append(".").append(DBContract.RemindersTable._ID)
+                .append(" AS ").append(COL_ALIAS_REMINDER_ID).append(", ")
+                .append(reminders).append(".").append(DBContract.RemindersTable.COL_NAME_START_TIME)
+                .append(" AS ").append(COL_ALIAS_REMINDER_START_TIME).append(", ")
+                .append(reminders).append(".").append(DBContract.RemindersTable.COL_NAME_DURATION)
+                .append(" AS ").append(COL_ALIAS_REMINDER_DURATION).append(", ")
+                .append(reminders).append(".").append(DBContract.RemindersTable.COL_NAME_LAST_MODIFIED)
+                .append(" AS ").append(COL_ALIAS_REMINDER_LAST_MODIFIED).append(", ")
+                // Repeatable tasks are completed if they have an entry for today and
+                // non repeatable tasks are completed if they have any entry.
+                .append("EXISTS (SELECT 1 FROM ").append(entries)
+                .append(" WHERE ").append(entries).append(".").append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
+                .append(" = ").append(tasks).append(".").append(DBContract.TasksTable._ID)
+                .append(" AND (").append(entries).append(".").append(DBContract.RoutineEntryTable.COL_NAME_DATE)
+                .append(" = ? OR ").append(tasks).append(".").append(DBContract.TasksTable.COL_NAME_REPEAT_MASK)
+                .append(" = ").append(WeekdayMask.NONE).append(")) AS ").append(COL_ALIAS_COMPLETED)
+                .append(" FROM ").append(tasks)
+                .append(" LEFT OUTER JOIN ").append(reminders)
+                .append(" ON ").append(reminders).append(".").append(DBContract.RemindersTable.COL_NAME_TASK_ID)
+                .append(" = ").append(tasks).append(".").append(DBContract.TasksTable._ID);
+        if (selection != null) query.append(" WHERE ").append(selection);
+        if (orderBy != null) query.append(" ORDER BY ").append(orderBy);
+        return query.append(";").toString();
+    }
+
     /**
      * This method is used to synchronously query the tasks models for the given sql command.
-     * It does not load other data related to the task. It must not be invoked by Main Thread.
+     * It must not be invoked by Main Thread. When relation is loaded, related data is read from
+     * the columns of the relation query built by {@link #buildRelationQuery(String, String)} so that
+     * no additional query is executed per task. For other queries related data is loaded with
+     * separate queries for each task.
      *
      * @param sql           SQL command string
      * @param selectionArgs selection arguments for SQL command
@@ -93,10 +147,21 @@ public class TaskModel implements Parcelable {
     public static ArrayList<TaskModel> query(String sql, String[] selectionArgs, boolean loadRelation) {
         ArrayList<TaskModel> result = new ArrayList<>();
         Cursor data = DBQueryExecutor.query(sql, selectionArgs);
+        CursorColumns columns = new CursorColumns(data);
+        boolean relationInCursor = columns.completed >= 0 && columns.reminderId >= 0;
+        if (loadRelation && !relationInCursor)
+            Logger.w(LOG_TAG, "query() - Relation columns not found in query, loading relation for each task separately");
         while (data.moveToNext()) {
-            TaskModel task = makeFromCursor(data);
+            TaskModel task = makeFromCursor(data, columns);
             result.add(task);
-            if (loadRelation) {
+            if (!loadRelation) continue;
+            if (relationInCursor) {
+                if (!data.isNull(columns.reminderId)) {
+                    task.setReminder(ReminderModel.makeFromCursor(data, task.id, columns.reminderId,
+                            columns.reminderStartTime, columns.reminderDuration, columns.reminderLastModified));
+                }
+                task.status = data.getInt(columns.completed) != 0 ? TaskStatus.COMPLETED : TaskStatus.INCOMPLETE;
+            } else {
                 // Load Reminder data
                 task.setReminder(ReminderModel.getForTask(task.getId()));
                 // Determine whether task is completed or not
@@ -116,69 +181,35 @@ public class TaskModel implements Parcelable {
      * @param loadRelation whether to load other data related to task
      */
     public static void fetch(long taskId, boolean loadRelation) {
-        StringBuilder cmdBuilder = new StringBuilder();
-        cmdBuilder.append("SELECT * FROM ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(" WHERE ")
-                .append(DBContract.TasksTable._ID)
-                .append(" = ?;");
-        DBQueryExecutor.queryAsync(
-                cmdBuilder.toString(),
-                new String[]{String.valueOf(taskId)},
-                result -> {
-                    TaskModel task = null;
-                    if (result != null && result.moveToFirst()) {
-                        task = makeFromCursor(result);
-                    }
-                    result.close();
-                    if (task != null) {
-                        if (loadRelation) {
-                            // Load Reminder data
-                            task.setReminder(ReminderModel.getForTask(taskId));
-                            // Determine whether task is completed or not
-                            boolean completed = isTaskCompletedToday(task);
-                            if (completed) task.status = TaskStatus.COMPLETED;
-                            else task.status = TaskStatus.INCOMPLETE;
-                        }
-                        // Notify Subscribers
-                        postEvent(new TaskLoaded(task), TaskLoaded.class);
-                    }
-                }
-        );
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_FETCH).execute(() -> {
+            TaskModel task = get(taskId, loadRelation);
+            if (task != null) {
+                // Notify Subscribers
+                postEvent(new TaskLoaded(task), TaskLoaded.class);
+            }
+        });
     }
 
     /**
-     * This method synchronously retrieves task model for a given task id. This method should
-     * not invoked by Main Thread.
+     * This method synchronously retrieves task model for a given task id from {@link TaskRepository}.
+     * This method should not invoked by Main Thread.
      *
      * @param taskId       id of task for which task model will be fetched
      * @param loadRelation whether to load other data related to task
      * @return Task model is returned if task found with given id otherwise null is returned
      */
     public static TaskModel get(long taskId, boolean loadRelation) {
-        StringBuilder cmdBuilder = new StringBuilder();
-        cmdBuilder.append("SELECT * FROM ")
-                .append(DBContract.TasksTable.TABLE_NAME)
-                .append(" WHERE ")
-                .append(DBContract.TasksTable._ID)
-                .append(" = ?;");
-        Cursor dataCursor = DBQueryExecutor.query(cmdBuilder.toString(), new String[]{String.valueOf(taskId)});
-        TaskModel task = null;
-        if (dataCursor != null && dataCursor.moveToFirst())
-            task = makeFromCursor(dataCursor);
-        dataCursor.close();
-        if (task != null && loadRelation) {
-            // Load Reminder Data
-            task.setReminder(ReminderModel.getForTask(taskId));
-            // Determine whether task is completed or not
-            boolean completed = isTaskCompletedToday(task);
-            if (completed) task.status = TaskStatus.COMPLETED;
-            else task.status = TaskStatus.INCOMPLETE;
+        TaskModel task = TaskRepository.getInstance().getTask(taskId);
+        if (task != null && !loadRelation) {
+            task.reminder = null;
+            task.status = TaskStatus.UNKNOWN;
         }
         return task;
     }
 
     private static boolean isTaskCompletedToday(TaskModel task) {
+        TaskStatus status = TaskRepository.getInstance().peekStatus(task.getId());
+        if (status != null) return status == TaskStatus.COMPLETED;
         StringBuilder cmdBuilder = new StringBuilder();
         cmdBuilder.append("SELECT ");
         cmdBuilder.append(DBContract.RoutineEntryTable._ID);
@@ -196,7 +227,7 @@ public class TaskModel implements Parcelable {
             cmdBuilder.append(" = ?");
             queryArgs = new String[]{
                     String.valueOf(task.getId()),
-                    Utilities.getTodayDateString()
+                    String.valueOf(EpochDay.today())
             };
         } else {
             queryArgs = new String[]{
@@ -238,6 +269,7 @@ public class TaskModel implements Parcelable {
                             AlarmScheduler.setTaskAlarm(task, false);
                         }
                     }
+                    TaskRepository.getInstance().put(task);
                     // Refresh Widgets
                     TodayTaskWidgetProvider.refreshWidgets();
                     // Notify Subscribers
@@ -273,6 +305,7 @@ public class TaskModel implements Parcelable {
                     AlarmScheduler.setTaskAlarm(task, false);
                 }
             }
+            TaskRepository.getInstance().put(task);
             // Refresh Widgets
             TodayTaskWidgetProvider.refreshWidgets();
             return true;
@@ -303,12 +336,12 @@ public class TaskModel implements Parcelable {
                             if (reminder != null) {
                                 reminder.setTaskId(tasks.get(i).id);
                                 reminder.save(false);
-                                // Schedule the task alarm
-                                Logger.d(LOG_TAG, "insert(tasks, relation) - Scheduling task alarm for newly created task");
-                                AlarmScheduler.setTaskAlarm(tasks.get(i), false);
                             }
                         }
                     }
+                    // Schedule alarms of all tasks together
+                    if (insertRelation) AlarmScheduler.setTaskAlarms(tasks, false);
+                    TaskRepository.getInstance().putAll(tasks);
                     // Refresh Widgets
                     TodayTaskWidgetProvider.refreshWidgets();
                     // Notify Subscribers
@@ -343,12 +376,13 @@ public class TaskModel implements Parcelable {
                 if (reminder != null) {
                     reminder.setTaskId(tasks.get(i).id);
                     reminder.save(false);
-                    // Schedule the task alarm
-                    Logger.d(LOG_TAG, "insert(tasks, relation) - Scheduling task alarm for newly created task");
-                    AlarmScheduler.setTaskAlarm(tasks.get(i), false);
                 }
             }
         }
+        // Schedule alarms of all tasks together. Tasks which failed to insert are skipped.
+        if (insertRelation) AlarmScheduler.setTaskAlarms(tasks, false);
+        // Tasks which failed to insert have no id and are skipped
+        TaskRepository.getInstance().putAll(tasks);
         // Refresh Widgets
         TodayTaskWidgetProvider.refreshWidgets();
         return success;
@@ -374,18 +408,19 @@ public class TaskModel implements Parcelable {
                                 // Delete reminder if not attached with task
                                 taskReminder.delete(false);
                                 // Cancel the reminder alarm
-                                Logger.d(LOG_TAG, "update(task, relation) - Cancelling task alarm with id " + taskReminder.getId());
+                                Logger.d(LOG_TAG, "update(task, relation) - Cancelling task alarm with id %d", taskReminder.getId());
                                 AlarmScheduler.cancelTaskAlarm(task);
                                 task.setReminder(null);
                             } else {
                                 // Update / Add task alarm
                                 taskReminder.save(false);
-                                Logger.d(LOG_TAG, "update(task, relation) - Updating task alarm with id " + taskReminder.getId());
+                                Logger.d(LOG_TAG, "update(task, relation) - Updating task alarm with id %d", taskReminder.getId());
                                 boolean taskCompleted = isTaskCompletedToday(task);
                                 AlarmScheduler.setTaskAlarm(task, taskCompleted);
                             }
                         }
                     }
+                    TaskRepository.getInstance().put(task);
                     // Refresh Widgets
                     TodayTaskWidgetProvider.refreshWidgets();
                     // Notify Subscribers
@@ -416,18 +451,19 @@ public class TaskModel implements Parcelable {
                         // Delete reminder if not attached with task
                         taskReminder.delete(false);
                         // Cancel the reminder alarm
-                        Logger.d(LOG_TAG, "update(task, relation) - Cancelling task alarm with id " + taskReminder.getId());
+                        Logger.d(LOG_TAG, "update(task, relation) - Cancelling task alarm with id %d", taskReminder.getId());
                         AlarmScheduler.cancelTaskAlarm(task);
                         task.setReminder(null);
                     } else {
                         taskReminder.save(false);
                         // Update task alarm
-                        Logger.d(LOG_TAG, "update(task, relation) - Updating task alarm with id " + taskReminder.getId());
+                        Logger.d(LOG_TAG, "update(task, relation) - Updating task alarm with id %d", taskReminder.getId());
                         boolean taskCompleted = isTaskCompletedToday(task);
                         AlarmScheduler.setTaskAlarm(task, taskCompleted);
                     }
                 }
             }
+            TaskRepository.getInstance().put(task);
             // Refresh Widgets
             TodayTaskWidgetProvider.refreshWidgets();
             return true;
@@ -445,11 +481,12 @@ public class TaskModel implements Parcelable {
                 DBContract.TasksTable.TABLE_NAME,
                 task.getId(),
                 taskId -> {
+                    TaskRepository.getInstance().remove(taskId);
                     // Cancel task alarm (if set)
                     ReminderModel reminder = task.getReminder();
                     if (reminder != null) {
                         // Cancel task alarm
-                        Logger.d(LOG_TAG, "delete(task) - Cancelling task alarm with id " + reminder.getId());
+                        Logger.d(LOG_TAG, "delete(task) - Cancelling task alarm with id %d", reminder.getId());
                         AlarmScheduler.cancelTaskAlarm(task);
                     }
                     // Refresh Widgets
@@ -473,11 +510,12 @@ public class TaskModel implements Parcelable {
                 task.getId()
         );
         if (success) {
+            TaskRepository.getInstance().remove(task.getId());
             // Cancel task alarm (if set)
             ReminderModel reminder = task.getReminder();
             if (reminder != null) {
                 // Cancel task alarm
-                Logger.d(LOG_TAG, "delete(task) - Cancelling task alarm with id " + reminder.getId());
+                Logger.d(LOG_TAG, "delete(task) - Cancelling task alarm with id %d", reminder.getId());
                 AlarmScheduler.cancelTaskAlarm(task);
             }
         }
@@ -498,15 +536,9 @@ public class TaskModel implements Parcelable {
                 DBContract.TasksTable.TABLE_NAME,
                 ids,
                 tasksIds -> {
+                    TaskRepository.getInstance().removeAll(tasksIds);
                     // Cancel tasks alarms (if set)
-                    for (TaskModel task : tasks) {
-                        ReminderModel reminder = task.getReminder();
-                        if (reminder != null) {
-                            // Cancel task alarm
-                            Logger.d(LOG_TAG, "delete(tasks, relation) - Cancelling task alarm with id " + reminder.getId());
-                            AlarmScheduler.cancelTaskAlarm(task);
-                        }
-                    }
+                    AlarmScheduler.cancelTaskAlarms(tasks);
                     // Refresh Widgets
                     TodayTaskWidgetProvider.refreshWidgets();
                     // Notify Subscribers
@@ -515,6 +547,34 @@ public class TaskModel implements Parcelable {
         );
     }
 
+    /**
+     * This method asynchronously deletes multiple tasks with given ids from database. Tasks are read
+     * from {@link TaskRepository} in background so that their alarms are cancelled after they are deleted.
+     *
+     * @param taskIds ids of existing tasks to delete
+     */
+    public static void deleteAsync(long[] taskIds) {
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_FETCH).execute(() -> {
+            ArrayList<TaskModel> tasks = TaskRepository.getInstance().getTasks(taskIds);
+            if (!tasks.isEmpty()) deleteAsync(tasks);
+        });
+    }
+
+    /**
+     * This method asynchronously inserts duplicates of tasks with given ids along with their relation.
+     * Tasks are read from {@link TaskRepository} in background.
+     *
+     * @param taskIds ids of existing tasks to duplicate
+     */
+    public static void duplicateAsync(long[] taskIds) {
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_FETCH).execute(() -> {
+            ArrayList<TaskModel> tasks = TaskRepository.getInstance().getTasks(taskIds);
+            ArrayList<TaskModel> duplicates = new ArrayList<>(tasks.size());
+            for (TaskModel task : tasks) duplicates.add(new TaskModel(task));
+            if (!duplicates.isEmpty()) insertAsync(duplicates, true);
+        });
+    }
+
     /**
      * This method synchronously deletes multiple task models from database.
      * It must not be executed on Main Thread.
@@ -530,28 +590,32 @@ public class TaskModel implements Parcelable {
                 ids
         );
         // @todo determine which IDs were successfully deleted
+        if (success) TaskRepository.getInstance().removeAll(ids);
+        else TaskRepository.getInstance().invalidate();
 
         // Cancel tasks alarms (if set)
-        for (TaskModel task : tasks) {
-            ReminderModel reminder = task.getReminder();
-            if (reminder != null) {
-                // Cancel task alarm
-                Logger.d(LOG_TAG, "delete(tasks, relation) - Cancelling task alarm with id " + reminder.getId());
-                AlarmScheduler.cancelTaskAlarm(task);
-            }
-        }
+        AlarmScheduler.cancelTaskAlarms(tasks);
         // Refresh Widgets
         TodayTaskWidgetProvider.refreshWidgets();
         return success;
     }
 
-    // @todo Simplify tasks marking method definitions by utilizing the pre-fetched task status info.
+    /**
+     * Marks task completed for today. Change is written with other status changes of a short window.
+     *
+     * @param task task to mark complete
+     */
     public static void markAsComplete(TaskModel task) {
-        TaskStatsManager.getInstance().setTaskDone(task, () -> task.status = TaskStatus.COMPLETED);
+        TaskStatusQueue.getInstance().enqueue(task, true);
     }
 
+    /**
+     * Marks task not completed for today. Change is written with other status changes of a short window.
+     *
+     * @param task task to mark not complete
+     */
     public static void markAsPending(TaskModel task) {
-        TaskStatsManager.getInstance().setTaskUndone(task, () -> task.status = TaskStatus.INCOMPLETE);
+        TaskStatusQueue.getInstance().enqueue(task, false);
     }
 
     /**
@@ -561,21 +625,49 @@ public class TaskModel implements Parcelable {
      * @return task model if cursor has data otherwise null is returned
      */
     public static TaskModel makeFromCursor(Cursor dataCursor) {
+        return makeFromCursor(dataCursor, new CursorColumns(dataCursor));
+    }
+
+    private static TaskModel makeFromCursor(Cursor dataCursor, CursorColumns columns) {
         TaskModel task = new TaskModel();
-        task.id = dataCursor.getInt(dataCursor.getColumnIndex(DBContract.TasksTable._ID));
-        task.title = dataCursor.getString(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_TITLE));
-        task.description = dataCursor.getString(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_DESC));
-        task.color = dataCursor.getInt(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_COLOR));
-        task.repeatSunday = dataCursor.getInt(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_SUNDAY)) == DBContract.TasksTable.COL_VALUE_TRUE;
-        task.repeatMonday = dataCursor.getInt(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_MONDAY)) == DBContract.TasksTable.COL_VALUE_TRUE;
-        task.repeatTuesday = dataCursor.getInt(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_TUESDAY)) == DBContract.TasksTable.COL_VALUE_TRUE;
-        task.repeatWednesday = dataCursor.getInt(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_WEDNESDAY)) == DBContract.TasksTable.COL_VALUE_TRUE;
-        task.repeatThursday = dataCursor.getInt(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_THURSDAY)) == DBContract.TasksTable.COL_VALUE_TRUE;
-        task.repeatFriday = dataCursor.getInt(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_FRIDAY)) == DBContract.TasksTable.COL_VALUE_TRUE;
-        task.repeatSaturday = dataCursor.getInt(dataCursor.getColumnIndex(DBContract.TasksTable.COL_NAME_SATURDAY)) == DBContract.TasksTable.COL_VALUE_TRUE;
+        task.id = dataCursor.getInt(columns.id);
+        task.title = dataCursor.getString(columns.title);
+        task.description = dataCursor.getString(columns.description);
+        task.color = dataCursor.getInt(columns.color);
+        task.repeatMask = dataCursor.getInt(columns.repeatMask);
         return task;
     }
 
+    /**
+     * Holds indices of task columns in a cursor so that they are resolved once per cursor instead
+     * of once per row. Indices of columns not present in cursor are -1.
+     */
+    private static final class CursorColumns {
+        final int id;
+        final int title;
+        final int description;
+        final int color;
+        final int repeatMask;
+        final int completed;
+        final int reminderId;
+        final int reminderStartTime;
+        final int reminderDuration;
+        final int reminderLastModified;
+
+        CursorColumns(Cursor cursor) {
+            id = cursor.getColumnIndex(DBContract.TasksTable._ID);
+            title = cursor.getColumnIndex(DBContract.TasksTable.COL_NAME_TITLE);
+            description = cursor.getColumnIndex(DBContract.TasksTable.COL_NAME_DESC);
+            color = cursor.getColumnIndex(DBContract.TasksTable.COL_NAME_COLOR);
+            repeatMask = cursor.getColumnIndex(DBContract.TasksTable.COL_NAME_REPEAT_MASK);
+            completed = cursor.getColumnIndex(COL_ALIAS_COMPLETED);
+            reminderId = cursor.getColumnIndex(COL_ALIAS_REMINDER_ID);
+            reminderStartTime = cursor.getColumnIndex(COL_ALIAS_REMINDER_START_TIME);
+            reminderDuration = cursor.getColumnIndex(COL_ALIAS_REMINDER_DURATION);
+            reminderLastModified = cursor.getColumnIndex(COL_ALIAS_REMINDER_LAST_MODIFIED);
+        }
+    }
+
     /**
      * This method posts events to the subscribers through EventBus.
      *
@@ -596,13 +688,7 @@ public class TaskModel implements Parcelable {
         title = "";
         description = "";
         color = DBContract.BG_COLORS[0];
-        repeatSunday = false;
-        repeatMonday = false;
-        repeatTuesday = false;
-        repeatWednesday = false;
-        repeatThursday = false;
-        repeatFriday = false;
-        repeatSaturday = false;
+        repeatMask = WeekdayMask.NONE;
         status = TaskStatus.UNKNOWN;
         reminder = null;
     }
@@ -617,31 +703,55 @@ public class TaskModel implements Parcelable {
         title = task.getTitle();
         description = task.getDescription();
         color = task.getColor();
-        repeatSunday = task.isRepeatSunday();
-        repeatMonday = task.isRepeatMonday();
-        repeatTuesday = task.isRepeatTuesday();
-        repeatWednesday = task.isRepeatWednesday();
-        repeatThursday = task.isRepeatThursday();
-        repeatFriday = task.isRepeatFriday();
-        repeatSaturday = task.isRepeatSaturday();
+        repeatMask = task.getRepeatMask();
         status = TaskStatus.UNKNOWN;
         reminder = null;
         if (task.getReminder() != null) reminder = new ReminderModel(task.getReminder());
     }
 
+    /**
+     * Creates an exact copy of a task including its id, status and reminder. Unlike the copy
+     * constructor, which creates a new unsaved task, copy refers to the same database record.
+     *
+     * @param task TaskModel object to copy
+     * @return copy of task
+     */
+    public static TaskModel snapshot(TaskModel task) {
+        TaskModel copy = new TaskModel();
+        copy.id = task.id;
+        copy.title = task.title;
+        copy.description = task.description;
+        copy.color = task.color;
+        copy.repeatMask = task.repeatMask;
+        copy.status = task.status;
+        copy.reminder = ReminderModel.snapshot(task.reminder);
+        return copy;
+    }
+
+    /**
+     * Creates a task with given state. It is used by {@link TaskCodec} to restore decoded tasks.
+     */
+    static TaskModel restore(long id, String title, String description, int color, int repeatMask,
+                             TaskStatus status, ReminderModel reminder) {
+        TaskModel task = new TaskModel();
+        task.id = id;
+        task.title = title;
+        task.description = description;
+        task.color = color;
+        task.repeatMask = repeatMask;
+        task.status = status;
+        task.reminder = reminder;
+        return task;
+    }
+
     protected TaskModel(Parcel in) {
         id = in.readLong();
         title = in.readString();
         description = in.readString();
         color = in.readInt();
-        // Reading Boolean Flags from 0 and 1 values
-        repeatSunday = in.readInt() == DBContract.TasksTable.COL_VALUE_TRUE;
-        repeatMonday = in.readInt() == DBContract.TasksTable.COL_VALUE_TRUE;
-        repeatTuesday = in.readInt() == DBContract.TasksTable.COL_VALUE_TRUE;
-        repeatWednesday = in.readInt() == DBContract.TasksTable.COL_VALUE_TRUE;
-        repeatThursday = in.readInt() == DBContract.TasksTable.COL_VALUE_TRUE;
-        repeatFriday = in.readInt() == DBContract.TasksTable.COL_VALUE_TRUE;
-        repeatSaturday = in.readInt() == DBContract.TasksTable.COL_VALUE_TRUE;
+        // Reading Boolean Flags of repeat days from 0 and 1 values
+        for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++)
+            repeatMask = WeekdayMask.with(repeatMask, day, in.readInt() == DBContract.TasksTable.COL_VALUE_TRUE);
         // Read related data
         reminder = in.readParcelable(ReminderModel.class.getClassLoader());
     }
@@ -688,65 +798,83 @@ public class TaskModel implements Parcelable {
     }
 
     public boolean isRepeatSunday() {
-        return repeatSunday;
+        return isRepeatForDay(Calendar.SUNDAY);
     }
 
     public void setRepeatSunday(boolean repeat) {
-        repeatSunday = repeat;
+        repeatMask = WeekdayMask.with(repeatMask, Calendar.SUNDAY, repeat);
     }
 
     public boolean isRepeatMonday() {
-        return repeatMonday;
+        return isRepeatForDay(Calendar.MONDAY);
     }
 
     public void setRepeatMonday(boolean repeat) {
-        repeatMonday = repeat;
+        repeatMask = WeekdayMask.with(repeatMask, Calendar.MONDAY, repeat);
     }
 
     public boolean isRepeatTuesday() {
-        return repeatTuesday;
+        return isRepeatForDay(Calendar.TUESDAY);
     }
 
     public void setRepeatTuesday(boolean repeat) {
-        repeatTuesday = repeat;
+        repeatMask = WeekdayMask.with(repeatMask, Calendar.TUESDAY, repeat);
     }
 
     public boolean isRepeatWednesday() {
-        return repeatWednesday;
+        return isRepeatForDay(Calendar.WEDNESDAY);
     }
 
     public void setRepeatWednesday(boolean repeat) {
-        repeatWednesday = repeat;
+        repeatMask = WeekdayMask.with(repeatMask, Calendar.WEDNESDAY, repeat);
     }
 
     public boolean isRepeatThursday() {
-        return repeatThursday;
+        return isRepeatForDay(Calendar.THURSDAY);
     }
 
     public void setRepeatThursday(boolean repeat) {
-        repeatThursday = repeat;
+        repeatMask = WeekdayMask.with(repeatMask, Calendar.THURSDAY, repeat);
     }
 
     public boolean isRepeatFriday() {
-        return repeatFriday;
+        return isRepeatForDay(Calendar.FRIDAY);
     }
 
     public void setRepeatFriday(boolean repeat) {
-        repeatFriday = repeat;
+        repeatMask = WeekdayMask.with(repeatMask, Calendar.FRIDAY, repeat);
     }
 
     public boolean isRepeatSaturday() {
-        return repeatSaturday;
+        return isRepeatForDay(Calendar.SATURDAY);
     }
 
     public void setRepeatSaturday(boolean repeat) {
-        repeatSaturday = repeat;
+        repeatMask = WeekdayMask.with(repeatMask, Calendar.SATURDAY, repeat);
+    }
+
+    /**
+     * @return days of week for which task repeats as WeekdayMask
+     */
+    public int getRepeatMask() {
+        return repeatMask;
+    }
+
+    /**
+     * @param repeatMask days of week for which task repeats as WeekdayMask
+     */
+    public void setRepeatMask(int repeatMask) {
+        this.repeatMask = repeatMask & WeekdayMask.ALL;
     }
 
     public TaskStatus getStatus() {
         return status;
     }
 
+    public void setStatus(TaskStatus status) {
+        this.status = status;
+    }
+
     public void setReminder(ReminderModel reminder) {
         this.reminder = reminder;
     }
@@ -765,13 +893,7 @@ public class TaskModel implements Parcelable {
         cv.put(DBContract.TasksTable.COL_NAME_TITLE, title);
         cv.put(DBContract.TasksTable.COL_NAME_DESC, description);
         cv.put(DBContract.TasksTable.COL_NAME_COLOR, color);
-        cv.put(DBContract.TasksTable.COL_NAME_SUNDAY, getRepeatFlagValue(repeatSunday));
-        cv.put(DBContract.TasksTable.COL_NAME_MONDAY, getRepeatFlagValue(repeatMonday));
-        cv.put(DBContract.TasksTable.COL_NAME_TUESDAY, getRepeatFlagValue(repeatTuesday));
-        cv.put(DBContract.TasksTable.COL_NAME_WEDNESDAY, getRepeatFlagValue(repeatWednesday));
-        cv.put(DBContract.TasksTable.COL_NAME_THURSDAY, getRepeatFlagValue(repeatThursday));
-        cv.put(DBContract.TasksTable.COL_NAME_FRIDAY, getRepeatFlagValue(repeatFriday));
-        cv.put(DBContract.TasksTable.COL_NAME_SATURDAY, getRepeatFlagValue(repeatSaturday));
+        cv.put(DBContract.TasksTable.COL_NAME_REPEAT_MASK, repeatMask);
         return cv;
     }
 
@@ -790,48 +912,13 @@ public class TaskModel implements Parcelable {
         dest.writeString(getTitle());
         dest.writeString(getDescription());
         dest.writeInt(getColor());
-        dest.writeInt(getRepeatFlagValue(repeatSunday));
-        dest.writeInt(getRepeatFlagValue(repeatMonday));
-        dest.writeInt(getRepeatFlagValue(repeatTuesday));
-        dest.writeInt(getRepeatFlagValue(repeatWednesday));
-        dest.writeInt(getRepeatFlagValue(repeatThursday));
-        dest.writeInt(getRepeatFlagValue(repeatFriday));
-        dest.writeInt(getRepeatFlagValue(repeatSaturday));
+        // Repeat days are written as seven flags to keep the parcel layout of pending intents created by older versions
+        for (int day = Calendar.SUNDAY; day <= Calendar.SATURDAY; day++)
+            dest.writeInt(getRepeatFlagValue(isRepeatForDay(day)));
         // Write related data
         dest.writeParcelable(getReminder(), 0);
     }
 
-    /**
-     * Converts Parcelable Object to byte array for pending intents
-     *
-     * @param parcelable parcelable object to convert to bytes
-     * @return ordered byte array representation of parcelable
-     */
-    public static byte[] toByteArray(Parcelable parcelable) {
-        Parcel parcel = Parcel.obtain();
-        parcelable.writeToParcel(parcel, 0);
-        byte[] result = parcel.marshall();
-        parcel.recycle();
-        return result;
-    }
-
-    /**
-     * Create Parcelable object from byte array in Pending Intents
-     *
-     * @param bytes   ordered byte array represents parcelable
-     * @param creator CREATOR which can create parcelable type (static field of parcelable)
-     * @param <T>     Type of the Parcelable
-     * @return returns Parcelable read from ordered byte array
-     */
-    public static <T> T toParcelable(byte[] bytes, Parcelable.Creator<T> creator) {
-        Parcel parcel = Parcel.obtain();
-        parcel.unmarshall(bytes, 0, bytes.length);
-        parcel.setDataPosition(0);
-        T result = creator.createFromParcel(parcel);
-        parcel.recycle();
-        return result;
-    }
-
     /**
      * This method is used to check whether this task is repeated for given day of the week.
      *
@@ -839,48 +926,11 @@ public class TaskModel implements Parcelable {
      * @return true if task is set for given day or false
      */
     public boolean isRepeatForDay(int day) {
-        switch (day) {
-            case Calendar.MONDAY:
-                return isRepeatMonday();
-            case Calendar.TUESDAY:
-                return isRepeatTuesday();
-            case Calendar.WEDNESDAY:
-                return isRepeatWednesday();
-            case Calendar.THURSDAY:
-                return isRepeatThursday();
-            case Calendar.FRIDAY:
-                return isRepeatFriday();
-            case Calendar.SATURDAY:
-                return isRepeatSaturday();
-            case Calendar.SUNDAY:
-                return isRepeatSunday();
-        }
-        return false;
+        return WeekdayMask.contains(repeatMask, day);
     }
 
     public void setRepeatForDay(int day) {
-        switch (day) {
-            case Calendar.MONDAY:
-                setRepeatMonday(true);
-                break;
-            case Calendar.TUESDAY:
-                setRepeatTuesday(true);
-                break;
-            case Calendar.WEDNESDAY:
-                setRepeatWednesday(true);
-                break;
-            case Calendar.THURSDAY:
-                setRepeatThursday(true);
-                break;
-            case Calendar.FRIDAY:
-                setRepeatFriday(true);
-                break;
-            case Calendar.SATURDAY:
-                setRepeatSaturday(true);
-                break;
-            case Calendar.SUNDAY:
-                setRepeatSunday(true);
-        }
+        repeatMask = WeekdayMask.with(repeatMask, day, true);
     }
 
     /**
@@ -889,11 +939,7 @@ public class TaskModel implements Parcelable {
      * @return int total no of weekdays for which task repeats
      */
     public int getRepeatCountInWeek() {
-        int count = 0;
-        for (int i = Calendar.SUNDAY; i <= Calendar.SATURDAY; i++) {
-            if (isRepeatForDay(i)) count++;
-        }
-        return count;
+        return WeekdayMask.count(repeatMask);
     }
 
     /**
@@ -0,0 +1,36 @@
+package com.cod3rboy.routinetask.events;
+
+import com.cod3rboy.routinetask.database.models.TaskModel;
+
+import java.util.ArrayList;
+
+/**
+ * Event posted once for a batch of task status changes written together.
+ */
+public class TasksStatusChanged extends TaskEvent {
+    private ArrayList<TaskModel> completedModels;
+    private ArrayList<TaskModel> pendingModels;
+
+    public TasksStatusChanged(ArrayList<TaskModel> completedModels, ArrayList<TaskModel> pendingModels) {
+        this.completedModels = completedModels;
+        this.pendingModels = pendingModels;
+    }
+
+    /**
+     * @return tasks which are marked completed
+     */
+    public ArrayList<TaskModel> getCompletedModels() {
+        return completedModels;
+    }
+
+    /**
+     * @return tasks which are marked not completed
+     */
+    public ArrayList<TaskModel> getPendingModels() {
+        return pendingModels;
+    }
+
+    public boolean hasCompletedModels() {
+        return !completedModels.isEmpty();
+    }
+}
@@ -27,15 +27,16 @@ import com.cod3rboy.routinetask.R;
 import com.cod3rboy.routinetask.TaskApplication;
 import com.cod3rboy.routinetask.TaskForm;
 import com.cod3rboy.routinetask.Tutorials;
-import com.cod3rboy.routinetask.Utilities;
 import com.cod3rboy.routinetask.activities.EditTaskActivity;
 import com.cod3rboy.routinetask.database.DBContract;
 import com.cod3rboy.routinetask.database.DatabaseHelper;
+import com.cod3rboy.routinetask.database.DatabaseWriteLock;
 import com.cod3rboy.routinetask.database.models.ReminderModel;
 import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.cod3rboy.routinetask.events.TaskDeleted;
 import com.cod3rboy.routinetask.events.TaskUpdated;
 import com.cod3rboy.routinetask.logging.Logger;
+import com.cod3rboy.routinetask.utilities.EpochDay;
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
 import org.greenrobot.eventbus.EventBus;
@@ -345,10 +346,14 @@ public class EditTaskFragment extends Fragment {
                     .append(" <> ?");
             Needle.onBackgroundThread().serially().execute(() -> {
                 DatabaseHelper dbHelper = DatabaseHelper.getInstance(TaskApplication.getAppContext());
-                synchronized (dbHelper) {
-                    SQLiteDatabase db = dbHelper.getReadableDatabase();
+                DatabaseWriteLock writeLock = dbHelper.getWriteLock();
+                writeLock.lock();
+                try {
+                    SQLiteDatabase db = dbHelper.getWritableDatabase();
                     db.delete(DBContract.RoutineEntryTable.TABLE_NAME, whereClause.toString(),
-                            new String[]{String.valueOf(task.getId()), Utilities.getTodayDateString()});
+                            new String[]{String.valueOf(task.getId()), String.valueOf(EpochDay.today())});
+                } finally {
+                    writeLock.unlock();
                 }
             });
         }
@@ -3,6 +3,7 @@ package com.cod3rboy.routinetask.fragments;
 import android.app.Dialog;
 import android.content.DialogInterface;
 import android.os.Bundle;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuInflater;
@@ -26,6 +27,7 @@ import com.cod3rboy.routinetask.database.PomodoroStatsManager;
 import com.cod3rboy.routinetask.events.RandomStatsGenerated;
 import com.cod3rboy.routinetask.events.StatisticsReset;
 import com.cod3rboy.routinetask.logging.Logger;
+import com.cod3rboy.routinetask.utilities.EpochDay;
 import com.github.mikephil.charting.animation.Easing;
 import com.github.mikephil.charting.charts.HorizontalBarChart;
 import com.github.mikephil.charting.charts.PieChart;
@@ -49,16 +51,12 @@ import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Locale;
-import java.util.Objects;
 
 public class PomodoroStatsFragment extends Fragment {
     private static final String LOG_TAG = PomodoroStatsFragment.class.getSimpleName();
-    private AsyncWork<Void, LinkedHashMap<String,Integer>> mStatsLoader;
+    private AsyncWork<Void, LinkedHashMap<Integer, Integer>> mStatsLoader;
     private PieChart mWeekPieChart;
     private HorizontalBarChart mBarChart;
     private View mNoStatsView;
@@ -152,12 +150,12 @@ public class PomodoroStatsFragment extends Fragment {
         barChart.setClipValuesToContent(true); // prevents bleeding of values outside content rect.
     }
 
-    private void loadDataToCharts(LinkedHashMap<String, Integer> data){
+    private void loadDataToCharts(LinkedHashMap<Integer, Integer> data){
         // Load Data into Barchart
         ArrayList<BarEntry> barEntries = new ArrayList<>();
-        ArrayList<String> dates = new ArrayList<>();
+        ArrayList<Integer> dates = new ArrayList<>();
         int i = 0;
-        for (String date : data.keySet()) {
+        for (Integer date : data.keySet()) {
             barEntries.add(new BarEntry(i, data.get(date)));
             dates.add(date);
             i++;
@@ -165,7 +163,7 @@ public class PomodoroStatsFragment extends Fragment {
         mBarChart.getXAxis().setValueFormatter(new ValueFormatter() {
             @Override
             public String getFormattedValue(float value) {
-                return Utilities.niceHumanDateFormat(dates.get((int) value), "yyyy-MM-dd", "dd MMM yyyy");
+                return Utilities.niceHumanDateFormat(dates.get((int) value), "dd MMM yyyy");
             }
         });
 
@@ -203,14 +201,14 @@ public class PomodoroStatsFragment extends Fragment {
 
         // Load last 7 days data into PieChart
         ArrayList<PieEntry> pieChartEntries = new ArrayList<>();
-        String[] dateKeys = new String[dates.size()];
+        Integer[] dateKeys = new Integer[dates.size()];
         long totalWeekTime = 0;
         data.keySet().toArray(dateKeys);
         for(int j=0; j<Math.min(7,dateKeys.length);j++){
-            String dateKey = dateKeys[dateKeys.length-1-j];
+            Integer dateKey = dateKeys[dateKeys.length-1-j];
             int seconds = data.get(dateKey);
             if(seconds <= 0) continue;
-            PieEntry entry = new PieEntry(seconds, Utilities.getNiceHumanWeekDay(dateKey, "yyyy-MM-dd"));
+            PieEntry entry = new PieEntry(seconds, Utilities.getNiceHumanWeekDay(dateKey));
             pieChartEntries.add(entry);
             totalWeekTime += seconds;
         }
@@ -276,31 +274,24 @@ public class PomodoroStatsFragment extends Fragment {
     }
 
     private void loadPomodoroStatistics() {
-        mStatsLoader = new AsyncWork<>(new AsyncWork.Work<Void, LinkedHashMap<String, Integer>>() {
+        mStatsLoader = new AsyncWork<>(new AsyncWork.Work<Void, LinkedHashMap<Integer, Integer>>() {
             @Override
-            public LinkedHashMap<String, Integer> execute(Void... args) {
-                LinkedHashMap<String, Integer> data = new LinkedHashMap<>();
-                HashMap<String, Integer> results = new PomodoroStatsManager(getContext()).getPomodoroStats();
+            public LinkedHashMap<Integer, Integer> execute(Void... args) {
+                LinkedHashMap<Integer, Integer> data = new LinkedHashMap<>();
+                SparseIntArray results = new PomodoroStatsManager(getContext()).getPomodoroStats();
                 if (results.size() == 0) return data; // Return empty data
-                // Get the minimum date from string
-                Calendar startDate = Calendar.getInstance();
-                Calendar endDate = Calendar.getInstance();
-                startDate.setTime(Objects.requireNonNull(Utilities.getDateObject(Collections.min(results.keySet(), String::compareTo))));
-                endDate.setTime(Objects.requireNonNull(Utilities.getDateObject(Utilities.getTodayDateString())));
-                while (startDate.compareTo(endDate) <= 0) {
-                    String date = Utilities.formatDateObject(startDate.getTime());
-                    Integer value = results.get(date);
-                    value = (value == null) ? 0 : value;
-                    data.put(date, value);
-                    startDate.add(Calendar.DAY_OF_MONTH, 1);
+                // Results are ordered by date so first key is the minimum date. Fill in missing dates up to today.
+                int endDate = EpochDay.today();
+                for (int date = results.keyAt(0); date <= endDate; date++) {
+                    data.put(date, results.get(date, 0));
                 }
-                Logger.d(LOG_TAG, "Fetched Pomodoro Stats data : " + data.toString());
+                Logger.d(LOG_TAG, () -> "Fetched Pomodoro Stats data : " + data);
                 return data;
             }
         });
-        mStatsLoader.registerOnLoadComplete(new AsyncWork.OnLoaderCompleted<LinkedHashMap<String, Integer>>() {
+        mStatsLoader.registerOnLoadComplete(new AsyncWork.OnLoaderCompleted<LinkedHashMap<Integer, Integer>>() {
             @Override
-            public void complete(LinkedHashMap<String, Integer> data) {
+            public void complete(LinkedHashMap<Integer, Integer> data) {
                 if (data.size() > 0){
                     loadDataToCharts(data);
                     // Hide empty view and show chart views
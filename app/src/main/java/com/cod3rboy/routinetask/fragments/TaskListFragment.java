@@ -39,6 +39,7 @@ import com.cod3rboy.routinetask.activities.MainActivity;
 import com.cod3rboy.routinetask.R;
 import com.cod3rboy.routinetask.TaskListAdapter;
 import com.cod3rboy.routinetask.Utilities;
+import com.cod3rboy.routinetask.background.TaskListDelta;
 import com.cod3rboy.routinetask.background.TasksLoader;
 import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.cod3rboy.routinetask.events.TaskDeleted;
@@ -51,6 +52,7 @@ import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -61,11 +63,11 @@ import java.util.ArrayList;
  * This class uses AsyncTaskLoader to load/update tasks in the list asynchronously.
  */
 
-public class TaskListFragment extends RecyclerViewFragment implements LoaderManager.LoaderCallbacks<ArrayList<TaskModel>> {
+public class TaskListFragment extends RecyclerViewFragment implements LoaderManager.LoaderCallbacks<List<TaskModel>> {
 
     private static final String LOG_TAG = TaskListFragment.class.getSimpleName();
 
-    private static final String KEY_SELECTED_POSITIONS = "selected_positions";
+    private static final String KEY_SELECTED_IDS = "selected_ids";
 
     public static final int LAYOUT_TYPE_LIST = 128;
     public static final int LAYOUT_TYPE_GRID = 256;
@@ -94,7 +96,7 @@ public class TaskListFragment extends RecyclerViewFragment implements LoaderMana
     private int itemLayoutId;
 
     // Selected Items Positions
-    private ArrayList<Integer> selectedPositions;
+    private long[] selectedIds;
 
     public static TaskListFragment getInstance(int fragmentType) {
         TaskListFragment fragment = new TaskListFragment();
@@ -274,7 +276,7 @@ public class TaskListFragment extends RecyclerViewFragment implements LoaderMana
         });
         createButton.setOnClickListener(v -> {
             int count = Integer.parseInt(inputEditText.getText().toString());
-            Logger.d(LOG_TAG, String.format("Generating %d random task records", count));
+            Logger.d(LOG_TAG, "Generating %d random task records", count);
             ArrayList<TaskModel> randomTasks = new ArrayList<>();
             for (int i = 0; i < count; i++) randomTasks.add(TaskModel.makeRandomTask());
             TaskModel.insertAsync(randomTasks, true);
@@ -489,6 +491,8 @@ public class TaskListFragment extends RecyclerViewFragment implements LoaderMana
             actionMode.refreshState();
         } else {
             TaskModel taskToEdit = adapter.getTaskAtPosition(position);
+            // Task of a placeholder item is not loaded yet
+            if (taskToEdit == null) return;
             // Start activity to edit selected adapter task.
             Intent i = new Intent(getActivity(), EditTaskActivity.class);
             i.putExtra(EditTaskActivity.KEY_TASK_PARCEL, taskToEdit);
@@ -512,7 +516,7 @@ public class TaskListFragment extends RecyclerViewFragment implements LoaderMana
     public void onSaveInstanceState(@NonNull Bundle outState) {
         super.onSaveInstanceState(outState);
         if (adapter.getSelectedItemCount() > 0) {
-            outState.putIntegerArrayList(KEY_SELECTED_POSITIONS, adapter.getSelectedPositions());
+            outState.putLongArray(KEY_SELECTED_IDS, adapter.getSelectedIds());
         }
     }
 
@@ -520,13 +524,13 @@ public class TaskListFragment extends RecyclerViewFragment implements LoaderMana
     public void onViewStateRestored(@Nullable Bundle savedInstanceState) {
         super.onViewStateRestored(savedInstanceState);
         if (savedInstanceState != null) {
-            selectedPositions = savedInstanceState.getIntegerArrayList(KEY_SELECTED_POSITIONS);
+            selectedIds = savedInstanceState.getLongArray(KEY_SELECTED_IDS);
         }
     }
 
     @NonNull
     @Override
-    public Loader<ArrayList<TaskModel>> onCreateLoader(int id, @Nullable Bundle args) {
+    public Loader<List<TaskModel>> onCreateLoader(int id, @Nullable Bundle args) {
         TasksLoader.TasksType tasksType;
         if (id == MainActivity.FRAGMENT_ROUTINE) {
             tasksType = TasksLoader.TasksType.REPEATING_TASKS;
@@ -540,9 +544,11 @@ public class TaskListFragment extends RecyclerViewFragment implements LoaderMana
     }
 
     @Override
-    public void onLoadFinished(@NonNull Loader<ArrayList<TaskModel>> loader, ArrayList<TaskModel> taskData) {
+    public void onLoadFinished(@NonNull Loader<List<TaskModel>> loader, List<TaskModel> taskData) {
         Logger.d(LOG_TAG, "Loader finished loading tasks");
-        adapter.setTasksData(taskData);
+        TaskListDelta delta = ((TasksLoader) loader).getDelta();
+        if (delta != null && getAdapter() != null) adapter.applyDelta(taskData, delta);
+        else adapter.setTasksData(taskData);
         if (getAdapter() == null) {
             setAdapter(adapter);
             if (taskData.size() > 0) fadeInRecyclerView();
@@ -550,9 +556,9 @@ public class TaskListFragment extends RecyclerViewFragment implements LoaderMana
         }
 
         // Restore selected items
-        if (selectedPositions != null) {
-            adapter.selectPositions(selectedPositions);
-            selectedPositions = null;
+        if (selectedIds != null) {
+            adapter.selectIds(selectedIds);
+            selectedIds = null;
             if (adapter.getSelectedItemCount() > 0) startActionMode();
         }
         if (adapter.getItemCount() > 0)
@@ -574,7 +580,7 @@ public class TaskListFragment extends RecyclerViewFragment implements LoaderMana
     }
 
     @Override
-    public void onLoaderReset(@NonNull Loader<ArrayList<TaskModel>> loader) {
+    public void onLoaderReset(@NonNull Loader<List<TaskModel>> loader) {
         adapter.clearTasksData();
     }
 }
\ No newline at end of file
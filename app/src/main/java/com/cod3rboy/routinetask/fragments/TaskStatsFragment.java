@@ -5,6 +5,7 @@ import android.app.Dialog;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.os.Bundle;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.MenuInflater;
@@ -35,6 +36,7 @@ import com.cod3rboy.routinetask.database.TaskStatsManager;
 import com.cod3rboy.routinetask.events.RandomStatsGenerated;
 import com.cod3rboy.routinetask.events.StatisticsReset;
 import com.cod3rboy.routinetask.logging.Logger;
+import com.cod3rboy.routinetask.utilities.EpochDay;
 import com.github.mikephil.charting.animation.Easing;
 import com.github.mikephil.charting.charts.BarChart;
 import com.github.mikephil.charting.components.XAxis;
@@ -55,19 +57,15 @@ import org.greenrobot.eventbus.Subscribe;
 import org.greenrobot.eventbus.ThreadMode;
 
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Locale;
-import java.util.Objects;
 
 
 public class TaskStatsFragment extends Fragment {
     private static final String LOG_TAG = TaskStatsFragment.class.getSimpleName();
     public static final int EDIT_TASK_REQUEST_CODE = 156; // For Activity which edits a new task
 
-    private AsyncWork<Void, LinkedHashMap<String, Integer>> mStatsLoader;
+    private AsyncWork<Void, LinkedHashMap<Integer, Integer>> mStatsLoader;
     private BarChart mTasksBarChart;
     private TextView mDateView;
     private ImageButton mChartPrevButton;
@@ -77,7 +75,7 @@ public class TaskStatsFragment extends Fragment {
     private View mNoStatsView;
     private View mEmptyListView;
     private View mChartControlView;
-    private String mSelectedDate;
+    private int mSelectedDate;
 
     /**
      * Use this factory method to create a new instance of
@@ -122,7 +120,7 @@ public class TaskStatsFragment extends Fragment {
     @Override
     public void onActivityResult(int requestCode, int resultCode, Intent data) {
         if (requestCode == EDIT_TASK_REQUEST_CODE && resultCode == Activity.RESULT_OK) {
-            Logger.d(LOG_TAG, String.format("onActivityResult() - Reloading pomodoro list from database"));
+            Logger.d(LOG_TAG, "onActivityResult() - Reloading pomodoro list from database");
             Highlight[] highlights = mTasksBarChart.getHighlighted();
             if(highlights.length > 0){
                 updateTasksListView(mSelectedDate);
@@ -219,11 +217,11 @@ public class TaskStatsFragment extends Fragment {
         barChart.setClipValuesToContent(true); // prevents bleeding of values outside content rect.
     }
 
-    private void loadDataToChart(BarChart barChart, LinkedHashMap<String, Integer> chartData) {
+    private void loadDataToChart(BarChart barChart, LinkedHashMap<Integer, Integer> chartData) {
         ArrayList<BarEntry> barEntries = new ArrayList<>();
-        ArrayList<String> dates = new ArrayList<>();
+        ArrayList<Integer> dates = new ArrayList<>();
         int i = 0;
-        for (String date : chartData.keySet()) {
+        for (Integer date : chartData.keySet()) {
             barEntries.add(new BarEntry(i, chartData.get(date)));
             dates.add(date);
             i++;
@@ -231,7 +229,7 @@ public class TaskStatsFragment extends Fragment {
         barChart.getXAxis().setValueFormatter(new ValueFormatter() {
             @Override
             public String getFormattedValue(float value) {
-                return Utilities.getWeekDay(dates.get((int) value), "yyyy-MM-dd");
+                return Utilities.getWeekDay(dates.get((int) value));
             }
         });
 
@@ -277,7 +275,7 @@ public class TaskStatsFragment extends Fragment {
         updateTasksListView(dates.get(mSelectedBarIndex));
     }
 
-    private void setupChartListeners(ArrayList<String> chartDates) {
+    private void setupChartListeners(ArrayList<Integer> chartDates) {
         mChartPrevButton.setOnClickListener(v -> {
             if (mSelectedBarIndex == 0) return;
             mSelectedBarIndex--;
@@ -305,8 +303,8 @@ public class TaskStatsFragment extends Fragment {
         });
     }
 
-    private void updateChartControls(ArrayList<String> chartDates, boolean moveView) {
-        mDateView.setText(Utilities.getFormattedChartDate(chartDates.get(mSelectedBarIndex), "yyyy-MM-dd"));
+    private void updateChartControls(ArrayList<Integer> chartDates, boolean moveView) {
+        mDateView.setText(Utilities.getFormattedChartDate(chartDates.get(mSelectedBarIndex)));
 
         if (mSelectedBarIndex >= chartDates.size() - 1) mChartNextButton.setEnabled(false);
         else if (!mChartNextButton.isEnabled()) mChartNextButton.setEnabled(true);
@@ -325,10 +323,10 @@ public class TaskStatsFragment extends Fragment {
         }
     }
 
-    private void updateTasksListView(String date) {
-        AsyncWork<String, ArrayList<TaskModel>> loadCompletedTasks = new AsyncWork<>(new AsyncWork.Work<String, ArrayList<TaskModel>>() {
+    private void updateTasksListView(int date) {
+        AsyncWork<Integer, ArrayList<TaskModel>> loadCompletedTasks = new AsyncWork<>(new AsyncWork.Work<Integer, ArrayList<TaskModel>>() {
             @Override
-            public ArrayList<TaskModel> execute(String... args) {
+            public ArrayList<TaskModel> execute(Integer... args) {
                 mSelectedDate = args[0];
                 return TaskStatsManager.getInstance().getCompletedTasksOnDate(args[0]);
             }
@@ -364,31 +362,24 @@ public class TaskStatsFragment extends Fragment {
     }
 
     private void loadTaskStatistics() {
-        mStatsLoader = new AsyncWork<>(new AsyncWork.Work<Void, LinkedHashMap<String, Integer>>() {
+        mStatsLoader = new AsyncWork<>(new AsyncWork.Work<Void, LinkedHashMap<Integer, Integer>>() {
             @Override
-            public LinkedHashMap<String, Integer> execute(Void... args) {
-                LinkedHashMap<String, Integer> data = new LinkedHashMap<>();
-                HashMap<String, Integer> results = TaskStatsManager.getInstance().getTasksCountStats(getContext());
+            public LinkedHashMap<Integer, Integer> execute(Void... args) {
+                LinkedHashMap<Integer, Integer> data = new LinkedHashMap<>();
+                SparseIntArray results = TaskStatsManager.getInstance().getTasksCountStats(getContext());
                 if (results.size() == 0) return data; // Return empty data
-                // Get the minimum date from string
-                Calendar startDate = Calendar.getInstance();
-                Calendar endDate = Calendar.getInstance();
-                startDate.setTime(Objects.requireNonNull(Utilities.getDateObject(Collections.min(results.keySet(), String::compareTo))));
-                endDate.setTime(Objects.requireNonNull(Utilities.getDateObject(Utilities.getTodayDateString())));
-                while (startDate.compareTo(endDate) <= 0) {
-                    String date = Utilities.formatDateObject(startDate.getTime());
-                    Integer value = results.get(date);
-                    value = (value == null) ? 0 : value;
-                    data.put(date, value);
-                    startDate.add(Calendar.DAY_OF_MONTH, 1);
+                // Results are ordered by date so first key is the minimum date. Fill in missing dates up to today.
+                int endDate = EpochDay.today();
+                for (int date = results.keyAt(0); date <= endDate; date++) {
+                    data.put(date, results.get(date, 0));
                 }
-                Logger.d(LOG_TAG, "Fetched Tasks Stats data : " + data.toString());
+                Logger.d(LOG_TAG, () -> "Fetched Tasks Stats data : " + data);
                 return data;
             }
         });
-        mStatsLoader.registerOnLoadComplete(new AsyncWork.OnLoaderCompleted<LinkedHashMap<String, Integer>>() {
+        mStatsLoader.registerOnLoadComplete(new AsyncWork.OnLoaderCompleted<LinkedHashMap<Integer, Integer>>() {
             @Override
-            public void complete(LinkedHashMap<String, Integer> data) {
+            public void complete(LinkedHashMap<Integer, Integer> data) {
                 if (data.size() > 0) {
                     loadDataToChart(mTasksBarChart, data);
                     // Hide no stats view and display chart views
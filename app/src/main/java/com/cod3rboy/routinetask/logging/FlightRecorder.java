@@ -0,0 +1,171 @@
+package com.cod3rboy.routinetask.logging;
+
+import android.content.Context;
+import android.os.Process;
+
+import com.cod3rboy.routinetask.utilities.Processes;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Records warnings, errors and events in all builds so that late reminders and slow loads can be
+ * investigated on devices of users. Every process writes compact binary records to its own ring
+ * file of fixed size in app's files directory, see {@link RingFile}. Writing a record takes no lock
+ * and does not allocate, and records survive process death as they are written to a memory mapped
+ * file. Rings of all processes are dumped to text with {@link #dump(Context)}, which can be
+ * triggered with adb through {@link com.cod3rboy.routinetask.receivers.FlightRecorderDumpReceiver}.
+ * Records written before {@link #start(Context)} are dropped.
+ */
+public final class FlightRecorder {
+    private static final String LOG_TAG = FlightRecorder.class.getSimpleName();
+
+    // Event codes. Values of an event are described by its format in EVENT_FORMATS.
+    public static final int EVENT_PROCESS_STARTED = 1;
+    public static final int EVENT_REMINDER_FIRED = 2;
+    public static final int EVENT_ALARM_ARMED = 3;
+    public static final int EVENT_TASKS_LOADED = 4;
+    public static final int EVENT_WRITE_LOCK_WAITED = 5;
+
+    private static final String[] EVENT_FORMATS = {
+            null,
+            "PROCESS_STARTED pid=%d",
+            "REMINDER_FIRED task=%d late_ms=%d",
+            "ALARM_ARMED trigger_time=%d in_ms=%d",
+            "TASKS_LOADED count=%d took_ms=%d",
+            "WRITE_LOCK_WAITED waited_ms=%d thread=%d"
+    };
+
+    private static final String RING_DIRECTORY = "flight_recorder";
+    private static final String RING_FILE_EXTENSION = ".ring";
+    private static final String MAIN_PROCESS_NAME = "main";
+    private static final String DUMP_FILE_NAME = "flight_recorder.txt";
+    // Ring capacity of each process. It holds a few thousand records.
+    private static final int RING_CAPACITY = 256 * 1024;
+
+    private static volatile RingFile sRing = null;
+
+    // Do not allow instance creation
+    private FlightRecorder() {
+    }
+
+    /**
+     * Opens ring file of current process. It is called once in each process before its components
+     * are created, so that their records are not dropped.
+     *
+     * @param context Context object to access files directory
+     */
+    public static synchronized void start(Context context) {
+        if (sRing != null) return;
+        File directory = new File(context.getFilesDir(), RING_DIRECTORY);
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs())
+                throw new IOException("Cannot create directory " + directory);
+            sRing = RingFile.open(new File(directory, getRingName() + RING_FILE_EXTENSION), RING_CAPACITY);
+        } catch (IOException e) {
+            Logger.e(LOG_TAG, "Failed to start flight recorder", e);
+            return;
+        }
+        event(EVENT_PROCESS_STARTED, Process.myPid(), 0);
+    }
+
+    /**
+     * Records a log message.
+     *
+     * @param priority log priority from {@link android.util.Log}
+     * @param tag      log tag
+     * @param message  message
+     */
+    public static void log(int priority, String tag, String message) {
+        RingFile ring = sRing;
+        if (ring != null) ring.log(priority, tag, message, 0, 0, 0);
+    }
+
+    /**
+     * Records a log message format with its argument which is formatted when dumped.
+     */
+    public static void log(int priority, String tag, String format, long arg) {
+        RingFile ring = sRing;
+        if (ring != null) ring.log(priority, tag, format, 1, arg, 0);
+    }
+
+    /**
+     * Records a log message format with its arguments which are formatted when dumped.
+     */
+    public static void log(int priority, String tag, String format, long arg1, long arg2) {
+        RingFile ring = sRing;
+        if (ring != null) ring.log(priority, tag, format, 2, arg1, arg2);
+    }
+
+    /**
+     * Records an event.
+     *
+     * @param code   one of event codes of this class
+     * @param value1 first value of event
+     * @param value2 second value of event
+     */
+    public static void event(int code, long value1, long value2) {
+        RingFile ring = sRing;
+        if (ring != null) ring.event(code, value1, value2);
+    }
+
+    /**
+     * Dumps records of all processes to a text file in app's external files directory, or in files
+     * directory if external storage is not available. It must not be called in main thread.
+     *
+     * @param context Context object to access files directories
+     * @return text file
+     * @throws IOException if dump cannot be written
+     */
+    public static File dump(Context context) throws IOException {
+        File dumpDirectory = context.getExternalFilesDir(null);
+        if (dumpDirectory == null) dumpDirectory = context.getFilesDir();
+        File dumpFile = new File(dumpDirectory, DUMP_FILE_NAME);
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(dumpFile), StandardCharsets.UTF_8))) {
+            dump(new File(context.getFilesDir(), RING_DIRECTORY), out);
+        }
+        return dumpFile;
+    }
+
+    /**
+     * Writes records of every ring file in directory as text.
+     *
+     * @param directory directory of ring files
+     * @param out       writer of text
+     * @throws IOException if text cannot be written
+     */
+    static void dump(File directory, Writer out) throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(RING_FILE_EXTENSION));
+        if (files == null) return;
+        Arrays.sort(files);
+        for (File file : files) {
+            out.write("--- " + file.getName() + " ---\n");
+            List<RingFile.Record> records;
+            try {
+                records = RingFile.read(file);
+            } catch (IOException e) {
+                out.write("Cannot read ring: " + e + "\n");
+                continue;
+            }
+            for (RingFile.Record record : records) record.dump(out, EVENT_FORMATS);
+        }
+    }
+
+    /**
+     * @return name of current process after ':', or main for the default process
+     */
+    private static String getRingName() {
+        String name = Processes.getProcessName();
+        int separator = name.lastIndexOf(':');
+        if (separator < 0 || separator == name.length() - 1) return MAIN_PROCESS_NAME;
+        return name.substring(separator + 1).replaceAll("[^A-Za-z0-9_]", "_");
+    }
+}
@@ -2,12 +2,36 @@ package com.cod3rboy.routinetask.logging;
 
 import android.util.Log;
 
+import androidx.annotation.VisibleForTesting;
+
 import com.cod3rboy.routinetask.BuildConfig;
 
+import java.util.Locale;
+
+/**
+ * Logs messages in debug builds only. Messages can be passed as a format with arguments or as a
+ * {@link MessageSupplier} in which case message is built only when it is logged. Primitive long
+ * arguments are not boxed and up to two arguments are passed without a varargs array, so a call
+ * like {@code Logger.d(TAG, "Task %d", id)} does not allocate when logging is disabled. Code which
+ * computes arguments can be guarded with {@code if (Logger.ENABLED)} which is a compile time
+ * constant, so guarded code is removed from release builds.
+ * Note that a Throwable passed as third argument is logged as throwable and not as format argument.
+ * <p>
+ * Warnings and errors are also written to {@link FlightRecorder} in all builds. Primitive long
+ * arguments are recorded along with format, while object arguments and messages of a
+ * {@link MessageSupplier} are not recorded, so that nothing is formatted in release builds.
+ */
 public class Logger {
+    /**
+     * Whether logging is enabled in this build.
+     */
+    public static final boolean ENABLED = BuildConfig.DEBUG;
+
     private static Logger sLogger = null;
     private static final String DEFAULT_TAG = "Logger";
 
+    private static boolean sEnabled = ENABLED;
+
     private Logger(){}
 
     public static void d(String tag, String msg, Throwable tr){
@@ -16,23 +40,68 @@ public class Logger {
         else Log.d(tag, msg, tr);
     }
     public static void d(String tag, String msg){
-        d(tag, msg, null);
+        d(tag, msg, (Throwable) null);
     }
     public static void d(String msg){
-        d(DEFAULT_TAG, msg, null);
+        d(DEFAULT_TAG, msg, (Throwable) null);
+    }
+    public static void d(String tag, MessageSupplier supplier){
+        if(!isDebugMode()) return;
+        Log.d(tag, supplier.get());
+    }
+    public static void d(String tag, String format, long arg){
+        if(!isDebugMode()) return;
+        Log.d(tag, format(format, arg));
+    }
+    public static void d(String tag, String format, long arg1, long arg2){
+        if(!isDebugMode()) return;
+        Log.d(tag, format(format, arg1, arg2));
+    }
+    public static void d(String tag, String format, Object arg){
+        if(!isDebugMode()) return;
+        Log.d(tag, format(format, arg));
+    }
+    public static void d(String tag, String format, Object arg1, Object arg2){
+        if(!isDebugMode()) return;
+        Log.d(tag, format(format, arg1, arg2));
+    }
+    public static void d(String tag, String format, Object... args){
+        if(!isDebugMode()) return;
+        Log.d(tag, format(format, args));
     }
 
     public static void e(String tag, String msg, Throwable tr){
+        FlightRecorder.log(Log.ERROR, tag, tr == null ? msg : msg + ": " + tr);
         if(!isDebugMode()) return;
         if(tr == null) Log.e(tag, msg);
         else Log.e(tag, msg, tr);
     }
     public static void e(String tag, String msg){
-        e(tag, msg, null);
+        e(tag, msg, (Throwable) null);
     }
     public static void e(String msg){
-        e(DEFAULT_TAG, msg, null);
+        e(DEFAULT_TAG, msg, (Throwable) null);
     }
+    public static void e(String tag, MessageSupplier supplier){
+        if(!isDebugMode()) return;
+        Log.e(tag, supplier.get());
+    }
+    public static void e(String tag, String format, long arg){
+        FlightRecorder.log(Log.ERROR, tag, format, arg);
+        if(!isDebugMode()) return;
+        Log.e(tag, format(format, arg));
+    }
+    public static void e(String tag, String format, Object arg){
+        FlightRecorder.log(Log.ERROR, tag, format);
+        if(!isDebugMode()) return;
+        Log.e(tag, format(format, arg));
+    }
+    public static void e(String tag, String format, Object... args){
+        FlightRecorder.log(Log.ERROR, tag, format);
+        if(!isDebugMode()) return;
+        Log.e(tag, format(format, args));
+    }
+
     public static void i(String tag, String msg, Throwable tr){
         if(!isDebugMode()) return;
         if(tr == null) Log.i(tag, msg);
@@ -55,18 +124,46 @@ public class Logger {
     public static void v(String msg){
         v(DEFAULT_TAG, msg, null);
     }
+
     public static void w(String tag, String msg, Throwable tr){
+        FlightRecorder.log(Log.WARN, tag, tr == null ? msg : msg + ": " + tr);
         if(!isDebugMode()) return;
         if(tr == null) Log.w(tag, msg);
         else Log.w(tag, msg, tr);
     }
     public static void w(String tag, String msg){
-        w(tag, msg, null);
+        w(tag, msg, (Throwable) null);
     }
     public static void w(String msg){
-        w(DEFAULT_TAG, msg, null);
+        w(DEFAULT_TAG, msg, (Throwable) null);
+    }
+    public static void w(String tag, MessageSupplier supplier){
+        if(!isDebugMode()) return;
+        Log.w(tag, supplier.get());
+    }
+    public static void w(String tag, String format, long arg){
+        FlightRecorder.log(Log.WARN, tag, format, arg);
+        if(!isDebugMode()) return;
+        Log.w(tag, format(format, arg));
+    }
+    public static void w(String tag, String format, long arg1, long arg2){
+        FlightRecorder.log(Log.WARN, tag, format, arg1, arg2);
+        if(!isDebugMode()) return;
+        Log.w(tag, format(format, arg1, arg2));
+    }
+    public static void w(String tag, String format, Object arg){
+        FlightRecorder.log(Log.WARN, tag, format);
+        if(!isDebugMode()) return;
+        Log.w(tag, format(format, arg));
+    }
+    public static void w(String tag, String format, Object... args){
+        FlightRecorder.log(Log.WARN, tag, format);
+        if(!isDebugMode()) return;
+        Log.w(tag, format(format, args));
     }
+
     public static void wtf(String tag, String msg, Throwable tr){
+        FlightRecorder.log(Log.ASSERT, tag, tr == null ? msg : msg + ": " + tr);
         if(!isDebugMode()) return;
         if(tr == null) Log.wtf(tag, msg);
         else Log.wtf(tag, msg, tr);
@@ -78,7 +175,23 @@ public class Logger {
         wtf(DEFAULT_TAG, msg, null);
     }
 
-    private static boolean isDebugMode(){
-        return BuildConfig.DEBUG;
+    /**
+     * @return whether messages are logged so that a caller can skip building a message
+     */
+    public static boolean isDebugMode(){
+        return sEnabled;
+    }
+
+    /**
+     * Enables or disables logging at runtime in tests. It has no effect on code guarded with
+     * {@link #ENABLED}.
+     */
+    @VisibleForTesting
+    static void setEnabled(boolean enabled){
+        sEnabled = enabled;
+    }
+
+    private static String format(String format, Object... args){
+        return String.format(Locale.getDefault(), format, args);
     }
 }
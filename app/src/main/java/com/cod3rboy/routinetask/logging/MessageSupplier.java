@@ -0,0 +1,9 @@
+package com.cod3rboy.routinetask.logging;
+
+/**
+ * Supplies a log message which is built only when the message is actually logged.
+ * java.util.function.Supplier is not available below API level 24.
+ */
+public interface MessageSupplier {
+    String get();
+}
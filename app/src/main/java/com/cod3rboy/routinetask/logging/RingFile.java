@@ -0,0 +1,409 @@
+package com.cod3rboy.routinetask.logging;
+
+import com.cod3rboy.routinetask.utilities.DateFormats;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IllegalFormatException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * Fixed size ring of binary records in a memory mapped file. Records are written by any number of
+ * threads of a single process without locks. A writer reserves space for its record by advancing
+ * write position with compare and set, builds the record in a buffer of its thread and copies it to
+ * the mapped file with a CRC32 marker written last. Mapped pages belong to the file, so records
+ * written before the process dies are kept.
+ * <p>
+ * A record never wraps around the end of the ring. Every record stores its absolute position
+ * which is used along with its marker to find valid records by scanning the ring, so records
+ * overwritten in part or not completely written when the process died are skipped.
+ * <p>
+ * Record layout (big endian):
+ * <pre>
+ *  0 int   length of record including padding and marker, multiple of 8
+ *  4 byte  type
+ *  5 byte  log priority
+ *  6 short event code or number of log arguments
+ *  8 long  absolute position of record
+ * 16 long  time in milliseconds since epoch
+ * 24 int   thread id
+ * 28 short length of tag in bytes
+ * 30 short length of message in bytes
+ * 32 long  arguments, followed by UTF-8 tag and message, padding and int CRC32 marker
+ * </pre>
+ */
+final class RingFile {
+    static final int TYPE_LOG = 1;
+    static final int TYPE_EVENT = 2;
+
+    static final int MAX_TAG_BYTES = 64;
+    static final int MAX_MESSAGE_BYTES = 1024;
+    static final int MIN_CAPACITY = 4096;
+
+    private static final int MAGIC = 0x464c5452;
+    private static final int VERSION = 1;
+    // File header holds magic, version and capacity
+    private static final int FILE_HEADER_SIZE = 64;
+    private static final int RECORD_HEADER_SIZE = 32;
+    private static final int MAX_ARGUMENTS = 2;
+    private static final int MARKER_SIZE = 4;
+    private static final int ALIGNMENT = 8;
+    private static final int MAX_RECORD_SIZE = align(RECORD_HEADER_SIZE + MAX_ARGUMENTS * 8
+            + MAX_TAG_BYTES + MAX_MESSAGE_BYTES + MARKER_SIZE);
+    private static final String TIME_FORMAT = "yyyy-MM-dd HH:mm:ss.SSS";
+    private static final String PRIORITIES = "??VDIWEA";
+
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicLong position;
+    private final ThreadLocal<RecordWriter> writers = new ThreadLocal<RecordWriter>() {
+        @Override
+        protected RecordWriter initialValue() {
+            return new RecordWriter(buffer.duplicate());
+        }
+    };
+
+    /**
+     * Opens ring file, creating it again if it does not exist or has a different capacity. New
+     * records are written after the last valid record in file.
+     *
+     * @param file     ring file
+     * @param capacity size of ring in bytes, multiple of 8 and at least {@link #MIN_CAPACITY}
+     * @return opened ring file
+     * @throws IOException if file cannot be created or mapped
+     */
+    static RingFile open(File file, int capacity) throws IOException {
+        if (capacity < MIN_CAPACITY || capacity % ALIGNMENT != 0)
+            throw new IllegalArgumentException("Invalid ring capacity " + capacity);
+        long size = FILE_HEADER_SIZE + capacity;
+        // Mapping remains valid after file is closed
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            boolean valid = raf.length() == size && raf.readInt() == MAGIC
+                    && raf.readInt() == VERSION && raf.readInt() == capacity;
+            if (!valid) {
+                raf.setLength(0);
+                raf.setLength(size);
+            }
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            if (!valid) {
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, capacity);
+            }
+            return new RingFile(buffer, capacity);
+        }
+    }
+
+    /**
+     * Reads valid records of a ring file without modifying it.
+     *
+     * @param file ring file
+     * @return records in the order they were written
+     * @throws IOException if file cannot be read or is not a ring file
+     */
+    static List<Record> read(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            if (raf.length() < FILE_HEADER_SIZE || raf.readInt() != MAGIC || raf.readInt() != VERSION)
+                throw new IOException("Not a ring file " + file);
+            int capacity = raf.readInt();
+            if (capacity < MIN_CAPACITY || raf.length() != FILE_HEADER_SIZE + (long) capacity)
+                throw new IOException("Invalid ring file " + file);
+            ByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            List<Record> records = new ArrayList<>();
+            scan(buffer, capacity, records);
+            Collections.sort(records, (r1, r2) -> Long.compare(r1.position, r2.position));
+            return records;
+        }
+    }
+
+    private RingFile(MappedByteBuffer buffer, int capacity) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.position = new AtomicLong(scan(buffer, capacity, null));
+    }
+
+    /**
+     * Writes a log record. Tag and message are truncated to {@link #MAX_TAG_BYTES} and
+     * {@link #MAX_MESSAGE_BYTES} bytes.
+     *
+     * @param priority  log priority
+     * @param tag       log tag
+     * @param message   message or format of message
+     * @param argCount  number of arguments from 0 to 2
+     * @param arg1      first format argument
+     * @param arg2      second format argument
+     */
+    void log(int priority, String tag, String message, int argCount, long arg1, long arg2) {
+        write(TYPE_LOG, priority, argCount, arg1, arg2, tag, message);
+    }
+
+    /**
+     * Writes an event record.
+     *
+     * @param code   event code
+     * @param value1 first value of event
+     * @param value2 second value of event
+     */
+    void event(int code, long value1, long value2) {
+        write(TYPE_EVENT, 0, code, value1, value2, null, null);
+    }
+
+    /**
+     * @return absolute position after the last reserved record
+     */
+    long getPosition() {
+        return position.get();
+    }
+
+    private void write(int type, int priority, int code, long arg1, long arg2, String tag, String message) {
+        RecordWriter writer = writers.get();
+        byte[] bytes = writer.bytes;
+        int argCount = type == TYPE_EVENT ? MAX_ARGUMENTS : code;
+        int end = RECORD_HEADER_SIZE;
+        if (argCount > 0) end = putLong(bytes, end, arg1);
+        if (argCount > 1) end = putLong(bytes, end, arg2);
+        int tagStart = end;
+        if (tag != null) end = putUtf8(bytes, end, tag, tagStart + MAX_TAG_BYTES);
+        int messageStart = end;
+        if (message != null) end = putUtf8(bytes, end, message, messageStart + MAX_MESSAGE_BYTES);
+        int length = align(end + MARKER_SIZE);
+        Arrays.fill(bytes, end, length - MARKER_SIZE, (byte) 0);
+
+        long recordPosition = reserve(length);
+        putInt(bytes, 0, length);
+        bytes[4] = (byte) type;
+        bytes[5] = (byte) priority;
+        putShort(bytes, 6, code);
+        putLong(bytes, 8, recordPosition);
+        putLong(bytes, 16, System.currentTimeMillis());
+        putInt(bytes, 24, (int) Thread.currentThread().getId());
+        putShort(bytes, 28, messageStart - tagStart);
+        putShort(bytes, 30, end - messageStart);
+        writer.crc.reset();
+        writer.crc.update(bytes, 0, length - MARKER_SIZE);
+
+        int offset = FILE_HEADER_SIZE + (int) (recordPosition % capacity);
+        writer.view.position(offset);
+        writer.view.put(bytes, 0, length - MARKER_SIZE);
+        buffer.putInt(offset + length - MARKER_SIZE, (int) writer.crc.getValue());
+    }
+
+    // Reserves space for a record skipping the end of ring if record does not fit in it
+    private long reserve(int length) {
+        long start;
+        long recordPosition;
+        do {
+            start = position.get();
+            int offset = (int) (start % capacity);
+            recordPosition = offset + length > capacity ? start + capacity - offset : start;
+        } while (!position.compareAndSet(start, recordPosition + length));
+        return recordPosition;
+    }
+
+    /**
+     * Finds valid records in ring.
+     *
+     * @param records list to which records are added or null to only find the end of last record
+     * @return absolute position after the last valid record
+     */
+    private static long scan(ByteBuffer buffer, int capacity, List<Record> records) {
+        ByteBuffer view = buffer.duplicate();
+        byte[] bytes = new byte[MAX_RECORD_SIZE];
+        CRC32 crc = new CRC32();
+        long end = 0;
+        for (int offset = 0; offset + RECORD_HEADER_SIZE + MARKER_SIZE <= capacity; offset += ALIGNMENT) {
+            int base = FILE_HEADER_SIZE + offset;
+            int length = buffer.getInt(base);
+            if (length < RECORD_HEADER_SIZE + MARKER_SIZE || length > MAX_RECORD_SIZE
+                    || length % ALIGNMENT != 0 || offset + length > capacity) continue;
+            long recordPosition = buffer.getLong(base + 8);
+            if (recordPosition < 0 || recordPosition % capacity != offset) continue;
+            view.position(base);
+            view.get(bytes, 0, length);
+            crc.reset();
+            crc.update(bytes, 0, length - MARKER_SIZE);
+            if ((int) crc.getValue() != getInt(bytes, length - MARKER_SIZE)) continue;
+            Record record = Record.decode(bytes);
+            if (record == null) continue;
+            end = Math.max(end, recordPosition + length);
+            if (records != null) records.add(record);
+        }
+        return end;
+    }
+
+    private static int align(int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    // Encodes characters of text as UTF-8 until limit, returning position after the last character
+    private static int putUtf8(byte[] bytes, int position, String text, int limit) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                if (position + 1 > limit) break;
+                bytes[position++] = (byte) c;
+            } else if (c < 0x800) {
+                if (position + 2 > limit) break;
+                bytes[position++] = (byte) (0xc0 | c >> 6);
+                bytes[position++] = (byte) (0x80 | c & 0x3f);
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                if (position + 4 > limit) break;
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                bytes[position++] = (byte) (0xf0 | codePoint >> 18);
+                bytes[position++] = (byte) (0x80 | codePoint >> 12 & 0x3f);
+                bytes[position++] = (byte) (0x80 | codePoint >> 6 & 0x3f);
+                bytes[position++] = (byte) (0x80 | codePoint & 0x3f);
+            } else if (Character.isSurrogate(c)) {
+                if (position + 1 > limit) break;
+                bytes[position++] = '?';
+            } else {
+                if (position + 3 > limit) break;
+                bytes[position++] = (byte) (0xe0 | c >> 12);
+                bytes[position++] = (byte) (0x80 | c >> 6 & 0x3f);
+                bytes[position++] = (byte) (0x80 | c & 0x3f);
+            }
+        }
+        return position;
+    }
+
+    private static void putShort(byte[] bytes, int position, int value) {
+        bytes[position] = (byte) (value >> 8);
+        bytes[position + 1] = (byte) value;
+    }
+
+    private static void putInt(byte[] bytes, int position, int value) {
+        bytes[position] = (byte) (value >> 24);
+        bytes[position + 1] = (byte) (value >> 16);
+        bytes[position + 2] = (byte) (value >> 8);
+        bytes[position + 3] = (byte) value;
+    }
+
+    private static int putLong(byte[] bytes, int position, long value) {
+        putInt(bytes, position, (int) (value >> 32));
+        putInt(bytes, position + 4, (int) value);
+        return position + 8;
+    }
+
+    private static int getShort(byte[] bytes, int position) {
+        return (bytes[position] & 0xff) << 8 | bytes[position + 1] & 0xff;
+    }
+
+    private static int getInt(byte[] bytes, int position) {
+        return bytes[position] << 24 | (bytes[position + 1] & 0xff) << 16
+                | (bytes[position + 2] & 0xff) << 8 | bytes[position + 3] & 0xff;
+    }
+
+    private static long getLong(byte[] bytes, int position) {
+        return (long) getInt(bytes, position) << 32 | getInt(bytes, position + 4) & 0xffffffffL;
+    }
+
+    /**
+     * Buffers of a writer thread. Record is built in bytes and copied to the mapped file through
+     * view which has its own position.
+     */
+    private static final class RecordWriter {
+        final byte[] bytes = new byte[MAX_RECORD_SIZE];
+        final CRC32 crc = new CRC32();
+        final ByteBuffer view;
+
+        RecordWriter(ByteBuffer view) {
+            this.view = view;
+        }
+    }
+
+    /**
+     * Record read from a ring file.
+     */
+    static final class Record {
+        final int type;
+        final int priority;
+        final int code;
+        final long position;
+        final long time;
+        final int threadId;
+        final String tag;
+        final String message;
+        final long[] args;
+
+        private Record(int type, int priority, int code, long position, long time, int threadId,
+                       String tag, String message, long[] args) {
+            this.type = type;
+            this.priority = priority;
+            this.code = code;
+            this.position = position;
+            this.time = time;
+            this.threadId = threadId;
+            this.tag = tag;
+            this.message = message;
+            this.args = args;
+        }
+
+        // Decodes a record whose length and marker are already checked
+        private static Record decode(byte[] bytes) {
+            int length = getInt(bytes, 0);
+            int type = bytes[4];
+            int code = getShort(bytes, 6);
+            int argCount = type == TYPE_EVENT ? MAX_ARGUMENTS : code;
+            if ((type != TYPE_LOG && type != TYPE_EVENT) || argCount > MAX_ARGUMENTS) return null;
+            int tagLength = getShort(bytes, 28);
+            int messageLength = getShort(bytes, 30);
+            int tagStart = RECORD_HEADER_SIZE + argCount * 8;
+            if (tagStart + tagLength + messageLength + MARKER_SIZE > length) return null;
+            long[] args = new long[argCount];
+            for (int i = 0; i < argCount; i++) args[i] = getLong(bytes, RECORD_HEADER_SIZE + i * 8);
+            return new Record(type, bytes[5], code, getLong(bytes, 8), getLong(bytes, 16),
+                    getInt(bytes, 24),
+                    new String(bytes, tagStart, tagLength, StandardCharsets.UTF_8),
+                    new String(bytes, tagStart + tagLength, messageLength, StandardCharsets.UTF_8),
+                    args);
+        }
+
+        /**
+         * Writes record as a line of text.
+         *
+         * @param out          writer of text
+         * @param eventFormats formats of event values indexed by event code
+         * @throws IOException if text cannot be written
+         */
+        void dump(Writer out, String[] eventFormats) throws IOException {
+            out.write(DateFormats.format(time, TIME_FORMAT));
+            out.write(String.format(Locale.US, " %5d ", threadId));
+            if (type == TYPE_EVENT) {
+                String format = code < eventFormats.length ? eventFormats[code] : null;
+                if (format == null) format = "EVENT_" + code + " %d %d";
+                out.write("EVENT ");
+                out.write(format(format));
+            } else {
+                out.write(priority >= 0 && priority < PRIORITIES.length() ? PRIORITIES.charAt(priority) : '?');
+                out.write('/');
+                out.write(tag);
+                out.write(": ");
+                out.write(args.length == 0 ? message : format(message));
+            }
+            out.write('\n');
+        }
+
+        private String format(String format) {
+            Object[] values = new Object[args.length];
+            for (int i = 0; i < args.length; i++) values[i] = args[i];
+            try {
+                return String.format(Locale.US, format, values);
+            } catch (IllegalFormatException e) {
+                return format + " " + Arrays.toString(args);
+            }
+        }
+    }
+}
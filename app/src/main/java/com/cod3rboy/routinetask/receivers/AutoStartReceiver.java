@@ -4,12 +4,8 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 
-import com.cod3rboy.routinetask.database.DBContract;
-import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.database.AlarmReconciler;
 import com.cod3rboy.routinetask.logging.Logger;
-import com.cod3rboy.routinetask.utilities.AlarmScheduler;
-
-import java.util.ArrayList;
 
 import needle.Needle;
 
@@ -32,25 +28,8 @@ public class AutoStartReceiver extends BroadcastReceiver {
             return;
         Needle.onBackgroundThread().execute(() -> {
             Logger.d("Started " + AutoStartReceiver.class.getSimpleName() + " with Intent Action " + intentAction);
-            StringBuilder query = new StringBuilder();
-            query.append("SELECT * FROM ")
-                    .append(DBContract.TasksTable.TABLE_NAME)
-                    .append(" INNER JOIN ")
-                    .append(DBContract.RemindersTable.TABLE_NAME)
-                    .append(" ON ")
-                    .append(DBContract.TasksTable.TABLE_NAME)
-                    .append(".")
-                    .append(DBContract.TasksTable._ID)
-                    .append("=")
-                    .append(DBContract.RemindersTable.TABLE_NAME)
-                    .append(".")
-                    .append(DBContract.RemindersTable.COL_NAME_TASK_ID)
-                    .append(";");
-            ArrayList<TaskModel> allTasks = TaskModel.query(query.toString(), null, true);
-            for (TaskModel task : allTasks) {
-                if (task.getReminder() != null)
-                    AlarmScheduler.setTaskAlarm(task, task.getStatus() == TaskModel.TaskStatus.COMPLETED);
-            }
+            // Alarms lost on reboot and alarms whose trigger time is changed by date or time change are armed again
+            AlarmReconciler.reconcile();
             Logger.d(LOG_TAG, "Synchronized timings for all task alarms");
         });
     }
@@ -0,0 +1,48 @@
+package com.cod3rboy.routinetask.receivers;
+
+import android.app.Activity;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.cod3rboy.routinetask.logging.FlightRecorder;
+import com.cod3rboy.routinetask.logging.Logger;
+
+import java.io.File;
+import java.io.IOException;
+
+import needle.Needle;
+
+/**
+ * Broadcast Receiver to dump flight recorder to a text file on request from adb:
+ * <pre>
+ * adb shell am broadcast -a com.cod3rboy.routinetask.action.DUMP_FLIGHT_RECORDER \
+ *     -n com.cod3rboy.routinetask/.receivers.FlightRecorderDumpReceiver
+ * </pre>
+ * Path of dumped file is returned as result data of broadcast. Receiver requires DUMP permission
+ * which is granted to shell but not to other apps.
+ */
+public class FlightRecorderDumpReceiver extends BroadcastReceiver {
+    public static final String ACTION_DUMP_FLIGHT_RECORDER = "com.cod3rboy.routinetask.action.DUMP_FLIGHT_RECORDER";
+
+    private static final String LOG_TAG = FlightRecorderDumpReceiver.class.getSimpleName();
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        if (!ACTION_DUMP_FLIGHT_RECORDER.equals(intent.getAction())) return;
+        final PendingResult result = goAsync();
+        final Context appContext = context.getApplicationContext();
+        Needle.onBackgroundThread().execute(() -> {
+            try {
+                File dumpFile = FlightRecorder.dump(appContext);
+                result.setResultCode(Activity.RESULT_OK);
+                result.setResultData(dumpFile.getAbsolutePath());
+            } catch (IOException e) {
+                Logger.e(LOG_TAG, "Failed to dump flight recorder", e);
+                result.setResultCode(Activity.RESULT_CANCELED);
+            } finally {
+                result.finish();
+            }
+        });
+    }
+}
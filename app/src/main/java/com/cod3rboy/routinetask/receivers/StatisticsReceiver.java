@@ -9,14 +9,13 @@ import android.media.MediaPlayer;
 import com.cod3rboy.routinetask.R;
 import com.cod3rboy.routinetask.Utilities;
 import com.cod3rboy.routinetask.database.TaskStatsManager;
-import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.cod3rboy.routinetask.logging.Logger;
 import com.cod3rboy.routinetask.services.NotificationAlarmService;
 
 public class StatisticsReceiver extends BroadcastReceiver {
     private static final String LOG_TAG = StatisticsReceiver.class.getSimpleName();
     public static final String KEY_STATISTICS_TYPE = "statistics_type";
-    public static final String KEY_TASK_PARCEL = "task_parcel";
+    public static final String KEY_TASK_ID = "task_id";
     public static final String KEY_TASK_STATUS = "task_status";
     public static final String KEY_NOTIFICATION_ID = "notification_id";
 
@@ -29,8 +28,8 @@ public class StatisticsReceiver extends BroadcastReceiver {
     public void onReceive(Context context, Intent intent) {
         int stat_type = intent.getIntExtra(KEY_STATISTICS_TYPE, -1);
         if (stat_type == STATISTICS_TYPE_TASK) {
-            TaskModel task = intent.getParcelableExtra(KEY_TASK_PARCEL);
-            if (task == null) return;
+            long taskId = intent.getLongExtra(KEY_TASK_ID, -1);
+            if (taskId == -1) return;
             int notificationId = intent.getIntExtra(KEY_NOTIFICATION_ID, -1);
             if (notificationId != -1) {
                 NotificationManager mgr = (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
@@ -40,8 +39,8 @@ public class StatisticsReceiver extends BroadcastReceiver {
             }
             int task_status = intent.getIntExtra(KEY_TASK_STATUS, -1);
             if (task_status == TASK_STATUS_NOT_COMPLETE) { // Set uncompleted task as completed
-                Logger.d(LOG_TAG, "Received intent to mark task with ID-" + task.getId() + " as completed");
-                TaskStatsManager.getInstance().setTaskDone(task, () -> {
+                Logger.d(LOG_TAG, "Received intent to mark task with ID-%d as completed", taskId);
+                TaskStatsManager.getInstance().setTaskDone(taskId, () -> {
                     if (Utilities.canPlayTaskCompleteSound(context)) {
                         MediaPlayer player = MediaPlayer.create(context, R.raw.sound_task_complete);
                         player.start();
@@ -55,8 +54,8 @@ public class StatisticsReceiver extends BroadcastReceiver {
                 });
 
             } else if (task_status == TASK_STATUS_COMPLETE) { // Set completed task as uncompleted
-                Logger.d(LOG_TAG, "Received intent to mark task with ID-" + task.getId() + " as uncompleted");
-                TaskStatsManager.getInstance().setTaskUndone(task, null);
+                Logger.d(LOG_TAG, "Received intent to mark task with ID-%d as uncompleted", taskId);
+                TaskStatsManager.getInstance().setTaskUndone(taskId, null);
             }
         }
     }
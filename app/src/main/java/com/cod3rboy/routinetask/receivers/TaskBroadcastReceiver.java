@@ -14,23 +14,32 @@ import androidx.core.app.NotificationCompat;
 import com.cod3rboy.routinetask.Utilities;
 import com.cod3rboy.routinetask.activities.MainActivity;
 import com.cod3rboy.routinetask.R;
+import com.cod3rboy.routinetask.database.QueryCatalog;
+import com.cod3rboy.routinetask.database.ReminderQueue;
 import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.logging.FlightRecorder;
 import com.cod3rboy.routinetask.logging.Logger;
 import com.cod3rboy.routinetask.services.NotificationAlarmService;
 import com.cod3rboy.routinetask.services.TaskTimerService;
 import com.cod3rboy.routinetask.utilities.AlarmScheduler;
 
+import java.util.ArrayList;
 import java.util.Random;
+import java.util.TimeZone;
 
 import needle.Needle;
 
 /**
- * Broadcast Receiver to show task notification when an alarm set for a task goes off.
+ * Broadcast Receiver to show task notifications when the alarm armed for earliest reminder goes off.
+ * Every reminder due within tolerance window is fired with a single alarm and then alarm is armed
+ * again for the next reminder. Tasks are read from database in background because the data of
+ * tasks may have changed in application process after their reminders were scheduled.
  */
 public class TaskBroadcastReceiver extends BroadcastReceiver {
-    public static final String KEY_EXTRA_TASK = "key_task";
     public static final String NOTIFICATION_CHANNEL_ID = "task_notification";
     private static final int CONTENT_PENDING_INTENT_REQUEST_CODE = 1003;
+    private static final String TASK_TYPE_FIRE_REMINDERS = "fire_reminders";
+    private static final Random NOTIFICATION_ID_RANDOM = new Random();
 
     private static final String LOG_TAG = TaskBroadcastReceiver.class.getSimpleName();
 
@@ -43,13 +52,64 @@ public class TaskBroadcastReceiver extends BroadcastReceiver {
     @Override
     public void onReceive(Context context, Intent intent) {
         // @Todo Add automatic screen on feature by acquiring a wakelock
-        // Get the time table model from the intent extras
-        TaskModel task = TaskModel.toParcelable(intent.getByteArrayExtra(KEY_EXTRA_TASK), TaskModel.CREATOR);
-        Logger.d(LOG_TAG, "Alarm has been triggered for following task :- \n" + task.getInfoString());
+        final PendingResult result = goAsync();
+        Needle.onBackgroundThread().withTaskType(TASK_TYPE_FIRE_REMINDERS).serially().execute(() -> {
+            try {
+                fireDueReminders(context);
+            } finally {
+                result.finish();
+            }
+        });
+    }
+
+    /**
+     * Shows notifications of reminders which are due now or within tolerance window, schedules next
+     * occurrences of their reminders and arms alarm for the earliest reminder.
+     *
+     * @param context Context object to access application resources
+     */
+    private void fireDueReminders(Context context) {
+        long now = System.currentTimeMillis();
+        ArrayList<ReminderQueue.Entry> dueEntries = ReminderQueue.loadDue(now + AlarmScheduler.getToleranceMillis());
         boolean alarmEnabled = Utilities.isTaskNotificationAlarmEnabled(context);
+        int firedCount = 0;
+        TimeZone zone = TimeZone.getDefault();
+        for (ReminderQueue.Entry entry : dueEntries) {
+            TaskModel task = QueryCatalog.loadTask(entry.getTaskId(), true);
+            if (task == null || task.getReminder() == null || task.getReminder().getId() != entry.getReminderId()) {
+                // Reminder no longer exists
+                ReminderQueue.remove(entry.getReminderId());
+                continue;
+            }
+            Logger.d(LOG_TAG, () -> "Alarm has been triggered for following task :- \n" + task.getInfoString());
+            showNotification(context, task, alarmEnabled);
+            FlightRecorder.event(FlightRecorder.EVENT_REMINDER_FIRED, task.getId(), now - entry.getTriggerTime());
+            firedCount++;
+            // Next occurrence is the one after fired occurrence, or after now if fired occurrence was missed
+            long triggerTime = AlarmScheduler.getAlarmTriggerTime(task, false, Math.max(now, entry.getTriggerTime()), zone);
+            ReminderQueue.offer(task, triggerTime);
+            Logger.d(LOG_TAG, () -> "Alarm is rescheduled for following task :-\n" + task.getInfoString());
+        }
+        AlarmScheduler.armNextAlarm();
+
+        if (alarmEnabled && firedCount > 0) {
+            Logger.d(LOG_TAG, "Starting Alarm Notification Service ...");
+            Intent alarmIntent = new Intent(context, NotificationAlarmService.class);
+            context.startService(alarmIntent);
+        }
+    }
+
+    /**
+     * Shows notification of a task whose reminder is fired.
+     *
+     * @param context      Context object to access application resources
+     * @param task         task along with reminder
+     * @param alarmEnabled whether notification alarm is enabled
+     */
+    private void showNotification(Context context, TaskModel task, boolean alarmEnabled) {
         // Generate a random notification id to ensure a separate notification is displayed in case several tasks have same task time.
-        Random rand = new Random(System.currentTimeMillis());
-        int notificationId = rand.nextInt() & Integer.MAX_VALUE; // Random positive integer
+        // Random is shared as reminders fired together would get same seed from current time
+        int notificationId = NOTIFICATION_ID_RANDOM.nextInt() & Integer.MAX_VALUE; // Random positive integer
         // Create Notification for the task
         NotificationCompat.Builder builder = new NotificationCompat.Builder(context, NOTIFICATION_CHANNEL_ID)
                 .setPriority(NotificationCompat.PRIORITY_HIGH)
@@ -61,7 +121,7 @@ public class TaskBroadcastReceiver extends BroadcastReceiver {
                 .setAutoCancel(true);
         if (task.getReminder().getDurationInMinutes() > 0) {
             Intent taskTimerIntent = new Intent(context, TaskTimerService.class);
-            taskTimerIntent.putExtra(TaskTimerService.KEY_EXTRA_TASK, TaskModel.toByteArray(task));
+            taskTimerIntent.putExtra(TaskTimerService.KEY_EXTRA_TASK_ID, task.getId());
             taskTimerIntent.putExtra(TaskTimerService.KEY_EXTRA_NOTIFICATION_ID, notificationId);
             PendingIntent taskTimerPendingIntent = null;
             if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O)
@@ -79,7 +139,7 @@ public class TaskBroadcastReceiver extends BroadcastReceiver {
             builder.addAction(R.drawable.ic_play, context.getString(R.string.notification_action_start_task), taskTimerPendingIntent);
         }
         Intent statsCollectIntent = new Intent(context, StatisticsReceiver.class);
-        statsCollectIntent.putExtra(StatisticsReceiver.KEY_TASK_PARCEL, task);
+        statsCollectIntent.putExtra(StatisticsReceiver.KEY_TASK_ID, task.getId());
         statsCollectIntent.putExtra(StatisticsReceiver.KEY_STATISTICS_TYPE, StatisticsReceiver.STATISTICS_TYPE_TASK);
         statsCollectIntent.putExtra(StatisticsReceiver.KEY_NOTIFICATION_ID, notificationId); // For cancelling notification which action is clicked
         // Set incomplete task status since task is not yet completed when notification is displayed
@@ -132,15 +192,5 @@ public class TaskBroadcastReceiver extends BroadcastReceiver {
         }
 
         mgr.notify(notificationId, notification);
-        AlarmScheduler.cancelTaskAlarm(task);
-        // Alarm is cleared we need to set it again to repeat task notification next time
-        AlarmScheduler.setTaskAlarm(task, false);
-        Logger.d(LOG_TAG, "Alarm is rescheduled for following task :-\n" + task.getInfoString());
-
-        if (alarmEnabled) {
-            Logger.d(LOG_TAG, "Starting Alarm Notification Service ...");
-            Intent alarmIntent = new Intent(context, NotificationAlarmService.class);
-            context.startService(alarmIntent);
-        }
     }
 }
@@ -26,7 +26,7 @@ public class TaskTimerReceiver extends BroadcastReceiver {
                 if(service == null) return;
                 service.stopService();
                 Intent statsCollectIntent = new Intent(service, StatisticsReceiver.class);
-                statsCollectIntent.putExtra(StatisticsReceiver.KEY_TASK_PARCEL, service.getTask());
+                statsCollectIntent.putExtra(StatisticsReceiver.KEY_TASK_ID, service.getTask().getId());
                 statsCollectIntent.putExtra(StatisticsReceiver.KEY_STATISTICS_TYPE, StatisticsReceiver.STATISTICS_TYPE_TASK);
                 // Set incomplete task status since task is not yet completed when notification is displayed
                 statsCollectIntent.putExtra(StatisticsReceiver.KEY_TASK_STATUS, StatisticsReceiver.TASK_STATUS_NOT_COMPLETE);
@@ -8,6 +8,8 @@ import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
 import android.widget.RemoteViews;
 
 import com.cod3rboy.routinetask.R;
@@ -15,10 +17,13 @@ import com.cod3rboy.routinetask.TaskApplication;
 import com.cod3rboy.routinetask.activities.MainActivity;
 import com.cod3rboy.routinetask.logging.Logger;
 import com.cod3rboy.routinetask.services.TodayTaskWidgetService;
+import com.cod3rboy.routinetask.services.WidgetDataProvider;
 
 import java.util.Calendar;
 import java.util.Locale;
 
+import needle.Needle;
+
 
 public class TodayTaskWidgetProvider extends AppWidgetProvider {
 
@@ -27,6 +32,12 @@ public class TodayTaskWidgetProvider extends AppWidgetProvider {
 
     private static final int TODAY_PENDING_INTENT_REQUEST_CODE = 101;
     private static final int WIDGET_UPDATE_PENDING_INTENT_REQUEST_CODE = 102;
+    private static final String TASK_TYPE_WIDGET_REFRESH = "widget_refresh";
+    // Refresh requests within this window are coalesced into a single refresh
+    private static final long REFRESH_DEBOUNCE_MILLIS = 500;
+
+    private static final Handler refreshHandler = new Handler(Looper.getMainLooper());
+    private static final Runnable refreshRunnable = TodayTaskWidgetProvider::sendRefreshBroadcast;
 
     public static final String LOG_TAG = TodayTaskWidgetProvider.class.getSimpleName();
 
@@ -38,8 +49,21 @@ public class TodayTaskWidgetProvider extends AppWidgetProvider {
                 // Update all widgets
                 int[] widgetIds = intent.getIntArrayExtra(AppWidgetManager.EXTRA_APPWIDGET_IDS);
                 if (widgetIds != null) {
-                    Logger.d(LOG_TAG, "Updating Widgets ...");
-                    AppWidgetManager.getInstance(context).notifyAppWidgetViewDataChanged(widgetIds, R.id.lv_task_today);
+                    // Tasks are changed so shared snapshot of widgets is built again in background
+                    // and widgets are updated only if their content is changed
+                    PendingResult result = goAsync();
+                    Needle.onBackgroundThread().withTaskType(TASK_TYPE_WIDGET_REFRESH).serially().execute(() -> {
+                        try {
+                            if (WidgetDataProvider.getInstance().rebuild(context)) {
+                                Logger.d(LOG_TAG, "Updating Widgets ...");
+                                AppWidgetManager.getInstance(context).notifyAppWidgetViewDataChanged(widgetIds, R.id.lv_task_today);
+                            } else {
+                                Logger.d(LOG_TAG, "Widgets content is not changed");
+                            }
+                        } finally {
+                            result.finish();
+                        }
+                    });
                 }
             } else if (action.equals(ACTION_SCHEDULED_WIDGET_UPDATE)) {
                 AppWidgetManager widgetManager = AppWidgetManager.getInstance(context);
@@ -149,8 +173,15 @@ public class TodayTaskWidgetProvider extends AppWidgetProvider {
     /**
      * This method is used to refresh active today task widgets
      * when there is some update like new task created, task updated, etc.
+     * Refresh is debounced so a burst of changes (e.g. bulk insert) refreshes widgets only once
+     * after the burst. It can be invoked from any thread.
      */
     public static void refreshWidgets() {
+        refreshHandler.removeCallbacks(refreshRunnable);
+        refreshHandler.postDelayed(refreshRunnable, REFRESH_DEBOUNCE_MILLIS);
+    }
+
+    private static void sendRefreshBroadcast() {
         Context appContext = TaskApplication.getAppContext();
         // Get Ids of all active widgets
         int[] widgetIds = AppWidgetManager.getInstance(appContext)
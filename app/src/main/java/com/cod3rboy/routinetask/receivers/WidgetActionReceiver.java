@@ -6,8 +6,11 @@ import android.content.Intent;
 import android.net.Uri;
 
 import com.cod3rboy.routinetask.activities.EditTaskActivity;
+import com.cod3rboy.routinetask.database.TaskRepository;
 import com.cod3rboy.routinetask.database.models.TaskModel;
 
+import needle.Needle;
+
 /**
  * This broadcast receiver is used to get user actions from the widget.
  */
@@ -16,7 +19,7 @@ public class WidgetActionReceiver extends BroadcastReceiver {
 
     public static final String EXTRA_ACTION_ID = "action_id_extra";
 
-    public static final String KEY_TASK_PARCEL = "task_parcel";
+    public static final String KEY_TASK_ID = StatisticsReceiver.KEY_TASK_ID;
     public static final String KEY_TASK_STATUS = StatisticsReceiver.KEY_TASK_STATUS;
 
     public static final int ACTION_ID_EDIT_TASK = 101;
@@ -31,28 +34,34 @@ public class WidgetActionReceiver extends BroadcastReceiver {
         String action = intent.getAction();
         if (action != null && action.equals(ACTION_WIDGET_ACTION)) {
             int extra_action_id = intent.getIntExtra(EXTRA_ACTION_ID, ACTION_ID_UNKNOWN);
+            long taskId = intent.getLongExtra(KEY_TASK_ID, -1);
+            if (taskId == -1) return;
             if (extra_action_id == ACTION_ID_EDIT_TASK) {
-                TaskModel task = intent.getParcelableExtra(KEY_TASK_PARCEL);
-                if (task != null) {
-                    Intent i = new Intent(context, EditTaskActivity.class);
-                    i.setData(Uri.parse(i.toUri(Intent.URI_INTENT_SCHEME)));
-                    i.putExtra(EditTaskActivity.KEY_TASK_PARCEL, task);
-                    i.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-                    context.startActivity(i);
-                }
+                // Current data of task is read in background as it may load tasks from database
+                final PendingResult result = goAsync();
+                final Context appContext = context.getApplicationContext();
+                Needle.onBackgroundThread().execute(() -> {
+                    try {
+                        TaskModel task = TaskRepository.getInstance().getTask(taskId);
+                        if (task == null) return; // Task is deleted
+                        Intent i = new Intent(appContext, EditTaskActivity.class);
+                        i.setData(Uri.parse(i.toUri(Intent.URI_INTENT_SCHEME)));
+                        i.putExtra(EditTaskActivity.KEY_TASK_PARCEL, task);
+                        i.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+                        appContext.startActivity(i);
+                    } finally {
+                        result.finish();
+                    }
+                });
             } else if (extra_action_id == ACTION_ID_COMPLETE_TASK) {
-                TaskModel task = intent.getParcelableExtra(KEY_TASK_PARCEL);
                 int task_status = intent.getIntExtra(KEY_TASK_STATUS, -1);
-                if (task != null) {
-                    Intent i = new Intent(context, StatisticsReceiver.class);
-                    i.setData(Uri.parse(i.toUri(Intent.URI_INTENT_SCHEME)));
-                    i.putExtra(StatisticsReceiver.KEY_STATISTICS_TYPE, StatisticsReceiver.STATISTICS_TYPE_TASK);
-                    i.putExtra(StatisticsReceiver.KEY_TASK_PARCEL, task);
-                    i.putExtra(StatisticsReceiver.KEY_TASK_STATUS, task_status);
-                    context.sendBroadcast(i);
-                }
+                Intent i = new Intent(context, StatisticsReceiver.class);
+                i.setData(Uri.parse(i.toUri(Intent.URI_INTENT_SCHEME)));
+                i.putExtra(StatisticsReceiver.KEY_STATISTICS_TYPE, StatisticsReceiver.STATISTICS_TYPE_TASK);
+                i.putExtra(StatisticsReceiver.KEY_TASK_ID, taskId);
+                i.putExtra(StatisticsReceiver.KEY_TASK_STATUS, task_status);
+                context.sendBroadcast(i);
             }
         }
     }
-
 }
@@ -73,8 +73,7 @@ public class PomodoroService extends IntentService {
         mTimer = new CountDownTimer(mMillis, 1000) {
             @Override
             public void onTick(long millisLeft) {
-                Logger.d(LOG_TAG,
-                        String.format("Pomodoro Countdown - Milliseconds Passed : %d \t Milliseconds Left : %d", mMillisPassed, millisLeft));
+                Logger.d(LOG_TAG, "Pomodoro Countdown - Milliseconds Passed : %d \t Milliseconds Left : %d", mMillisPassed, millisLeft);
                 mMillisPassed += mMillis - millisLeft;
                 mMillis = millisLeft;
                 updateNotification(millisLeft / 1000);
@@ -122,7 +121,7 @@ public class PomodoroService extends IntentService {
                         getString(R.string.str_pomodoro_cancel),
                         getString(R.string.str_pomodoro_cancel_desc)
                 );
-                Logger.d(LOG_TAG, String.format("Pomodoro cancelled when %d seconds left", mMillis));
+                Logger.d(LOG_TAG, "Pomodoro cancelled when %d seconds left", mMillis);
             }
         } catch (InterruptedException ex) {
             ex.printStackTrace();
@@ -12,6 +12,7 @@ import android.media.AudioManager;
 import android.media.MediaPlayer;
 import android.media.RingtoneManager;
 import android.net.Uri;
+import android.os.Build;
 
 import androidx.annotation.Nullable;
 import androidx.core.app.NotificationCompat;
@@ -19,6 +20,7 @@ import androidx.core.app.NotificationCompat;
 import com.cod3rboy.routinetask.CountDownTimer;
 import com.cod3rboy.routinetask.R;
 import com.cod3rboy.routinetask.Utilities;
+import com.cod3rboy.routinetask.database.TaskRepository;
 import com.cod3rboy.routinetask.database.models.ReminderModel;
 import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.cod3rboy.routinetask.logging.Logger;
@@ -31,9 +33,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 public class TaskTimerService extends IntentService {
 
-    public static final String KEY_EXTRA_TASK = "extra_task";
+    public static final String KEY_EXTRA_TASK_ID = "extra_task_id";
     public static final String KEY_EXTRA_NOTIFICATION_ID = "notification_id";
     private static final String LOG_TAG = TaskTimerService.class.getSimpleName();
+    private static final int PLACEHOLDER_NOTIFICATION_ID = 1004;
 
     private CountDownTimer timer;
     private TaskModel task;
@@ -88,15 +91,17 @@ public class TaskTimerService extends IntentService {
 
     @Override
     protected void onHandleIntent(@Nullable Intent intent) {
-        Logger.d(LOG_TAG, "onHandleIntent Called with intent : " + intent.toString());
-        if (!intent.hasExtra(KEY_EXTRA_TASK)) return;
-        task = TaskModel.toParcelable(intent.getByteArrayExtra(KEY_EXTRA_TASK), TaskModel.CREATOR);
-        reminder = task.getReminder(); // Task Timer service will only run for tasks having reminders set
-        if (reminder == null) return;
+        Logger.d(LOG_TAG, "onHandleIntent Called with intent : %s", intent);
+        long taskId = intent == null ? -1 : intent.getLongExtra(KEY_EXTRA_TASK_ID, -1);
+        notificationId = intent == null ? -1 : intent.getIntExtra(KEY_EXTRA_NOTIFICATION_ID, -1);
+        // Current data of task is read as task may have been edited or deleted after notification was shown
+        task = taskId == -1 ? null : TaskRepository.getInstance().getTask(taskId);
+        reminder = task == null ? null : task.getReminder(); // Task Timer service will only run for tasks having reminders set
+        if (reminder == null || notificationId == -1) {
+            stopWithoutTimer();
+            return;
+        }
         long millis = reminder.getDurationInMinutes() * 60 * 1000;
-        if (!intent.hasExtra(KEY_EXTRA_NOTIFICATION_ID)) return;
-        notificationId = intent.getIntExtra(KEY_EXTRA_NOTIFICATION_ID, -1);
-        if (notificationId == -1) return;
         notificationManager.cancel(notificationId);
         // Stop running notification alarm
         if(NotificationAlarmService.getSelf() != null) NotificationAlarmService.getSelf().stop();
@@ -112,8 +117,7 @@ public class TaskTimerService extends IntentService {
             @Override
             public void onTick(long millisLeft) {
                 long millisPassed = millis - millisLeft;
-                Logger.d(LOG_TAG,
-                        String.format("Task Timer - Milliseconds Passed : %d \t Milliseconds Left : %d", millisPassed, millisLeft));
+                Logger.d(LOG_TAG, "Task Timer - Milliseconds Passed : %d \t Milliseconds Left : %d", millisPassed, millisLeft);
                 progress = MAX_PROGRESS - (int) ((millisPassed * 1f * MAX_PROGRESS) / millis);
                 updateNotification(millisLeft / 1000, progress);
             }
@@ -164,6 +168,25 @@ public class TaskTimerService extends IntentService {
         }
     }
 
+    /**
+     * Stops service when there is no task to run timer for. Service is started with
+     * startForegroundService() on Android O and above, so it must call startForeground() before
+     * it stops or else system crashes the application.
+     */
+    private void stopWithoutTimer() {
+        if (notificationId != -1) notificationManager.cancel(notificationId);
+        if (service == this) service = null;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            Notification placeholder = notificationBuilder
+                    .setSmallIcon(R.drawable.ic_list_item_48dp)
+                    .setContentTitle(getString(R.string.app_name))
+                    .setNotificationSilent()
+                    .build();
+            startForeground(PLACEHOLDER_NOTIFICATION_ID, placeholder);
+            stopForeground(true);
+        }
+    }
+
     private Notification makeNotification(String title, long seconds) {
         // Create Notification for the task
         notificationBuilder.setPriority(NotificationCompat.PRIORITY_HIGH)
@@ -4,21 +4,12 @@ import android.appwidget.AppWidgetManager;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Paint;
-import android.os.Bundle;
 import android.view.View;
 import android.widget.RemoteViews;
 import android.widget.RemoteViewsService;
-import android.widget.TextView;
 
 import com.cod3rboy.routinetask.R;
-import com.cod3rboy.routinetask.Utilities;
-import com.cod3rboy.routinetask.database.DBContract;
-import com.cod3rboy.routinetask.database.models.ReminderModel;
-import com.cod3rboy.routinetask.database.models.TaskModel;
 import com.cod3rboy.routinetask.logging.Logger;
-import com.cod3rboy.routinetask.receivers.WidgetActionReceiver;
-
-import java.util.ArrayList;
 
 public class TodayTaskWidgetService extends RemoteViewsService {
     @Override
@@ -30,128 +21,55 @@ public class TodayTaskWidgetService extends RemoteViewsService {
         private final String LOG_TAG = TasksViewFactory.class.getSimpleName();
         private Context mContext;
         private final int mAppWidgetId;
-        private ArrayList<TaskModel> tasksData;
+        // Snapshot shared with other widgets which is replaced on data set change
+        private WidgetDataProvider.Snapshot snapshot;
 
         public TasksViewFactory(Context context, Intent intent) {
             mContext = context;
             mAppWidgetId = intent.getIntExtra(AppWidgetManager.EXTRA_APPWIDGET_ID, AppWidgetManager.INVALID_APPWIDGET_ID);
-            tasksData = new ArrayList<>();
+            snapshot = WidgetDataProvider.EMPTY_SNAPSHOT;
         }
 
         @Override
         public void onCreate() {
-            loadDataSet();
-        }
-
-        private void loadDataSet() {
-            Logger.d(LOG_TAG, "Loading today tasks into widget");
-            StringBuilder query = new StringBuilder();
-            // clear old task data
-            tasksData.clear();
-            query.append("SELECT temp2.*, ")
-                    .append("ifnull(")
-                    .append(DBContract.RemindersTable.COL_NAME_START_TIME)
-                    .append(", \"99:99\") AS start_time FROM (SELECT ")
-                    .append(DBContract.TasksTable.TABLE_NAME)
-                    .append(".*, ifnull(temp.completed, 0) AS completed FROM ")
-                    .append(DBContract.TasksTable.TABLE_NAME)
-                    .append(" LEFT OUTER JOIN (SELECT ")
-                    .append(DBContract.RoutineEntryTable.TABLE_NAME)
-                    .append(".")
-                    .append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
-                    .append(", count(")
-                    .append(DBContract.RoutineEntryTable.TABLE_NAME)
-                    .append(".")
-                    .append(DBContract.RoutineEntryTable.COL_NAME_DATE)
-                    .append(") AS completed FROM ")
-                    .append(DBContract.RoutineEntryTable.TABLE_NAME)
-                    .append(" WHERE ")
-                    .append(DBContract.RoutineEntryTable.COL_NAME_DATE)
-                    .append("=\"")
-                    .append(Utilities.getTodayDateString())
-                    .append("\" GROUP BY ")
-                    .append(DBContract.RoutineEntryTable.TABLE_NAME)
-                    .append(".")
-                    .append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
-                    .append(") AS temp ON ")
-                    .append(DBContract.TasksTable.TABLE_NAME)
-                    .append(".")
-                    .append(DBContract.TasksTable._ID)
-                    .append("=")
-                    .append("temp.")
-                    .append(DBContract.RoutineEntryTable.COL_NAME_TASK_ID)
-                    .append(" WHERE ")
-                    .append(DBContract.TasksTable.TABLE_NAME)
-                    .append(".")
-                    .append(Utilities.getTodayWeekColumn())
-                    .append("=")
-                    .append(DBContract.TasksTable.COL_VALUE_TRUE)
-                    .append(") AS temp2 LEFT OUTER JOIN ")
-                    .append(DBContract.RemindersTable.TABLE_NAME)
-                    .append(" ON temp2.")
-                    .append(DBContract.TasksTable._ID)
-                    .append("=")
-                    .append(DBContract.RemindersTable.TABLE_NAME)
-                    .append(".")
-                    .append(DBContract.RemindersTable.COL_NAME_TASK_ID)
-                    .append(" ORDER BY ")
-                    .append(Utilities.canSortCompletedTasks(mContext) ? "temp2.completed ASC, " : "")
-                    .append("start_time ASC, lower(temp2.")
-                    .append(DBContract.TasksTable.COL_NAME_TITLE)
-                    .append(") ASC;");
-            Thread thread = new Thread(()->{
-                tasksData.addAll(TaskModel.query(query.toString(), null, true));
-            });
-            thread.start();
-            try{
-                thread.join();
-            }catch (Exception ex){
-                ex.printStackTrace();
-            }
+            // Data set is loaded in onDataSetChanged() which is invoked after factory is created
         }
 
         @Override
         public void onDataSetChanged() {
-            loadDataSet();
+            // It is invoked on a binder thread so snapshot is read synchronously
+            Logger.d(LOG_TAG, "Loading today tasks into widget");
+            snapshot = WidgetDataProvider.getInstance().getSnapshot(mContext);
         }
 
         @Override
         public void onDestroy() {
-            tasksData.clear();
+            snapshot = WidgetDataProvider.EMPTY_SNAPSHOT;
         }
 
         @Override
         public int getCount() {
-            return tasksData.size();
+            return snapshot.getCount();
         }
 
         @Override
         public RemoteViews getViewAt(int position) {
             // Construct a remote views task item based on the app widget task item xml file
             // and set the content based on position
-            TaskModel taskAtPosition = tasksData.get(position);
-            String title = taskAtPosition.getTitle();
-            boolean taskCompleted = taskAtPosition.getStatus() == TaskModel.TaskStatus.COMPLETED;
+            WidgetDataProvider.Item item = snapshot.getItem(position);
+            boolean taskCompleted = item.isCompleted();
             RemoteViews rvTaskItem = new RemoteViews(mContext.getPackageName(), R.layout.widget_today_task_item);
-            rvTaskItem.setInt(R.id.root, "setBackgroundColor", taskAtPosition.getColor());
-            rvTaskItem.setTextViewText(R.id.tv_task_title, title);
-            ReminderModel reminder = taskAtPosition.getReminder();
-            if (reminder != null) {
-                // Set Start Time
-                if(Utilities.getTimeFormatPreference(mContext).equals(mContext.getString(R.string.settings_time_format_value_24)))
-                    rvTaskItem.setTextViewText(R.id.tv_task_time, reminder.getStartTime().to24TimeFormat());
-                else
-                    rvTaskItem.setTextViewText(R.id.tv_task_time, reminder.getStartTime().to12TimeFormat());
-                // Set Duration
-                if(reminder.getDurationInMinutes() > 0){
-                    rvTaskItem.setViewVisibility(R.id.tv_duration, View.VISIBLE);
-                    rvTaskItem.setTextViewText(R.id.tv_duration, Utilities.formatDuration(mContext, reminder.getDurationInMinutes()));
-                }else{
-                    rvTaskItem.setViewVisibility(R.id.tv_duration, View.GONE);
-                    rvTaskItem.setTextViewText(R.id.tv_duration, "");
-                }
+            rvTaskItem.setInt(R.id.root, "setBackgroundColor", item.getColor());
+            rvTaskItem.setTextViewText(R.id.tv_task_title, item.getTitle());
+            // Set Start Time
+            rvTaskItem.setTextViewText(R.id.tv_task_time, item.getTimeText());
+            // Set Duration
+            if (item.getDurationText() != null) {
+                rvTaskItem.setViewVisibility(R.id.tv_duration, View.VISIBLE);
+                rvTaskItem.setTextViewText(R.id.tv_duration, item.getDurationText());
             } else {
-                rvTaskItem.setTextViewText(R.id.tv_task_time, mContext.getString(R.string.no_reminder));
+                rvTaskItem.setViewVisibility(R.id.tv_duration, View.GONE);
+                rvTaskItem.setTextViewText(R.id.tv_duration, "");
             }
 
             if (taskCompleted) {
@@ -164,27 +82,9 @@ public class TodayTaskWidgetService extends RemoteViewsService {
                 rvTaskItem.setContentDescription(R.id.btn_check, mContext.getString(R.string.widget_check_content_desc));
             }
 
-            // Prepare extras bundles for Widget Action broadcast
-            Bundle editActionExtras = new Bundle();
-            editActionExtras.putInt(WidgetActionReceiver.EXTRA_ACTION_ID, WidgetActionReceiver.ACTION_ID_EDIT_TASK);
-            editActionExtras.putParcelable(WidgetActionReceiver.KEY_TASK_PARCEL, taskAtPosition);
-            Bundle completeActionExtras = new Bundle();
-            completeActionExtras.putInt(WidgetActionReceiver.EXTRA_ACTION_ID, WidgetActionReceiver.ACTION_ID_COMPLETE_TASK);
-            completeActionExtras.putParcelable(WidgetActionReceiver.KEY_TASK_PARCEL, taskAtPosition);
-            if (taskCompleted)
-                completeActionExtras.putInt(WidgetActionReceiver.KEY_TASK_STATUS, WidgetActionReceiver.TASK_STATUS_COMPLETE);
-            else
-                completeActionExtras.putInt(WidgetActionReceiver.KEY_TASK_STATUS, WidgetActionReceiver.TASK_STATUS_NOT_COMPLETE);
-
-            // Create fillIn intents for Widget Action broadcast
-            Intent editFillInIntent = new Intent();
-            editFillInIntent.putExtras(editActionExtras);
-            Intent completeFillInIntent = new Intent();
-            completeFillInIntent.putExtras(completeActionExtras);
-
             // Set separate fillIn intents on list item and image button
-            rvTaskItem.setOnClickFillInIntent(R.id.first_child, editFillInIntent);
-            rvTaskItem.setOnClickFillInIntent(R.id.btn_check, completeFillInIntent);
+            rvTaskItem.setOnClickFillInIntent(R.id.first_child, item.getEditFillInIntent());
+            rvTaskItem.setOnClickFillInIntent(R.id.btn_check, item.getCompleteFillInIntent());
 
             return rvTaskItem;
         }
@@ -202,7 +102,7 @@ public class TodayTaskWidgetService extends RemoteViewsService {
 
         @Override
         public long getItemId(int position) {
-            return tasksData.get(position).getId();
+            return snapshot.getItem(position).getId();
         }
 
         @Override
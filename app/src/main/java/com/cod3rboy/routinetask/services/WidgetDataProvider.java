@@ -0,0 +1,234 @@
+package com.cod3rboy.routinetask.services;
+
+import android.content.Context;
+import android.content.Intent;
+
+import com.cod3rboy.routinetask.R;
+import com.cod3rboy.routinetask.Utilities;
+import com.cod3rboy.routinetask.database.TaskRepository;
+import com.cod3rboy.routinetask.database.models.ReminderModel;
+import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.logging.Logger;
+import com.cod3rboy.routinetask.receivers.WidgetActionReceiver;
+import com.cod3rboy.routinetask.utilities.EpochDay;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Provides data displayed by today task widgets. Data is kept as a single immutable {@link Snapshot}
+ * of today tasks along with their display strings which is shared by all widget instances.
+ * Snapshot is built again only by {@link #rebuild(Context)} on a task change, on a new day and when
+ * a preference used by widget is changed. Otherwise every widget reads the same snapshot.
+ * Each snapshot has a hash of its displayed content so that widgets are refreshed only when
+ * something they display is changed.
+ */
+public class WidgetDataProvider {
+    private static final String LOG_TAG = WidgetDataProvider.class.getSimpleName();
+
+    private static WidgetDataProvider singleton = null;
+
+    public static synchronized WidgetDataProvider getInstance() {
+        if (singleton == null) {
+            singleton = new WidgetDataProvider();
+        }
+        return singleton;
+    }
+
+    /**
+     * Immutable display data of a task in widget.
+     */
+    public static final class Item {
+        private final TaskModel task;
+        private final boolean completed;
+        private final String timeText;
+        private final String durationText;
+        private final Intent editFillInIntent;
+        private final Intent completeFillInIntent;
+
+        private Item(TaskModel task, String timeText, String durationText) {
+            this.task = task;
+            this.completed = task.getStatus() == TaskModel.TaskStatus.COMPLETED;
+            this.timeText = timeText;
+            this.durationText = durationText;
+            // Only task id is passed and receiver reads current data of task
+            editFillInIntent = new Intent();
+            editFillInIntent.putExtra(WidgetActionReceiver.EXTRA_ACTION_ID, WidgetActionReceiver.ACTION_ID_EDIT_TASK);
+            editFillInIntent.putExtra(WidgetActionReceiver.KEY_TASK_ID, task.getId());
+            completeFillInIntent = new Intent();
+            completeFillInIntent.putExtra(WidgetActionReceiver.EXTRA_ACTION_ID, WidgetActionReceiver.ACTION_ID_COMPLETE_TASK);
+            completeFillInIntent.putExtra(WidgetActionReceiver.KEY_TASK_ID, task.getId());
+            completeFillInIntent.putExtra(WidgetActionReceiver.KEY_TASK_STATUS, completed
+                    ? WidgetActionReceiver.TASK_STATUS_COMPLETE : WidgetActionReceiver.TASK_STATUS_NOT_COMPLETE);
+        }
+
+        public long getId() {
+            return task.getId();
+        }
+
+        public String getTitle() {
+            return task.getTitle();
+        }
+
+        public int getColor() {
+            return task.getColor();
+        }
+
+        /**
+         * @return task of item. It is shared by all widgets so it must not be modified.
+         */
+        public TaskModel getTask() {
+            return task;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        /**
+         * @return formatted start time of task or no reminder text if task has no reminder
+         */
+        public String getTimeText() {
+            return timeText;
+        }
+
+        /**
+         * @return formatted duration of task or null if task has no duration
+         */
+        public String getDurationText() {
+            return durationText;
+        }
+
+        /**
+         * @return fill-in intent of Widget Action broadcast to edit task. It is shared by all
+         * widgets so it must not be modified.
+         */
+        public Intent getEditFillInIntent() {
+            return editFillInIntent;
+        }
+
+        /**
+         * @return fill-in intent of Widget Action broadcast to toggle completion of task. It is
+         * shared by all widgets so it must not be modified.
+         */
+        public Intent getCompleteFillInIntent() {
+            return completeFillInIntent;
+        }
+    }
+
+    /**
+     * Immutable today tasks of widget in display order.
+     */
+    public static final class Snapshot {
+        private final List<Item> items;
+        private final int day;
+        private final boolean completedLast;
+        private final boolean timeFormat24;
+        private final long contentHash;
+
+        private Snapshot(List<Item> items, int day, boolean completedLast, boolean timeFormat24) {
+            this.items = Collections.unmodifiableList(items);
+            this.day = day;
+            this.completedLast = completedLast;
+            this.timeFormat24 = timeFormat24;
+            this.contentHash = hashContent(items);
+        }
+
+        /**
+         * @return hash of everything displayed in widget for this snapshot
+         */
+        public long getContentHash() {
+            return contentHash;
+        }
+
+        private static long hashContent(List<Item> items) {
+            long hash = items.size();
+            for (Item item : items) {
+                hash = 31 * hash + item.getId();
+                hash = 31 * hash + item.getColor();
+                hash = 31 * hash + (item.isCompleted() ? 1 : 0);
+                hash = 31 * hash + hashString(item.getTitle());
+                hash = 31 * hash + hashString(item.getTimeText());
+                hash = 31 * hash + hashString(item.getDurationText());
+            }
+            return hash;
+        }
+
+        private static int hashString(String text) {
+            return text == null ? 0 : text.hashCode();
+        }
+
+        public int getCount() {
+            return items.size();
+        }
+
+        public Item getItem(int position) {
+            return items.get(position);
+        }
+    }
+
+    /**
+     * Snapshot without any task which is used until first snapshot is built.
+     */
+    public static final Snapshot EMPTY_SNAPSHOT = new Snapshot(new ArrayList<>(), -1, false, false);
+
+    private Snapshot snapshot;
+
+    private WidgetDataProvider() {
+        snapshot = null;
+    }
+
+    /**
+     * Returns current snapshot of today tasks and builds it if it is not valid anymore.
+     * It must not be invoked on Main Thread as building snapshot may load tasks from database.
+     *
+     * @param context any context object
+     * @return snapshot of today tasks
+     */
+    public synchronized Snapshot getSnapshot(Context context) {
+        int today = EpochDay.today();
+        boolean completedLast = Utilities.canSortCompletedTasks(context);
+        boolean timeFormat24 = Utilities.getTimeFormatPreference(context)
+                .equals(context.getString(R.string.settings_time_format_value_24));
+        if (snapshot == null || snapshot.day != today || snapshot.completedLast != completedLast
+                || snapshot.timeFormat24 != timeFormat24) {
+            snapshot = buildSnapshot(context, today, completedLast, timeFormat24);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Builds snapshot again as tasks displayed in widget may have changed. It must not be invoked
+     * on Main Thread.
+     *
+     * @param context any context object
+     * @return whether content of new snapshot differs from content of previous snapshot
+     */
+    public synchronized boolean rebuild(Context context) {
+        Snapshot oldSnapshot = snapshot;
+        snapshot = null;
+        Snapshot newSnapshot = getSnapshot(context);
+        return oldSnapshot == null || oldSnapshot.contentHash != newSnapshot.contentHash
+                || oldSnapshot.getCount() != newSnapshot.getCount();
+    }
+
+    private static Snapshot buildSnapshot(Context context, int today, boolean completedLast, boolean timeFormat24) {
+        ArrayList<TaskModel> tasks = TaskRepository.getInstance().getTodayTasks(completedLast);
+        ArrayList<Item> items = new ArrayList<>(tasks.size());
+        String noReminderText = context.getString(R.string.no_reminder);
+        for (TaskModel task : tasks) {
+            ReminderModel reminder = task.getReminder();
+            String timeText = noReminderText;
+            String durationText = null;
+            if (reminder != null) {
+                timeText = timeFormat24 ? reminder.getStartTime().to24TimeFormat() : reminder.getStartTime().to12TimeFormat();
+                if (reminder.getDurationInMinutes() > 0)
+                    durationText = Utilities.formatDuration(context, reminder.getDurationInMinutes());
+            }
+            items.add(new Item(task, timeText, durationText));
+        }
+        Logger.d(LOG_TAG, "Built widget snapshot with %d tasks", items.size());
+        return new Snapshot(items, today, completedLast, timeFormat24);
+    }
+}
@@ -6,49 +6,106 @@ import android.content.Context;
 import android.content.Intent;
 import android.os.Build;
 
+import com.cod3rboy.routinetask.R;
 import com.cod3rboy.routinetask.TaskApplication;
+import com.cod3rboy.routinetask.database.ReminderQueue;
 import com.cod3rboy.routinetask.database.models.ReminderModel;
 import com.cod3rboy.routinetask.database.models.TaskModel;
+import com.cod3rboy.routinetask.logging.FlightRecorder;
 import com.cod3rboy.routinetask.receivers.TaskBroadcastReceiver;
 
-import java.util.Calendar;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TimeZone;
 
+/**
+ * Schedules reminders of tasks. Next occurrence of every reminder is kept in {@link ReminderQueue}
+ * and only one system alarm is armed for the earliest occurrence. When alarm goes off
+ * {@link TaskBroadcastReceiver} fires every reminder due within tolerance window and arms alarm
+ * again for the new head of queue, so number of alarms registered with AlarmManager does not grow
+ * with number of reminders and reminders a few seconds apart are fired with a single wakeup.
+ * Methods which change queue must not be invoked on Main Thread.
+ */
 public final class AlarmScheduler {
+    /**
+     * Action of the broadcast sent when earliest reminder is due.
+     */
+    public static final String ACTION_REMINDERS_DUE = "com.cod3rboy.routinetask.action.REMINDERS_DUE";
+    private static final int ALARM_REQUEST_CODE = 0;
+
     private AlarmScheduler() {
     }
 
     /**
-     * This method schedules an alarm for repeating or no-repeat tasks. Alarm is only scheduled
-     * if reminder is set on the given task.
+     * This method schedules next occurrence of reminder of repeating or no-repeat tasks and arms
+     * system alarm if it is the earliest one. Reminder is only scheduled if it is set on the given task.
      *
-     * @param task          task for which alarm is to be scheduled
+     * @param task          task for which reminder is to be scheduled
      * @param taskCompleted whether the given task is completed or not
      */
     public static void setTaskAlarm(TaskModel task, boolean taskCompleted) {
-        ReminderModel reminder = task.getReminder();
-        if (reminder == null) return; // Do not set alarm if there is no reminder set
-        long triggerTime = getAlarmTriggerTime(task, taskCompleted);
-        if (triggerTime == -1) return; // return if failed to compute trigger time
-        // Using reminder id as Pending Intent Request code allows to create unique pending intent for each reminder
-        int pendingIntentRequestCode = (int) reminder.getId();
+        if (task.getReminder() == null) return; // Do not schedule if there is no reminder set
+        ReminderQueue.offer(task, getAlarmTriggerTime(task, taskCompleted));
+        armNextAlarm();
+    }
+
+    /**
+     * Schedules reminders of several tasks with a single queue write and arms system alarm once.
+     * Tasks without reminder are skipped.
+     *
+     * @param tasks         tasks for which reminders are to be scheduled
+     * @param taskCompleted whether the given tasks are completed or not
+     */
+    public static void setTaskAlarms(ArrayList<TaskModel> tasks, boolean taskCompleted) {
+        ArrayList<TaskModel> tasksWithReminder = new ArrayList<>(tasks.size());
+        for (TaskModel task : tasks) {
+            if (task.getReminder() != null && task.getId() > 0) tasksWithReminder.add(task);
+        }
+        if (tasksWithReminder.isEmpty()) return;
+        long[] triggerTimes = new long[tasksWithReminder.size()];
+        long now = System.currentTimeMillis();
+        TimeZone zone = TimeZone.getDefault();
+        for (int i = 0; i < triggerTimes.length; i++)
+            triggerTimes[i] = getAlarmTriggerTime(tasksWithReminder.get(i), taskCompleted, now, zone);
+        ReminderQueue.offerAll(tasksWithReminder, triggerTimes);
+        armNextAlarm();
+    }
+
+    /**
+     * Arms system alarm for the earliest reminder occurrence in queue replacing previously armed
+     * alarm, or cancels it if no reminder is due.
+     */
+    public static void armNextAlarm() {
+        long triggerTime = ReminderQueue.peekTriggerTime();
         Context appContext = TaskApplication.getAppContext();
-        Intent intent = new Intent(appContext, TaskBroadcastReceiver.class);
-        intent.putExtra(TaskBroadcastReceiver.KEY_EXTRA_TASK, TaskModel.toByteArray(task));
         PendingIntent pendingIntent = PendingIntent.getBroadcast(
                 appContext,
-                pendingIntentRequestCode,
-                intent, PendingIntent.FLAG_UPDATE_CURRENT
+                ALARM_REQUEST_CODE,
+                new Intent(ACTION_REMINDERS_DUE, null, appContext, TaskBroadcastReceiver.class),
+                PendingIntent.FLAG_UPDATE_CURRENT
         );
         AlarmManager manager = (AlarmManager) appContext.getSystemService(Context.ALARM_SERVICE);
-        if (manager != null) {
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-                manager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
-            } else {
-                manager.setExact(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
-            }
+        if (manager == null) return;
+        FlightRecorder.event(FlightRecorder.EVENT_ALARM_ARMED, triggerTime,
+                triggerTime == -1 ? -1 : triggerTime - System.currentTimeMillis());
+        if (triggerTime == -1) {
+            manager.cancel(pendingIntent);
+        } else if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            manager.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
+        } else {
+            manager.setExact(AlarmManager.RTC_WAKEUP, triggerTime, pendingIntent);
         }
     }
 
+    /**
+     * @return time in milliseconds before trigger time of a reminder in which it is fired along
+     * with an earlier reminder
+     */
+    public static long getToleranceMillis() {
+        return TaskApplication.getAppContext().getResources().getInteger(R.integer.reminder_tolerance_seconds) * 1000L;
+    }
+
     /**
      * This method computes alarm trigger time for repeating or no repeat tasks reminders.
      *
@@ -56,65 +113,76 @@ public final class AlarmScheduler {
      * @param taskCompleted whether task is already completed or not
      * @return trigger time in milliseconds or -1 if no reminder is set on task or trigger time cannot be computed
      */
-    private static long getAlarmTriggerTime(TaskModel task, boolean taskCompleted) {
+    public static long getAlarmTriggerTime(TaskModel task, boolean taskCompleted) {
+        return getAlarmTriggerTime(task, taskCompleted, System.currentTimeMillis());
+    }
+
+    /**
+     * This method computes first trigger time of a task reminder which is after given time.
+     *
+     * @param task          repeating or no-repeat task for which reminder trigger time is returned
+     * @param taskCompleted whether task is already completed on the day of given time or not
+     * @param now           time in milliseconds after which reminder is triggered
+     * @return trigger time in milliseconds or -1 if no reminder is set on task or trigger time cannot be computed
+     */
+    public static long getAlarmTriggerTime(TaskModel task, boolean taskCompleted, long now) {
+        return getAlarmTriggerTime(task, taskCompleted, now, TimeZone.getDefault());
+    }
+
+    /**
+     * This method computes first trigger time of a task reminder which is after given time in given
+     * time zone. Callers computing trigger times of many tasks look up the zone once and pass it.
+     *
+     * @param task          repeating or no-repeat task for which reminder trigger time is returned
+     * @param taskCompleted whether task is already completed on the day of given time or not
+     * @param now           time in milliseconds after which reminder is triggered
+     * @param zone          time zone in which reminder time is local time
+     * @return trigger time in milliseconds or -1 if no reminder is set on task or trigger time cannot be computed
+     */
+    public static long getAlarmTriggerTime(TaskModel task, boolean taskCompleted, long now, TimeZone zone) {
         ReminderModel reminder = task.getReminder();
         if (reminder == null) return -1;
         // Get start time for reminder
-        Time startTime = reminder.getStartTime();
-        // Get Calendar for current time
-        Calendar calendar = Calendar.getInstance();
-        // Check whether task is repeating
-        boolean isTaskRepeating = task.getRepeatCountInWeek() > 0;
-        long now = calendar.getTimeInMillis();
-        if (isTaskRepeating) { // Get trigger time for repeating tasks
-            // Check whether alarm is set for today
-            calendar.set(Calendar.HOUR_OF_DAY, startTime.getHours());
-            calendar.set(Calendar.MINUTE, startTime.getMinutes());
-            calendar.set(Calendar.SECOND, 0);
-            long triggerTime = calendar.getTimeInMillis();
-            int todayDay = calendar.get(Calendar.DAY_OF_WEEK);
-            if (task.isRepeatForDay(todayDay) && (now < triggerTime) && !taskCompleted) {
-                return triggerTime; // Return today trigger time
-            } else {
-                // Find the next day for which task is repeated
-                do {
-                    calendar.add(Calendar.DAY_OF_WEEK, 1);
-                } while (!task.isRepeatForDay(calendar.get(Calendar.DAY_OF_WEEK)));
-                // Return trigger time for next day of week for which task is repeated
-                return calendar.getTimeInMillis();
-            }
+        int minuteOfDay = reminder.getStartTime().getMinuteOfDay();
+        if (task.getRepeatMask() != WeekdayMask.NONE) { // Get trigger time for repeating tasks
+            // Completed task is reminded next time on a following day
+            long after = taskCompleted ? OccurrenceCalculator.startOfNextDay(now, zone) - 1 : now;
+            return OccurrenceCalculator.nextOccurrence(task.getRepeatMask(), minuteOfDay, after, zone);
         } else { // Get trigger time for no repeat tasks
             // Get trigger time for the day reminder was last modified
-            calendar.setTimeInMillis(reminder.getLastModified());
-            calendar.set(Calendar.HOUR_OF_DAY, startTime.getHours());
-            calendar.set(Calendar.MINUTE, startTime.getMinutes());
-            calendar.set(Calendar.SECOND, 0);
-            long triggerTime = calendar.getTimeInMillis();
+            long triggerTime = OccurrenceCalculator.occurrenceOnDay(reminder.getLastModified(), minuteOfDay, zone);
             if (now < triggerTime && !taskCompleted) return triggerTime;
         }
         return -1;
     }
 
     /**
-     * This method is used to cancel scheduled alarm set for repeating and no-repeat tasks.
+     * This method is used to remove reminder of repeating and no-repeat tasks from schedule.
      *
-     * @param task task whose scheduled alarm to cancel. Reminder must be set for this task.
+     * @param task task whose scheduled reminder to cancel. Reminder must be set for this task.
      */
     public static void cancelTaskAlarm(TaskModel task) {
         ReminderModel reminder = task.getReminder();
         if (reminder == null) return; // Cannot cancel alarm if task does not have reminder
-        // Using reminder id as Pending Intent Request code to get existing pending intent for reminder
-        Context appContext = TaskApplication.getAppContext();
-        int pendingIntentRequestCode = (int) reminder.getId();
-        Intent intent = new Intent(appContext, TaskBroadcastReceiver.class);
-        intent.putExtra(TaskBroadcastReceiver.KEY_EXTRA_TASK, TaskModel.toByteArray(task));
-        PendingIntent pendingIntent = PendingIntent.getBroadcast(
-                appContext,
-                pendingIntentRequestCode,
-                intent,
-                0);
-        AlarmManager mgr = (AlarmManager) appContext.getSystemService(Context.ALARM_SERVICE);
-        if (mgr != null) mgr.cancel(pendingIntent);
+        ReminderQueue.remove(reminder.getId());
+        armNextAlarm();
     }
 
+    /**
+     * Removes reminders of several tasks from schedule with a single queue write and arms system
+     * alarm once. Tasks without reminder are skipped.
+     *
+     * @param tasks tasks whose scheduled reminders to cancel
+     */
+    public static void cancelTaskAlarms(Collection<TaskModel> tasks) {
+        long[] reminderIds = new long[tasks.size()];
+        int count = 0;
+        for (TaskModel task : tasks) {
+            ReminderModel reminder = task.getReminder();
+            if (reminder != null) reminderIds[count++] = reminder.getId();
+        }
+        if (count == 0) return;
+        ReminderQueue.removeAll(Arrays.copyOf(reminderIds, count));
+        armNextAlarm();
+    }
 }
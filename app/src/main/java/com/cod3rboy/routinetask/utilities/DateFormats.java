@@ -0,0 +1,208 @@
+package com.cod3rboy.routinetask.utilities;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Helper class to format and parse dates without creating a SimpleDateFormat on every call.
+ * SimpleDateFormat is not thread safe, so every thread keeps its own formatter for each pattern.
+ * Formatters are created for default locale and time zone and are created again when either of them
+ * changes. Today's date string is computed once per day and formatted epoch days are cached per
+ * pattern, so chart labels formatted on every draw are looked up instead of formatted.
+ */
+public final class DateFormats {
+    // Date format of today's date shown in action bar
+    public static final String TODAY_DATE_FORMAT = "EEE, dd MMMM";
+
+    // Number of formatted epoch days cached per pattern on each thread. It covers more than a year
+    // of chart labels.
+    private static final int DAY_CACHE_SIZE = 512;
+
+    private static final ThreadLocal<Formatters> sFormatters = new ThreadLocal<Formatters>() {
+        @Override
+        protected Formatters initialValue() {
+            return new Formatters();
+        }
+    };
+
+    // Today's date string shared by all threads
+    private static volatile Today sToday = null;
+
+    // Do not allow instance creation
+    private DateFormats() {
+    }
+
+    /**
+     * Returns formatter of calling thread for pattern in default locale and time zone. Returned
+     * formatter must not be passed to other threads or modified.
+     *
+     * @param pattern date format pattern
+     * @return formatter
+     */
+    public static SimpleDateFormat get(String pattern) {
+        return sFormatters.get().get(pattern);
+    }
+
+    /**
+     * @param millis  instant in milliseconds since epoch
+     * @param pattern date format pattern
+     * @return instant formatted with pattern
+     */
+    public static String format(long millis, String pattern) {
+        return format(new Date(millis), pattern);
+    }
+
+    /**
+     * @param date    date to format
+     * @param pattern date format pattern
+     * @return date formatted with pattern
+     */
+    public static String format(Date date, String pattern) {
+        return get(pattern).format(date);
+    }
+
+    /**
+     * @param text    date string
+     * @param pattern date format pattern of text
+     * @return parsed date
+     * @throws ParseException if text cannot be parsed with pattern
+     */
+    public static Date parse(String text, String pattern) throws ParseException {
+        return get(pattern).parse(text);
+    }
+
+    /**
+     * Formats start of an epoch day. Formatted days are cached per pattern, so formatting the same
+     * days again does not format or allocate.
+     *
+     * @param epochDay epoch day
+     * @param pattern  date format pattern
+     * @return epoch day formatted with pattern
+     */
+    public static String formatEpochDay(int epochDay, String pattern) {
+        return sFormatters.get().formatEpochDay(epochDay, pattern);
+    }
+
+    /**
+     * Returns today's date in {@link #TODAY_DATE_FORMAT}. Date string is formatted once and reused
+     * until local midnight.
+     *
+     * @return today's date string
+     */
+    public static String today() {
+        return today(System.currentTimeMillis());
+    }
+
+    static String today(long now) {
+        Today today = sToday;
+        Locale locale = Locale.getDefault();
+        TimeZone zone = TimeZone.getDefault();
+        String zoneId = zone.getID();
+        if (today == null || !today.isValid(now, locale, zoneId)) {
+            int epochDay = EpochDay.fromMillis(now, zone);
+            today = new Today(format(now, TODAY_DATE_FORMAT), EpochDay.toMillis(epochDay, zone),
+                    EpochDay.toMillis(epochDay + 1, zone), locale, zoneId);
+            sToday = today;
+        }
+        return today.text;
+    }
+
+    /**
+     * Immutable today's date string with the period of time for which it is valid.
+     */
+    private static final class Today {
+        final String text;
+        final long startOfDay;
+        final long startOfNextDay;
+        final Locale locale;
+        final String zoneId;
+
+        Today(String text, long startOfDay, long startOfNextDay, Locale locale, String zoneId) {
+            this.text = text;
+            this.startOfDay = startOfDay;
+            this.startOfNextDay = startOfNextDay;
+            this.locale = locale;
+            this.zoneId = zoneId;
+        }
+
+        boolean isValid(long now, Locale locale, String zoneId) {
+            return now >= startOfDay && now < startOfNextDay
+                    && this.locale.equals(locale) && this.zoneId.equals(zoneId);
+        }
+    }
+
+    /**
+     * Formatters and formatted epoch days of a thread.
+     */
+    private static final class Formatters {
+        private final HashMap<String, SimpleDateFormat> formats = new HashMap<>();
+        private final HashMap<String, DayCache> dayCaches = new HashMap<>();
+        private Locale locale;
+        private String zoneId;
+
+        SimpleDateFormat get(String pattern) {
+            checkDefaults();
+            SimpleDateFormat format = formats.get(pattern);
+            if (format == null) {
+                format = new SimpleDateFormat(pattern, locale);
+                formats.put(pattern, format);
+            }
+            return format;
+        }
+
+        String formatEpochDay(int epochDay, String pattern) {
+            // Formatted date of an epoch day does not depend on time zone
+            if (!Locale.getDefault().equals(locale)) checkDefaults();
+            DayCache cache = dayCaches.get(pattern);
+            if (cache == null) {
+                cache = new DayCache();
+                dayCaches.put(pattern, cache);
+            }
+            String text = cache.get(epochDay);
+            if (text == null) {
+                text = get(pattern).format(new Date(EpochDay.toMillis(epochDay)));
+                cache.put(epochDay, text);
+            }
+            return text;
+        }
+
+        // Drops formatters and formatted days when default locale or time zone is changed
+        private void checkDefaults() {
+            Locale defaultLocale = Locale.getDefault();
+            String defaultZoneId = TimeZone.getDefault().getID();
+            if (defaultLocale.equals(locale) && defaultZoneId.equals(zoneId)) return;
+            formats.clear();
+            dayCaches.clear();
+            locale = defaultLocale;
+            zoneId = defaultZoneId;
+        }
+    }
+
+    /**
+     * Direct mapped cache of formatted epoch days. Consecutive days never evict each other.
+     */
+    private static final class DayCache {
+        private final int[] days = new int[DAY_CACHE_SIZE];
+        private final String[] texts = new String[DAY_CACHE_SIZE];
+
+        DayCache() {
+            Arrays.fill(days, Integer.MIN_VALUE);
+        }
+
+        String get(int epochDay) {
+            int slot = epochDay & (DAY_CACHE_SIZE - 1);
+            return days[slot] == epochDay ? texts[slot] : null;
+        }
+
+        void put(int epochDay, String text) {
+            int slot = epochDay & (DAY_CACHE_SIZE - 1);
+            days[slot] = epochDay;
+            texts[slot] = text;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.cod3rboy.routinetask.utilities;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+/**
+ * Helper class to work with dates stored as epoch days. An epoch day is the number of days since
+ * 1970-01-01 of a local calendar date, so consecutive dates are consecutive integers and dates can
+ * be compared, sorted and iterated with plain integer arithmetic.
+ * All conversions are computed arithmetically. Methods which convert in default time zone look it
+ * up with TimeZone.getDefault(), which returns a new copy of the zone on every call, so loops over
+ * many instants should look up the zone once and pass it to the overloads which take a zone.
+ */
+public final class EpochDay {
+    // Date format of the string representation of epoch day
+    public static final String DATE_FORMAT = "yyyy-MM-dd";
+
+    private static final long MILLIS_IN_DAY = 24 * 60 * 60 * 1000L;
+    // Days in a 400 years cycle of gregorian calendar
+    private static final int DAYS_IN_ERA = 146097;
+    // Days from 0000-03-01 to 1970-01-01
+    private static final int DAYS_0000_TO_1970 = 719468;
+
+    // Do not allow instance creation
+    private EpochDay() {
+    }
+
+    /**
+     * @return epoch day of today in default time zone
+     */
+    public static int today() {
+        return fromMillis(System.currentTimeMillis());
+    }
+
+    /**
+     * Returns epoch day of the local date of an instant in default time zone.
+     *
+     * @param millis instant in milliseconds since epoch
+     * @return epoch day
+     */
+    public static int fromMillis(long millis) {
+        return fromMillis(millis, TimeZone.getDefault());
+    }
+
+    /**
+     * Returns epoch day of the local date of an instant in given time zone.
+     *
+     * @param millis   instant in milliseconds since epoch
+     * @param timeZone time zone of local date
+     * @return epoch day
+     */
+    public static int fromMillis(long millis, TimeZone timeZone) {
+        return (int) floorDiv(millis + timeZone.getOffset(millis), MILLIS_IN_DAY);
+    }
+
+    /**
+     * Returns the instant of start of day of an epoch day in default time zone.
+     *
+     * @param epochDay epoch day
+     * @return start of day in milliseconds since epoch
+     */
+    public static long toMillis(int epochDay) {
+        return toMillis(epochDay, TimeZone.getDefault());
+    }
+
+    /**
+     * Returns the instant of start of day of an epoch day in given time zone.
+     *
+     * @param epochDay epoch day
+     * @param timeZone time zone of local date
+     * @return start of day in milliseconds since epoch
+     */
+    public static long toMillis(int epochDay, TimeZone timeZone) {
+        long utcMillis = epochDay * MILLIS_IN_DAY;
+        // Offset at the local midnight may differ from the offset at utc midnight
+        long guess = utcMillis - timeZone.getOffset(utcMillis);
+        return utcMillis - timeZone.getOffset(guess);
+    }
+
+    /**
+     * Returns epoch day of a calendar date.
+     *
+     * @param year       year
+     * @param month      month of year from 1 (January) to 12 (December)
+     * @param dayOfMonth day of month from 1
+     * @return epoch day
+     */
+    public static int of(int year, int month, int dayOfMonth) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = floorDiv(y, 400);
+        int yearOfEra = y - era * 400;
+        // Months are counted from March so that leap day is the last day of year
+        int monthFromMarch = month > 2 ? month - 3 : month + 9;
+        int dayOfYear = (153 * monthFromMarch + 2) / 5 + dayOfMonth - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_IN_ERA + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * @param epochDay epoch day
+     * @return year of epoch day
+     */
+    public static int getYear(int epochDay) {
+        return toPackedDate(epochDay) / 10000;
+    }
+
+    /**
+     * @param epochDay epoch day
+     * @return month of epoch day from 1 (January) to 12 (December)
+     */
+    public static int getMonth(int epochDay) {
+        return toPackedDate(epochDay) / 100 % 100;
+    }
+
+    /**
+     * @param epochDay epoch day
+     * @return day of month of epoch day from 1
+     */
+    public static int getDayOfMonth(int epochDay) {
+        return toPackedDate(epochDay) % 100;
+    }
+
+    /**
+     * @param epochDay epoch day
+     * @return day of week of epoch day as one of Calendar.SUNDAY to Calendar.SATURDAY
+     */
+    public static int getDayOfWeek(int epochDay) {
+        // 1970-01-01 was Thursday
+        return floorMod(epochDay + Calendar.THURSDAY - Calendar.SUNDAY, 7) + Calendar.SUNDAY;
+    }
+
+    /**
+     * Formats epoch day as date string in yyyy-MM-dd format.
+     *
+     * @param epochDay epoch day
+     * @return date string
+     */
+    public static String format(int epochDay) {
+        int date = toPackedDate(epochDay);
+        char[] chars = new char[10];
+        int year = date / 10000;
+        chars[0] = (char) ('0' + year / 1000 % 10);
+        chars[1] = (char) ('0' + year / 100 % 10);
+        chars[2] = (char) ('0' + year / 10 % 10);
+        chars[3] = (char) ('0' + year % 10);
+        chars[4] = '-';
+        chars[5] = (char) ('0' + date / 1000 % 10);
+        chars[6] = (char) ('0' + date / 100 % 10);
+        chars[7] = '-';
+        chars[8] = (char) ('0' + date / 10 % 10);
+        chars[9] = (char) ('0' + date % 10);
+        return new String(chars);
+    }
+
+    /**
+     * Parses date string in yyyy-MM-dd format.
+     *
+     * @param date date string
+     * @return epoch day of date
+     * @throws IllegalArgumentException if date string is not a valid date in yyyy-MM-dd format
+     */
+    public static int parse(CharSequence date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-')
+            throw new IllegalArgumentException("Invalid date " + date);
+        int year = parseDigits(date, 0, 4);
+        int month = parseDigits(date, 5, 7);
+        int dayOfMonth = parseDigits(date, 8, 10);
+        if (month < 1 || month > 12 || dayOfMonth < 1 || dayOfMonth > getMonthLength(year, month))
+            throw new IllegalArgumentException("Invalid date " + date);
+        return of(year, month, dayOfMonth);
+    }
+
+    private static int parseDigits(CharSequence text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') throw new IllegalArgumentException("Invalid date " + text);
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int getMonthLength(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Converts epoch day to calendar date packed in an integer as yyyyMMdd.
+     */
+    private static int toPackedDate(int epochDay) {
+        int days = epochDay + DAYS_0000_TO_1970;
+        int era = floorDiv(days, DAYS_IN_ERA);
+        int dayOfEra = days - era * DAYS_IN_ERA;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int monthFromMarch = (5 * dayOfYear + 2) / 153;
+        int dayOfMonth = dayOfYear - (153 * monthFromMarch + 2) / 5 + 1;
+        int month = monthFromMarch < 10 ? monthFromMarch + 3 : monthFromMarch - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + dayOfMonth;
+    }
+
+    // Math.floorDiv and Math.floorMod are not available below API level 24
+    private static int floorDiv(int x, int y) {
+        int q = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) q--;
+        return q;
+    }
+
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) q--;
+        return q;
+    }
+
+    private static int floorMod(int x, int y) {
+        return x - floorDiv(x, y) * y;
+    }
+}
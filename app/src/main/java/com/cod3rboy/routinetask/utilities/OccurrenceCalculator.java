@@ -0,0 +1,127 @@
+package com.cod3rboy.routinetask.utilities;
+
+import java.util.TimeZone;
+
+/**
+ * Computes occurrences of a time of day repeated on the days of a {@link WeekdayMask} in a time
+ * zone. Occurrences are computed arithmetically on epoch days and zone offsets, so they take
+ * constant time and do not allocate objects.
+ * Daylight saving transitions are resolved explicitly. A time of day which is skipped by a gap
+ * occurs after the gap shifted forward by length of the gap (02:30 in a gap from 02:00 to 03:00
+ * occurs at 03:30), and a time of day which is repeated by an overlap occurs only at its earlier
+ * instant. Zone is assumed to change its offset at most once within 14 hours, which holds for all
+ * real time zones.
+ */
+public final class OccurrenceCalculator {
+    /**
+     * Number of minutes in a day. Minute of day ranges from 0 to this value minus one.
+     */
+    public static final int MINUTES_IN_DAY = 24 * 60;
+
+    private static final long MILLIS_IN_MINUTE = 60 * 1000L;
+    private static final long MILLIS_IN_DAY = MINUTES_IN_DAY * MILLIS_IN_MINUTE;
+    // Longer than any zone offset so that offsets on both sides of a transition are sampled
+    private static final long OFFSET_PROBE_MILLIS = 14 * 60 * MILLIS_IN_MINUTE;
+
+    // Do not allow instance creation
+    private OccurrenceCalculator() {
+    }
+
+    /**
+     * Returns first occurrence of a time of day on a day of weekday mask which is after given time.
+     *
+     * @param repeatMask  weekday mask of days on which time of day occurs
+     * @param minuteOfDay time of day as minutes since start of day
+     * @param now         time in milliseconds after which occurrence is returned
+     * @param zone        time zone of days and time of day
+     * @return occurrence in milliseconds or -1 if mask contains no day
+     */
+    public static long nextOccurrence(int repeatMask, int minuteOfDay, long now, TimeZone zone) {
+        checkMinuteOfDay(minuteOfDay);
+        if ((repeatMask & WeekdayMask.ALL) == WeekdayMask.NONE) return -1;
+        int day = localDay(now, zone);
+        int dayOfWeek = EpochDay.getDayOfWeek(day);
+        if (WeekdayMask.contains(repeatMask, dayOfWeek)) {
+            long occurrence = toInstant(day, minuteOfDay, zone);
+            if (occurrence > now) return occurrence;
+        }
+        // Occurrence on the next day of mask is after now unless an offset transition around
+        // midnight moves it back, in which case the following day of mask is taken
+        while (true) {
+            int days = WeekdayMask.daysUntilNext(repeatMask, dayOfWeek);
+            day += days;
+            dayOfWeek = EpochDay.getDayOfWeek(day);
+            long occurrence = toInstant(day, minuteOfDay, zone);
+            if (occurrence > now) return occurrence;
+        }
+    }
+
+    /**
+     * Returns occurrence of a time of day on the local date of given time.
+     *
+     * @param time        time in milliseconds
+     * @param minuteOfDay time of day as minutes since start of day
+     * @param zone        time zone of date and time of day
+     * @return occurrence in milliseconds which may be before given time
+     */
+    public static long occurrenceOnDay(long time, int minuteOfDay, TimeZone zone) {
+        checkMinuteOfDay(minuteOfDay);
+        return toInstant(localDay(time, zone), minuteOfDay, zone);
+    }
+
+    /**
+     * @param time time in milliseconds
+     * @param zone time zone of date
+     * @return start of day after the local date of given time in milliseconds
+     */
+    public static long startOfNextDay(long time, TimeZone zone) {
+        return toInstant(localDay(time, zone) + 1, 0, zone);
+    }
+
+    /**
+     * @param time time in milliseconds
+     * @param zone time zone of date
+     * @return epoch day of the local date of given time
+     */
+    public static int localDay(long time, TimeZone zone) {
+        return (int) floorDiv(time + zone.getOffset(time), MILLIS_IN_DAY);
+    }
+
+    /**
+     * Converts a local date and time of day to an instant resolving daylight saving gaps and
+     * overlaps as described in class documentation.
+     *
+     * @param epochDay    epoch day of local date
+     * @param minuteOfDay time of day as minutes since start of day
+     * @param zone        time zone of date and time of day
+     * @return instant in milliseconds
+     */
+    public static long toInstant(int epochDay, int minuteOfDay, TimeZone zone) {
+        long local = epochDay * MILLIS_IN_DAY + minuteOfDay * MILLIS_IN_MINUTE;
+        int offsetBefore = zone.getOffset(local - OFFSET_PROBE_MILLIS);
+        int offsetAfter = zone.getOffset(local + OFFSET_PROBE_MILLIS);
+        if (offsetBefore == offsetAfter) return local - offsetBefore;
+        // Local time is near a transition and is valid with offset of either side, both (overlap)
+        // or none (gap)
+        long instantBefore = local - offsetBefore;
+        long instantAfter = local - offsetAfter;
+        boolean validBefore = zone.getOffset(instantBefore) == offsetBefore;
+        boolean validAfter = zone.getOffset(instantAfter) == offsetAfter;
+        if (validBefore && validAfter) return Math.min(instantBefore, instantAfter);
+        if (validAfter) return instantAfter;
+        // Either valid only before transition or in gap, where offset before transition maps local
+        // time past the gap shifted forward by length of the gap
+        return instantBefore;
+    }
+
+    private static void checkMinuteOfDay(int minuteOfDay) {
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_IN_DAY)
+            throw new IllegalArgumentException("Minute of day " + minuteOfDay + " is out of range");
+    }
+
+    private static long floorDiv(long x, long y) {
+        long q = x / y;
+        if ((x % y != 0) && ((x ^ y) < 0)) q--;
+        return q;
+    }
+}
@@ -0,0 +1,56 @@
+package com.cod3rboy.routinetask.utilities;
+
+import android.content.Context;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helper class to identify the process in which code runs. Components such as
+ * {@link com.cod3rboy.routinetask.receivers.TaskBroadcastReceiver} run in a separate process which
+ * creates its own application instance.
+ */
+public final class Processes {
+    // Name of current process, read once
+    private static volatile String sProcessName = null;
+
+    // Do not allow instance creation
+    private Processes() {
+    }
+
+    /**
+     * Returns name of current process. Application.getProcessName() is not available below API
+     * level 28, so it is read from /proc.
+     *
+     * @return process name, or empty string if it cannot be read
+     */
+    public static String getProcessName() {
+        String name = sProcessName;
+        if (name != null) return name;
+        byte[] bytes = new byte[256];
+        int length = 0;
+        try (FileInputStream in = new FileInputStream("/proc/self/cmdline")) {
+            int read;
+            while (length < bytes.length && (read = in.read(bytes, length, bytes.length - length)) > 0)
+                length += read;
+        } catch (IOException e) {
+            return "";
+        }
+        name = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        int end = name.indexOf('\0');
+        if (end >= 0) name = name.substring(0, end);
+        sProcessName = name;
+        return name;
+    }
+
+    /**
+     * @param context Context object to access package name
+     * @return whether current process is the default process of application. It is assumed to be
+     * if name of process cannot be read.
+     */
+    public static boolean isMainProcess(Context context) {
+        String name = getProcessName();
+        return name.isEmpty() || context.getPackageName().equals(name);
+    }
+}
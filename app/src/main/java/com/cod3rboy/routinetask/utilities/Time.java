@@ -1,36 +1,86 @@
 package com.cod3rboy.routinetask.utilities;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
-import java.util.Date;
+import java.util.Locale;
 import java.util.Random;
 
-public class Time {
+/**
+ * Immutable time of day with minute precision. There are only 1440 distinct times in a day so
+ * every time is a canonical instance from a table created once and instances can be compared
+ * by reference. Times are parsed without creating objects and their display strings are created
+ * once on first use and reused.
+ */
+public final class Time {
     // Date Time format used in old database
     public static final String iso8601DateTimeFormat = "yyyy-MM-dd HH:mm:ss";
     // 24-Hour Time format used in new database
     public static final String TIME_FORMAT_24_HOUR = "HH:mm";
     // 12-Hour Time format
     public static final String TIME_FORMAT_12_HOUR = "hh:mm aa";
-    private int hours;
-    private int minutes;
 
+    public static final int MINUTES_IN_DAY = 24 * 60;
+
+    // Index of time part in ISO 8601 date time string yyyy-MM-dd HH:mm:ss
+    private static final int ISO8601_TIME_INDEX = 11;
+
+    private static final Time[] TIMES = new Time[MINUTES_IN_DAY];
+
+    static {
+        for (int minuteOfDay = 0; minuteOfDay < MINUTES_IN_DAY; minuteOfDay++)
+            TIMES[minuteOfDay] = new Time(minuteOfDay);
+    }
+
+    // 12-Hour time strings of default locale
+    private static volatile Texts12Hour sTexts12Hour = null;
+
+    private final int minuteOfDay;
+    // 24-Hour time string created on first use. It is immutable so it can be published without lock.
+    private String text24Hour;
+
+    /**
+     * Returns Time from hours and minutes in 24-Hour format.
+     *
+     * @param hours   Hour of Day from 0 to 23
+     * @param minutes Minute in Hour from 0 to 59
+     * @return time
+     * @throws IllegalArgumentException if hours or minutes are out of range
+     */
+    public static Time of(int hours, int minutes) {
+        if (hours < 0 || hours > 23 || minutes < 0 || minutes > 59)
+            throw new IllegalArgumentException("Invalid time " + hours + ":" + minutes);
+        return TIMES[hours * 60 + minutes];
+    }
+
+    /**
+     * @param minuteOfDay minutes since midnight from 0 to 1439
+     * @return time
+     * @throws IllegalArgumentException if minuteOfDay is out of range
+     */
+    public static Time ofMinuteOfDay(int minuteOfDay) {
+        if (minuteOfDay < 0 || minuteOfDay >= MINUTES_IN_DAY)
+            throw new IllegalArgumentException("Invalid minute of day " + minuteOfDay);
+        return TIMES[minuteOfDay];
+    }
 
     /***
      * Create Time Object from time string in 24-Hour format.
      * @param timeText time string in format HH:mm.
      * @return Time object representing given time or Mid Night time if given time string is invalid.
      */
-    public static Time from24TimeFormat(String timeText) {
-        try {
-            Date date = new SimpleDateFormat(TIME_FORMAT_24_HOUR).parse(timeText);
-            Calendar calendar = Calendar.getInstance();
-            calendar.setTime(date);
-            return new Time(calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE));
-        } catch (ParseException ex) {
-            return new Time(0, 0); // Return Mid Night Time
-        }
+    public static Time from24TimeFormat(CharSequence timeText) {
+        if (timeText == null) return TIMES[0];
+        return TIMES[parseMinuteOfDay(timeText, null, 0, timeText.length())];
+    }
+
+    /***
+     * Create Time Object from characters of time string in 24-Hour format.
+     * @param chars characters containing time string in format HH:mm.
+     * @param start index of first character of time string
+     * @param end   index after last character of time string
+     * @return Time object representing given time or Mid Night time if given time string is invalid.
+     */
+    public static Time from24TimeFormat(char[] chars, int start, int end) {
+        return TIMES[parseMinuteOfDay(null, chars, start, end)];
     }
 
     /***
@@ -39,38 +89,62 @@ public class Time {
      * @return Time object representing time in given datetime string or Mid Night time if given datetime string is invalid.
      */
     public static Time fromISO8601DateFormat(String dateTimeText) {
-        try {
-            Date date = new SimpleDateFormat(iso8601DateTimeFormat).parse(dateTimeText);
-            Calendar calendar = Calendar.getInstance();
-            calendar.setTime(date);
-            return new Time(calendar.get(Calendar.HOUR_OF_DAY), calendar.get(Calendar.MINUTE));
-        } catch (ParseException ex) {
-            return new Time(0, 0); // Return Mid Night Time
-        }
+        if (dateTimeText == null || dateTimeText.length() <= ISO8601_TIME_INDEX
+                || dateTimeText.charAt(ISO8601_TIME_INDEX - 1) != ' ')
+            return TIMES[0];
+        return TIMES[parseMinuteOfDay(dateTimeText, null, ISO8601_TIME_INDEX, dateTimeText.length())];
     }
 
     public static Time getRandomTime() {
         Random rand = new Random(System.currentTimeMillis());
-        return new Time(rand.nextInt(24), rand.nextInt(60));
+        return TIMES[rand.nextInt(MINUTES_IN_DAY)];
     }
 
     /**
-     * Creates Time object from hours and minutes in 24-Hour format.
+     * Parses H:m time at start of text or chars, one of which is null. Text after minutes is
+     * ignored.
      *
-     * @param hours   Hour of Day
-     * @param minutes Minute in Hour
+     * @return minute of day or 0 (Mid Night) if time is invalid
      */
-    public Time(int hours, int minutes) {
-        this.hours = hours;
-        this.minutes = minutes;
+    private static int parseMinuteOfDay(CharSequence text, char[] chars, int start, int end) {
+        int hours = 0;
+        int minutes = 0;
+        int digits = 0;
+        boolean minutesPart = false;
+        for (int i = start; i < end; i++) {
+            char c = text != null ? text.charAt(i) : chars[i];
+            if (c >= '0' && c <= '9' && digits < 2) {
+                if (minutesPart) minutes = minutes * 10 + (c - '0');
+                else hours = hours * 10 + (c - '0');
+                digits++;
+            } else if (c == ':' && !minutesPart && digits > 0) {
+                minutesPart = true;
+                digits = 0;
+            } else {
+                break;
+            }
+        }
+        if (!minutesPart || digits == 0 || hours > 23 || minutes > 59) return 0;
+        return hours * 60 + minutes;
+    }
+
+    private Time(int minuteOfDay) {
+        this.minuteOfDay = minuteOfDay;
     }
 
     public int getHours() {
-        return hours;
+        return minuteOfDay / 60;
     }
 
     public int getMinutes() {
-        return minutes;
+        return minuteOfDay % 60;
+    }
+
+    /**
+     * @return minutes since midnight from 0 to 1439
+     */
+    public int getMinuteOfDay() {
+        return minuteOfDay;
     }
 
     /***
@@ -78,11 +152,17 @@ public class Time {
      * @return 24-Hour time string
      */
     public String to24TimeFormat() {
-        SimpleDateFormat format24Time = new SimpleDateFormat(TIME_FORMAT_24_HOUR);
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, getHours());
-        calendar.set(Calendar.MINUTE, getMinutes());
-        return format24Time.format(calendar.getTime());
+        String text = text24Hour;
+        if (text == null) {
+            int hours = getHours();
+            int minutes = getMinutes();
+            text = new String(new char[]{
+                    (char) ('0' + hours / 10), (char) ('0' + hours % 10), ':',
+                    (char) ('0' + minutes / 10), (char) ('0' + minutes % 10)
+            });
+            text24Hour = text;
+        }
+        return text;
     }
 
     /***
@@ -90,10 +170,38 @@ public class Time {
      * @return 12-Hour time string
      */
     public String to12TimeFormat() {
-        SimpleDateFormat format12Time = new SimpleDateFormat(TIME_FORMAT_12_HOUR);
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.HOUR_OF_DAY, getHours());
-        calendar.set(Calendar.MINUTE, getMinutes());
-        return format12Time.format(calendar.getTime()).toLowerCase();
+        Texts12Hour texts = sTexts12Hour;
+        Locale locale = Locale.getDefault();
+        if (texts == null || !texts.locale.equals(locale)) {
+            texts = new Texts12Hour(locale);
+            sTexts12Hour = texts;
+        }
+        String text = texts.texts[minuteOfDay];
+        if (text == null) {
+            // Am/Pm markers and digits depend on locale so it is formatted once per locale
+            Calendar calendar = Calendar.getInstance();
+            calendar.set(Calendar.HOUR_OF_DAY, getHours());
+            calendar.set(Calendar.MINUTE, getMinutes());
+            text = DateFormats.format(calendar.getTime(), TIME_FORMAT_12_HOUR).toLowerCase(locale);
+            texts.texts[minuteOfDay] = text;
+        }
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return to24TimeFormat();
+    }
+
+    /**
+     * 12-Hour time strings of all times in a locale which are created on first use.
+     */
+    private static final class Texts12Hour {
+        final Locale locale;
+        final String[] texts = new String[MINUTES_IN_DAY];
+
+        Texts12Hour(Locale locale) {
+            this.locale = locale;
+        }
     }
 }
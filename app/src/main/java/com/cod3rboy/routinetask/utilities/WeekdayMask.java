@@ -0,0 +1,78 @@
+package com.cod3rboy.routinetask.utilities;
+
+import java.util.Calendar;
+
+/**
+ * Helper class to work with days of week encoded as bits of an integer mask. Bit 0 represents
+ * Sunday and bit 6 represents Saturday so bit of a day is 1 shifted left by its Calendar day of week
+ * number minus one. Mask of zero means no day of week.
+ */
+public final class WeekdayMask {
+    /**
+     * Mask containing no day of week.
+     */
+    public static final int NONE = 0;
+    /**
+     * Mask containing all days of week.
+     */
+    public static final int ALL = 0x7F;
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    // Do not allow instance creation
+    private WeekdayMask() {
+    }
+
+    /**
+     * @param day day of week as one of Calendar.SUNDAY to Calendar.SATURDAY
+     * @return mask containing only given day
+     */
+    public static int of(int day) {
+        if (day < Calendar.SUNDAY || day > Calendar.SATURDAY) return NONE;
+        return 1 << (day - Calendar.SUNDAY);
+    }
+
+    /**
+     * @param mask weekday mask
+     * @param day  day of week as one of Calendar.SUNDAY to Calendar.SATURDAY
+     * @return true if mask contains given day
+     */
+    public static boolean contains(int mask, int day) {
+        return (mask & of(day)) != 0;
+    }
+
+    /**
+     * @param mask weekday mask
+     * @param day  day of week as one of Calendar.SUNDAY to Calendar.SATURDAY
+     * @param set  true to add day to mask and false to remove it
+     * @return new mask
+     */
+    public static int with(int mask, int day, boolean set) {
+        return set ? mask | of(day) : mask & ~of(day);
+    }
+
+    /**
+     * @param mask weekday mask
+     * @return number of days in mask
+     */
+    public static int count(int mask) {
+        return Integer.bitCount(mask & ALL);
+    }
+
+    /**
+     * Returns number of days from given day to the next day contained in mask. Given day itself is
+     * not considered so a mask containing only the given day returns a full week.
+     *
+     * @param mask weekday mask
+     * @param day  day of week as one of Calendar.SUNDAY to Calendar.SATURDAY
+     * @return number of days from 1 to 7 or -1 if mask contains no day
+     */
+    public static int daysUntilNext(int mask, int day) {
+        mask &= ALL;
+        if (mask == NONE) return -1;
+        int shift = day - Calendar.SUNDAY + 1;
+        // Rotate mask right so that bit 0 represents the day after given day
+        int rotated = ((mask >>> shift) | (mask << (DAYS_IN_WEEK - shift))) & ALL;
+        return Integer.numberOfTrailingZeros(rotated) + 1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.cod3rboy.routinetask;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Elapsed time and bytes allocated by current thread, if JVM reports them, between creation and
+ * {@link #stop()}. It is shared by microbenchmarks, which are ignored in the default unit test run
+ * and are run manually.
+ */
+public final class Measurement {
+    private final long startNanos = System.nanoTime();
+    private final long startBytes = allocatedBytes();
+    private long nanos;
+    private long bytes;
+
+    /**
+     * Ends the measurement.
+     */
+    public void stop() {
+        nanos = System.nanoTime() - startNanos;
+        bytes = allocatedBytes() - startBytes;
+    }
+
+    /**
+     * @param operations number of operations measured
+     * @return elapsed nanoseconds per operation
+     */
+    public double nanosPer(double operations) {
+        return nanos / operations;
+    }
+
+    /**
+     * @param operations number of operations measured
+     * @return allocated bytes per operation, 0 if JVM does not report allocations
+     */
+    public double bytesPer(double operations) {
+        return bytes / operations;
+    }
+
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported())
+                return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,161 @@
+package com.cod3rboy.routinetask.database.models;
+
+import com.cod3rboy.routinetask.utilities.Time;
+import com.cod3rboy.routinetask.utilities.WeekdayMask;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class TaskCodecTest {
+    private static final long LAST_MODIFIED = 1600000000000L;
+
+    @Test
+    public void roundTrip_taskWithReminder() {
+        TaskModel task = makeTask(1000, "Morning run", "Run 5 km in the park", 0xFF355823, 0x3E, TaskModel.TaskStatus.COMPLETED);
+        task.setReminder(ReminderModel.restore(77, 1000, Time.of(6, 45), 30, LAST_MODIFIED, true));
+        assertTaskEquals(task, TaskCodec.decode(TaskCodec.encode(task)));
+    }
+
+    @Test
+    public void roundTrip_taskWithoutReminder() {
+        TaskModel task = makeTask(1, "Read", "", 0xFF202124, WeekdayMask.NONE, TaskModel.TaskStatus.INCOMPLETE);
+        assertTaskEquals(task, TaskCodec.decode(TaskCodec.encode(task)));
+    }
+
+    @Test
+    public void roundTrip_unsavedTaskWithDetachedReminder() {
+        TaskModel task = makeTask(-1, "Draft", null, 0xFF3C3F43, WeekdayMask.ALL, TaskModel.TaskStatus.UNKNOWN);
+        task.setReminder(ReminderModel.restore(-1, -1, Time.of(23, 59), 0, 0, false));
+        TaskModel decoded = TaskCodec.decode(TaskCodec.encode(task));
+        assertTaskEquals(task, decoded);
+        assertNull(decoded.getDescription());
+    }
+
+    @Test
+    public void roundTrip_reminderWithOtherTaskIdAndCustomColor() {
+        TaskModel task = makeTask(Long.MAX_VALUE - 1, "\u00dcn\u00efc\u00f6d\u00e9 \u2713 \u65e5\u672c\u8a9e", "emoji \ud83d\ude00", 0x12345678, 0x41, TaskModel.TaskStatus.COMPLETED);
+        task.setReminder(ReminderModel.restore(5, 9, Time.of(0, 0), Long.MAX_VALUE, Long.MAX_VALUE, true));
+        assertTaskEquals(task, TaskCodec.decode(TaskCodec.encode(task)));
+    }
+
+    @Test
+    public void roundTrip_allStatusesAndMasks() {
+        for (TaskModel.TaskStatus status : TaskModel.TaskStatus.values()) {
+            for (int mask = WeekdayMask.NONE; mask <= WeekdayMask.ALL; mask++) {
+                TaskModel task = makeTask(mask, "t", "d", 0xFF1F3B5E, mask, status);
+                assertTaskEquals(task, TaskCodec.decode(TaskCodec.encode(task)));
+            }
+        }
+    }
+
+    @Test
+    public void roundTrip_listOfTasks() {
+        ArrayList<TaskModel> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            TaskModel task = makeTask(i + 1, "Task " + i, "Description " + i, 0xFF5A2345, i & WeekdayMask.ALL, TaskModel.TaskStatus.INCOMPLETE);
+            if (i % 3 == 0) task.setReminder(ReminderModel.restore(i + 1, i + 1, Time.of(i % 24, i % 60), i, LAST_MODIFIED + i, true));
+            tasks.add(task);
+        }
+        ArrayList<TaskModel> decoded = TaskCodec.decodeAll(ByteBuffer.wrap(TaskCodec.encodeAll(tasks)));
+        assertEquals(tasks.size(), decoded.size());
+        for (int i = 0; i < tasks.size(); i++) assertTaskEquals(tasks.get(i), decoded.get(i));
+    }
+
+    @Test
+    public void decode_readsFromPositionOfSlicedAndDirectBuffers() {
+        TaskModel first = makeTask(10, "First", "One", 0xFF604A1D, 0x01, TaskModel.TaskStatus.INCOMPLETE);
+        TaskModel second = makeTask(20, "Second", "Two", 0xFF635C1F, 0x02, TaskModel.TaskStatus.COMPLETED);
+        byte[] firstBytes = TaskCodec.encode(first);
+        byte[] secondBytes = TaskCodec.encode(second);
+        // Tasks written back to back after a header in a larger array
+        byte[] data = new byte[3 + firstBytes.length + secondBytes.length];
+        System.arraycopy(firstBytes, 0, data, 3, firstBytes.length);
+        System.arraycopy(secondBytes, 0, data, 3 + firstBytes.length, secondBytes.length);
+
+        ByteBuffer heap = ByteBuffer.wrap(data, 3, data.length - 3).slice();
+        assertTaskEquals(first, TaskCodec.decode(heap));
+        assertEquals(firstBytes.length, heap.position());
+        assertTaskEquals(second, TaskCodec.decode(heap));
+        assertEquals(0, heap.remaining());
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).position(3);
+        assertTaskEquals(first, TaskCodec.decode(direct));
+        assertTaskEquals(second, TaskCodec.decode(direct));
+    }
+
+    @Test
+    public void encode_typicalTaskIsCompact() {
+        TaskModel task = makeTask(1000, "Go jogging", "Jog around the lake before breakfast time", 0xFF19504B, 0x3E, TaskModel.TaskStatus.INCOMPLETE);
+        task.setReminder(ReminderModel.restore(1000, 1000, Time.of(9, 30), 30, LAST_MODIFIED, true));
+        // version 1 + id 2 + flags 1 + mask 1 + color 1 + title 1 + 10 + description 1 + 41
+        // + reminder id 2 + minute 2 + duration 1 + last modified 6
+        assertEquals(70, TaskCodec.encode(task).length);
+    }
+
+    @Test
+    public void encode_customColorTakesFourBytes() {
+        TaskModel interned = makeTask(1, "a", "b", 0xFF202124, 0, TaskModel.TaskStatus.UNKNOWN);
+        TaskModel custom = makeTask(1, "a", "b", 0xFF000001, 0, TaskModel.TaskStatus.UNKNOWN);
+        assertEquals(TaskCodec.encode(interned).length + 3, TaskCodec.encode(custom).length);
+    }
+
+    @Test
+    public void encodeAll_emptyListTakesTwoBytes() {
+        byte[] data = TaskCodec.encodeAll(new ArrayList<>());
+        assertEquals(2, data.length);
+        assertEquals(0, TaskCodec.decodeAll(ByteBuffer.wrap(data)).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_rejectsUnknownVersion() {
+        byte[] data = TaskCodec.encode(makeTask(1, "a", "b", 0xFF202124, 0, TaskModel.TaskStatus.UNKNOWN));
+        data[0] = (byte) (TaskCodec.VERSION + 1);
+        TaskCodec.decode(data);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_rejectsTruncatedData() {
+        TaskModel task = makeTask(1, "title", "description", 0xFF202124, 0, TaskModel.TaskStatus.UNKNOWN);
+        task.setReminder(ReminderModel.restore(1, 1, Time.of(1, 1), 1, LAST_MODIFIED, true));
+        byte[] data = TaskCodec.encode(task);
+        TaskCodec.decode(Arrays.copyOf(data, data.length - 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeAll_rejectsCountLargerThanData() {
+        TaskCodec.decodeAll(ByteBuffer.wrap(new byte[]{TaskCodec.VERSION, 100, 0}));
+    }
+
+    private static TaskModel makeTask(long id, String title, String description, int color, int mask, TaskModel.TaskStatus status) {
+        return TaskModel.restore(id, title, description, color, mask, status, null);
+    }
+
+    private static void assertTaskEquals(TaskModel expected, TaskModel actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getTitle(), actual.getTitle());
+        assertEquals(expected.getDescription(), actual.getDescription());
+        assertEquals(expected.getColor(), actual.getColor());
+        assertEquals(expected.getRepeatMask(), actual.getRepeatMask());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        ReminderModel expectedReminder = expected.getReminder();
+        ReminderModel actualReminder = actual.getReminder();
+        if (expectedReminder == null) {
+            assertNull(actualReminder);
+            return;
+        }
+        assertEquals(expectedReminder.getId(), actualReminder.getId());
+        assertEquals(expectedReminder.getTaskId(), actualReminder.getTaskId());
+        assertEquals(expectedReminder.getStartTime().getHours(), actualReminder.getStartTime().getHours());
+        assertEquals(expectedReminder.getStartTime().getMinutes(), actualReminder.getStartTime().getMinutes());
+        assertEquals(expectedReminder.getDurationInMinutes(), actualReminder.getDurationInMinutes());
+        assertEquals(expectedReminder.getLastModified(), actualReminder.getLastModified());
+        assertEquals(expectedReminder.isAttached(), actualReminder.isAttached());
+    }
+}
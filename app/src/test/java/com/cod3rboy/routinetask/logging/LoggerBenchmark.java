@@ -0,0 +1,74 @@
+package com.cod3rboy.routinetask.logging;
+
+import com.cod3rboy.routinetask.Measurement;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Locale;
+
+/**
+ * Microbenchmark of log calls on a timer tick path with logging disabled as in release builds. It
+ * reports time and allocated bytes per call against formatting the message before the call, which
+ * was done before, and does not assert on them.
+ */
+@Ignore("Benchmark, run manually")
+public class LoggerBenchmark {
+    private static final String LOG_TAG = LoggerBenchmark.class.getSimpleName();
+    private static final String FORMAT = "Task Timer - Milliseconds Passed : %d \t Milliseconds Left : %d";
+    private static final int WARMUP_CALLS = 200000;
+    private static final int MEASURED_CALLS = 1000000;
+
+    private boolean wasEnabled;
+
+    @Before
+    public void disableLogging() {
+        wasEnabled = Logger.isDebugMode();
+        Logger.setEnabled(false);
+    }
+
+    @After
+    public void restoreLogging() {
+        Logger.setEnabled(wasEnabled);
+    }
+
+    @Test
+    public void benchmarkTimerTick() {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            sink += eagerTick(i);
+            sink += deferredTick(i);
+            sink += supplierTick(i);
+        }
+        Measurement eager = new Measurement();
+        for (int i = 0; i < MEASURED_CALLS; i++) sink += eagerTick(i);
+        eager.stop();
+        Measurement deferred = new Measurement();
+        for (int i = 0; i < MEASURED_CALLS; i++) sink += deferredTick(i);
+        deferred.stop();
+        Measurement supplied = new Measurement();
+        for (int i = 0; i < MEASURED_CALLS; i++) sink += supplierTick(i);
+        supplied.stop();
+        System.out.println(String.format(Locale.US,
+                "Disabled log call: formatted before call %.1f ns/op %.0f B/op, parameterized %.1f ns/op %.0f B/op, supplier %.1f ns/op %.0f B/op (%d)",
+                eager.nanosPer(MEASURED_CALLS), eager.bytesPer(MEASURED_CALLS), deferred.nanosPer(MEASURED_CALLS),
+                deferred.bytesPer(MEASURED_CALLS), supplied.nanosPer(MEASURED_CALLS), supplied.bytesPer(MEASURED_CALLS), sink & 1));
+    }
+
+    private static long eagerTick(long millisLeft) {
+        Logger.d(LOG_TAG, String.format(FORMAT, MEASURED_CALLS - millisLeft, millisLeft));
+        return millisLeft;
+    }
+
+    private static long deferredTick(long millisLeft) {
+        Logger.d(LOG_TAG, FORMAT, MEASURED_CALLS - millisLeft, millisLeft);
+        return millisLeft;
+    }
+
+    private static long supplierTick(long millisLeft) {
+        Logger.d(LOG_TAG, () -> String.format(FORMAT, MEASURED_CALLS - millisLeft, millisLeft));
+        return millisLeft;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cod3rboy.routinetask.logging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LoggerTest {
+    private static final String LOG_TAG = LoggerTest.class.getSimpleName();
+
+    private boolean wasEnabled;
+
+    @Before
+    public void disableLogging() {
+        wasEnabled = Logger.isDebugMode();
+        Logger.setEnabled(false);
+    }
+
+    @After
+    public void restoreLogging() {
+        Logger.setEnabled(wasEnabled);
+    }
+
+    @Test
+    public void disabledLoggerDoesNotFormat() {
+        CountingArgument argument = new CountingArgument();
+        CountingSupplier supplier = new CountingSupplier();
+        for (int i = 0; i < 1000; i++) {
+            Logger.d(LOG_TAG, "%s", argument);
+            Logger.d(LOG_TAG, "%s %s", argument, argument);
+            Logger.d(LOG_TAG, "%s %s %s", argument, argument, argument);
+            Logger.e(LOG_TAG, "%s", argument);
+            Logger.w(LOG_TAG, "%s %s", argument, argument);
+            Logger.d(LOG_TAG, supplier);
+            Logger.e(LOG_TAG, supplier);
+            Logger.w(LOG_TAG, supplier);
+        }
+        assertEquals(0, argument.count);
+        assertEquals(0, supplier.count);
+    }
+
+    private static class CountingArgument {
+        int count;
+
+        @Override
+        public String toString() {
+            count++;
+            return "argument";
+        }
+    }
+
+    private static class CountingSupplier implements MessageSupplier {
+        int count;
+
+        @Override
+        public String get() {
+            count++;
+            return "message";
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.cod3rboy.routinetask.logging;
+
+import com.cod3rboy.routinetask.Measurement;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Microbenchmark of writing records to a ring file as done for warnings and events in release
+ * builds. It reports time and allocated bytes per record and does not assert on them.
+ */
+@Ignore("Benchmark, run manually")
+public class RingFileBenchmark {
+    private static final int CAPACITY = 256 * 1024;
+    private static final int WARMUP_RECORDS = 200000;
+    private static final int MEASURED_RECORDS = 1000000;
+
+    @Test
+    public void benchmarkRecords() throws IOException {
+        File file = File.createTempFile("ring", ".ring");
+        try {
+            RingFile ring = RingFile.open(file, CAPACITY);
+            for (int i = 0; i < WARMUP_RECORDS; i++) {
+                ring.log(5, "DatabaseWriteLock", "Waited %d ms for database write lock", 1, i, 0);
+                ring.event(2, i, i);
+            }
+            Measurement log = new Measurement();
+            for (int i = 0; i < MEASURED_RECORDS; i++)
+                ring.log(5, "DatabaseWriteLock", "Waited %d ms for database write lock", 1, i, 0);
+            log.stop();
+            Measurement event = new Measurement();
+            for (int i = 0; i < MEASURED_RECORDS; i++) ring.event(2, i, i);
+            event.stop();
+            System.out.println(String.format(Locale.US,
+                    "Ring records: log %.1f ns %.1f B, event %.1f ns %.1f B per record",
+                    log.nanosPer(MEASURED_RECORDS), log.bytesPer(MEASURED_RECORDS),
+                    event.nanosPer(MEASURED_RECORDS), event.bytesPer(MEASURED_RECORDS)));
+        } finally {
+            file.delete();
+        }
+    }
+}
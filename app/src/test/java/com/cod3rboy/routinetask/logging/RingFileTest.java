@@ -0,0 +1,173 @@
+package com.cod3rboy.routinetask.logging;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RingFileTest {
+    private static final int WARN = 5;
+    private static final int CAPACITY = RingFile.MIN_CAPACITY;
+    private static final String[] EVENT_FORMATS = {null, "FIRED task=%d late_ms=%d"};
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("ring", ".ring");
+    }
+
+    @After
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Test
+    public void recordsAreReadBack() throws IOException {
+        RingFile ring = RingFile.open(file, CAPACITY);
+        ring.log(WARN, "Tag", "Plain \u00e9\u20ac\ud83d\ude00", 0, 0, 0);
+        ring.log(WARN, "Tag", "Waited %d ms", 1, 250, 0);
+        ring.event(1, 42, -7);
+
+        List<RingFile.Record> records = RingFile.read(file);
+        assertEquals(3, records.size());
+        RingFile.Record log = records.get(0);
+        assertEquals(RingFile.TYPE_LOG, log.type);
+        assertEquals(WARN, log.priority);
+        assertEquals("Tag", log.tag);
+        assertEquals("Plain \u00e9\u20ac\ud83d\ude00", log.message);
+        assertEquals(0, log.args.length);
+        assertEquals(250, records.get(1).args[0]);
+        RingFile.Record event = records.get(2);
+        assertEquals(RingFile.TYPE_EVENT, event.type);
+        assertEquals(1, event.code);
+        assertEquals(42, event.args[0]);
+        assertEquals(-7, event.args[1]);
+        assertTrue(records.get(0).position < records.get(1).position);
+        assertTrue(records.get(1).position < records.get(2).position);
+    }
+
+    @Test
+    public void recordsAreDumpedAsText() throws IOException {
+        RingFile ring = RingFile.open(file, CAPACITY);
+        ring.log(WARN, "Tag", "Waited %d ms", 1, 250, 0);
+        ring.log(6, "Tag", "Bad format %s %d", 1, 3, 0);
+        ring.event(1, 42, 7);
+        ring.event(9, 1, 2);
+
+        StringWriter out = new StringWriter();
+        for (RingFile.Record record : RingFile.read(file)) record.dump(out, EVENT_FORMATS);
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0], lines[0].endsWith(" W/Tag: Waited 250 ms"));
+        assertTrue(lines[1], lines[1].endsWith(" E/Tag: Bad format %s %d [3]"));
+        assertTrue(lines[2], lines[2].endsWith(" EVENT FIRED task=42 late_ms=7"));
+        assertTrue(lines[3], lines[3].endsWith(" EVENT EVENT_9 1 2"));
+    }
+
+    @Test
+    public void longTagAndMessageAreTruncated() throws IOException {
+        RingFile ring = RingFile.open(file, CAPACITY);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++) text.append('\u20ac');
+        ring.log(WARN, text.toString(), text.toString(), 0, 0, 0);
+
+        RingFile.Record record = RingFile.read(file).get(0);
+        assertEquals(RingFile.MAX_TAG_BYTES / 3, record.tag.length());
+        assertEquals(RingFile.MAX_MESSAGE_BYTES / 3, record.message.length());
+    }
+
+    @Test
+    public void wrappedRingKeepsNewestRecords() throws IOException {
+        RingFile ring = RingFile.open(file, CAPACITY);
+        int count = 1000;
+        for (int i = 0; i < count; i++) ring.event(1, i, 0);
+        assertTrue(ring.getPosition() > 2 * CAPACITY);
+
+        List<RingFile.Record> records = RingFile.read(file);
+        assertTrue(records.size() > 10);
+        for (int i = 0; i < records.size(); i++)
+            assertEquals(count - records.size() + i, records.get(i).args[0]);
+    }
+
+    @Test
+    public void reopenedRingKeepsRecordsAndAppends() throws IOException {
+        RingFile ring = RingFile.open(file, CAPACITY);
+        for (int i = 0; i < 100; i++) ring.event(1, i, 0);
+        long position = ring.getPosition();
+
+        RingFile reopened = RingFile.open(file, CAPACITY);
+        assertEquals(position, reopened.getPosition());
+        reopened.event(1, 100, 0);
+        List<RingFile.Record> records = RingFile.read(file);
+        RingFile.Record last = records.get(records.size() - 1);
+        assertEquals(100, last.args[0]);
+        assertEquals(99, records.get(records.size() - 2).args[0]);
+    }
+
+    @Test
+    public void ringWithOtherCapacityIsCreatedAgain() throws IOException {
+        RingFile.open(file, CAPACITY).event(1, 1, 1);
+        RingFile ring = RingFile.open(file, 2 * CAPACITY);
+        assertEquals(0, ring.getPosition());
+        assertEquals(0, RingFile.read(file).size());
+    }
+
+    @Test
+    public void corruptedRecordIsSkipped() throws IOException {
+        RingFile ring = RingFile.open(file, CAPACITY);
+        ring.log(WARN, "Tag", "First", 0, 0, 0);
+        long second = ring.getPosition();
+        ring.log(WARN, "Tag", "Second message", 0, 0, 0);
+        ring.log(WARN, "Tag", "Third", 0, 0, 0);
+
+        // Damage a byte of second message as if process died while writing it
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.seek(64 + second + 32 + 5);
+            raf.write('x');
+        }
+        List<RingFile.Record> records = RingFile.read(file);
+        assertEquals(2, records.size());
+        assertEquals("First", records.get(0).message);
+        assertEquals("Third", records.get(1).message);
+    }
+
+    @Test
+    public void concurrentWritersDoNotCorruptRecords() throws Exception {
+        // Ring holds all records, so none of them may be lost
+        final RingFile ring = RingFile.open(file, 128 * CAPACITY);
+        final int threads = 4;
+        final int perThread = 2000;
+        Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int writer = t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++)
+                    ring.log(WARN, "Writer" + writer, "Message %d", 1, i, 0);
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) writer.join();
+
+        List<RingFile.Record> records = RingFile.read(file);
+        assertEquals(threads * perThread, records.size());
+        long[] last = new long[threads];
+        for (int t = 0; t < threads; t++) last[t] = -1;
+        for (RingFile.Record record : records) {
+            int writer = record.tag.charAt(record.tag.length() - 1) - '0';
+            assertEquals("Message %d", record.message);
+            // Records of a thread are in the order it wrote them
+            assertTrue(record.args[0] > last[writer]);
+            last[writer] = record.args[0];
+        }
+        for (int t = 0; t < threads; t++) assertEquals(perThread - 1, last[t]);
+    }
+}
@@ -0,0 +1,85 @@
+package com.cod3rboy.routinetask.utilities;
+
+import com.cod3rboy.routinetask.Measurement;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Microbenchmark of {@link DateFormats} against creating a SimpleDateFormat per call, which was
+ * done before, for chart labels of a year of statistics and today's date string. It reports time
+ * and allocated bytes per operation and does not assert on them.
+ */
+@Ignore("Benchmark, run manually")
+public class DateFormatsBenchmark {
+    private static final String CHART_PATTERN = "dd MMM yyyy";
+    private static final int DAYS = 365;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+
+    @Test
+    public void benchmarkChartLabels() {
+        int start = EpochDay.today() - DAYS;
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += labelsPerCall(start);
+            sink += labelsCached(start);
+        }
+        Measurement perCall = new Measurement();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) sink += labelsPerCall(start);
+        perCall.stop();
+        Measurement cached = new Measurement();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) sink += labelsCached(start);
+        cached.stop();
+        report("Chart labels", perCall, cached, (double) DAYS * MEASURED_ROUNDS, sink);
+    }
+
+    @Test
+    public void benchmarkTodayDate() {
+        int operations = 100000;
+        long sink = 0;
+        for (int i = 0; i < operations; i++) {
+            sink += todayPerCall().length();
+            sink += DateFormats.today().length();
+        }
+        Measurement perCall = new Measurement();
+        for (int i = 0; i < operations; i++) sink += todayPerCall().length();
+        perCall.stop();
+        Measurement cached = new Measurement();
+        for (int i = 0; i < operations; i++) sink += DateFormats.today().length();
+        cached.stop();
+        report("Today date", perCall, cached, operations, sink);
+    }
+
+    private static long labelsPerCall(int start) {
+        long sum = 0;
+        for (int day = start; day < start + DAYS; day++) {
+            SimpleDateFormat format = new SimpleDateFormat(CHART_PATTERN, Locale.getDefault());
+            sum += format.format(new Date(EpochDay.toMillis(day))).length();
+        }
+        return sum;
+    }
+
+    private static long labelsCached(int start) {
+        long sum = 0;
+        for (int day = start; day < start + DAYS; day++)
+            sum += DateFormats.formatEpochDay(day, CHART_PATTERN).length();
+        return sum;
+    }
+
+    private static String todayPerCall() {
+        return new SimpleDateFormat(DateFormats.TODAY_DATE_FORMAT).format(Calendar.getInstance().getTime());
+    }
+
+    private static void report(String name, Measurement perCall, Measurement cached, double operations, long sink) {
+        System.out.println(String.format(Locale.US,
+                "%s: SimpleDateFormat per call %.1f ns/op %.0f B/op, DateFormats %.1f ns/op %.0f B/op (%d)",
+                name, perCall.nanosPer(operations), perCall.bytesPer(operations),
+                cached.nanosPer(operations), cached.bytesPer(operations), sink & 1));
+    }
+}
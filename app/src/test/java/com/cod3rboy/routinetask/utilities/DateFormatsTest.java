@@ -0,0 +1,83 @@
+package com.cod3rboy.routinetask.utilities;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class DateFormatsTest {
+    private static final String[] PATTERNS = {"EEE, dd MMMM yyyy", "dd MMM yyyy", "yyyy-MM-dd HH:mm:ss", "hh:mm aa"};
+
+    @Test
+    public void format_matchesSimpleDateFormat() throws Exception {
+        long millis = 1600000000000L;
+        for (String pattern : PATTERNS) {
+            assertEquals(new SimpleDateFormat(pattern, Locale.getDefault()).format(new Date(millis)),
+                    DateFormats.format(millis, pattern));
+            Date parsed = DateFormats.parse(DateFormats.format(millis, pattern), pattern);
+            assertEquals(new SimpleDateFormat(pattern, Locale.getDefault()).format(parsed), DateFormats.format(parsed, pattern));
+        }
+    }
+
+    @Test
+    public void formatEpochDay_matchesSimpleDateFormatAndIsCached() {
+        int start = EpochDay.of(2019, 12, 1);
+        for (String pattern : PATTERNS) {
+            SimpleDateFormat reference = new SimpleDateFormat(pattern, Locale.getDefault());
+            // More days than cache slots so that days evict each other
+            for (int day = start; day < start + 1200; day++) {
+                String text = DateFormats.formatEpochDay(day, pattern);
+                assertEquals(reference.format(new Date(EpochDay.toMillis(day))), text);
+                assertSame(text, DateFormats.formatEpochDay(day, pattern));
+            }
+        }
+    }
+
+    @Test
+    public void today_changesAtLocalMidnight() {
+        int day = EpochDay.of(2021, 3, 14);
+        long midnight = EpochDay.toMillis(day + 1);
+        SimpleDateFormat reference = new SimpleDateFormat(DateFormats.TODAY_DATE_FORMAT, Locale.getDefault());
+        String today = DateFormats.today(midnight - 1);
+        assertEquals(reference.format(new Date(midnight - 1)), today);
+        assertSame(today, DateFormats.today(EpochDay.toMillis(day)));
+        assertEquals(reference.format(new Date(midnight)), DateFormats.today(midnight));
+        assertEquals(today, DateFormats.today(midnight - 1));
+    }
+
+    @Test
+    public void formatters_followDefaultLocale() {
+        Locale defaultLocale = Locale.getDefault();
+        long millis = EpochDay.toMillis(EpochDay.of(2020, 5, 4));
+        try {
+            Locale.setDefault(Locale.US);
+            assertEquals("Mon, 04 May", DateFormats.today(millis));
+            assertEquals("Mon, 04 May 2020", DateFormats.formatEpochDay(EpochDay.of(2020, 5, 4), "EEE, dd MMMM yyyy"));
+            Locale.setDefault(Locale.FRANCE);
+            assertEquals(new SimpleDateFormat(DateFormats.TODAY_DATE_FORMAT, Locale.FRANCE).format(new Date(millis)),
+                    DateFormats.today(millis));
+            assertEquals(new SimpleDateFormat("EEE, dd MMMM yyyy", Locale.FRANCE).format(new Date(millis)),
+                    DateFormats.formatEpochDay(EpochDay.of(2020, 5, 4), "EEE, dd MMMM yyyy"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    public void get_returnsFormatterOfCallingThread() throws Exception {
+        String pattern = "dd MMM yyyy";
+        SimpleDateFormat format = DateFormats.get(pattern);
+        assertSame(format, DateFormats.get(pattern));
+        AtomicReference<SimpleDateFormat> otherFormat = new AtomicReference<>();
+        Thread thread = new Thread(() -> otherFormat.set(DateFormats.get(pattern)));
+        thread.start();
+        thread.join();
+        assertNotSame(format, otherFormat.get());
+    }
+}
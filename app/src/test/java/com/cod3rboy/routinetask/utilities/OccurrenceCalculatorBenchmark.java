@@ -0,0 +1,80 @@
+package com.cod3rboy.routinetask.utilities;
+
+import com.cod3rboy.routinetask.Measurement;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Microbenchmark of {@link OccurrenceCalculator} against the Calendar based computation which was
+ * used by AlarmScheduler before, over a bulk reschedule of reminders with random masks and times.
+ * It reports time per occurrence and does not assert on timings.
+ */
+@Ignore("Benchmark, run manually")
+public class OccurrenceCalculatorBenchmark {
+    private static final int REMINDERS = 1000;
+    private static final int WARMUP_ROUNDS = 200;
+    private static final int MEASURED_ROUNDS = 500;
+
+    @Test
+    public void benchmarkBulkReschedule() {
+        // Calendar computes in default zone
+        TimeZone zone = TimeZone.getDefault();
+        Random random = new Random(7);
+        int[] masks = new int[REMINDERS];
+        int[] minutes = new int[REMINDERS];
+        for (int i = 0; i < REMINDERS; i++) {
+            masks[i] = 1 + random.nextInt(WeekdayMask.ALL);
+            minutes[i] = random.nextInt(OccurrenceCalculator.MINUTES_IN_DAY);
+        }
+        long now = System.currentTimeMillis();
+
+        long sink = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            sink += runCalculator(masks, minutes, now, zone);
+            sink += runCalendar(masks, minutes, now);
+        }
+        Measurement calculator = new Measurement();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) sink += runCalculator(masks, minutes, now, zone);
+        calculator.stop();
+        Measurement calendar = new Measurement();
+        for (int round = 0; round < MEASURED_ROUNDS; round++) sink += runCalendar(masks, minutes, now);
+        calendar.stop();
+
+        double operations = (double) REMINDERS * MEASURED_ROUNDS;
+        System.out.println(String.format(Locale.US, "OccurrenceCalculator: %.1f ns/op, Calendar: %.1f ns/op (%d)",
+                calculator.nanosPer(operations), calendar.nanosPer(operations), sink & 1));
+    }
+
+    private static long runCalculator(int[] masks, int[] minutes, long now, TimeZone zone) {
+        long sum = 0;
+        for (int i = 0; i < masks.length; i++)
+            sum += OccurrenceCalculator.nextOccurrence(masks[i], minutes[i], now, zone);
+        return sum;
+    }
+
+    private static long runCalendar(int[] masks, int[] minutes, long now) {
+        long sum = 0;
+        for (int i = 0; i < masks.length; i++) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(now);
+            calendar.set(Calendar.HOUR_OF_DAY, minutes[i] / 60);
+            calendar.set(Calendar.MINUTE, minutes[i] % 60);
+            calendar.set(Calendar.SECOND, 0);
+            calendar.set(Calendar.MILLISECOND, 0);
+            int today = calendar.get(Calendar.DAY_OF_WEEK);
+            if (!WeekdayMask.contains(masks[i], today) || calendar.getTimeInMillis() <= now) {
+                do {
+                    calendar.add(Calendar.DAY_OF_WEEK, 1);
+                } while (!WeekdayMask.contains(masks[i], calendar.get(Calendar.DAY_OF_WEEK)));
+            }
+            sum += calendar.getTimeInMillis();
+        }
+        return sum;
+    }
+}
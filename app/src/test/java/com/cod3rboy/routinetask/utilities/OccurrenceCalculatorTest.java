@@ -0,0 +1,197 @@
+package com.cod3rboy.routinetask.utilities;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares occurrences computed by {@link OccurrenceCalculator} with occurrences found by walking
+ * dates with java.time, which resolves gaps and overlaps the same way, across every weekday mask
+ * and times around daylight saving transitions of several zones.
+ */
+public class OccurrenceCalculatorTest {
+    private static final String[] ZONES = {
+            "UTC",
+            "America/New_York", // 1 hour transitions at 02:00
+            "Europe/London", // 1 hour transitions at 01:00 and 02:00
+            "Australia/Lord_Howe", // 30 minutes transitions
+            "America/Sao_Paulo", // transitions at midnight in 2018
+            "Asia/Kolkata", // half hour offset without transitions
+            "Pacific/Apia", // skipped 2011-12-30 entirely
+    };
+
+    private static final long MINUTE = 60 * 1000L;
+    private static final long HOUR = 60 * MINUTE;
+
+    private static final int[] MINUTES = {0, 1, 30, 59, 60, 90, 119, 120, 121, 150, 179, 180, 181, 720, 1380, 1439};
+
+    @Test
+    public void nextOccurrence_matchesReferenceForAllMasksAroundTransitions() {
+        for (String zoneId : ZONES) {
+            TimeZone zone = TimeZone.getTimeZone(zoneId);
+            for (long now : sampleTimes(ZoneId.of(zoneId))) {
+                for (int minute : MINUTES) {
+                    Candidates candidates = new Candidates(minute, now, ZoneId.of(zoneId));
+                    for (int mask = 1; mask <= WeekdayMask.ALL; mask++) {
+                        assertOccurrence(candidates.next(mask), OccurrenceCalculator.nextOccurrence(mask, minute, now, zone),
+                                zoneId, mask, minute, now);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void nextOccurrence_matchesReferenceForAllMinutesOfDay() {
+        Random random = new Random(42);
+        int[] masks = {WeekdayMask.ALL, WeekdayMask.of(Calendar.SUNDAY), 0x2A};
+        for (String zoneId : ZONES) {
+            TimeZone zone = TimeZone.getTimeZone(zoneId);
+            List<Long> times = sampleTimes(ZoneId.of(zoneId));
+            for (int minute = 0; minute < OccurrenceCalculator.MINUTES_IN_DAY; minute++) {
+                long now = times.get(random.nextInt(times.size()));
+                for (int mask : masks) {
+                    assertOccurrence(new Candidates(minute, now, ZoneId.of(zoneId)).next(mask),
+                            OccurrenceCalculator.nextOccurrence(mask, minute, now, zone), zoneId, mask, minute, now);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void nextOccurrence_isStrictlyAfterNow() {
+        TimeZone zone = TimeZone.getTimeZone("UTC");
+        long now = ZonedDateTime.of(2021, 3, 10, 9, 30, 0, 0, ZoneId.of("UTC")).toInstant().toEpochMilli();
+        // Wednesday 09:30 is not after itself so next Wednesday is returned
+        int wednesday = WeekdayMask.of(Calendar.WEDNESDAY);
+        assertEquals(now + 7 * 24 * HOUR, OccurrenceCalculator.nextOccurrence(wednesday, 9 * 60 + 30, now, zone));
+        assertEquals(now + MINUTE, OccurrenceCalculator.nextOccurrence(wednesday, 9 * 60 + 31, now + 1, zone));
+    }
+
+    @Test
+    public void nextOccurrence_shiftsTimeInGapForward() {
+        ZoneId zoneId = ZoneId.of("America/New_York");
+        // Clocks jumped from 02:00 to 03:00 on 2021-03-14
+        long now = ZonedDateTime.of(2021, 3, 14, 0, 0, 0, 0, zoneId).toInstant().toEpochMilli();
+        long expected = ZonedDateTime.of(2021, 3, 14, 3, 30, 0, 0, zoneId).toInstant().toEpochMilli();
+        assertEquals(expected, OccurrenceCalculator.nextOccurrence(WeekdayMask.ALL, 2 * 60 + 30, now, TimeZone.getTimeZone(zoneId)));
+    }
+
+    @Test
+    public void nextOccurrence_firesOverlapOnlyAtEarlierInstant() {
+        ZoneId zoneId = ZoneId.of("America/New_York");
+        TimeZone zone = TimeZone.getTimeZone(zoneId);
+        // Clocks went back from 02:00 to 01:00 on 2021-11-07 so 01:30 occurred twice
+        LocalDateTime overlap = LocalDateTime.of(2021, 11, 7, 1, 30);
+        long earlier = ZonedDateTime.ofLocal(overlap, zoneId, null).withEarlierOffsetAtOverlap().toInstant().toEpochMilli();
+        long later = ZonedDateTime.ofLocal(overlap, zoneId, null).withLaterOffsetAtOverlap().toInstant().toEpochMilli();
+        long dayBefore = earlier - 12 * HOUR;
+        assertEquals(earlier, OccurrenceCalculator.nextOccurrence(WeekdayMask.ALL, 90, dayBefore, zone));
+        // Once earlier instant is passed, next occurrence is on the next day instead of the later instant
+        long nextDay = ZonedDateTime.of(2021, 11, 8, 1, 30, 0, 0, zoneId).toInstant().toEpochMilli();
+        assertEquals(nextDay, OccurrenceCalculator.nextOccurrence(WeekdayMask.ALL, 90, earlier, zone));
+        assertEquals(nextDay, OccurrenceCalculator.nextOccurrence(WeekdayMask.ALL, 90, later - 1, zone));
+    }
+
+    @Test
+    public void nextOccurrence_returnsMinusOneForEmptyMask() {
+        assertEquals(-1, OccurrenceCalculator.nextOccurrence(WeekdayMask.NONE, 0, 0, TimeZone.getTimeZone("UTC")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nextOccurrence_rejectsMinuteOutOfRange() {
+        OccurrenceCalculator.nextOccurrence(WeekdayMask.ALL, OccurrenceCalculator.MINUTES_IN_DAY, 0, TimeZone.getTimeZone("UTC"));
+    }
+
+    @Test
+    public void occurrenceOnDay_andStartOfNextDay_matchReference() {
+        for (String zoneId : ZONES) {
+            ZoneId id = ZoneId.of(zoneId);
+            TimeZone zone = TimeZone.getTimeZone(zoneId);
+            for (long time : sampleTimes(id)) {
+                LocalDate date = Instant.ofEpochMilli(time).atZone(id).toLocalDate();
+                assertEquals(zoneId + " " + Instant.ofEpochMilli(time), date.toEpochDay(), OccurrenceCalculator.localDay(time, zone));
+                assertEquals(zoneId + " " + Instant.ofEpochMilli(time),
+                        date.plusDays(1).atStartOfDay(id).toInstant().toEpochMilli(),
+                        OccurrenceCalculator.startOfNextDay(time, zone));
+                for (int minute : MINUTES) {
+                    assertEquals(zoneId + " " + Instant.ofEpochMilli(time) + " minute " + minute,
+                            ZonedDateTime.of(date, LocalTime.of(minute / 60, minute % 60), id).toInstant().toEpochMilli(),
+                            OccurrenceCalculator.occurrenceOnDay(time, minute, zone));
+                }
+            }
+        }
+    }
+
+    // Message is built only on failure as the exhaustive tests compare millions of occurrences
+    private static void assertOccurrence(long expected, long actual, String zoneId, int mask, int minute, long now) {
+        if (expected != actual) {
+            fail(zoneId + " mask " + mask + " minute " + minute + " now " + Instant.ofEpochMilli(now)
+                    + " expected " + Instant.ofEpochMilli(expected) + " but was " + Instant.ofEpochMilli(actual));
+        }
+    }
+
+    /**
+     * Occurrences of a time of day on two weeks of dates from the local date of now, from which next
+     * occurrence of any mask is found by walking dates.
+     */
+    private static class Candidates {
+        private final long now;
+        private final long[] occurrences = new long[15];
+        private final int[] dayBits = new int[15];
+
+        Candidates(int minute, long now, ZoneId zoneId) {
+            this.now = now;
+            LocalDate date = Instant.ofEpochMilli(now).atZone(zoneId).toLocalDate();
+            LocalTime time = LocalTime.of(minute / 60, minute % 60);
+            for (int i = 0; i < occurrences.length; i++) {
+                LocalDate day = date.plusDays(i);
+                occurrences[i] = ZonedDateTime.of(day, time, zoneId).toInstant().toEpochMilli();
+                // Bit 0 of mask is Sunday whose value is 7
+                dayBits[i] = 1 << (day.getDayOfWeek().getValue() % 7);
+            }
+        }
+
+        long next(int mask) {
+            for (int i = 0; i < occurrences.length; i++) {
+                if ((mask & dayBits[i]) != 0 && occurrences[i] > now) return occurrences[i];
+            }
+            throw new AssertionError("No occurrence within two weeks");
+        }
+    }
+
+    /**
+     * Times every hour within a day around every transition of zone between 2011 and 2019, every
+     * 10 minutes within 90 minutes of transition, plus a few times spread over a week.
+     */
+    private static List<Long> sampleTimes(ZoneId zoneId) {
+        List<Long> times = new ArrayList<>();
+        long start = ZonedDateTime.of(2011, 1, 1, 0, 0, 0, 0, zoneId).toInstant().toEpochMilli();
+        long end = ZonedDateTime.of(2019, 1, 1, 0, 0, 0, 0, zoneId).toInstant().toEpochMilli();
+        ZoneRules rules = zoneId.getRules();
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(start));
+        while (transition != null && transition.toEpochSecond() * 1000 < end) {
+            long at = transition.toEpochSecond() * 1000;
+            for (long t = at - HOUR * 12; t <= at + HOUR * 12; t += HOUR) times.add(t);
+            for (long t = at - MINUTE * 90; t <= at + MINUTE * 90; t += MINUTE * 10) times.add(t);
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        for (int hour = 0; hour < 7 * 24; hour += 7) times.add(start + hour * HOUR + 17);
+        return times;
+    }
+}
@@ -0,0 +1,83 @@
+package com.cod3rboy.routinetask.utilities;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class TimeTest {
+
+    @Test
+    public void from24TimeFormat_parsesEveryMinuteOfDayToCanonicalTime() {
+        for (int minuteOfDay = 0; minuteOfDay < Time.MINUTES_IN_DAY; minuteOfDay++) {
+            Time time = Time.ofMinuteOfDay(minuteOfDay);
+            String text = String.format(Locale.US, "%02d:%02d", minuteOfDay / 60, minuteOfDay % 60);
+            assertEquals(text, time.to24TimeFormat());
+            assertSame(time, Time.from24TimeFormat(text));
+            assertSame(time, Time.from24TimeFormat(("  " + text + "  ").toCharArray(), 2, 7));
+            assertSame(time, Time.of(minuteOfDay / 60, minuteOfDay % 60));
+            assertEquals(minuteOfDay / 60, time.getHours());
+            assertEquals(minuteOfDay % 60, time.getMinutes());
+        }
+    }
+
+    @Test
+    public void from24TimeFormat_acceptsSingleDigitsAndTrailingText() {
+        assertSame(Time.of(9, 5), Time.from24TimeFormat("9:5"));
+        assertSame(Time.of(9, 5), Time.from24TimeFormat("09:05:59"));
+        assertSame(Time.of(23, 59), Time.from24TimeFormat("23:59 pm"));
+    }
+
+    @Test
+    public void from24TimeFormat_returnsMidNightForInvalidTime() {
+        String[] invalid = {null, "", "12", "12:", ":30", "24:00", "12:60", "ab:cd", "123:45", "1 2:30", "-1:30"};
+        for (String text : invalid) assertSame(text, Time.of(0, 0), Time.from24TimeFormat(text));
+    }
+
+    @Test
+    public void fromISO8601DateFormat_parsesTimePart() {
+        assertSame(Time.of(18, 7), Time.fromISO8601DateFormat("2019-08-21 18:07:33"));
+        assertSame(Time.of(0, 0), Time.fromISO8601DateFormat("2019-08-21"));
+        assertSame(Time.of(0, 0), Time.fromISO8601DateFormat("2019-08-21T18:07:33"));
+        assertSame(Time.of(0, 0), Time.fromISO8601DateFormat(null));
+    }
+
+    @Test
+    public void to12TimeFormat_matchesSimpleDateFormatAndIsReused() {
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            for (Locale locale : new Locale[]{Locale.US, Locale.GERMANY}) {
+                Locale.setDefault(locale);
+                SimpleDateFormat reference = new SimpleDateFormat(Time.TIME_FORMAT_12_HOUR, locale);
+                Calendar calendar = Calendar.getInstance();
+                for (int minuteOfDay = 0; minuteOfDay < Time.MINUTES_IN_DAY; minuteOfDay++) {
+                    Time time = Time.ofMinuteOfDay(minuteOfDay);
+                    calendar.set(Calendar.HOUR_OF_DAY, time.getHours());
+                    calendar.set(Calendar.MINUTE, time.getMinutes());
+                    String text = time.to12TimeFormat();
+                    assertEquals(reference.format(calendar.getTime()).toLowerCase(locale), text);
+                    assertSame(text, time.to12TimeFormat());
+                }
+            }
+            Locale.setDefault(Locale.US);
+            assertEquals("12:00 am", Time.of(0, 0).to12TimeFormat());
+            assertEquals("01:30 pm", Time.of(13, 30).to12TimeFormat());
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void of_rejectsHoursOutOfRange() {
+        Time.of(24, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ofMinuteOfDay_rejectsMinuteOutOfRange() {
+        Time.ofMinuteOfDay(-1);
+    }
+}